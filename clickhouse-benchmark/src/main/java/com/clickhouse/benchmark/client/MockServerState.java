@@ -0,0 +1,36 @@
+package com.clickhouse.benchmark.client;
+
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import com.clickhouse.benchmark.mock.MockData;
+import com.clickhouse.benchmark.mock.MockServer;
+
+@State(Scope.Benchmark)
+public class MockServerState {
+    @Param(value = { "100000" })
+    private int rows;
+
+    private MockServer server;
+
+    @Setup(Level.Trial)
+    public void doSetup() throws IOException {
+        server = new MockServer(new MockData(rows), Integer.parseInt(System.getProperty("serverThreads", "0")));
+    }
+
+    @TearDown(Level.Trial)
+    public void doTearDown() {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+
+    public MockServer getServer() {
+        return server;
+    }
+}
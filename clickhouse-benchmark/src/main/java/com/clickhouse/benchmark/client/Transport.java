@@ -0,0 +1,35 @@
+package com.clickhouse.benchmark.client;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.Future;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseResponse;
+
+/**
+ * Client-side transport benchmarks against in-process
+ * {@link com.clickhouse.benchmark.mock.MockServer}, so the numbers reflect
+ * nothing but the overhead of client.
+ */
+public class Transport extends ClientBenchmark {
+    @Benchmark
+    public boolean ping(TransportState state) {
+        return state.getClient().ping(state.getServer(), 3000);
+    }
+
+    @Benchmark
+    public void query(Blackhole blackhole, TransportState state) throws Throwable {
+        Future<ClickHouseResponse> future = state.newRequest().format(state.getFormat())
+                .query("select i, s from mock").execute();
+        state.consume(blackhole, future);
+    }
+
+    @Benchmark
+    public void insert(Blackhole blackhole, TransportState state) throws Throwable {
+        try (ClickHouseResponse resp = state.newRequest().write().format(ClickHouseFormat.RowBinary)
+                .query("insert into mock").data(new ByteArrayInputStream(state.getInsertData())).send().get()) {
+            blackhole.consume(resp.getSummary());
+        }
+    }
+}
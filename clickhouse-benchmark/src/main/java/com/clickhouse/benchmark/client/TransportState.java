@@ -0,0 +1,125 @@
+package com.clickhouse.benchmark.client;
+
+import java.util.concurrent.Future;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import com.clickhouse.benchmark.BaseState;
+import com.clickhouse.benchmark.Constants;
+import com.clickhouse.client.ClickHouseClient;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseNodeSelector;
+import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseRequest;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.config.ClickHouseClientOption;
+
+@State(Scope.Thread)
+public class TransportState extends BaseState {
+    @Param(value = { "HTTP", "GRPC" })
+    private String protocol;
+
+    @Param(value = { Constants.REUSE_CONNECTION, Constants.NEW_CONNECTION })
+    private String connection;
+
+    @Param(value = { "RowBinaryWithNamesAndTypes", "TabSeparatedWithNamesAndTypes" })
+    private String format;
+
+    @Param(value = { "true", "false" })
+    private String compression;
+
+    @Param(value = { "async", "sync" })
+    private String mode;
+
+    private ClickHouseNode server;
+    private ClickHouseClient client;
+    private byte[] insertData;
+
+    private ClickHouseClient createClient() {
+        boolean compress = Boolean.parseBoolean(compression);
+        return ClickHouseClient.builder()
+                .nodeSelector(ClickHouseNodeSelector.of(ClickHouseProtocol.valueOf(protocol)))
+                .option(ClickHouseClientOption.COMPRESS, compress)
+                .option(ClickHouseClientOption.DECOMPRESS, compress)
+                .option(ClickHouseClientOption.ASYNC, "async".equals(mode)).build();
+    }
+
+    @Setup(Level.Trial)
+    public void doSetup(MockServerState serverState) throws Exception {
+        server = serverState.getServer().getNode(ClickHouseProtocol.valueOf(protocol));
+        insertData = serverState.getServer().getData().getPayload(ClickHouseFormat.RowBinary, false);
+        client = createClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void doTearDown() throws Exception {
+        dispose();
+
+        if (client != null) {
+            try {
+                client.close();
+            } catch (Exception e) {
+                // ignore
+            } finally {
+                client = null;
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void prepare() {
+        if (!Constants.REUSE_CONNECTION.equalsIgnoreCase(connection)) {
+            if (client != null) {
+                try {
+                    client.close();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+            client = createClient();
+        }
+    }
+
+    public ClickHouseFormat getFormat() {
+        return ClickHouseFormat.valueOf(format);
+    }
+
+    public byte[] getInsertData() {
+        return insertData;
+    }
+
+    public ClickHouseNode getServer() {
+        return server;
+    }
+
+    public ClickHouseClient getClient() {
+        return client;
+    }
+
+    public ClickHouseRequest<?> newRequest() {
+        return client.connect(server);
+    }
+
+    public void consume(Blackhole blackhole, Future<ClickHouseResponse> future) throws InterruptedException {
+        consume(blackhole, () -> {
+            try (ClickHouseResponse resp = future.get()) {
+                for (ClickHouseRecord rec : resp.records()) {
+                    for (ClickHouseValue val : rec) {
+                        blackhole.consume(val.asObject());
+                    }
+                }
+
+                return resp.getSummary();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.clickhouse.benchmark.data;
+
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.clickhouse.client.data.ClickHouseCityHash;
+
+public class CityHashBenchmark extends DataBenchmark {
+    @State(Scope.Thread)
+    public static class HashState {
+        @Param(value = { "8", "64", "4096", "1048576" })
+        private int length;
+
+        public byte[] bytes;
+
+        @Setup(Level.Trial)
+        public void setupSamples() {
+            bytes = new byte[length];
+            new Random(length).nextBytes(bytes);
+        }
+    }
+
+    @Benchmark
+    public long[] cityHash128(HashState state) {
+        return ClickHouseCityHash.cityHash128(state.bytes, 0, state.bytes.length);
+    }
+}
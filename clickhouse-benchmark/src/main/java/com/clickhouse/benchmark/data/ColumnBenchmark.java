@@ -0,0 +1,28 @@
+package com.clickhouse.benchmark.data;
+
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import com.clickhouse.client.ClickHouseColumn;
+
+public class ColumnBenchmark extends DataBenchmark {
+    @State(Scope.Thread)
+    public static class ColumnState {
+        @Param(value = { "Int32", "Nullable(String)", "LowCardinality(Nullable(String))", "DateTime64(3,'UTC')",
+                "Decimal(38,10)", "Array(Array(Nullable(Int64)))",
+                "Array(Tuple(String, Map(String, Nullable(Decimal(38, 10)))))" })
+        public String type;
+    }
+
+    @Benchmark
+    public ClickHouseColumn of(ColumnState state) {
+        return ClickHouseColumn.of("c", state.type);
+    }
+
+    @Benchmark
+    public List<ClickHouseColumn> parse(ColumnState state) {
+        return ClickHouseColumn.parse("a " + state.type + ", b " + state.type);
+    }
+}
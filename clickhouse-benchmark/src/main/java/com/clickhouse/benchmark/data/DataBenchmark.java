@@ -0,0 +1,49 @@
+package com.clickhouse.benchmark.data;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class for server-free benchmarking of codecs, data processors and
+ * parsers. Everything runs on synthetic in-memory data, so neither Docker nor
+ * ClickHouse server is required. Add {@code -prof gc} to the command line to
+ * get allocation rate along with throughput.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, timeUnit = TimeUnit.SECONDS, time = 1)
+@Measurement(iterations = 5, timeUnit = TimeUnit.SECONDS, time = 1)
+@Fork(value = 2)
+@Threads(value = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public abstract class DataBenchmark {
+    /**
+     * Output stream discards everything but the byte count.
+     */
+    static final class DiscardingOutputStream extends OutputStream {
+        private long count;
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.clickhouse.benchmark.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.clickhouse.client.data.ClickHouseLZ4InputStream;
+import com.clickhouse.client.data.ClickHouseLZ4OutputStream;
+
+public class Lz4Benchmark extends DataBenchmark {
+    @State(Scope.Thread)
+    public static class Lz4State {
+        @Param(value = { "65536", "1048576" })
+        private int blockSize;
+
+        // text is compressible while random is not
+        @Param(value = { "text", "random" })
+        private String data;
+
+        public byte[] uncompressed;
+        public byte[] compressed;
+        public byte[] buffer;
+
+        @Setup(Level.Trial)
+        public void setupSamples() throws IOException {
+            int size = 8 * 1024 * 1024;
+            if ("random".equals(data)) {
+                uncompressed = new byte[size];
+                new Random(size).nextBytes(uncompressed);
+            } else {
+                StringBuilder builder = new StringBuilder(size);
+                for (int i = 0; builder.length() < size; i++) {
+                    builder.append(i).append('\t').append("value-").append(i % 1000).append('\n');
+                }
+                builder.setLength(size);
+                uncompressed = builder.toString().getBytes(StandardCharsets.US_ASCII);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+            try (ClickHouseLZ4OutputStream lz4Out = new ClickHouseLZ4OutputStream(out, blockSize)) {
+                lz4Out.write(uncompressed);
+                lz4Out.flush();
+            }
+            compressed = out.toByteArray();
+            buffer = new byte[8192];
+        }
+    }
+
+    @Benchmark
+    public long compress(Lz4State state) throws IOException {
+        DiscardingOutputStream out = new DiscardingOutputStream();
+        try (ClickHouseLZ4OutputStream lz4Out = new ClickHouseLZ4OutputStream(out, state.blockSize)) {
+            lz4Out.write(state.uncompressed);
+            lz4Out.flush();
+        }
+        return out.getCount();
+    }
+
+    @Benchmark
+    public long decompress(Lz4State state) throws IOException {
+        long count = 0L;
+        try (ClickHouseLZ4InputStream in = new ClickHouseLZ4InputStream(new ByteArrayInputStream(state.compressed))) {
+            int read = 0;
+            while ((read = in.read(state.buffer)) != -1) {
+                count += read;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long readByte(Lz4State state) throws IOException {
+        long sum = 0L;
+        try (ClickHouseLZ4InputStream in = new ClickHouseLZ4InputStream(new ByteArrayInputStream(state.compressed))) {
+            int b = 0;
+            while ((b = in.read()) != -1) {
+                sum += b;
+            }
+        }
+        return sum;
+    }
+}
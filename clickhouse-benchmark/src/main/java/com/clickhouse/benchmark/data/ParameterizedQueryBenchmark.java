@@ -0,0 +1,51 @@
+package com.clickhouse.benchmark.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseParameterizedQuery;
+
+public class ParameterizedQueryBenchmark extends DataBenchmark {
+    @State(Scope.Thread)
+    public static class QueryState {
+        @Param(value = { "1", "10", "100" })
+        private int parameters;
+
+        public ClickHouseConfig config;
+        public String sql;
+        public ClickHouseParameterizedQuery query;
+        public String[] values;
+        public StringBuilder builder;
+
+        @Setup(Level.Trial)
+        public void setupSamples() {
+            config = new ClickHouseConfig();
+            StringBuilder sb = new StringBuilder("select * from numbers(100) where 1 = 1");
+            values = new String[parameters];
+            for (int i = 0; i < parameters; i++) {
+                sb.append(" and number != {p").append(i).append(":UInt64} -- comment ").append(i).append('\n');
+                values[i] = String.valueOf(i);
+            }
+            sql = sb.toString();
+            query = ClickHouseParameterizedQuery.of(config, sql);
+            builder = new StringBuilder(sql.length() * 2);
+        }
+    }
+
+    @Benchmark
+    public ClickHouseParameterizedQuery parse(QueryState state) {
+        return ClickHouseParameterizedQuery.of(state.config, state.sql);
+    }
+
+    @Benchmark
+    public int apply(QueryState state) {
+        StringBuilder builder = state.builder;
+        builder.setLength(0);
+        state.query.apply(builder, state.values);
+        return builder.length();
+    }
+}
@@ -0,0 +1,76 @@
+package com.clickhouse.benchmark.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.clickhouse.client.ClickHouseByteBuffer;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.data.ClickHousePipedStream;
+
+public class PipedStreamBenchmark extends DataBenchmark {
+    @State(Scope.Thread)
+    public static class PipedStreamState {
+        // copy means writer copies data into its own chunks, while slice means
+        // read-only buffers are handed over to reader as-is, like gRPC output
+        @Param(value = { "copy", "slice" })
+        private String write;
+
+        public byte[] data;
+        public int sliceSize;
+
+        @Setup(Level.Trial)
+        public void setupSamples() {
+            int size = 8 * 1024 * 1024;
+            data = new byte[size];
+            new Random(size).nextBytes(data);
+            sliceSize = 64 * 1024;
+        }
+
+        public ClickHouseInputStream newInput() throws IOException {
+            ClickHousePipedStream stream = new ClickHousePipedStream(8192, 0, 1000);
+            try (ClickHousePipedStream out = stream) {
+                for (int i = 0; i < data.length; i += sliceSize) {
+                    if ("slice".equals(write)) {
+                        out.write(ByteBuffer.wrap(data, i, sliceSize).asReadOnlyBuffer());
+                    } else {
+                        out.write(data, i, sliceSize);
+                    }
+                }
+            }
+            return stream.getInput();
+        }
+    }
+
+    @Benchmark
+    public long pipe(PipedStreamState state) throws IOException {
+        DiscardingOutputStream out = new DiscardingOutputStream();
+        try (ClickHouseInputStream in = state.newInput();
+                ClickHouseOutputStream output = ClickHouseOutputStream.of(out, 8192)) {
+            in.pipe(output);
+        }
+        return out.getCount();
+    }
+
+    @Benchmark
+    public long readInt32(PipedStreamState state) throws IOException {
+        long sum = 0L;
+        try (ClickHouseInputStream in = state.newInput()) {
+            for (int i = 0, len = state.data.length / 4; i < len; i++) {
+                // same as how RowBinary decodes Int32
+                ClickHouseByteBuffer buf = in.read(4);
+                byte[] bytes = buf.array();
+                int pos = buf.position();
+                sum += (0xFF & bytes[pos]) | ((0xFF & bytes[pos + 1]) << 8) | ((0xFF & bytes[pos + 2]) << 16)
+                        | (bytes[pos + 3] << 24);
+            }
+        }
+        return sum;
+    }
+}
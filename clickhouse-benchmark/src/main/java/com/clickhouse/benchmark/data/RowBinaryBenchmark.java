@@ -0,0 +1,131 @@
+package com.clickhouse.benchmark.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+
+public class RowBinaryBenchmark extends DataBenchmark {
+    @State(Scope.Thread)
+    public static class RowBinaryState {
+        @Param(value = { "Int8", "Int32", "Nullable(Int32)", "Int64", "UInt64", "Float32", "Float64",
+                "Decimal(18,4)", "String", "DateTime", "UUID", "Array(Int32)", "Array(Float32)",
+                "Map(String,Float64)" })
+        private String type;
+
+        @Param(value = { "10000" })
+        private int rows;
+
+        public ClickHouseConfig config;
+        public List<ClickHouseColumn> columns;
+        public ClickHouseValue[] values;
+        public byte[] bytes;
+
+        static Object newSample(Random random, String type, int index) {
+            switch (type) {
+                case "Int8":
+                    return (byte) random.nextInt();
+                case "Int32":
+                    return random.nextInt();
+                case "Nullable(Int32)":
+                    return index % 5 == 0 ? null : random.nextInt();
+                case "Int64":
+                case "UInt64":
+                    return random.nextLong();
+                case "Float32":
+                    return random.nextFloat();
+                case "Float64":
+                    return random.nextDouble();
+                case "Decimal(18,4)":
+                    return BigDecimal.valueOf(random.nextInt(), 4);
+                case "String":
+                    return "string value #" + random.nextInt();
+                case "DateTime":
+                    return LocalDateTime.of(2022, 1, 1, 0, 0, 0).plusSeconds(random.nextInt(100000000));
+                case "UUID":
+                    return new UUID(random.nextLong(), random.nextLong());
+                case "Array(Int32)": {
+                    int[] array = new int[16];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = random.nextInt();
+                    }
+                    return array;
+                }
+                case "Array(Float32)": {
+                    float[] array = new float[128];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = random.nextFloat();
+                    }
+                    return array;
+                }
+                case "Map(String,Float64)": {
+                    Map<String, Double> map = new LinkedHashMap<>();
+                    for (int i = 0; i < 8; i++) {
+                        map.put("key" + i, random.nextDouble());
+                    }
+                    return map;
+                }
+                default:
+                    throw new IllegalArgumentException("Unsupported type: " + type);
+            }
+        }
+
+        @Setup(Level.Trial)
+        public void setupSamples() throws IOException {
+            Random random = new Random(rows);
+            config = new ClickHouseConfig();
+            ClickHouseColumn column = ClickHouseColumn.of("c", type);
+            columns = Collections.singletonList(column);
+            values = new ClickHouseValue[rows];
+
+            ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int i = 0; i < rows; i++) {
+                values[i] = ClickHouseValues.newValue(config, column).update(newSample(random, type, i));
+                m.serialize(values[i], config, column, out);
+            }
+            bytes = out.toByteArray();
+        }
+    }
+
+    @Benchmark
+    public void read(RowBinaryState state, Blackhole consumer) throws IOException {
+        ClickHouseRowBinaryProcessor processor = new ClickHouseRowBinaryProcessor(state.config,
+                ClickHouseInputStream.of(new ByteArrayInputStream(state.bytes)), null, state.columns, null);
+        for (ClickHouseRecord r : processor.records()) {
+            consumer.consume(r.getValue(0));
+        }
+    }
+
+    @Benchmark
+    public long write(RowBinaryState state) throws IOException {
+        ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+        ClickHouseColumn column = state.columns.get(0);
+        DiscardingOutputStream out = new DiscardingOutputStream();
+        for (ClickHouseValue v : state.values) {
+            m.serialize(v, state.config, column, out);
+        }
+        return out.getCount();
+    }
+}
@@ -0,0 +1,62 @@
+package com.clickhouse.benchmark.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.jdbc.parser.ClickHouseSqlParser;
+import com.clickhouse.jdbc.parser.ClickHouseSqlStatement;
+
+public class SqlParserBenchmark extends DataBenchmark {
+    @State(Scope.Thread)
+    public static class ParserState {
+        @Param(value = { "select", "insert", "in" })
+        private String statement;
+
+        @Param(value = { "1", "1000" })
+        private int rows;
+
+        public ClickHouseConfig config;
+        public String sql;
+
+        @Setup(Level.Trial)
+        public void setupSamples() {
+            config = new ClickHouseConfig();
+            StringBuilder builder = new StringBuilder();
+            switch (statement) {
+                case "select":
+                    builder.append("select a.id, b.name, count(1) from db1.t1 a inner join db2.t2 b on a.id = b.id")
+                            .append(" where a.x > ? and b.y like 'abc%' group by a.id, b.name order by 3 desc");
+                    for (int i = 1; i < rows; i++) {
+                        builder.append(" union all select ").append(i).append(", '").append(i).append("', ?");
+                    }
+                    break;
+                case "insert":
+                    builder.append("insert into db1.t1(id, name, value) values");
+                    for (int i = 0; i < rows; i++) {
+                        builder.append(i > 0 ? "," : "").append('(').append(i).append(", 'name ").append(i)
+                                .append("', ").append(i * 1.5D).append(')');
+                    }
+                    break;
+                case "in":
+                    builder.append("select * from db1.t1 where id in (");
+                    for (int i = 0; i < rows; i++) {
+                        builder.append(i > 0 ? "," : "").append(i);
+                    }
+                    builder.append(')');
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported statement: " + statement);
+            }
+            sql = builder.toString();
+        }
+    }
+
+    @Benchmark
+    public ClickHouseSqlStatement[] parse(ParserState state) {
+        return ClickHouseSqlParser.parse(state.sql, state.config);
+    }
+}
@@ -0,0 +1,74 @@
+package com.clickhouse.benchmark.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.data.ClickHouseTabSeparatedProcessor;
+
+public class TabSeparatedBenchmark extends DataBenchmark {
+    @State(Scope.Thread)
+    public static class TabSeparatedState {
+        @Param(value = { "1", "10" })
+        private int columns;
+
+        @Param(value = { "10000" })
+        private int rows;
+
+        public ClickHouseConfig config;
+        public byte[] bytes;
+
+        @Setup(Level.Trial)
+        public void setupSamples() {
+            Random random = new Random(rows);
+            config = new ClickHouseConfig(Collections.singletonMap(ClickHouseClientOption.FORMAT,
+                    ClickHouseFormat.TabSeparatedWithNamesAndTypes), null, null, null);
+
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < columns; i++) {
+                builder.append(i > 0 ? "\t" : "").append('c').append(i);
+            }
+            builder.append('\n');
+            for (int i = 0; i < columns; i++) {
+                builder.append(i > 0 ? "\t" : "").append(i % 2 == 0 ? "Int64" : "String");
+            }
+            builder.append('\n');
+            for (int j = 0; j < rows; j++) {
+                for (int i = 0; i < columns; i++) {
+                    builder.append(i > 0 ? "\t" : "");
+                    if (i % 2 == 0) {
+                        builder.append(random.nextLong());
+                    } else {
+                        builder.append("string value #").append(random.nextInt());
+                    }
+                }
+                builder.append('\n');
+            }
+            bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public void read(TabSeparatedState state, Blackhole consumer) throws IOException {
+        ClickHouseTabSeparatedProcessor processor = new ClickHouseTabSeparatedProcessor(state.config,
+                ClickHouseInputStream.of(new ByteArrayInputStream(state.bytes)), null, null, null);
+        for (ClickHouseRecord r : processor.records()) {
+            for (int i = 0, len = r.size(); i < len; i++) {
+                consumer.consume(r.getValue(i).asString());
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.clickhouse.benchmark.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.data.BinaryStreamUtils;
+import com.clickhouse.client.data.ClickHouseLZ4OutputStream;
+
+/**
+ * Pre-generated query results served by {@link MockServer}. All formats share
+ * the same two columns {@code i UInt64, s String}, and each payload is
+ * generated only once so that serving a response costs nothing but copying
+ * bytes.
+ */
+public final class MockData {
+    static final String[] COLUMN_NAMES = new String[] { "i", "s" };
+    static final String[] COLUMN_TYPES = new String[] { "UInt64", "String" };
+
+    private final int rows;
+    private final Map<ClickHouseFormat, byte[]> payloads;
+    private final Map<ClickHouseFormat, byte[]> compressedPayloads;
+
+    /**
+     * Creates pre-generated data.
+     *
+     * @param rows number of rows in each payload
+     */
+    public MockData(int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Non-negative rows is required");
+        }
+
+        this.rows = rows;
+        this.payloads = new ConcurrentHashMap<>();
+        this.compressedPayloads = new ConcurrentHashMap<>();
+    }
+
+    static byte[] generate(ClickHouseFormat format, int rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(rows * 16 + 64);
+        switch (format) {
+            case RowBinaryWithNamesAndTypes:
+                BinaryStreamUtils.writeVarInt(out, COLUMN_NAMES.length);
+                for (String name : COLUMN_NAMES) {
+                    BinaryStreamUtils.writeString(out, name);
+                }
+                for (String type : COLUMN_TYPES) {
+                    BinaryStreamUtils.writeString(out, type);
+                }
+                // fall through
+            case RowBinary:
+                for (int i = 0; i < rows; i++) {
+                    BinaryStreamUtils.writeUnsignedInt64(out, i);
+                    BinaryStreamUtils.writeString(out, Integer.toString(i));
+                }
+                break;
+            case TabSeparatedWithNamesAndTypes:
+                writeLine(out, COLUMN_NAMES);
+                writeLine(out, COLUMN_TYPES);
+                // fall through
+            case TabSeparated:
+                for (int i = 0; i < rows; i++) {
+                    String str = Integer.toString(i);
+                    writeLine(out, str, str);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        return out.toByteArray();
+    }
+
+    static void writeLine(OutputStream out, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            out.write(values[i].getBytes(StandardCharsets.UTF_8));
+        }
+        out.write('\n');
+    }
+
+    static byte[] compress(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 64);
+        try (OutputStream lz4 = new ClickHouseLZ4OutputStream(out, 1024 * 1024)) {
+            lz4.write(bytes);
+            lz4.flush();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Gets number of rows in each payload.
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets payload in given format.
+     *
+     * @param format     format of the payload, one of {@code RowBinary},
+     *                   {@code RowBinaryWithNamesAndTypes}, {@code TabSeparated}
+     *                   and {@code TabSeparatedWithNamesAndTypes}
+     * @param compressed whether the payload should be LZ4 framed as ClickHouse
+     *                   does for {@code compress=1}
+     * @return non-null payload, which is shared and should not be modified
+     */
+    public byte[] getPayload(ClickHouseFormat format, boolean compressed) {
+        byte[] payload = payloads.computeIfAbsent(format, f -> {
+            try {
+                return generate(f, rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return compressed ? compressedPayloads.computeIfAbsent(format, f -> {
+            try {
+                return compress(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }) : payload;
+    }
+}
@@ -0,0 +1,139 @@
+package com.clickhouse.benchmark.mock;
+
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.grpc.impl.ClickHouseGrpc;
+import com.clickhouse.client.grpc.impl.CompressionAlgorithm;
+import com.clickhouse.client.grpc.impl.Exception;
+import com.clickhouse.client.grpc.impl.Progress;
+import com.clickhouse.client.grpc.impl.QueryInfo;
+import com.clickhouse.client.grpc.impl.Result;
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * gRPC service of {@link MockServer}. Query results are split into chunks when
+ * streaming output, and gzip result compression is honored the same way as
+ * ClickHouse does it - on transport level.
+ */
+final class MockGrpcService extends ClickHouseGrpc.ClickHouseImplBase {
+    static final int CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * Query received from client, whose input data may come in multiple
+     * messages.
+     */
+    final class Query implements StreamObserver<QueryInfo> {
+        private final StreamObserver<Result> responseObserver;
+        private final boolean streamOutput;
+
+        private QueryInfo info;
+        private long inputSize;
+
+        Query(StreamObserver<Result> responseObserver, boolean streamOutput) {
+            this.responseObserver = responseObserver;
+            this.streamOutput = streamOutput;
+        }
+
+        @Override
+        public void onNext(QueryInfo value) {
+            if (info == null) {
+                info = value;
+            }
+            inputSize += value.getInputData().size();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // cancelled by client, nothing to clean up
+        }
+
+        @Override
+        public void onCompleted() {
+            execute(info, inputSize, responseObserver, streamOutput);
+        }
+    }
+
+    private final MockServer server;
+
+    MockGrpcService(MockServer server) {
+        this.server = server;
+    }
+
+    private void execute(QueryInfo info, long inputSize, StreamObserver<Result> responseObserver,
+            boolean streamOutput) {
+        if (info == null) {
+            responseObserver.onNext(Result.newBuilder()
+                    .setException(Exception.newBuilder().setCode(62).setName("DB::Exception")
+                            .setDisplayText("Empty query").build())
+                    .build());
+            responseObserver.onCompleted();
+            return;
+        }
+
+        if (info.getResultCompression().getAlgorithm() == CompressionAlgorithm.GZIP
+                && responseObserver instanceof ServerCallStreamObserver) {
+            ((ServerCallStreamObserver<Result>) responseObserver).setCompression("gzip");
+        }
+
+        if (MockServer.isInsert(info.getQuery())) {
+            server.onInsert(inputSize);
+            responseObserver.onNext(Result.newBuilder()
+                    .setProgress(Progress.newBuilder().setWrittenBytes(inputSize).build()).build());
+            responseObserver.onCompleted();
+            return;
+        }
+
+        String formatName = info.getOutputFormat();
+        byte[] payload;
+        try {
+            payload = server.getData().getPayload(
+                    formatName.isEmpty() ? ClickHouseFormat.TabSeparated : ClickHouseFormat.valueOf(formatName),
+                    false);
+        } catch (IllegalArgumentException e) {
+            responseObserver.onNext(Result.newBuilder()
+                    .setException(Exception.newBuilder().setCode(73).setName("DB::Exception")
+                            .setDisplayText("Unknown format " + formatName).build())
+                    .build());
+            responseObserver.onCompleted();
+            return;
+        }
+
+        server.onQuery();
+        Progress progress = Progress.newBuilder().setReadRows(server.getData().getRows())
+                .setReadBytes(payload.length).setTotalRowsToRead(server.getData().getRows()).build();
+        if (!streamOutput || payload.length <= CHUNK_SIZE) {
+            responseObserver.onNext(Result.newBuilder().setOutput(UnsafeByteOperations.unsafeWrap(payload))
+                    .setProgress(progress).build());
+        } else {
+            for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+                responseObserver.onNext(Result.newBuilder()
+                        .setOutput(UnsafeByteOperations.unsafeWrap(payload, offset,
+                                Math.min(CHUNK_SIZE, payload.length - offset)))
+                        .build());
+            }
+            responseObserver.onNext(Result.newBuilder().setProgress(progress).build());
+        }
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void executeQuery(QueryInfo request, StreamObserver<Result> responseObserver) {
+        execute(request, request.getInputData().size(), responseObserver, false);
+    }
+
+    @Override
+    public StreamObserver<QueryInfo> executeQueryWithStreamInput(StreamObserver<Result> responseObserver) {
+        return new Query(responseObserver, false);
+    }
+
+    @Override
+    public void executeQueryWithStreamOutput(QueryInfo request, StreamObserver<Result> responseObserver) {
+        execute(request, request.getInputData().size(), responseObserver, true);
+    }
+
+    @Override
+    public StreamObserver<QueryInfo> executeQueryWithStreamIO(StreamObserver<Result> responseObserver) {
+        return new Query(responseObserver, true);
+    }
+}
@@ -0,0 +1,154 @@
+package com.clickhouse.benchmark.mock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import com.clickhouse.client.ClickHouseBufferPool;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.data.ClickHouseLZ4InputStream;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * HTTP interface of {@link MockServer}, which supports {@code /ping}, POST
+ * query with data, {@code compress=1} and {@code decompress=1}.
+ */
+final class MockHttpHandler implements HttpHandler {
+    static final byte[] PING_RESPONSE = "Ok.\n".getBytes(StandardCharsets.US_ASCII);
+
+    static Map<String, String> parseQueryParams(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            int index = pair.indexOf('=');
+            if (index > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, index), StandardCharsets.UTF_8.name()),
+                        URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8.name()));
+            } else if (!pair.isEmpty()) {
+                params.put(URLDecoder.decode(pair, StandardCharsets.UTF_8.name()), "");
+            }
+        }
+        return params;
+    }
+
+    private final MockServer server;
+
+    MockHttpHandler(MockServer server) {
+        this.server = server;
+    }
+
+    private void respond(HttpExchange exchange, int code, byte[] bytes) throws IOException {
+        if (bytes == null || bytes.length == 0) {
+            exchange.sendResponseHeaders(code, -1L);
+        } else {
+            exchange.sendResponseHeaders(code, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private void respondError(HttpExchange exchange, int code, String message) throws IOException {
+        exchange.getResponseHeaders().set("X-ClickHouse-Exception-Code", String.valueOf(code));
+        respond(exchange, HttpURLConnection.HTTP_INTERNAL_ERROR, ("Code: " + code + ". DB::Exception: " + message)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if ("/ping".equals(exchange.getRequestURI().getPath())) {
+                respond(exchange, HttpURLConnection.HTTP_OK, PING_RESPONSE);
+                return;
+            }
+
+            Headers requestHeaders = exchange.getRequestHeaders();
+            Map<String, String> params = parseQueryParams(exchange.getRequestURI().getRawQuery());
+            InputStream in = exchange.getRequestBody();
+            if ("1".equals(params.get("decompress"))) {
+                String encoding = requestHeaders.getFirst("Content-Encoding");
+                if (encoding == null || encoding.isEmpty()) {
+                    in = new ClickHouseLZ4InputStream(in);
+                } else if ("gzip".equalsIgnoreCase(encoding)) {
+                    in = new GZIPInputStream(in);
+                } else {
+                    respondError(exchange, 36, "Unknown compression method: " + encoding);
+                    return;
+                }
+            }
+
+            // query comes first and is separated from data by line feed
+            StringBuilder query = new StringBuilder();
+            long dataSize = 0L;
+            ClickHouseBufferPool pool = ClickHouseBufferPool.getDefault();
+            byte[] buffer = pool.borrowArray(8192);
+            try {
+                boolean inQuery = true;
+                int len = 0;
+                while ((len = in.read(buffer, 0, buffer.length)) != -1) {
+                    int offset = 0;
+                    while (inQuery && offset < len) {
+                        byte b = buffer[offset++];
+                        if (b == '\n') {
+                            inQuery = false;
+                        } else if (query.length() < 16) {
+                            query.append((char) b);
+                        }
+                    }
+                    dataSize += len - offset;
+                }
+            } finally {
+                pool.release(buffer);
+                in.close();
+            }
+
+            Headers responseHeaders = exchange.getResponseHeaders();
+            String queryId = params.get("query_id");
+            responseHeaders.set("X-ClickHouse-Server-Display-Name", MockServer.DISPLAY_NAME);
+            responseHeaders.set("X-ClickHouse-Query-Id",
+                    queryId == null || queryId.isEmpty() ? UUID.randomUUID().toString() : queryId);
+            responseHeaders.set("X-ClickHouse-Timezone", MockServer.TIME_ZONE);
+            if (MockServer.isInsert(query)) {
+                server.onInsert(dataSize);
+                responseHeaders.set("X-ClickHouse-Summary", MockServer.getSummary(0L, 0L, 0L, dataSize));
+                respond(exchange, HttpURLConnection.HTTP_OK, null);
+                return;
+            }
+
+            String formatName = requestHeaders.getFirst("X-ClickHouse-Format");
+            if (formatName == null || formatName.isEmpty()) {
+                formatName = params.getOrDefault("default_format", ClickHouseFormat.TabSeparated.name());
+            }
+            byte[] payload;
+            try {
+                ClickHouseFormat format = ClickHouseFormat.valueOf(formatName);
+                payload = server.getData().getPayload(format, "1".equals(params.get("compress")));
+                responseHeaders.set("X-ClickHouse-Format", format.name());
+                responseHeaders.set("Content-Type", format.isBinary() ? "application/octet-stream"
+                        : "text/tab-separated-values; charset=UTF-8");
+            } catch (IllegalArgumentException e) {
+                respondError(exchange, 73, "Unknown format " + formatName);
+                return;
+            }
+            server.onQuery();
+            MockData data = server.getData();
+            responseHeaders.set("X-ClickHouse-Summary",
+                    MockServer.getSummary(data.getRows(), payload.length, 0L, 0L));
+            respond(exchange, HttpURLConnection.HTTP_OK, payload);
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.clickhouse.benchmark.mock;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.ClickHouseUtils;
+import com.sun.net.httpserver.HttpServer;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+
+/**
+ * In-process stand-in of ClickHouse server, which speaks both HTTP interface
+ * and gRPC protocol. It does not parse nor execute queries: a query starting
+ * with {@code INSERT} is treated as insertion and its data is counted and
+ * discarded, while any other query gets pre-generated {@link MockData} back in
+ * requested format. It's meant for benchmarking client-side overhead(transport,
+ * compression and deserialization) without network, Docker or server CPU
+ * getting in the way.
+ */
+public final class MockServer implements AutoCloseable {
+    static final String DISPLAY_NAME = "mock";
+    static final String TIME_ZONE = "UTC";
+
+    static {
+        // otherwise small responses like ping suffer from Nagle's algorithm and
+        // delayed ACK, must be set before the first HttpServer is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    static boolean isInsert(CharSequence query) {
+        int len = query == null ? 0 : query.length();
+        int index = 0;
+        while (index < len && Character.isWhitespace(query.charAt(index))) {
+            index++;
+        }
+
+        String keyword = "insert";
+        if (len - index < keyword.length()) {
+            return false;
+        }
+
+        for (int i = 0, klen = keyword.length(); i < klen; i++) {
+            if (Character.toLowerCase(query.charAt(index + i)) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String getSummary(long readRows, long readBytes, long writtenRows, long writtenBytes) {
+        return new StringBuilder().append("{\"read_rows\":\"").append(readRows).append("\",\"read_bytes\":\"")
+                .append(readBytes).append("\",\"written_rows\":\"").append(writtenRows)
+                .append("\",\"written_bytes\":\"").append(writtenBytes).append("\",\"total_rows_to_read\":\"")
+                .append(readRows).append("\"}").toString();
+    }
+
+    private final MockData data;
+    private final ExecutorService executor;
+    private final HttpServer httpServer;
+    private final Server grpcServer;
+
+    private final LongAdder queries;
+    private final LongAdder inserts;
+    private final LongAdder insertedBytes;
+
+    /**
+     * Starts a mock server listening on random ports of loopback address.
+     *
+     * @param data    non-null data to serve
+     * @param threads number of threads for handling requests, zero or negative
+     *                number means unbounded
+     * @throws IOException when failed to start the server
+     */
+    public MockServer(MockData data, int threads) throws IOException {
+        this.data = ClickHouseChecker.nonNull(data, "data");
+        this.executor = threads > 0 ? Executors.newFixedThreadPool(threads) : Executors.newCachedThreadPool();
+
+        this.queries = new LongAdder();
+        this.inserts = new LongAdder();
+        this.insertedBytes = new LongAdder();
+
+        HttpServer http = null;
+        Server grpc = null;
+        try {
+            http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            http.createContext("/", new MockHttpHandler(this));
+            http.setExecutor(executor);
+            http.start();
+
+            grpc = NettyServerBuilder.forAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                    .addService(new MockGrpcService(this)).executor(executor).build().start();
+        } catch (IOException | RuntimeException e) {
+            if (http != null) {
+                http.stop(0);
+            }
+            executor.shutdownNow();
+            throw e;
+        }
+
+        this.httpServer = http;
+        this.grpcServer = grpc;
+    }
+
+    void onQuery() {
+        queries.increment();
+    }
+
+    void onInsert(long bytes) {
+        inserts.increment();
+        insertedBytes.add(bytes);
+    }
+
+    /**
+     * Gets data served by this server.
+     *
+     * @return non-null data
+     */
+    public MockData getData() {
+        return data;
+    }
+
+    /**
+     * Gets node for connecting to this server using given protocol.
+     *
+     * @param protocol either {@link ClickHouseProtocol#HTTP} or
+     *                 {@link ClickHouseProtocol#GRPC}
+     * @return non-null node
+     */
+    public ClickHouseNode getNode(ClickHouseProtocol protocol) {
+        int port;
+        if (protocol == ClickHouseProtocol.HTTP) {
+            port = httpServer.getAddress().getPort();
+        } else if (protocol == ClickHouseProtocol.GRPC) {
+            port = grpcServer.getPort();
+        } else {
+            throw new IllegalArgumentException(ClickHouseUtils.format("Unsupported protocol: %s", protocol));
+        }
+
+        return ClickHouseNode.builder().host(InetAddress.getLoopbackAddress().getHostAddress())
+                .port(protocol, port).build();
+    }
+
+    /**
+     * Gets number of queries(excluding insertions) handled by this server.
+     *
+     * @return number of queries
+     */
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    /**
+     * Gets number of insertions handled by this server.
+     *
+     * @return number of insertions
+     */
+    public long getInserts() {
+        return inserts.sum();
+    }
+
+    /**
+     * Gets number of bytes received for insertion. It's measured after
+     * decompression and excludes the query itself.
+     *
+     * @return number of bytes inserted
+     */
+    public long getInsertedBytes() {
+        return insertedBytes.sum();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        queries.reset();
+        inserts.reset();
+        insertedBytes.reset();
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpServer.stop(0);
+        } finally {
+            grpcServer.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,569 @@
+package com.clickhouse.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+import com.clickhouse.client.data.mapper.ClickHouseRowMapper;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Writer coalescing small inserts from many threads into batches, which are
+ * sent to server as one streamed {@code INSERT} in RowBinary format per
+ * (node, table, columns). Rows are serialized in the appending thread directly
+ * into a pooled buffer of the current batch, which is recycled for the next
+ * batch of the same table once sent. A batch is flushed when it
+ * reaches {@link ClickHouseConfig#getBatchMaxRows()} or
+ * {@link ClickHouseConfig#getBatchMaxBytes()}, or when its first row has
+ * waited for {@link ClickHouseConfig#getBatchLingerTime()} milliseconds.
+ * Appending blocks once serialized rows pending for flush exceeded
+ * {@link ClickHouseConfig#getBatchMaxPendingBytes()}.
+ *
+ * <p>
+ * Future returned from {@code append} methods completes when the batch holding
+ * the row is acknowledged by server, or completes exceptionally when the batch
+ * failed. Since all rows in a batch are inserted in one query, they either
+ * succeed or fail together. The client will not be closed along with the
+ * writer.
+ */
+public class ClickHouseBatchingWriter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseBatchingWriter.class);
+
+    static final class Key {
+        final ClickHouseNode server;
+        final String table;
+        final List<ClickHouseColumn> columns;
+
+        Key(ClickHouseNode server, String table, List<ClickHouseColumn> columns) {
+            this.server = ClickHouseChecker.nonNull(server, "server");
+            this.table = ClickHouseChecker.nonBlank(table, "table");
+            this.columns = ClickHouseChecker.nonNull(columns, "columns");
+        }
+
+        String getTableWithColumns() {
+            if (columns.isEmpty()) {
+                return table;
+            }
+
+            StringBuilder builder = new StringBuilder(table).append('(');
+            for (ClickHouseColumn c : columns) {
+                builder.append('`').append(ClickHouseUtils.escape(c.getColumnName(), '`')).append('`').append(',');
+            }
+            builder.setCharAt(builder.length() - 1, ')');
+            return builder.toString();
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * server.hashCode() + table.hashCode()) * 31 + columns.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return server.equals(other.server) && table.equals(other.table) && columns.equals(other.columns);
+        }
+    }
+
+    /**
+     * Batch of serialized rows. Appenders write rows into the batch while holding
+     * its monitor, and sender reads the buffer only after all appenders left.
+     */
+    static final class Batch extends OutputStream {
+        static final int SEALED = Integer.MIN_VALUE;
+
+        final Key key;
+        // one for each row
+        final List<CompletableFuture<ClickHouseResponseSummary>> rows;
+        // completes after all rows
+        final CompletableFuture<Void> future;
+        // number of in-flight appenders, with the sign bit set once sealed
+        final AtomicInteger state;
+        // counted down once sealed and there's no in-flight appender
+        final CountDownLatch drained;
+
+        byte[] buffer;
+        int size;
+        int rowCount;
+
+        volatile ScheduledFuture<?> timer;
+
+        Batch(Key key, byte[] buffer) {
+            this.key = key;
+            this.rows = new ArrayList<>();
+            this.future = new CompletableFuture<>();
+            this.state = new AtomicInteger();
+            this.drained = new CountDownLatch(1);
+
+            this.buffer = buffer;
+        }
+
+        private void ensureCapacity(int length) {
+            int required = size + length;
+            if (required < 0) {
+                throw new IllegalStateException("Batch is too large");
+            } else if (required > buffer.length) {
+                ClickHouseBufferPool pool = ClickHouseBufferPool.getDefault();
+                byte[] bytes = pool.borrowArray(Math.max(required, (int) Math.min(buffer.length * 2L,
+                        ClickHouseBufferPool.MAX_POOLED_SIZE)));
+                System.arraycopy(buffer, 0, bytes, 0, size);
+                pool.release(buffer);
+                buffer = bytes;
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            System.arraycopy(b, off, buffer, size, len);
+            size += len;
+        }
+
+        boolean tryAcquire() {
+            int s;
+            do {
+                s = state.get();
+                if (s < 0) {
+                    return false;
+                }
+            } while (!state.compareAndSet(s, s + 1));
+            return true;
+        }
+
+        void release() {
+            if (state.decrementAndGet() == SEALED) {
+                drained.countDown();
+            }
+        }
+
+        boolean seal() {
+            int s;
+            do {
+                s = state.get();
+                if (s < 0) {
+                    return false;
+                }
+            } while (!state.compareAndSet(s, s | SEALED));
+            if (s == 0) {
+                drained.countDown();
+            }
+            return true;
+        }
+
+        void complete(ClickHouseResponseSummary summary, Throwable error) {
+            for (CompletableFuture<ClickHouseResponseSummary> row : rows) {
+                if (error != null) {
+                    row.completeExceptionally(error);
+                } else {
+                    row.complete(summary);
+                }
+            }
+            future.complete(null);
+        }
+
+        void awaitAppenders() {
+            // appenders only hold the batch for a few instructions
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    drained.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final ClickHouseClient client;
+    private final ClickHouseConfig config;
+    private final ConcurrentHashMap<Key, Batch> batches;
+    // sealed batches not yet acknowledged
+    private final Set<Batch> flushing;
+    // buffers of sent batches, to be reused by next batch of the same key
+    private final ConcurrentHashMap<Key, byte[]> buffers;
+    private final int maxPendingBytes;
+    // serialized rows not yet acknowledged, also used as monitor of blocked
+    // appenders
+    private final AtomicLong pendingBytes;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean closed;
+
+    /**
+     * Creates a batching writer using configuration of the given client.
+     *
+     * @param client non-null client for sending batches
+     */
+    public ClickHouseBatchingWriter(ClickHouseClient client) {
+        this(client, ClickHouseChecker.nonNull(client, "client").getConfig());
+    }
+
+    /**
+     * Creates a batching writer.
+     *
+     * @param client non-null client for sending batches
+     * @param config non-null configuration, only options related to batching and
+     *               data processing will be used
+     */
+    public ClickHouseBatchingWriter(ClickHouseClient client, ClickHouseConfig config) {
+        this.client = ClickHouseChecker.nonNull(client, "client");
+        this.config = ClickHouseChecker.nonNull(config, "config");
+
+        this.batches = new ConcurrentHashMap<>();
+        this.flushing = ConcurrentHashMap.newKeySet();
+        this.buffers = new ConcurrentHashMap<>();
+        this.maxPendingBytes = ClickHouseChecker.between(config.getBatchMaxPendingBytes(), "MaxPendingBytes", 1,
+                Integer.MAX_VALUE);
+        this.pendingBytes = new AtomicLong();
+        int maxThreads = config.getMaxThreadsPerClient();
+        this.executor = ClickHouseUtils.newThreadPool(this,
+                maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors(), 0);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ClickHouseThreadFactory(this));
+        this.closed = new AtomicBoolean(false);
+    }
+
+    private CompletionException newClosedException(ClickHouseNode server) {
+        return new CompletionException(ClickHouseException.of("Batching writer has been closed", server));
+    }
+
+    private Batch newBatch(Key key) {
+        byte[] buffer = buffers.remove(key);
+        Batch batch = new Batch(key, buffer != null ? buffer : ClickHouseByteBuffer.EMPTY_BYTES);
+        int lingerTime = config.getBatchLingerTime();
+        if (lingerTime > 0) {
+            try {
+                batch.timer = scheduler.schedule(() -> flush(batch), lingerTime, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                throw newClosedException(key.server);
+            }
+        }
+        return batch;
+    }
+
+    private void awaitPendingBytes(ClickHouseNode server) {
+        if (pendingBytes.get() < maxPendingBytes) {
+            return;
+        }
+
+        synchronized (pendingBytes) {
+            try {
+                while (pendingBytes.get() >= maxPendingBytes) {
+                    pendingBytes.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(ClickHouseException.forCancellation(e, server));
+            }
+        }
+    }
+
+    /**
+     * Releases buffer and pending bytes held by the given batch, which must have
+     * been drained.
+     *
+     * @param batch non-null batch
+     */
+    private void recycle(Batch batch) {
+        byte[] buffer = batch.buffer;
+        batch.buffer = ClickHouseByteBuffer.EMPTY_BYTES;
+        if (buffer.length > 0) {
+            if (closed.get()) {
+                ClickHouseBufferPool.getDefault().release(buffer);
+            } else {
+                ClickHouseBufferPool.getDefault().release(buffers.put(batch.key, buffer));
+            }
+        }
+
+        if (batch.size > 0 && pendingBytes.getAndAdd(-batch.size) >= maxPendingBytes) {
+            synchronized (pendingBytes) {
+                pendingBytes.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Fails the given batch if it has not been flushed.
+     *
+     * @param batch non-null batch
+     */
+    private void abort(Batch batch) {
+        if (batch.seal()) {
+            batches.remove(batch.key, batch);
+            batch.awaitAppenders();
+            batch.complete(null, ClickHouseException.of("Batching writer has been closed", batch.key.server));
+            recycle(batch);
+        }
+    }
+
+    private void flush(Batch batch) {
+        if (!batch.seal()) {
+            return;
+        }
+
+        // track before removing so that flush() won't miss it
+        flushing.add(batch);
+        batches.remove(batch.key, batch);
+        ScheduledFuture<?> timer = batch.timer;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+
+        try {
+            executor.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            send(batch);
+        }
+    }
+
+    private void send(Batch batch) {
+        batch.awaitAppenders();
+
+        Key key = batch.key;
+        if (batch.rowCount == 0) {
+            // all appenders failed to serialize their rows
+            flushing.remove(batch);
+            recycle(batch);
+            batch.complete(null, null);
+            return;
+        }
+
+        try (ClickHouseResponse response = client.connect(key.server).write().table(key.getTableWithColumns())
+                .format(ClickHouseFormat.RowBinary).data(new ByteArrayInputStream(batch.buffer, 0, batch.size))
+                .execute().get()) {
+            batch.complete(response.getSummary(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.complete(null, ClickHouseException.forCancellation(e, key.server));
+        } catch (ExecutionException e) {
+            batch.complete(null, ClickHouseException.of(e.getCause(), key.server));
+        } catch (Exception e) {
+            batch.complete(null, ClickHouseException.of(e, key.server));
+        } finally {
+            flushing.remove(batch);
+            recycle(batch);
+            log.debug("Flushed %d rows(%d bytes) into [%s] of %s", batch.rowCount, batch.size, key.table,
+                    key.server);
+        }
+    }
+
+    /**
+     * Appends a row, which is serialized by the given writer in RowBinary format.
+     *
+     * @param server  non-null server to connect to
+     * @param table   non-null table
+     * @param columns non-null columns of the row, empty list means all columns
+     * @param row     non-null writer for serializing the row
+     * @return non-null future to get summary of the batch holding the row
+     * @throws CompletionException when failed to serialize the row, the writer
+     *                             is closed, or the thread is interrupted while
+     *                             waiting for pending batches to be flushed
+     */
+    public CompletableFuture<ClickHouseResponseSummary> append(ClickHouseNode server, String table,
+            List<ClickHouseColumn> columns, ClickHouseWriter row) {
+        ClickHouseChecker.nonNull(row, "row");
+        Key key = new Key(server, table, columns);
+        if (closed.get()) {
+            throw newClosedException(server);
+        }
+
+        awaitPendingBytes(server);
+
+        Batch batch = null;
+        try {
+            while (true) {
+                if (closed.get()) {
+                    throw newClosedException(server);
+                }
+                batch = batches.computeIfAbsent(key, this::newBatch);
+                if (batch.tryAcquire()) {
+                    break;
+                }
+                // sealed but not yet removed
+                batches.remove(key, batch);
+            }
+        } catch (RuntimeException e) {
+            throw e instanceof CompletionException ? (CompletionException) e
+                    : new CompletionException(ClickHouseException.of(e, server));
+        }
+
+        CompletableFuture<ClickHouseResponseSummary> future = new CompletableFuture<>();
+        int rows;
+        int size;
+        try {
+            synchronized (batch) {
+                int position = batch.size;
+                try {
+                    row.write(batch);
+                } catch (IOException e) {
+                    batch.size = position;
+                    throw new CompletionException(new UncheckedIOException(e));
+                } catch (RuntimeException e) {
+                    batch.size = position;
+                    throw e;
+                }
+                batch.rows.add(future);
+                rows = ++batch.rowCount;
+                size = batch.size;
+                pendingBytes.addAndGet((long) size - position);
+            }
+        } finally {
+            batch.release();
+        }
+
+        if (closed.get()) {
+            // close() may have missed the batch, which will never be flushed
+            abort(batch);
+        } else if (rows >= config.getBatchMaxRows() || size >= config.getBatchMaxBytes()) {
+            flush(batch);
+        }
+        return future;
+    }
+
+    /**
+     * Appends a row of values.
+     *
+     * @param server  non-null server to connect to
+     * @param table   non-null table
+     * @param columns non-null columns of the row
+     * @param values  non-null values, one for each column
+     * @return non-null future to get summary of the batch holding the row
+     * @throws CompletionException when failed to serialize the row, the writer
+     *                             is closed, or the thread is interrupted while
+     *                             waiting for pending batches to be flushed
+     */
+    public CompletableFuture<ClickHouseResponseSummary> appendValues(ClickHouseNode server, String table,
+            List<ClickHouseColumn> columns, ClickHouseValue... values) {
+        int len = ClickHouseChecker.nonNull(values, "values").length;
+        if (len != ClickHouseChecker.nonNull(columns, "columns").size()) {
+            throw new IllegalArgumentException(
+                    ClickHouseUtils.format("Expect %d value(s) but got %d", columns.size(), len));
+        }
+
+        final ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+        return append(server, table, columns, output -> {
+            for (int i = 0; i < len; i++) {
+                m.serialize(values[i], config, columns.get(i), output);
+            }
+        });
+    }
+
+    /**
+     * Appends an object, which is serialized by {@link ClickHouseRowMapper}.
+     *
+     * @param <T>     type of the object
+     * @param server  non-null server to connect to
+     * @param table   non-null table
+     * @param columns non-null columns of the row
+     * @param obj     non-null object
+     * @return non-null future to get summary of the batch holding the row
+     * @throws CompletionException when failed to serialize the row, the writer
+     *                             is closed, or the thread is interrupted while
+     *                             waiting for pending batches to be flushed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<ClickHouseResponseSummary> appendObject(ClickHouseNode server, String table,
+            List<ClickHouseColumn> columns, T obj) {
+        final ClickHouseRowMapper<T> mapper = ClickHouseRowMapper.of(config, columns,
+                (Class<T>) ClickHouseChecker.nonNull(obj, "object").getClass());
+        return append(server, table, columns, output -> mapper.write(obj, output));
+    }
+
+    /**
+     * Flushes all pending batches.
+     *
+     * @return non-null future which completes when all flushed batches, including
+     *         the ones flushed earlier, are acknowledged, regardless they
+     *         succeeded or not
+     */
+    public CompletableFuture<Void> flush() {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (Batch batch : new ArrayList<>(batches.values())) {
+            flush(batch);
+            futures.add(batch.future);
+        }
+        for (Batch batch : flushing) {
+            futures.add(batch.future);
+        }
+        return futures.isEmpty() ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Gets number of batches waiting to be flushed.
+     *
+     * @return number of batches waiting to be flushed
+     */
+    public int getPendingBatches() {
+        return batches.size();
+    }
+
+    /**
+     * Checks whether the writer is closed.
+     *
+     * @return true if the writer is closed; false otherwise
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            flush().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // not going to happen as errors are handled
+            log.warn("Failed to flush batches", e.getCause());
+        } finally {
+            scheduler.shutdownNow();
+            executor.shutdown();
+            for (Batch batch : new ArrayList<>(batches.values())) {
+                abort(batch);
+            }
+            for (Key key : new ArrayList<>(buffers.keySet())) {
+                ClickHouseBufferPool.getDefault().release(buffers.remove(key));
+            }
+        }
+    }
+}
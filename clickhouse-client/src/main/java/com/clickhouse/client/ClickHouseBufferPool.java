@@ -0,0 +1,273 @@
+package com.clickhouse.client;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of recyclable heap and direct buffers shared by streaming, compression
+ * and transport components. Buffers are bucketed by size class(power of two
+ * between {@link #MIN_POOLED_SIZE} and {@link #MAX_POOLED_SIZE}), small ones
+ * are cached per thread, and all of them are backed by a bounded shared queue
+ * of each size class. Requests beyond {@link #MAX_POOLED_SIZE} are simply
+ * allocated and left to garbage collector.
+ *
+ * <p>
+ * Only release what you borrowed from the same pool, and never touch a buffer
+ * after releasing it. When leak tracking is enabled, borrowed buffers are
+ * tracked by identity so that foreign or double release is detected, and
+ * {@link #getOutstanding()} can be used to verify that everything has been
+ * returned.
+ */
+public final class ClickHouseBufferPool {
+    /**
+     * Minimum size of pooled buffer.
+     */
+    public static final int MIN_POOLED_SIZE = 64;
+    /**
+     * Maximum size of pooled buffer.
+     */
+    public static final int MAX_POOLED_SIZE = 16 * 1024 * 1024;
+
+    static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+    static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - MIN_SHIFT + 1;
+    // only small buffers are cached per thread to limit memory held by idle
+    // threads
+    static final int MAX_THREAD_CACHED_SIZE = 64 * 1024;
+    static final int THREAD_CACHE_DEPTH = 4;
+    static final long MAX_RETAINED_BYTES_PER_CLASS = 4L * 1024 * 1024;
+
+    private static final ClickHouseBufferPool defaultPool = new ClickHouseBufferPool(false);
+
+    /**
+     * Gets default buffer pool shared by all components in the JVM.
+     *
+     * @return non-null default buffer pool
+     */
+    public static ClickHouseBufferPool getDefault() {
+        return defaultPool;
+    }
+
+    /**
+     * Gets index of size class.
+     *
+     * @param size size in byte
+     * @return index of size class, or -1 if the size is too large to be pooled
+     */
+    static int getSizeClass(int size) {
+        if (size <= MIN_POOLED_SIZE) {
+            return 0;
+        } else if (size > MAX_POOLED_SIZE) {
+            return -1;
+        }
+
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * Gets index of size class for the exact capacity.
+     *
+     * @param capacity capacity in byte
+     * @return index of size class, or -1 if the capacity does not belong to any
+     *         size class
+     */
+    static int getExactSizeClass(int capacity) {
+        return capacity >= MIN_POOLED_SIZE && capacity <= MAX_POOLED_SIZE && Integer.bitCount(capacity) == 1
+                ? Integer.numberOfTrailingZeros(capacity) - MIN_SHIFT
+                : -1;
+    }
+
+    static final class Bucket<T> {
+        private final Queue<T>[] shared;
+        private final ThreadLocal<ArrayDeque<T>[]> cached;
+
+        @SuppressWarnings("unchecked")
+        Bucket() {
+            shared = (Queue<T>[]) new Queue<?>[SIZE_CLASSES];
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+                int size = MIN_POOLED_SIZE << i;
+                shared[i] = new ArrayBlockingQueue<>((int) Math.max(2L, MAX_RETAINED_BYTES_PER_CLASS / size));
+            }
+            cached = ThreadLocal
+                    .withInitial(() -> (ArrayDeque<T>[]) new ArrayDeque<?>[getSizeClass(MAX_THREAD_CACHED_SIZE) + 1]);
+        }
+
+        T poll(int sizeClass) {
+            T value = null;
+            if ((MIN_POOLED_SIZE << sizeClass) <= MAX_THREAD_CACHED_SIZE) {
+                ArrayDeque<T> deque = cached.get()[sizeClass];
+                if (deque != null) {
+                    value = deque.pollFirst();
+                }
+            }
+            return value != null ? value : shared[sizeClass].poll();
+        }
+
+        boolean offer(int sizeClass, T value) {
+            if ((MIN_POOLED_SIZE << sizeClass) <= MAX_THREAD_CACHED_SIZE) {
+                ArrayDeque<T>[] deques = cached.get();
+                ArrayDeque<T> deque = deques[sizeClass];
+                if (deque == null) {
+                    deques[sizeClass] = deque = new ArrayDeque<>(THREAD_CACHE_DEPTH);
+                }
+                if (deque.size() < THREAD_CACHE_DEPTH) {
+                    deque.offerFirst(value);
+                    return true;
+                }
+            }
+            return shared[sizeClass].offer(value);
+        }
+    }
+
+    private final Bucket<byte[]> arrays;
+    private final Bucket<ByteBuffer> directBuffers;
+
+    private final LongAdder borrowed;
+    private final LongAdder released;
+    private final Set<Object> outstanding;
+
+    /**
+     * Creates a new buffer pool.
+     *
+     * @param trackLeaks whether to track borrowed buffers by identity, which is
+     *                   slow and should only be used in tests
+     */
+    public ClickHouseBufferPool(boolean trackLeaks) {
+        this.arrays = new Bucket<>();
+        this.directBuffers = new Bucket<>();
+
+        this.borrowed = new LongAdder();
+        this.released = new LongAdder();
+        this.outstanding = trackLeaks ? Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()))
+                : null;
+    }
+
+    private void onBorrow(Object obj) {
+        borrowed.increment();
+        if (outstanding != null) {
+            outstanding.add(obj);
+        }
+    }
+
+    private boolean onRelease(Object obj) {
+        if (outstanding != null && !outstanding.remove(obj)) {
+            throw new IllegalStateException("Buffer was not borrowed from this pool or has been released already");
+        }
+        released.increment();
+        return true;
+    }
+
+    /**
+     * Borrows a byte array with at least {@code size} bytes.
+     *
+     * @param size minimum size in byte
+     * @return non-null byte array, its length might be greater than {@code size}
+     */
+    public byte[] borrowArray(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Non-negative size is required");
+        }
+
+        int sizeClass = getSizeClass(size);
+        byte[] array = null;
+        if (sizeClass < 0) {
+            array = new byte[size];
+        } else if ((array = arrays.poll(sizeClass)) == null) {
+            array = new byte[MIN_POOLED_SIZE << sizeClass];
+        }
+        onBorrow(array);
+        return array;
+    }
+
+    /**
+     * Borrows a byte buffer with position set to zero and limit set to
+     * {@code size}.
+     *
+     * @param size   size in byte
+     * @param direct whether to borrow direct buffer
+     * @return non-null byte buffer, its capacity might be greater than
+     *         {@code size}
+     */
+    public ByteBuffer borrowBuffer(int size, boolean direct) {
+        if (!direct) {
+            return ByteBuffer.wrap(borrowArray(size), 0, size);
+        } else if (size < 0) {
+            throw new IllegalArgumentException("Non-negative size is required");
+        }
+
+        int sizeClass = getSizeClass(size);
+        ByteBuffer buffer = null;
+        if (sizeClass < 0) {
+            buffer = ByteBuffer.allocateDirect(size);
+        } else if ((buffer = directBuffers.poll(sizeClass)) == null) {
+            buffer = ByteBuffer.allocateDirect(MIN_POOLED_SIZE << sizeClass);
+        }
+        onBorrow(buffer);
+        ((Buffer) buffer).limit(size);
+        return buffer;
+    }
+
+    /**
+     * Releases byte array borrowed from this pool.
+     *
+     * @param array byte array borrowed from this pool, null or empty array will
+     *              be ignored
+     */
+    public void release(byte[] array) {
+        if (array != null && array.length > 0 && onRelease(array)) {
+            int sizeClass = getExactSizeClass(array.length);
+            if (sizeClass >= 0) {
+                arrays.offer(sizeClass, array);
+            }
+        }
+    }
+
+    /**
+     * Releases byte buffer borrowed from this pool. Read-only buffer like
+     * {@link ClickHouseByteBuffer#EMPTY_BUFFER} will be ignored.
+     *
+     * @param buffer byte buffer borrowed from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isReadOnly() || buffer.capacity() == 0) {
+            return;
+        } else if (!buffer.isDirect()) {
+            if (buffer.arrayOffset() == 0) {
+                release(buffer.array());
+            }
+            return;
+        }
+
+        if (onRelease(buffer)) {
+            int sizeClass = getExactSizeClass(buffer.capacity());
+            if (sizeClass >= 0) {
+                ((Buffer) buffer).clear();
+                directBuffers.offer(sizeClass, buffer);
+            }
+        }
+    }
+
+    /**
+     * Gets number of buffers borrowed but not yet released.
+     *
+     * @return number of outstanding buffers
+     */
+    public long getOutstanding() {
+        return outstanding != null ? outstanding.size() : borrowed.sum() - released.sum();
+    }
+
+    /**
+     * Checks whether leak tracking is enabled or not.
+     *
+     * @return true if leak tracking is enabled; false otherwise
+     */
+    public boolean isTrackingLeaks() {
+        return outstanding != null;
+    }
+}
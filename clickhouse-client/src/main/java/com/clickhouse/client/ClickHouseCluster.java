@@ -12,35 +12,149 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+
 import com.clickhouse.client.ClickHouseNode.Status;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
 
 /**
  * List of {@link ClickHouseNode}. By default, all nodes are considered as
- * healthy. When connection issue happened, corresponding node will be moved to
- * unhealthy list, where a background thread will validate its status time from
- * time and eventually bring them back to healthy list if no issue.
+ * healthy. Outcome of requests sent to each node is tracked, and the node will
+ * be moved to unhealthy list after a few consecutive connection errors,
+ * timeouts or server errors indicating the node is in trouble. Unhealthy nodes
+ * are probed concurrently in background with exponential backoff, and they're
+ * also given a trial request from time to time. The node will be brought back
+ * to healthy list as soon as either of them succeeded.
  *
  * <p>
  * When a node's protocol is {@link ClickHouseProtocol#ANY}, this class will
  * also try to probe the protocol by sending a packet to the port and analyze
  * response from server.
  */
-class ClickHouseCluster implements Function<ClickHouseNodeSelector, ClickHouseNode>, Serializable {
+class ClickHouseCluster implements Function<ClickHouseNodeSelector, ClickHouseNode>, AutoCloseable, Serializable {
     private static final long serialVersionUID = 8684489015067906319L;
 
     private static final Logger log = LoggerFactory.getLogger(ClickHouseCluster.class);
 
     private static final String PARAM_NODES = "nodes";
 
+    // consecutive failures to trip the circuit
+    static final int FAILURE_THRESHOLD = 3;
+    // backoff in milliseconds before next probe or trial request
+    static final long INITIAL_BACKOFF = 1000L;
+    static final long MAX_BACKOFF = 60000L;
+    // timeout in milliseconds for probing an unhealthy node
+    static final int PROBE_TIMEOUT = 5000;
+    static final int MAX_PROBE_THREADS = 8;
+
+    /**
+     * Circuit breaker of a node.
+     */
+    static final class Circuit {
+        final AtomicInteger failures = new AtomicInteger();
+        // earliest time in milliseconds to send next trial request
+        final AtomicLong nextAttempt = new AtomicLong();
+
+        volatile boolean open;
+        volatile boolean trialing;
+        volatile long backoff = INITIAL_BACKOFF;
+    }
+
+    /**
+     * Manager of nodes in the cluster.
+     */
+    final class NodeManager implements BiConsumer<ClickHouseNode, Status> {
+        @Override
+        public void accept(ClickHouseNode node, Status status) {
+            update(node, status);
+        }
+
+        /**
+         * Records outcome of a request sent to the given node.
+         *
+         * @param node  non-null node
+         * @param error error occurred during execution, null means success
+         */
+        void record(ClickHouseNode node, Throwable error) {
+            ClickHouseCluster.this.record(node, error);
+        }
+    }
+
+    /**
+     * Checks whether the given error indicates the node is not able to serve
+     * requests, for example: connection refused, socket timeout or too many
+     * simultaneous queries. Errors like syntax error or unknown table are caused by
+     * the query, so they're not counted, and neither are per-query limits like
+     * TIMEOUT_EXCEEDED, as a slow query does not mean the node is unhealthy.
+     *
+     * @param error error occurred during execution
+     * @return true if the node is in trouble; false otherwise
+     */
+    static boolean isNodeFailure(Throwable error) {
+        if (ClickHouseException.isNetworkError(error)) {
+            return true;
+        }
+
+        for (Throwable t = error; t != null; t = t.getCause() != t ? t.getCause() : null) {
+            if (t instanceof ClickHouseException) {
+                switch (((ClickHouseException) t).getErrorCode()) {
+                    case 202: // TOO_MANY_SIMULTANEOUS_QUERIES
+                    case 209: // SOCKET_TIMEOUT
+                    case ClickHouseException.ERROR_NETWORK:
+                    case 242: // TABLE_IS_READ_ONLY
+                    case 279: // ALL_CONNECTION_TRIES_FAILED
+                    case 999: // KEEPER_EXCEPTION
+                    case ClickHouseException.ERROR_POCO:
+                        return true;
+                    default:
+                        // server error message may come with IOException, check code only
+                        return false;
+                }
+            } else if (t instanceof IOException || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether the given error is returned by server, which means the node
+     * is serving even though the query failed.
+     *
+     * @param error error occurred during execution
+     * @return true if the error came from server; false otherwise
+     */
+    static boolean isServerError(Throwable error) {
+        if (isNodeFailure(error)) {
+            return false;
+        }
+
+        for (Throwable t = error; t != null; t = t.getCause() != t ? t.getCause() : null) {
+            if (t instanceof ClickHouseException) {
+                int code = ((ClickHouseException) t).getErrorCode();
+                return code != ClickHouseException.ERROR_UNKNOWN && code != ClickHouseException.ERROR_ABORTED
+                        && code != ClickHouseException.ERROR_CANCELLED;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Enum of load balancing policy.
      */
@@ -223,14 +337,19 @@ class ClickHouseCluster implements Function<ClickHouseNodeSelector, ClickHouseNo
         log.warn("Exception caught from thread: " + r, t);
     }
 
-    private final AtomicBoolean checking;
     private final transient ScheduledExecutorService scheduledExecutor;
+    private final transient ExecutorService probeExecutor;
+    private final transient Map<ClickHouseProtocol, ClickHouseClient> probeClients;
+    private final transient Map<ClickHouseNode, Circuit> circuits;
+    private final transient NodeManager manager;
     private final List<ClickHouseNode> unhealthyNodes;
 
     private final AtomicInteger index;
     private final List<ClickHouseNode> nodes;
     private final LoadBalancingPolicy lbPolicy;
 
+    private volatile boolean closed;
+
     /**
      * Constructor cluster object using list of nodes.
      *
@@ -250,7 +369,6 @@ class ClickHouseCluster implements Function<ClickHouseNodeSelector, ClickHouseNo
     protected ClickHouseCluster(LoadBalancingPolicy policy, Collection<ClickHouseNode> nodes) {
         this.lbPolicy = policy == null ? LoadBalancingPolicy.ROUND_ROBIN : policy;
 
-        this.checking = new AtomicBoolean(false);
         this.index = new AtomicInteger(0);
 
         int size = ClickHouseChecker.nonNull(nodes, PARAM_NODES).size();
@@ -268,24 +386,36 @@ class ClickHouseCluster implements Function<ClickHouseNodeSelector, ClickHouseNo
                 return thread;
             }
         });
+        // blocking probes run in parallel but separately from queries
+        this.probeExecutor = ClickHouseUtils.newThreadPool(this, Math.min(Math.max(size, 1), MAX_PROBE_THREADS), 0);
+        this.probeClients = new ConcurrentHashMap<>();
+        this.circuits = new ConcurrentHashMap<>();
+        this.manager = new NodeManager();
 
         for (ClickHouseNode node : nodes) {
             if (node == null) {
                 continue;
             }
 
-            probe(node).setManager(this::update);
+            probe(node).setManager(manager);
         }
     }
 
     protected synchronized void update(ClickHouseNode node, Status status) {
+        Circuit c;
         switch (status) {
             case UNMANAGED:
                 nodes.remove(node);
                 unhealthyNodes.remove(node);
+                circuits.remove(node);
                 break;
             case MANAGED:
             case HEALTHY:
+                c = circuits.computeIfAbsent(node, k -> new Circuit());
+                c.failures.set(0);
+                c.open = false;
+                c.trialing = false;
+                c.backoff = INITIAL_BACKOFF;
                 unhealthyNodes.remove(node);
                 if (!nodes.contains(node)) {
                     nodes.add(node);
@@ -296,9 +426,9 @@ class ClickHouseCluster implements Function<ClickHouseNodeSelector, ClickHouseNo
                 if (!unhealthyNodes.contains(node)) {
                     unhealthyNodes.add(node);
 
-                    if (!checking.get()) {
-                        this.scheduledExecutor.execute(this::check);
-                    }
+                    c = circuits.computeIfAbsent(node, k -> new Circuit());
+                    c.open = true;
+                    schedule(node, c);
                 }
                 break;
             default:
@@ -306,38 +436,145 @@ class ClickHouseCluster implements Function<ClickHouseNodeSelector, ClickHouseNo
         }
     }
 
-    protected void check() {
-        if (checking.compareAndSet(false, true)) {
+    /**
+     * Gets backoff with jitter, so that probes against different nodes spread
+     * out.
+     *
+     * @param backoff backoff in milliseconds
+     * @return backoff with +/-20% jitter
+     */
+    static long jitter(long backoff) {
+        long delta = backoff / 5;
+        return delta > 0L ? backoff - delta + ThreadLocalRandom.current().nextLong(delta * 2 + 1) : backoff;
+    }
+
+    /**
+     * Schedules next probe of the given unhealthy node.
+     *
+     * @param node non-null unhealthy node
+     * @param c    non-null circuit of the node
+     */
+    protected void schedule(ClickHouseNode node, Circuit c) {
+        long delay = jitter(c.backoff);
+        c.nextAttempt.set(System.currentTimeMillis() + delay);
+        try {
+            scheduledExecutor.schedule(() -> probeExecutor.execute(() -> check(node, c)), delay,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (!closed) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Doubles backoff of the given circuit.
+     *
+     * @param c non-null circuit
+     */
+    static void backoff(Circuit c) {
+        c.backoff = Math.min(c.backoff * 2, MAX_BACKOFF);
+    }
+
+    /**
+     * Pings the unhealthy node, and brings it back to healthy list when it's
+     * alive, or schedules next probe otherwise.
+     *
+     * @param node non-null unhealthy node
+     * @param c    non-null circuit of the node
+     */
+    protected void check(ClickHouseNode node, Circuit c) {
+        if (closed || !c.open || circuits.get(node) != c) { // closed, recovered or removed
             return;
         }
 
-        // detect flaky node and check it in a different way(less frequency)
+        boolean isAlive = false;
         try {
-            boolean passed = true;
-            int timeout = 5000;
-            for (int i = 0; i < unhealthyNodes.size(); i++) {
-                ClickHouseNode node = probe(unhealthyNodes.get(i), timeout);
-
-                // probe is faster than ping but it cannot tell if the server works or not
-                boolean isAlive = false;
-                try (ClickHouseClient client = ClickHouseClient.newInstance(node.getProtocol())) {
-                    isAlive = client.ping(node, timeout);
-                } catch (Exception e) {
-                    // ignore
-                }
-                if (isAlive) { // another configuration?
-                    update(node, Status.HEALTHY);
-                } else {
-                    passed = false;
+            // client is reused and ping will probe the node when needed
+            isAlive = probeClients.computeIfAbsent(node.getProtocol(), ClickHouseClient::newInstance).ping(node,
+                    PROBE_TIMEOUT);
+        } catch (Exception e) {
+            log.debug("Failed to ping %s due to %s", node, e.getMessage());
+        }
+
+        if (isAlive) {
+            update(node, Status.HEALTHY);
+        } else if (c.open && !closed) {
+            backoff(c);
+            schedule(node, c);
+        }
+    }
+
+    /**
+     * Records outcome of a request sent to the given node. Circuit of the node
+     * will be tripped after {@link #FAILURE_THRESHOLD} consecutive failures, and
+     * closed again on first response from server, even if it's a query error.
+     *
+     * @param node  non-null node
+     * @param error error occurred during execution, null means success
+     */
+    protected void record(ClickHouseNode node, Throwable error) {
+        Circuit c = circuits.get(node);
+        if (c == null) {
+            return;
+        }
+
+        if (error == null) {
+            if (c.open) {
+                update(node, Status.HEALTHY);
+            } else if (c.failures.get() != 0) {
+                c.failures.set(0);
+            }
+        } else if (c.open && isServerError(error)) {
+            // node is serving, the query is to blame
+            update(node, Status.HEALTHY);
+        } else if (isNodeFailure(error)) {
+            if (!c.open) {
+                if (c.failures.incrementAndGet() >= FAILURE_THRESHOLD) {
+                    log.debug("Marking %s as unhealthy after %d consecutive failures", node, FAILURE_THRESHOLD);
+                    update(node, Status.UNHEALTHY);
                 }
+            } else if (c.trialing) { // trial request failed
+                c.trialing = false;
+                backoff(c);
+                c.nextAttempt.set(System.currentTimeMillis() + jitter(c.backoff));
             }
+        }
+    }
 
-            if (!passed) {
-                this.scheduledExecutor.schedule(this::check, 3L, TimeUnit.SECONDS);
+    /**
+     * Gets circuit of the given node.
+     *
+     * @param node non-null node
+     * @return circuit of the node, or null if the node is not managed
+     */
+    Circuit getCircuit(ClickHouseNode node) {
+        return circuits.get(node);
+    }
+
+    /**
+     * Gets an unhealthy node, whose backoff has expired, for trial request.
+     *
+     * @param t          node selector
+     * @param noSelector whether node selector is empty
+     * @return unhealthy node for trial request, or null if there's none
+     */
+    protected ClickHouseNode getTrialNode(ClickHouseNodeSelector t, boolean noSelector) {
+        long now = System.currentTimeMillis();
+        for (ClickHouseNode node : unhealthyNodes) {
+            Circuit c = circuits.get(node);
+            if (c == null || !c.open || (!noSelector && !t.match(node))) {
+                continue;
+            }
+
+            long next = c.nextAttempt.get();
+            // only one trial request until backoff expires again
+            if (next <= now && c.nextAttempt.compareAndSet(next, now + jitter(c.backoff))) {
+                c.trialing = true;
+                return node;
             }
-        } finally {
-            checking.set(false);
         }
+        return null;
     }
 
     /**
@@ -371,6 +608,13 @@ class ClickHouseCluster implements Function<ClickHouseNodeSelector, ClickHouseNo
     public synchronized ClickHouseNode apply(ClickHouseNodeSelector t) {
         boolean noSelector = t == null || t == ClickHouseNodeSelector.EMPTY;
 
+        if (!unhealthyNodes.isEmpty()) {
+            ClickHouseNode node = getTrialNode(t, noSelector);
+            if (node != null) {
+                return node;
+            }
+        }
+
         if (nodes.isEmpty()) {
             // TODO wait until timed out?
             throw new IllegalArgumentException("No healthy node available");
@@ -409,4 +653,28 @@ class ClickHouseCluster implements Function<ClickHouseNodeSelector, ClickHouseNo
 
         return matched;
     }
+
+    /**
+     * Stops probing unhealthy nodes and closes clients used for probing. Nodes
+     * in the cluster are still accessible but their status will no longer be
+     * updated in background.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        scheduledExecutor.shutdownNow();
+        probeExecutor.shutdownNow();
+        for (ClickHouseClient client : probeClients.values()) {
+            try {
+                client.close();
+            } catch (Exception e) {
+                log.debug("Failed to close probe client due to %s", e.getMessage());
+            }
+        }
+        probeClients.clear();
+    }
 }
@@ -25,6 +25,12 @@ public final class ClickHouseColumn implements Serializable {
     private static final String KEYWORD_MAP = ClickHouseDataType.Map.name();
     private static final String KEYWORD_NESTED = ClickHouseDataType.Nested.name();
 
+    // parsed types and column lists, which are immutable and can be shared
+    private static final ClickHouseCache<String, ClickHouseColumn> typeCache = ClickHouseCache.create(1000, 1800,
+            ClickHouseColumn::readType);
+    private static final ClickHouseCache<String, List<ClickHouseColumn>> columnsCache = ClickHouseCache.create(100,
+            1800, ClickHouseColumn::readColumns);
+
     private String originalTypeName;
     private String columnName;
 
@@ -200,7 +206,7 @@ public final class ClickHouseColumn implements Serializable {
                     aggFunc = ClickHouseAggregateFunction.of(pIndex > 0 ? p.substring(0, pIndex) : p);
                     isFirst = false;
                 } else {
-                    nestedColumns.add(ClickHouseColumn.of("", p));
+                    nestedColumns.add(readType(p));
                 }
             }
             column = new ClickHouseColumn(ClickHouseDataType.valueOf(matchedKeyword), name,
@@ -256,7 +262,7 @@ public final class ClickHouseColumn implements Serializable {
             }
             i = ClickHouseUtils.skipBrackets(args, index, len, '(');
             String originalTypeName = args.substring(startIndex, i);
-            List<ClickHouseColumn> nestedColumns = parse(args.substring(index + 1, i - 1));
+            List<ClickHouseColumn> nestedColumns = readColumns(args.substring(index + 1, i - 1));
             if (nestedColumns.isEmpty()) {
                 throw new IllegalArgumentException("Nested should have at least one nested column");
             }
@@ -380,20 +386,28 @@ public final class ClickHouseColumn implements Serializable {
                 new ClickHouseColumn(dataType, columnName, null, nullable, false, null, Arrays.asList(nestedColumns)));
     }
 
-    public static ClickHouseColumn of(String columnName, String columnType) {
-        if (columnName == null || columnType == null) {
-            throw new IllegalArgumentException("Non-null columnName and columnType are required");
-        }
-
+    /**
+     * Parses the given column type without using cache.
+     *
+     * @param columnType non-null column type
+     * @return non-null column without name
+     */
+    static ClickHouseColumn readType(String columnType) {
         List<ClickHouseColumn> list = new ArrayList<>(1);
-        readColumn(columnType, 0, columnType.length(), columnName, list);
+        readColumn(columnType, 0, columnType.length(), "", list);
         if (list.size() != 1) { // should not happen
             throw new IllegalArgumentException("Failed to parse given column");
         }
         return list.get(0);
     }
 
-    public static List<ClickHouseColumn> parse(String args) {
+    /**
+     * Parses the given list of columns without using cache.
+     *
+     * @param args column definitions, for example: {@code a String, b Int32}
+     * @return non-null unmodifiable list of columns
+     */
+    static List<ClickHouseColumn> readColumns(String args) {
         if (args == null || args.isEmpty()) {
             return Collections.emptyList();
         }
@@ -430,6 +444,56 @@ public final class ClickHouseColumn implements Serializable {
         return Collections.unmodifiableList(c);
     }
 
+    /**
+     * Creates a column by parsing the given type. Parsed type is cached and
+     * shared, so only the column name differs among columns of the same type.
+     *
+     * @param columnName non-null column name
+     * @param columnType non-null column type
+     * @return non-null column
+     */
+    public static ClickHouseColumn of(String columnName, String columnType) {
+        if (columnName == null || columnType == null) {
+            throw new IllegalArgumentException("Non-null columnName and columnType are required");
+        }
+
+        ClickHouseColumn column = typeCache.get(columnType);
+        return column.columnName.equals(columnName) ? column : new ClickHouseColumn(column, columnName);
+    }
+
+    /**
+     * Parses the given list of columns. Same as {@link #of(String, String)}, the
+     * result is cached.
+     *
+     * @param args column definitions, for example: {@code a String, b Int32}
+     * @return non-null unmodifiable list of columns
+     */
+    public static List<ClickHouseColumn> parse(String args) {
+        return args == null || args.isEmpty() ? Collections.emptyList() : columnsCache.get(args);
+    }
+
+    private ClickHouseColumn(ClickHouseColumn column, String columnName) {
+        this.originalTypeName = column.originalTypeName;
+        this.columnName = columnName;
+
+        this.aggFuncType = column.aggFuncType;
+        this.dataType = column.dataType;
+        this.nullable = column.nullable;
+        this.lowCardinality = column.lowCardinality;
+        this.timeZone = column.timeZone;
+        this.precision = column.precision;
+        this.scale = column.scale;
+        this.nested = column.nested;
+        this.parameters = column.parameters;
+        this.enumConstants = column.enumConstants;
+
+        this.arrayLevel = column.arrayLevel;
+        this.arrayBaseColumn = column.arrayBaseColumn;
+
+        this.fixedByteLength = column.fixedByteLength;
+        this.estimatedByteLength = column.estimatedByteLength;
+    }
+
     private ClickHouseColumn(ClickHouseDataType dataType, String columnName, String originalTypeName, boolean nullable,
             boolean lowCardinality, List<String> parameters, List<ClickHouseColumn> nestedColumns) {
         this.aggFuncType = null;
@@ -101,6 +101,10 @@ public class ClickHouseConfig implements Serializable {
 
     // common options optimized for read
     private final boolean async;
+    private final int batchLingerTime;
+    private final int batchMaxBytes;
+    private final int batchMaxPendingBytes;
+    private final int batchMaxRows;
     private final String clientName;
     private final boolean compressServerResponse;
     private final ClickHouseCompression compressAlgorithm;
@@ -117,6 +121,9 @@ public class ClickHouseConfig implements Serializable {
     private final int maxQueuedRequests;
     private final long maxResultRows;
     private final int maxThreads;
+    private final int resultCacheMaxEntrySize;
+    private final int resultCacheSize;
+    private final int resultCacheTtl;
     private final boolean retry;
     private final boolean reuseValueWrapper;
     private final boolean serverInfo;
@@ -131,6 +138,7 @@ public class ClickHouseConfig implements Serializable {
     private final String sslCert;
     private final String sslKey;
     private final boolean useObjectsInArray;
+    private final boolean usePrimitiveMap;
     private final boolean useServerTimeZone;
     private final boolean useServerTimeZoneForDates;
     private final TimeZone timeZoneForDate;
@@ -179,6 +187,10 @@ public class ClickHouseConfig implements Serializable {
         }
 
         this.async = (boolean) getOption(ClickHouseClientOption.ASYNC, ClickHouseDefaults.ASYNC);
+        this.batchLingerTime = (int) getOption(ClickHouseClientOption.BATCH_LINGER_TIME);
+        this.batchMaxBytes = (int) getOption(ClickHouseClientOption.BATCH_MAX_BYTES);
+        this.batchMaxPendingBytes = (int) getOption(ClickHouseClientOption.BATCH_MAX_PENDING_BYTES);
+        this.batchMaxRows = (int) getOption(ClickHouseClientOption.BATCH_MAX_ROWS);
         this.clientName = (String) getOption(ClickHouseClientOption.CLIENT_NAME);
         this.compressServerResponse = (boolean) getOption(ClickHouseClientOption.COMPRESS);
         this.compressAlgorithm = (ClickHouseCompression) getOption(ClickHouseClientOption.COMPRESS_ALGORITHM);
@@ -195,6 +207,9 @@ public class ClickHouseConfig implements Serializable {
         this.maxQueuedRequests = (int) getOption(ClickHouseClientOption.MAX_QUEUED_REQUESTS);
         this.maxResultRows = (long) getOption(ClickHouseClientOption.MAX_RESULT_ROWS);
         this.maxThreads = (int) getOption(ClickHouseClientOption.MAX_THREADS_PER_CLIENT);
+        this.resultCacheMaxEntrySize = (int) getOption(ClickHouseClientOption.RESULT_CACHE_MAX_ENTRY_SIZE);
+        this.resultCacheSize = (int) getOption(ClickHouseClientOption.RESULT_CACHE_SIZE);
+        this.resultCacheTtl = (int) getOption(ClickHouseClientOption.RESULT_CACHE_TTL);
         this.retry = (boolean) getOption(ClickHouseClientOption.RETRY);
         this.reuseValueWrapper = (boolean) getOption(ClickHouseClientOption.REUSE_VALUE_WRAPPER);
         this.serverInfo = !ClickHouseChecker.isNullOrBlank((String) getOption(ClickHouseClientOption.SERVER_TIME_ZONE))
@@ -212,6 +227,7 @@ public class ClickHouseConfig implements Serializable {
         this.sslCert = (String) getOption(ClickHouseClientOption.SSL_CERTIFICATE);
         this.sslKey = (String) getOption(ClickHouseClientOption.SSL_KEY);
         this.useObjectsInArray = (boolean) getOption(ClickHouseClientOption.USE_OBJECTS_IN_ARRAYS);
+        this.usePrimitiveMap = (boolean) getOption(ClickHouseClientOption.USE_PRIMITIVE_MAP);
         this.useServerTimeZone = (boolean) getOption(ClickHouseClientOption.USE_SERVER_TIME_ZONE);
         this.useServerTimeZoneForDates = (boolean) getOption(ClickHouseClientOption.USE_SERVER_TIME_ZONE_FOR_DATES);
 
@@ -235,6 +251,22 @@ public class ClickHouseConfig implements Serializable {
         return async;
     }
 
+    public int getBatchLingerTime() {
+        return batchLingerTime;
+    }
+
+    public int getBatchMaxBytes() {
+        return batchMaxBytes;
+    }
+
+    public int getBatchMaxPendingBytes() {
+        return batchMaxPendingBytes;
+    }
+
+    public int getBatchMaxRows() {
+        return batchMaxRows;
+    }
+
     public String getClientName() {
         return clientName;
     }
@@ -299,6 +331,18 @@ public class ClickHouseConfig implements Serializable {
         return maxThreads;
     }
 
+    public int getResultCacheMaxEntrySize() {
+        return resultCacheMaxEntrySize;
+    }
+
+    public int getResultCacheSize() {
+        return resultCacheSize;
+    }
+
+    public int getResultCacheTtl() {
+        return resultCacheTtl;
+    }
+
     public boolean isRetry() {
         return retry;
     }
@@ -360,6 +404,10 @@ public class ClickHouseConfig implements Serializable {
         return useObjectsInArray;
     }
 
+    public boolean isUsePrimitiveMap() {
+        return usePrimitiveMap;
+    }
+
     public boolean isUseServerTimeZone() {
         return useServerTimeZone;
     }
@@ -5,8 +5,13 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.clickhouse.client.data.mapper.ClickHouseRowMapper;
+import com.clickhouse.client.data.vector.ClickHouseColumnBatch;
 
 /**
  * This defines a data processor for dealing with one or multiple
@@ -105,6 +110,23 @@ public abstract class ClickHouseDataProcessor {
         }
     }
 
+    /**
+     * Gets a batch for reading up to {@code maxRows} rows. The given batch will be
+     * reset and reused when {@link ClickHouseConfig#isReuseValueWrapper()} is
+     * true.
+     *
+     * @param batch   current batch, could be null
+     * @param maxRows maximum number of rows in the batch
+     * @return non-null empty batch
+     */
+    protected ClickHouseColumnBatch nextBatch(ClickHouseColumnBatch batch, int maxRows) {
+        if (batch != null && config.isReuseValueWrapper()) {
+            batch.reset();
+            return batch;
+        }
+        return ClickHouseColumnBatch.of(config, columns, Math.min(maxRows, 8192));
+    }
+
     /**
      * Gets list of columns to process.
      *
@@ -123,4 +145,72 @@ public abstract class ClickHouseDataProcessor {
      * @return non-null iterable collection
      */
     public abstract Iterable<ClickHouseRecord> records();
+
+    /**
+     * Returns an iterable collection of objects converted from records. Same as
+     * {@link #records()}, {@link java.io.UncheckedIOException} might be thrown
+     * during iteration, and it's not supposed to be called for more than once.
+     *
+     * @param <T>      type of the object
+     * @param objClass non-null class of the object, which must have a
+     *                 no-argument constructor
+     * @return non-null iterable collection
+     */
+    public <T> Iterable<T> records(Class<T> objClass) {
+        final ClickHouseRowMapper<T> mapper = ClickHouseRowMapper.of(config, columns, objClass);
+        final Iterable<ClickHouseRecord> records = records();
+        return () -> {
+            final Iterator<ClickHouseRecord> it = records.iterator();
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return mapper.read(it.next());
+                }
+            };
+        };
+    }
+
+    /**
+     * Returns an iterable collection of column batches, each containing up to
+     * {@code maxRows} rows. Same as {@link #records()},
+     * {@link java.io.UncheckedIOException} might be thrown during iteration, and
+     * it's not supposed to be called for more than once. Please pay attention
+     * that batch will be reused when {@link ClickHouseConfig#isReuseValueWrapper()}
+     * is true.
+     *
+     * @param maxRows maximum number of rows in a batch, must be positive
+     * @return non-null iterable collection
+     */
+    public Iterable<ClickHouseColumnBatch> batches(int maxRows) {
+        ClickHouseChecker.notLessThan(maxRows, "maxRows", 1);
+
+        final Iterable<ClickHouseRecord> records = records();
+        return () -> new Iterator<ClickHouseColumnBatch>() {
+            private final Iterator<ClickHouseRecord> it = records.iterator();
+            private ClickHouseColumnBatch batch;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public ClickHouseColumnBatch next() {
+                if (!it.hasNext()) {
+                    throw new NoSuchElementException("No more batch");
+                }
+
+                batch = nextBatch(batch, maxRows);
+                for (int i = 0; i < maxRows && it.hasNext(); i++) {
+                    batch.append(it.next());
+                }
+                return batch;
+            }
+        };
+    }
 }
@@ -0,0 +1,33 @@
+package com.clickhouse.client;
+
+import java.io.IOException;
+
+import com.clickhouse.client.data.vector.ClickHouseColumnBatch;
+
+/**
+ * Data processor capable of serializing objects and column batches, in
+ * addition to reading and writing records. It's implemented by built-in
+ * processors, and kept apart from {@link ClickHouseDataProcessor} so that
+ * existing processors do not have to implement it.
+ */
+public interface ClickHouseDataWriter {
+    /**
+     * Writes objects into output stream. It can be called multiple times, and
+     * header required by the format is only written before the first object.
+     *
+     * @param <T>      type of the object
+     * @param objects  non-null objects
+     * @param objClass non-null class of the object
+     * @throws IOException when failed to write data into output stream
+     */
+    <T> void write(Iterable<T> objects, Class<T> objClass) throws IOException;
+
+    /**
+     * Writes column batch into output stream. It can be called multiple times,
+     * and header required by the format is only written before the first batch.
+     *
+     * @param batch non-null column batch
+     * @throws IOException when failed to write data into output stream
+     */
+    void write(ClickHouseColumnBatch batch) throws IOException;
+}
@@ -1,9 +1,13 @@
 package com.clickhouse.client;
 
 import java.net.ConnectException;
+import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
 import java.util.concurrent.TimeoutException;
 
+import javax.net.ssl.SSLException;
+
 /**
  * Exception thrown from ClickHouse server. See full list at
  * https://github.com/ClickHouse/ClickHouse/blob/master/src/Common/ErrorCodes.cpp.
@@ -69,6 +73,26 @@ public class ClickHouseException extends Exception {
         return ERROR_UNKNOWN;
     }
 
+    /**
+     * Checks whether the given error, or any of its causes, is a network error,
+     * for example: connection refused, connection reset, socket timeout or unknown
+     * host. Errors returned by server, like syntax error or unknown table, are not.
+     *
+     * @param error error to check
+     * @return true if it's a network error; false otherwise
+     */
+    public static boolean isNetworkError(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() != t ? t.getCause() : null) {
+            if (t instanceof SocketException || t instanceof SocketTimeoutException
+                    || t instanceof UnknownHostException || t instanceof SSLException
+                    || (t instanceof ClickHouseException && ((ClickHouseException) t).errorCode == ERROR_NETWORK)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Creates an exception for cancellation.
      *
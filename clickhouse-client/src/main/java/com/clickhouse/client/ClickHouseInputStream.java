@@ -29,22 +29,38 @@ public abstract class ClickHouseInputStream extends InputStream {
 
     static final int MIN_BUFFER_SIZE = 1;
     static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+    static final int MIN_SCRATCH_SIZE = 64;
+    static final int MAX_SCRATCH_SIZE = 8192;
     static final String INCOMPLETE_READ_ERROR = "Reached end of input stream after reading %d of %d bytes";
 
     static final class BlockingInputStream extends ClickHouseInputStream {
         private final BlockingQueue<ByteBuffer> queue;
         private final int timeout;
+        private final ClickHouseBufferPool pool;
 
         // too much to maintain a 2-level buffer for reading?
         private ByteBuffer buffer;
+        // reusable array for reading small values from buffers without accessible
+        // array, for example read-only slices handed over by transport
+        private byte[] scratch;
 
-        BlockingInputStream(BlockingQueue<ByteBuffer> queue, int timeout, Runnable afterClose) {
+        BlockingInputStream(BlockingQueue<ByteBuffer> queue, int timeout, ClickHouseBufferPool pool,
+                Runnable afterClose) {
             super(afterClose);
 
             this.queue = ClickHouseChecker.nonNull(queue, "Queue");
             this.timeout = timeout > 0 ? timeout : 0;
+            this.pool = pool;
 
             this.buffer = null;
+            this.scratch = null;
+        }
+
+        private byte[] getScratch(int size) {
+            if (scratch == null || scratch.length < size) {
+                scratch = new byte[Math.max(size, MIN_SCRATCH_SIZE)];
+            }
+            return scratch;
         }
 
         private void ensureOpen() throws IOException {
@@ -59,7 +75,15 @@ public abstract class ClickHouseInputStream extends InputStream {
             }
         }
 
+        private void releaseBuffer() {
+            if (pool != null && buffer != null && buffer != ClickHouseByteBuffer.EMPTY_BUFFER) {
+                pool.release(buffer);
+            }
+            buffer = null;
+        }
+
         private int updateBuffer() throws IOException {
+            releaseBuffer();
             try {
                 if (timeout > 0) {
                     buffer = queue.poll(timeout, TimeUnit.MILLISECONDS);
@@ -90,7 +114,7 @@ public abstract class ClickHouseInputStream extends InputStream {
         public void close() throws IOException {
             // it's caller's responsiblity to consume all data in the queue, which will
             // unblock writer
-            buffer = null;
+            releaseBuffer();
             super.close();
         }
 
@@ -122,12 +146,16 @@ public abstract class ClickHouseInputStream extends InputStream {
                     if (buffer.hasArray()) {
                         byte[] bytes = buffer.array();
                         int pos = buffer.position();
-                        output.write(bytes, pos, remain);
+                        output.write(bytes, buffer.arrayOffset() + pos, remain);
                         ((Buffer) buffer).position(pos + remain);
                     } else {
-                        byte[] bytes = new byte[remain];
-                        buffer.get(bytes);
-                        output.write(bytes);
+                        byte[] bytes = getScratch(Math.min(remain, MAX_SCRATCH_SIZE));
+                        for (int len = remain; len > 0;) {
+                            int n = Math.min(len, bytes.length);
+                            buffer.get(bytes, 0, n);
+                            output.write(bytes, 0, n);
+                            len -= n;
+                        }
                     }
                     count += remain;
                 }
@@ -188,8 +216,13 @@ public abstract class ClickHouseInputStream extends InputStream {
                 throw new EOFException();
             } else if (buffer.remaining() >= len && buffer.hasArray()) {
                 int position = buffer.position();
-                byteBuffer.update(buffer.array(), position, len);
+                byteBuffer.update(buffer.array(), buffer.arrayOffset() + position, len);
                 ((Buffer) buffer).position(position + len);
+            } else if (buffer.remaining() >= len && len <= MAX_SCRATCH_SIZE) {
+                // same as above, returned bytes are only valid till next read
+                byte[] bytes = getScratch(len);
+                buffer.get(bytes, 0, len);
+                byteBuffer.update(bytes, 0, len);
             } else {
                 byteBuffer.update(readBytes(len));
             }
@@ -396,12 +429,14 @@ public abstract class ClickHouseInputStream extends InputStream {
                 position += len;
                 return len;
             } else if (len <= buffer.length) {
+                // remaining bytes are kept at the beginning of the buffer
                 if (!updateBuffer()) {
                     return -1;
                 }
-                System.arraycopy(buffer, 0, b, off, limit);
-                position = limit;
-                return limit;
+                int size = Math.min(len, limit);
+                System.arraycopy(buffer, 0, b, off, size);
+                position = size;
+                return size;
             }
 
             ensureOpen();
@@ -412,18 +447,20 @@ public abstract class ClickHouseInputStream extends InputStream {
                 System.arraycopy(buffer, position, b, off, remain);
                 counter += remain;
                 off += remain;
+                position = limit;
             }
 
             while (counter < len) {
-                int read = in.read(b, off, len - off);
+                int read = in.read(b, off, len - counter);
                 if (read == -1) {
                     break;
                 } else {
                     off += read;
+                    counter += read;
                 }
             }
 
-            return counter;
+            return counter > 0 ? counter : -1;
         }
 
         @Override
@@ -536,7 +573,7 @@ public abstract class ClickHouseInputStream extends InputStream {
      * @return wrapped input
      */
     public static ClickHouseInputStream of(BlockingQueue<ByteBuffer> queue, int timeout) {
-        return new BlockingInputStream(queue, timeout, null);
+        return new BlockingInputStream(queue, timeout, null, null);
     }
 
     /**
@@ -549,7 +586,23 @@ public abstract class ClickHouseInputStream extends InputStream {
      * @return wrapped input
      */
     public static ClickHouseInputStream of(BlockingQueue<ByteBuffer> queue, int timeout, Runnable afterClose) {
-        return new BlockingInputStream(queue, timeout, afterClose);
+        return new BlockingInputStream(queue, timeout, null, afterClose);
+    }
+
+    /**
+     * Wraps the given blocking queue, whose buffers were borrowed from
+     * {@code pool} and will be released back to the pool once consumed.
+     *
+     * @param queue      non-null blocking queue
+     * @param timeout    read timeout in milliseconds
+     * @param pool       buffer pool, null means buffers will not be recycled
+     * @param afterClose custom handler will be invoked right after closing the
+     *                   input stream
+     * @return wrapped input
+     */
+    public static ClickHouseInputStream of(BlockingQueue<ByteBuffer> queue, int timeout, ClickHouseBufferPool pool,
+            Runnable afterClose) {
+        return new BlockingInputStream(queue, timeout, pool, afterClose);
     }
 
     /**
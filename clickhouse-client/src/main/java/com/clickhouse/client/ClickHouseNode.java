@@ -441,7 +441,7 @@ public class ClickHouseNode implements Function<ClickHouseNodeSelector, ClickHou
     private final ClickHouseVersion version;
     // TODO: metrics
 
-    private transient BiConsumer<ClickHouseNode, Status> manager;
+    private transient volatile BiConsumer<ClickHouseNode, Status> manager;
 
     protected ClickHouseNode(Builder builder) {
         ClickHouseChecker.nonNull(builder, "builder");
@@ -644,6 +644,28 @@ public class ClickHouseNode implements Function<ClickHouseNodeSelector, ClickHou
         }
     }
 
+    /**
+     * Checks whether outcome of requests sent to this node should be recorded.
+     *
+     * @return true if the node is managed by a cluster; false otherwise
+     */
+    boolean isMonitored() {
+        return this.manager instanceof ClickHouseCluster.NodeManager;
+    }
+
+    /**
+     * Records outcome of a request sent to this node, so that the cluster
+     * managing this node, if any, can detect failure from real traffic.
+     *
+     * @param error error occurred during execution, null means success
+     */
+    void record(Throwable error) {
+        BiConsumer<ClickHouseNode, Status> m = this.manager;
+        if (m instanceof ClickHouseCluster.NodeManager) {
+            ((ClickHouseCluster.NodeManager) m).record(this, error);
+        }
+    }
+
     @Override
     public ClickHouseNode apply(ClickHouseNodeSelector t) {
         if (t != null && t != ClickHouseNodeSelector.EMPTY
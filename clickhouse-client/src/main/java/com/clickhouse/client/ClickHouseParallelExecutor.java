@@ -0,0 +1,525 @@
+package com.clickhouse.client;
+
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Executor running independent requests concurrently, with bounded
+ * parallelism and per-request timeout. Requests are sent in the order they
+ * were submitted, and each of them is routed by its own node function, so
+ * requests connected to a cluster will be spread across available nodes
+ * according to the load balancing policy. Results are always collected in
+ * submission order.
+ *
+ * <p>
+ * Parallelism only limits requests waiting for response. A slot is released
+ * as soon as the response (or error) arrives, not when the response is
+ * closed, because {@link #execute(List)} hands over responses only
+ * after all of them arrived and holding slots until then would never finish
+ * when there are more requests than slots. Since responses are streamed,
+ * each of them still holds a connection until it's closed, so the number of
+ * open connections is not bounded by parallelism. It's caller's
+ * responsibility to close all responses, preferably one after another as
+ * they're consumed. Requests
+ * depending on each other, for example mutations against same table or
+ * statements sharing a session, should be sent one after another using
+ * {@link ClickHouseClient#send(ClickHouseNode, String, String...)} instead.
+ */
+public class ClickHouseParallelExecutor implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseParallelExecutor.class);
+
+    static final class Task {
+        final ClickHouseRequest<?> request;
+        final CompletableFuture<ClickHouseResponse> future;
+
+        Task(ClickHouseRequest<?> request) {
+            this.request = request;
+            this.future = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Response concatenating records of responses returned from multiple nodes.
+     */
+    static final class MergedResponse implements ClickHouseResponse {
+        private static final long serialVersionUID = -1937604317224356475L;
+
+        private final transient List<ClickHouseResponse> responses;
+        private final List<ClickHouseColumn> columns;
+
+        private boolean closed;
+
+        MergedResponse(List<ClickHouseResponse> responses) {
+            this.responses = responses;
+            this.columns = responses.isEmpty() ? Collections.emptyList() : responses.get(0).getColumns();
+
+            for (ClickHouseResponse r : responses) {
+                if (!columns.equals(r.getColumns())) {
+                    throw new IllegalArgumentException(
+                            ClickHouseUtils.format("Cannot merge responses with different columns: %s and %s",
+                                    columns, r.getColumns()));
+                }
+            }
+        }
+
+        @Override
+        public ClickHouseConfig getConfig() {
+            return responses.isEmpty() ? ClickHouseResponse.super.getConfig() : responses.get(0).getConfig();
+        }
+
+        @Override
+        public List<ClickHouseColumn> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public ClickHouseResponseSummary getSummary() {
+            long readRows = 0L;
+            long readBytes = 0L;
+            long totalRowsToRead = 0L;
+            long writtenRows = 0L;
+            long writtenBytes = 0L;
+            long rows = 0L;
+            long blocks = 0L;
+            long allocatedBytes = 0L;
+            boolean appliedLimit = false;
+            long rowsBeforeLimit = 0L;
+            for (ClickHouseResponse r : responses) {
+                ClickHouseResponseSummary s = r.getSummary();
+                ClickHouseResponseSummary.Progress p = s.getProgress();
+                readRows += p.getReadRows();
+                readBytes += p.getReadBytes();
+                totalRowsToRead += p.getTotalRowsToRead();
+                writtenRows += p.getWrittenRows();
+                writtenBytes += p.getWrittenBytes();
+                ClickHouseResponseSummary.Statistics st = s.getStatistics();
+                rows += st.getRows();
+                blocks += st.getBlocks();
+                allocatedBytes += st.getAllocatedBytes();
+                appliedLimit = appliedLimit || st.hasAppliedLimit();
+                rowsBeforeLimit += st.getRowsBeforeLimit();
+            }
+            return new ClickHouseResponseSummary(
+                    new ClickHouseResponseSummary.Progress(readRows, readBytes, totalRowsToRead, writtenRows,
+                            writtenBytes),
+                    new ClickHouseResponseSummary.Statistics(rows, blocks, allocatedBytes, appliedLimit,
+                            rowsBeforeLimit));
+        }
+
+        /**
+         * Gets concatenated input stream of all responses. Column header, if any, is
+         * not included.
+         *
+         * @return concatenated input stream
+         */
+        @Override
+        public InputStream getInputStream() {
+            final Iterator<ClickHouseResponse> it = responses.iterator();
+            return new SequenceInputStream(new Enumeration<InputStream>() {
+                @Override
+                public boolean hasMoreElements() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public InputStream nextElement() {
+                    return it.next().getInputStream();
+                }
+            });
+        }
+
+        @Override
+        public Iterable<ClickHouseRecord> records() {
+            return () -> new Iterator<ClickHouseRecord>() {
+                private final Iterator<ClickHouseResponse> it = responses.iterator();
+                private Iterator<ClickHouseRecord> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext()) {
+                        if (!it.hasNext()) {
+                            return false;
+                        }
+                        current = it.next().records().iterator();
+                    }
+                    return true;
+                }
+
+                @Override
+                public ClickHouseRecord next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException("No more record");
+                    }
+                    return current.next();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            closeAll(responses);
+            closed = true;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+
+    static void closeAll(Collection<ClickHouseResponse> responses) {
+        for (ClickHouseResponse r : responses) {
+            if (r != null) {
+                try {
+                    r.close();
+                } catch (Exception e) {
+                    log.debug("Failed to close response due to: %s", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for all given futures and collects their results in order. When any
+     * of them failed, responses already returned will be closed, and the returned
+     * future will complete exceptionally with the first error.
+     */
+    static CompletableFuture<List<ClickHouseResponse>> collect(List<CompletableFuture<ClickHouseResponse>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((v, e) -> {
+            List<ClickHouseResponse> list = new ArrayList<>(futures.size());
+            Throwable error = null;
+            for (CompletableFuture<ClickHouseResponse> f : futures) {
+                try {
+                    list.add(f.join());
+                } catch (CompletionException | CancellationException ex) {
+                    if (error == null) {
+                        error = ex.getCause() != null ? ex.getCause() : ex;
+                    }
+                }
+            }
+
+            if (error != null) {
+                closeAll(list);
+                throw error instanceof CompletionException ? (CompletionException) error
+                        : new CompletionException(error);
+            }
+            return list;
+        });
+    }
+
+    private final int parallelism;
+    private final long timeout;
+
+    private final Queue<Task> queue;
+    private final AtomicInteger running;
+    private final AtomicInteger dispatching;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates an executor.
+     *
+     * @param parallelism maximum number of requests waiting for response at
+     *                    the same time, must be greater than zero; it does
+     *                    not limit responses which are not closed yet
+     * @param timeout     timeout in milliseconds for each request, zero or
+     *                    negative number means no timeout; timed out query
+     *                    will be killed, and it holds the slot until then
+     */
+    public ClickHouseParallelExecutor(int parallelism, long timeout) {
+        this.parallelism = ClickHouseChecker.between(parallelism, "Parallelism", 1, Integer.MAX_VALUE);
+        this.timeout = timeout > 0L ? timeout : 0L;
+
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.running = new AtomicInteger();
+        this.dispatching = new AtomicInteger();
+        this.scheduler = this.timeout > 0L
+                ? Executors.newSingleThreadScheduledExecutor(new ClickHouseThreadFactory(this))
+                : null;
+        this.closed = false;
+    }
+
+    private void dispatch() {
+        // request completed right away releases its slot and calls back here on
+        // same thread, so only one thread drains the queue at a time, in a loop
+        // instead of recursion
+        if (dispatching.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            while (!queue.isEmpty()) {
+                int current = running.get();
+                if (current >= parallelism) {
+                    break;
+                } else if (!running.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+
+                Task task = queue.poll();
+                if (task == null) {
+                    running.decrementAndGet();
+                } else {
+                    start(task);
+                }
+            }
+        } while ((missed = dispatching.addAndGet(-missed)) != 0);
+    }
+
+    private void release() {
+        running.decrementAndGet();
+        dispatch();
+    }
+
+    /**
+     * Fails the task due to timeout and kills the query on server. The slot is
+     * still held by the request, until it's finished, or killed.
+     */
+    private void expire(Task task, CompletableFuture<ClickHouseResponse> future) {
+        ClickHouseRequest<?> request = task.request;
+        if (!task.future.completeExceptionally(new ClickHouseException(ClickHouseException.ERROR_TIMEOUT,
+                ClickHouseUtils.format("Query timed out after %d ms", timeout), request.getServer()))) {
+            return;
+        }
+
+        String qid = request.getQueryId().orElse(null);
+        if (qid == null) {
+            // nothing to kill, wait for the request to finish
+            return;
+        }
+
+        String sql = ClickHouseUtils.format("KILL QUERY WHERE query_id='%s'", ClickHouseUtils.escape(qid, '\''));
+        CompletableFuture<ClickHouseResponse> kill;
+        try {
+            kill = request.getClient().connect(request.getServer()).query(sql).execute();
+        } catch (Exception e) {
+            kill = new CompletableFuture<>();
+            kill.completeExceptionally(e);
+        }
+        kill.whenComplete((r, e) -> {
+            if (r != null) {
+                r.close();
+            }
+            if (e != null) {
+                log.warn("Failed to kill query [%s] due to: %s", qid, e.getMessage());
+            } else {
+                log.debug("Killed query [%s]", qid);
+            }
+            future.cancel(false);
+        });
+    }
+
+    private void start(Task task) {
+        ClickHouseRequest<?> request = task.request;
+        if (closed) {
+            task.future.completeExceptionally(ClickHouseException
+                    .forCancellation(new RejectedExecutionException("Executor was closed"), request.getServer()));
+            release();
+            return;
+        }
+
+        CompletableFuture<ClickHouseResponse> future;
+        try {
+            future = request.execute();
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+
+        final ScheduledFuture<?> timer;
+        if (timeout > 0L && !future.isDone()) {
+            final CompletableFuture<ClickHouseResponse> f = future;
+            ScheduledFuture<?> t = null;
+            try {
+                t = scheduler.schedule(() -> expire(task, f), timeout, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // closed
+            }
+            timer = t;
+        } else {
+            timer = null;
+        }
+
+        // release the slot once the request is finished, even it timed out, but
+        // not wait for the response to be closed - see class comment
+        future.whenComplete((r, e) -> {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+
+            boolean completed;
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                completed = task.future.completeExceptionally(ClickHouseException.of(cause, request.getServer()));
+            } else {
+                completed = task.future.complete(r);
+            }
+            if (!completed && r != null) {
+                // timed out
+                r.close();
+            }
+            release();
+        });
+    }
+
+    /**
+     * Submits the given requests for execution.
+     *
+     * @param requests non-null requests
+     * @return non-null list of futures in same order as the given requests
+     */
+    public List<CompletableFuture<ClickHouseResponse>> submit(List<? extends ClickHouseRequest<?>> requests) {
+        ClickHouseChecker.nonNull(requests, "requests");
+        if (closed) {
+            throw new RejectedExecutionException("Executor was closed");
+        }
+
+        List<CompletableFuture<ClickHouseResponse>> futures = new ArrayList<>(requests.size());
+        for (ClickHouseRequest<?> request : requests) {
+            // decide which node to connect to right now
+            ClickHouseRequest<?> sealed = ClickHouseChecker.nonNull(request, "request").seal();
+            if (!sealed.getQueryId().isPresent()) {
+                if (sealed == request) {
+                    // sealed request sticks with one node, and so does its copy
+                    sealed = request.copy().seal();
+                }
+                // so that the query can be killed when timed out
+                sealed.queryId = UUID.randomUUID().toString();
+            }
+            Task task = new Task(sealed);
+            queue.add(task);
+            futures.add(task.future);
+        }
+        dispatch();
+        return futures;
+    }
+
+    /**
+     * Executes the given requests concurrently and collects responses.
+     *
+     * @param requests non-null requests
+     * @return non-null future to get responses in same order as the given
+     *         requests
+     */
+    public CompletableFuture<List<ClickHouseResponse>> execute(List<? extends ClickHouseRequest<?>> requests) {
+        return collect(submit(requests));
+    }
+
+    /**
+     * Executes given queries concurrently, using {@code request} as template.
+     *
+     * @param request non-null request as template
+     * @param query   non-null query
+     * @param more    more queries
+     * @return non-null future to get responses in same order as the given queries
+     */
+    public CompletableFuture<List<ClickHouseResponse>> execute(ClickHouseRequest<?> request, String query,
+            String... more) {
+        ClickHouseChecker.nonNull(request, "request");
+
+        List<ClickHouseRequest<?>> list = new ArrayList<>(1 + (more != null ? more.length : 0));
+        list.add(request.copy().query(ClickHouseChecker.nonNull(query, "query")));
+        if (more != null) {
+            for (String q : more) {
+                list.add(request.copy().query(ClickHouseChecker.nonNull(q, "query")));
+            }
+        }
+        return execute(list);
+    }
+
+    /**
+     * Executes same request on each of the given nodes concurrently and merges
+     * the results. It's useful for querying shard-local tables without a
+     * distributed table. Records of the merged response are returned node by
+     * node, in same order as the given nodes.
+     *
+     * @param request non-null request
+     * @param nodes   non-empty nodes
+     * @return non-null future to get merged response
+     */
+    public CompletableFuture<ClickHouseResponse> executeOnAll(ClickHouseRequest<?> request,
+            Collection<ClickHouseNode> nodes) {
+        ClickHouseChecker.nonNull(request, "request");
+        if (nodes == null || nodes.isEmpty()) {
+            throw new IllegalArgumentException("Non-empty nodes are required");
+        }
+
+        List<ClickHouseRequest<?>> list = new ArrayList<>(nodes.size());
+        for (ClickHouseNode node : nodes) {
+            list.add(request.copy(ClickHouseChecker.nonNull(node, "node")));
+        }
+        return execute(list).thenApply(responses -> {
+            try {
+                return new MergedResponse(responses);
+            } catch (RuntimeException e) {
+                closeAll(responses);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Gets number of requests waiting for execution.
+     *
+     * @return number of pending requests
+     */
+    public int getPendingRequests() {
+        return queue.size();
+    }
+
+    /**
+     * Gets number of requests being executed.
+     *
+     * @return number of running requests
+     */
+    public int getRunningRequests() {
+        return running.get();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the executor. Requests not yet started will be cancelled, while
+     * running ones will complete as usual.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        Task task;
+        while ((task = queue.poll()) != null) {
+            task.future.completeExceptionally(ClickHouseException
+                    .forCancellation(new RejectedExecutionException("Executor was closed"), task.request.getServer()));
+        }
+
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
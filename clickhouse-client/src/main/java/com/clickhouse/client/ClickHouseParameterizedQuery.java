@@ -549,6 +549,27 @@ public class ClickHouseParameterizedQuery implements Serializable {
         return tempaltes;
     }
 
+    /**
+     * Gets declared types of parameters, in the same order as
+     * {@link #getParameters()}.
+     *
+     * @return declared types, null means the parameter has no type declared
+     */
+    public String[] getParameterTypes() {
+        int i = 0;
+        String[] types = new String[names.size()];
+        for (String n : names.keySet()) {
+            for (QueryPart p : parts) {
+                if (p.paramType != null && n.equals(p.paramName)) {
+                    types[i] = p.paramType.getOriginalTypeName();
+                    break;
+                }
+            }
+            i++;
+        }
+        return types;
+    }
+
     /**
      * Checks if the query has at least one parameter or not.
      *
@@ -40,7 +40,8 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
      */
     public static class Mutation extends ClickHouseRequest<Mutation> {
         protected Mutation(ClickHouseRequest<?> request, boolean sealed) {
-            super(request.getClient(), request.server, sealed);
+            // same as seal(), sealed request should stick with one node
+            super(request.getClient(), sealed ? request.getServer() : request.server, sealed);
 
             this.options.putAll(request.options);
             this.settings.putAll(request.settings);
@@ -48,6 +49,28 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
             this.sessionId = request.sessionId;
         }
 
+        protected Mutation(ClickHouseRequest<?> request, Function<ClickHouseNodeSelector, ClickHouseNode> server) {
+            super(request.getClient(), server, false);
+
+            this.options.putAll(request.options);
+            this.settings.putAll(request.settings);
+
+            this.sessionId = request.sessionId;
+        }
+
+        @Override
+        protected Mutation copy(Function<ClickHouseNodeSelector, ClickHouseNode> server) {
+            Mutation req = new Mutation(this, server);
+            req.externalTables.addAll(externalTables);
+            req.namedParameters.putAll(namedParameters);
+            req.queryParameters.putAll(queryParameters);
+            req.input = input;
+            req.queryId = queryId;
+            req.sql = sql;
+            req.preparedQuery = preparedQuery;
+            return req;
+        }
+
         @Override
         protected String getQuery() {
             if (input != null && sql != null) {
@@ -169,6 +192,7 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
                 req.settings.putAll(settings);
 
                 req.namedParameters.putAll(namedParameters);
+                req.queryParameters.putAll(queryParameters);
 
                 req.input = input;
                 req.queryId = queryId;
@@ -195,6 +219,7 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
     protected final Map<String, Serializable> settings;
 
     protected final Map<String, String> namedParameters;
+    protected final Map<String, String> queryParameters;
 
     protected transient CompletableFuture<InputStream> input;
     protected String queryId;
@@ -223,6 +248,7 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
         this.settings = new LinkedHashMap<>();
 
         this.namedParameters = new HashMap<>();
+        this.queryParameters = new LinkedHashMap<>();
     }
 
     protected void checkSealed() {
@@ -264,11 +290,23 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
      * @return copy of this request
      */
     public ClickHouseRequest<SelfT> copy() {
+        return copy(server);
+    }
+
+    /**
+     * Creates a copy of this request object, which will be sent to the given
+     * server instead.
+     *
+     * @param server non-null function to get server
+     * @return copy of this request
+     */
+    protected ClickHouseRequest<SelfT> copy(Function<ClickHouseNodeSelector, ClickHouseNode> server) {
         ClickHouseRequest<SelfT> req = new ClickHouseRequest<>(getClient(), server, false);
         req.externalTables.addAll(externalTables);
         req.options.putAll(options);
         req.settings.putAll(settings);
         req.namedParameters.putAll(namedParameters);
+        req.queryParameters.putAll(queryParameters);
         req.input = input;
         req.queryId = queryId;
         req.sessionId = sessionId;
@@ -392,6 +430,16 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
         return Collections.unmodifiableMap(settings);
     }
 
+    /**
+     * Gets immutable query parameters, which will be sent to server separately
+     * from the query, for example {@code param_<name>=<value>} in http.
+     *
+     * @return immutable query parameters
+     */
+    public Map<String, String> getQueryParameters() {
+        return Collections.unmodifiableMap(queryParameters);
+    }
+
     /**
      * Gets session id.
      *
@@ -993,6 +1041,48 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
         return (SelfT) this;
     }
 
+    /**
+     * Sets server-side query parameter, which is referenced in query as
+     * {@code {name:Type}} and substituted by server. Unlike {@link #params(Map)},
+     * the query itself is not changed.
+     *
+     * @param name  non-empty name of the parameter
+     * @param value value of the parameter in escaped text format, null is
+     *              treated as {@code \N}
+     * @return the request itself
+     */
+    @SuppressWarnings("unchecked")
+    public SelfT queryParameter(String name, String value) {
+        checkSealed();
+
+        queryParameters.put(ClickHouseChecker.nonEmpty(name, "name"), value != null ? value : "\\N");
+
+        return (SelfT) this;
+    }
+
+    /**
+     * Sets server-side query parameters. All existing query parameters will be
+     * replaced.
+     *
+     * @param params query parameters, null is same as empty map
+     * @return the request itself
+     * @see #queryParameter(String, String)
+     */
+    @SuppressWarnings("unchecked")
+    public SelfT queryParameters(Map<String, String> params) {
+        checkSealed();
+
+        queryParameters.clear();
+
+        if (params != null) {
+            for (Entry<String, String> e : params.entrySet()) {
+                queryParameter(e.getKey(), e.getValue());
+            }
+        }
+
+        return (SelfT) this;
+    }
+
     /**
      * Sets parameterized query. Same as {@code query(query, null)}.
      *
@@ -1325,6 +1415,7 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
         this.settings.clear();
 
         this.namedParameters.clear();
+        this.queryParameters.clear();
 
         this.input = null;
         this.sql = null;
@@ -1353,6 +1444,7 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
             req.settings.putAll(settings);
 
             req.namedParameters.putAll(namedParameters);
+            req.queryParameters.putAll(queryParameters);
 
             req.input = input;
             req.queryId = queryId;
@@ -1364,6 +1456,24 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
         return req;
     }
 
+    /**
+     * Executes the given sealed request using its client, and records outcome
+     * when target node is monitored.
+     *
+     * @param sealedRequest non-null sealed request
+     * @return non-null future to get response
+     * @throws CompletionException when error occurred during execution
+     */
+    static CompletableFuture<ClickHouseResponse> executeAndRecord(ClickHouseRequest<?> sealedRequest) {
+        ClickHouseNode node = sealedRequest.getServer();
+        CompletableFuture<ClickHouseResponse> future = sealedRequest.getClient().execute(sealedRequest);
+        if (node.isMonitored()) {
+            // keep returning the original future so that cancellation reaches the client
+            future.whenComplete((r, e) -> node.record(e));
+        }
+        return future;
+    }
+
     /**
      * Creates a new request for mutation.
      *
@@ -1376,13 +1486,19 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
     }
 
     /**
-     * Executes the request. Same as {@code client.execute(request.seal())}.
+     * Executes the request. Same as {@code client.execute(request.seal())}, unless
+     * {@link ClickHouseResultCache} is enabled and the request is cacheable.
      * 
      * @return non-null future to get response
      * @throws CompletionException when error occurred during execution
      */
     public CompletableFuture<ClickHouseResponse> execute() {
-        return getClient().execute(isSealed() ? this : seal());
+        ClickHouseResultCache cache = ClickHouseResultCache.getInstance(getConfig());
+        if (cache != null) {
+            return cache.execute(this);
+        }
+
+        return executeAndRecord(isSealed() ? this : seal());
     }
 
     /**
@@ -1392,6 +1508,24 @@ public class ClickHouseRequest<SelfT extends ClickHouseRequest<SelfT>> implement
      * @throws ClickHouseException when error occurred during execution
      */
     public ClickHouseResponse executeAndWait() throws ClickHouseException {
-        return getClient().executeAndWait(isSealed() ? this : seal());
+        ClickHouseResultCache cache = ClickHouseResultCache.getInstance(getConfig());
+        if (cache != null) {
+            return cache.executeAndWait(this);
+        }
+
+        ClickHouseRequest<SelfT> req = isSealed() ? this : seal();
+        ClickHouseNode node = req.getServer();
+        if (!node.isMonitored()) {
+            return getClient().executeAndWait(req);
+        }
+
+        try {
+            ClickHouseResponse response = getClient().executeAndWait(req);
+            node.record(null);
+            return response;
+        } catch (ClickHouseException | RuntimeException e) {
+            node.record(e);
+            throw e;
+        }
     }
 }
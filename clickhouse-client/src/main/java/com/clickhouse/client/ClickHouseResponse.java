@@ -6,6 +6,7 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.io.UncheckedIOException;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
@@ -13,6 +14,9 @@ import java.util.Spliterators;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import com.clickhouse.client.data.mapper.ClickHouseRowMapper;
+import com.clickhouse.client.data.vector.ClickHouseColumnBatch;
+
 /**
  * This encapsulates a server reponse. Depending on concrete implementation, it
  * could be either an in-memory list or a wrapped input stream with
@@ -112,6 +116,86 @@ public interface ClickHouseResponse extends AutoCloseable, Serializable {
      */
     Iterable<ClickHouseRecord> records();
 
+    /**
+     * Gets configuration of the response, which is used for mapping records to
+     * objects and creating column batches. Implementations should return
+     * configuration of the request, so that settings like time zone are respected.
+     *
+     * @return non-null configuration
+     */
+    default ClickHouseConfig getConfig() {
+        return new ClickHouseConfig();
+    }
+
+    /**
+     * Returns an iterable collection of objects converted from records. Same as
+     * {@link #records()}, it's not supposed to be called for more than once.
+     *
+     * @param <T>      type of the object
+     * @param objClass non-null class of the object, which must have a
+     *                 no-argument constructor
+     * @return non-null iterable collection
+     * @throws UncheckedIOException when failed to read data(e.g. deserialization)
+     */
+    default <T> Iterable<T> records(Class<T> objClass) {
+        final ClickHouseRowMapper<T> mapper = ClickHouseRowMapper.of(getConfig(), getColumns(), objClass);
+        final Iterable<ClickHouseRecord> records = records();
+        return () -> {
+            final Iterator<ClickHouseRecord> it = records.iterator();
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return mapper.read(it.next());
+                }
+            };
+        };
+    }
+
+    /**
+     * Returns an iterable collection of column batches, each containing up to
+     * {@code maxRows} rows. Same as {@link #records()}, it's not supposed to be
+     * called for more than once. Batch might be reused for next iteration, so
+     * please don't hold reference to it.
+     *
+     * @param maxRows maximum number of rows in a batch, must be positive
+     * @return non-null iterable collection
+     * @throws UncheckedIOException when failed to read data(e.g. deserialization)
+     */
+    default Iterable<ClickHouseColumnBatch> batches(int maxRows) {
+        ClickHouseChecker.notLessThan(maxRows, "maxRows", 1);
+
+        final ClickHouseConfig config = getConfig();
+        final Iterable<ClickHouseRecord> records = records();
+        return () -> {
+            final Iterator<ClickHouseRecord> it = records.iterator();
+            return new Iterator<ClickHouseColumnBatch>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public ClickHouseColumnBatch next() {
+                    if (!it.hasNext()) {
+                        throw new NoSuchElementException("No more batch");
+                    }
+
+                    ClickHouseColumnBatch batch = ClickHouseColumnBatch.of(config, getColumns(),
+                            Math.min(maxRows, 8192));
+                    for (int i = 0; i < maxRows && it.hasNext(); i++) {
+                        batch.append(it.next());
+                    }
+                    return batch;
+                }
+            };
+        };
+    }
+
     /**
      * Pipes the contents of this response into the given output stream.
      *
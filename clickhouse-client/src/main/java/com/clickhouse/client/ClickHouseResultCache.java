@@ -0,0 +1,531 @@
+package com.clickhouse.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseOption;
+import com.clickhouse.client.data.ClickHouseStreamResponse;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Client-side cache of query results, which is disabled by default and can be
+ * enabled by setting {@link ClickHouseClientOption#RESULT_CACHE_SIZE} to a
+ * positive number. Only {@code SELECT} and {@code WITH} queries without input
+ * stream, external table or session, and returning data in
+ * {@link ClickHouseFormat#RowBinary} or
+ * {@link ClickHouseFormat#RowBinaryWithNamesAndTypes} are cached. Entries are
+ * keyed by normalized SQL, settings, query parameters, format, non-default
+ * options, database, user and server, and each of them holds column header,
+ * summary and raw response data in a direct buffer. A cache hit is replayed as
+ * a {@link ClickHouseResponse} through the normal
+ * {@link ClickHouseDataProcessor}. Total size of cached data is bounded in
+ * byte, and least recently used entries are evicted first.
+ *
+ * <p>
+ * Concurrent identical requests are collapsed into one in-flight query, and
+ * all of them will get the same result, or the same error.
+ */
+public final class ClickHouseResultCache {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseResultCache.class);
+
+    private static final Map<List<Integer>, ClickHouseResultCache> instances = new ConcurrentHashMap<>();
+
+    static final class Key {
+        private final String server;
+        private final String database;
+        private final String user;
+        private final ClickHouseFormat format;
+        private final Map<String, Object> settings;
+        private final Map<String, String> params;
+        private final Map<String, Serializable> options;
+        private final String sql;
+
+        private final int hashCode;
+
+        Key(String server, String database, String user, ClickHouseFormat format, Map<String, Object> settings,
+                Map<String, String> params, Map<String, Serializable> options, String sql) {
+            this.server = server;
+            this.database = database;
+            this.user = user;
+            this.format = format;
+            this.settings = settings;
+            this.params = params;
+            this.options = options;
+            this.sql = sql;
+
+            this.hashCode = Objects.hash(server, database, user, format, settings, params, options, sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return hashCode == other.hashCode && sql.equals(other.sql) && format == other.format
+                    && server.equals(other.server) && database.equals(other.database) && user.equals(other.user)
+                    && settings.equals(other.settings) && params.equals(other.params)
+                    && options.equals(other.options);
+        }
+    }
+
+    static final class Entry {
+        final List<ClickHouseColumn> columns;
+        final ClickHouseResponseSummary summary;
+        final ByteBuffer data;
+        final long expireTime;
+
+        Entry(List<ClickHouseColumn> columns, ClickHouseResponseSummary summary, ByteBuffer data, long expireTime) {
+            this.columns = columns;
+            this.summary = summary;
+            this.data = data;
+            this.expireTime = expireTime;
+        }
+    }
+
+    static final class Slot {
+        final Key key;
+        final AtomicReference<CompletableFuture<Entry>> ref = new AtomicReference<>();
+
+        // size of cached data counted by the cache, guarded by the cache
+        int size;
+
+        Slot(Key key) {
+            this.key = key;
+        }
+
+        boolean isStale(CompletableFuture<Entry> future, long now) {
+            if (future == null) {
+                return true;
+            } else if (!future.isDone()) {
+                return false;
+            } else if (future.isCompletedExceptionally()) {
+                return true;
+            }
+
+            Entry entry = future.getNow(null);
+            return entry == null || entry.expireTime <= now;
+        }
+    }
+
+    /**
+     * Gets shared result cache for the given configuration.
+     *
+     * @param config non-null configuration
+     * @return shared result cache, or null if it's disabled
+     */
+    public static ClickHouseResultCache getInstance(ClickHouseConfig config) {
+        if (ClickHouseChecker.nonNull(config, "config").getResultCacheSize() <= 0) {
+            return null;
+        }
+
+        return instances.computeIfAbsent(
+                Arrays.asList(config.getResultCacheSize(), config.getResultCacheTtl(),
+                        config.getResultCacheMaxEntrySize()),
+                k -> new ClickHouseResultCache(k.get(0), k.get(1), k.get(2)));
+    }
+
+    /**
+     * Normalizes the given query by trimming it and collapsing whitespaces outside
+     * of quoted strings and identifiers.
+     *
+     * @param sql query
+     * @return normalized query
+     */
+    static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+
+        int len = sql.length();
+        StringBuilder builder = new StringBuilder(len);
+        char quote = '\0';
+        boolean space = false;
+        for (int i = 0; i < len; i++) {
+            char ch = sql.charAt(i);
+            if (quote != '\0') {
+                builder.append(ch);
+                if (ch == '\\' && i + 1 < len) {
+                    builder.append(sql.charAt(++i));
+                } else if (ch == quote) {
+                    quote = '\0';
+                }
+            } else if (Character.isWhitespace(ch)) {
+                space = builder.length() > 0;
+            } else {
+                if (space) {
+                    builder.append(' ');
+                    space = false;
+                }
+                if (ch == '\'' || ch == '"' || ch == '`') {
+                    quote = ch;
+                }
+                builder.append(ch);
+            }
+        }
+
+        // trailing semicolon does not make a difference
+        len = builder.length();
+        if (len > 0 && builder.charAt(len - 1) == ';') {
+            builder.setLength(len - 1);
+        }
+        return builder.toString();
+    }
+
+    // same as request.getStatements(false) but without caching the statements
+    static String getQuery(ClickHouseRequest<?> request) {
+        StringBuilder builder = new StringBuilder();
+        request.getPreparedQuery().apply(builder, request.namedParameters);
+        return builder.toString();
+    }
+
+    /**
+     * Gets normalized query of the given request if it's cacheable.
+     *
+     * @param request non-null request
+     * @return normalized query, or null if the request is not cacheable
+     */
+    static String getCacheableQuery(ClickHouseRequest<?> request) {
+        if (request instanceof ClickHouseRequest.Mutation || request.hasInputStream()
+                || request.getSessionId().isPresent()) {
+            return null;
+        }
+
+        ClickHouseFormat format = request.getFormat();
+        if (format != ClickHouseFormat.RowBinary && format != ClickHouseFormat.RowBinaryWithNamesAndTypes) {
+            return null;
+        }
+
+        String sql = normalize(getQuery(request));
+        int index = sql.indexOf(' ');
+        String keyword = (index > 0 ? sql.substring(0, index) : sql).toUpperCase(Locale.ROOT);
+        return "SELECT".equals(keyword) || "WITH".equals(keyword) ? sql : null;
+    }
+
+    /**
+     * Checks if the given request can be served by result cache.
+     *
+     * @param request non-null request
+     * @return true if the request is cacheable; false otherwise
+     */
+    public static boolean isCacheable(ClickHouseRequest<?> request) {
+        return getCacheableQuery(request) != null;
+    }
+
+    static Key createKey(ClickHouseRequest<?> request, String sql) {
+        ClickHouseConfig config = request.getConfig();
+        ClickHouseNode server = request.getServer();
+        String cluster = server.getCluster();
+        // options like max_result_rows may change the result, so they're part of the key
+        Map<String, Serializable> options = new TreeMap<>();
+        for (Map.Entry<ClickHouseOption, Serializable> e : config.getAllOptions().entrySet()) {
+            ClickHouseOption option = e.getKey();
+            Serializable value = e.getValue();
+            if (!Objects.equals(value, option.getEffectiveDefaultValue())) {
+                options.put(option.getKey(), value);
+            }
+        }
+        return new Key(ClickHouseChecker.isNullOrEmpty(cluster) ? server.getHost() + ":" + server.getPort() : cluster,
+                server.getDatabase(config), server.getCredentials(config).getUserName(), request.getFormat(),
+                new TreeMap<>(request.getSettings()), new TreeMap<>(request.getQueryParameters()),
+                options, sql);
+    }
+
+    // access-ordered, guarded by itself
+    private final Map<Key, Slot> slots;
+    private final int capacity;
+    private final long ttl;
+    private final int maxEntrySize;
+
+    // total size of cached data, guarded by slots
+    private long size;
+
+    /**
+     * Creates a result cache.
+     *
+     * @param capacity     maximum size in byte of cached data
+     * @param ttl          time in seconds before an entry expires
+     * @param maxEntrySize maximum size in byte of an entry
+     */
+    public ClickHouseResultCache(int capacity, int ttl, int maxEntrySize) {
+        this.slots = new LinkedHashMap<>(16, 0.75F, true);
+        this.capacity = ClickHouseChecker.between(capacity, "Capacity", 1, Integer.MAX_VALUE);
+        this.ttl = TimeUnit.SECONDS.toNanos(ClickHouseChecker.between(ttl, "TTL", 1, Integer.MAX_VALUE));
+        this.maxEntrySize = Math.min(ClickHouseChecker.between(maxEntrySize, "MaxEntrySize", 0, Integer.MAX_VALUE),
+                capacity);
+    }
+
+    private Slot getSlot(Key key) {
+        synchronized (slots) {
+            return slots.computeIfAbsent(key, Slot::new);
+        }
+    }
+
+    /**
+     * Updates size of data cached in the given slot, and evicts least recently
+     * used slots until the cache is no longer full. Slot without cached data or
+     * in-flight query will be removed.
+     *
+     * @param slot    non-null slot
+     * @param newSize size in byte of cached data, 0 means nothing is cached
+     */
+    private void resize(Slot slot, int newSize) {
+        synchronized (slots) {
+            if (slots.get(slot.key) != slot) {
+                // evicted already
+                return;
+            } else if (newSize <= 0) {
+                if (slot.isStale(slot.ref.get(), System.nanoTime())) {
+                    slots.remove(slot.key);
+                    size -= slot.size;
+                    slot.size = 0;
+                }
+                return;
+            }
+
+            size += newSize - slot.size;
+            slot.size = newSize;
+            Iterator<Slot> it = slots.values().iterator();
+            while (size > capacity && it.hasNext()) {
+                Slot s = it.next();
+                if (s != slot && s.size > 0) {
+                    it.remove();
+                    size -= s.size;
+                    s.size = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Output stream collecting response data, which can be copied into a direct
+     * buffer, or wrapped as a heap buffer, without creating another byte array.
+     */
+    static final class EntryOutputStream extends ByteArrayOutputStream {
+        EntryOutputStream(int size) {
+            super(size);
+        }
+
+        int read(InputStream in, int len) throws IOException {
+            if (count + len > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + len));
+            }
+            int n = in.read(buf, count, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        ByteBuffer toDirectBuffer() {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(count);
+            buffer.put(buf, 0, count);
+            ((Buffer) buffer).flip();
+            return buffer;
+        }
+
+        ByteBuffer toHeapBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    private static ClickHouseInputStream newInput(ClickHouseConfig config, ByteBuffer data) {
+        BlockingQueue<ByteBuffer> queue = new ArrayBlockingQueue<>(2);
+        queue.add(data);
+        queue.add(ClickHouseByteBuffer.EMPTY_BUFFER);
+        return ClickHouseInputStream.of(queue, config.getSocketTimeout());
+    }
+
+    /**
+     * Reads the given response into a cache entry. Reading stops as soon as data
+     * exceeds {@code maxEntrySize}, and in that case, the
+     * returned response replays what has been read followed by rest of the
+     * original response, so that large result is never fully buffered.
+     *
+     * @param request  non-null request
+     * @param response non-null response
+     * @param slot     non-null slot
+     * @param future   non-null future to complete with the entry, or null when
+     *                 the result is too large to be cached
+     * @return non-null response for the request
+     * @throws IOException when failed to read the response
+     */
+    private ClickHouseResponse store(ClickHouseRequest<?> request, ClickHouseStreamResponse response, Slot slot,
+            CompletableFuture<Entry> future) throws IOException {
+        ClickHouseConfig config = request.getConfig();
+        int bufferSize = config.getMaxBufferSize();
+        EntryOutputStream bytes = new EntryOutputStream(Math.min(bufferSize, Math.max(maxEntrySize, 32)));
+        InputStream in = response.getInputStream();
+        boolean completed = false;
+        boolean success = false;
+        try {
+            int len = 0;
+            while (bytes.size() <= maxEntrySize && (len = bytes.read(in, bufferSize)) != -1) {
+                // continue
+            }
+            completed = len == -1;
+            success = true;
+        } finally {
+            if (!success || completed) {
+                response.close();
+            }
+        }
+
+        if (completed && bytes.size() <= maxEntrySize) {
+            Entry entry = new Entry(response.getColumns(), response.getSummary(), bytes.toDirectBuffer(),
+                    System.nanoTime() + ttl);
+            future.complete(entry);
+            resize(slot, entry.data.remaining());
+            return replay(request, entry);
+        }
+
+        log.debug("Result larger than %d bytes will not be cached", maxEntrySize);
+        // let followers execute on their own
+        future.complete(null);
+        slot.ref.compareAndSet(future, null);
+        resize(slot, 0);
+
+        InputStream head = newInput(config, bytes.toHeapBuffer());
+        return ClickHouseStreamResponse.of(config,
+                ClickHouseInputStream.of(completed ? head : new SequenceInputStream(head, in), bufferSize,
+                        response::close),
+                request.getSettings(), response.getColumns(), response.getSummary());
+    }
+
+    private ClickHouseResponse replay(ClickHouseRequest<?> request, Entry entry) {
+        ClickHouseConfig config = request.getConfig();
+        try {
+            return ClickHouseStreamResponse.of(config, newInput(config, entry.data.duplicate()),
+                    request.getSettings(), entry.columns, entry.summary);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CompletableFuture<ClickHouseResponse> load(ClickHouseRequest<?> request, Slot slot,
+            CompletableFuture<Entry> future) {
+        CompletableFuture<ClickHouseResponse> result;
+        try {
+            result = ClickHouseRequest.executeAndRecord(request).thenApply(response -> {
+                if (!(response instanceof ClickHouseStreamResponse)
+                        || ((ClickHouseStreamResponse) response).getFormat() != request.getFormat()) {
+                    // not something we can replay, let followers execute on their own
+                    future.complete(null);
+                    resize(slot, 0);
+                    return response;
+                }
+
+                try {
+                    return store(request, (ClickHouseStreamResponse) response, slot, future);
+                } catch (IOException e) {
+                    throw new CompletionException(ClickHouseException.of(e, request.getServer()));
+                }
+            });
+        } catch (RuntimeException e) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+        }
+
+        result.whenComplete((r, e) -> {
+            if (e != null) {
+                future.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                        ? e.getCause()
+                        : e);
+                resize(slot, 0);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Executes the given request, or replays cached result when there's one.
+     * Requests not cacheable will be executed directly.
+     *
+     * @param request non-null request
+     * @return non-null future to get response
+     */
+    public CompletableFuture<ClickHouseResponse> execute(ClickHouseRequest<?> request) {
+        final ClickHouseRequest<?> sealedRequest = ClickHouseChecker.nonNull(request, "request").seal();
+        String sql = getCacheableQuery(sealedRequest);
+        if (sql == null) {
+            return ClickHouseRequest.executeAndRecord(sealedRequest);
+        }
+
+        Slot slot = getSlot(createKey(sealedRequest, sql));
+        while (true) {
+            CompletableFuture<Entry> current = slot.ref.get();
+            if (!slot.isStale(current, System.nanoTime())) {
+                return current.thenCompose(entry -> entry != null
+                        ? CompletableFuture.completedFuture(replay(sealedRequest, entry))
+                        : ClickHouseRequest.executeAndRecord(sealedRequest));
+            }
+
+            CompletableFuture<Entry> future = new CompletableFuture<>();
+            if (slot.ref.compareAndSet(current, future)) {
+                return load(sealedRequest, slot, future);
+            }
+        }
+    }
+
+    /**
+     * Synchronous version of {@link #execute(ClickHouseRequest)}.
+     *
+     * @param request non-null request
+     * @return non-null response
+     * @throws ClickHouseException when error occurred during execution
+     */
+    public ClickHouseResponse executeAndWait(ClickHouseRequest<?> request) throws ClickHouseException {
+        final ClickHouseRequest<?> sealedRequest = ClickHouseChecker.nonNull(request, "request").seal();
+
+        try {
+            return execute(sealedRequest).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ClickHouseException.forCancellation(e, sealedRequest.getServer());
+        } catch (CancellationException e) {
+            throw ClickHouseException.forCancellation(e, sealedRequest.getServer());
+        } catch (CompletionException | ExecutionException | UncheckedIOException e) {
+            Throwable cause = e.getCause();
+            if (cause == null) {
+                cause = e;
+            }
+            throw cause instanceof ClickHouseException ? (ClickHouseException) cause
+                    : ClickHouseException.of(cause, sealedRequest.getServer());
+        } catch (RuntimeException e) { // unexpected
+            throw ClickHouseException.of(e, sealedRequest.getServer());
+        }
+    }
+}
@@ -49,9 +49,12 @@ import com.clickhouse.client.data.ClickHouseLongValue;
 import com.clickhouse.client.data.ClickHouseMapValue;
 import com.clickhouse.client.data.ClickHouseNestedValue;
 import com.clickhouse.client.data.ClickHouseOffsetDateTimeValue;
+import com.clickhouse.client.data.ClickHouseReservoirSampler;
+import com.clickhouse.client.data.ClickHouseReservoirSamplerValue;
 import com.clickhouse.client.data.ClickHouseShortValue;
 import com.clickhouse.client.data.ClickHouseStringValue;
 import com.clickhouse.client.data.ClickHouseTupleValue;
+import com.clickhouse.client.data.ClickHouseUniquesHashSetValue;
 import com.clickhouse.client.data.ClickHouseUuidValue;
 import com.clickhouse.client.data.array.ClickHouseByteArrayValue;
 import com.clickhouse.client.data.array.ClickHouseDoubleArrayValue;
@@ -849,6 +852,45 @@ public final class ClickHouseValues {
                 .toString();
     }
 
+    /**
+     * Converts SQL expression, usually generated by
+     * {@link #convertToSqlExpression(Object)} or
+     * {@link ClickHouseValue#toSqlExpression()}, to value of server-side query
+     * parameter. Single-quoted string literal will be unquoted, while other
+     * expressions like numbers and arrays are returned as is.
+     *
+     * @param sqlExpression SQL expression, null is treated as {@code NULL}
+     * @return value of query parameter in escaped format
+     */
+    public static String convertToQueryParameter(String sqlExpression) {
+        if (sqlExpression == null || NULL_EXPR.equals(sqlExpression)) {
+            return "\\N";
+        }
+
+        int len = sqlExpression.length();
+        if (len < 2 || sqlExpression.charAt(0) != '\'' || sqlExpression.charAt(len - 1) != '\'') {
+            return sqlExpression;
+        }
+
+        StringBuilder builder = new StringBuilder(len);
+        for (int i = 1, end = len - 1; i < end; i++) {
+            char ch = sqlExpression.charAt(i);
+            if (ch == '\\' && i + 1 < end) {
+                builder.append(ch).append(sqlExpression.charAt(++i));
+            } else if (ch == '\'' && i + 1 < end && sqlExpression.charAt(i + 1) == '\'') {
+                builder.append(ch);
+                i++;
+            } else if (ch == '\t') {
+                builder.append("\\t");
+            } else if (ch == '\n') {
+                builder.append("\\n");
+            } else {
+                builder.append(ch);
+            }
+        }
+        return builder.toString();
+    }
+
     /**
      * Creates an object array. Primitive types will be converted to corresponding
      * wrapper types, also {@code Boolean} / {@code boolean} will be converted to
@@ -982,6 +1024,41 @@ public final class ClickHouseValues {
         return newValue(ClickHouseChecker.nonNull(config, "config"), ClickHouseChecker.nonNull(type, "type"), null);
     }
 
+    private static ClickHouseValue newArrayValue(Class<?> javaClass) {
+        ClickHouseValue value;
+        if (byte.class == javaClass) {
+            value = ClickHouseByteArrayValue.ofEmpty();
+        } else if (short.class == javaClass) {
+            value = ClickHouseShortArrayValue.ofEmpty();
+        } else if (int.class == javaClass) {
+            value = ClickHouseIntArrayValue.ofEmpty();
+        } else if (long.class == javaClass) {
+            value = ClickHouseLongArrayValue.ofEmpty();
+        } else if (float.class == javaClass) {
+            value = ClickHouseFloatArrayValue.ofEmpty();
+        } else if (double.class == javaClass) {
+            value = ClickHouseDoubleArrayValue.ofEmpty();
+        } else {
+            value = ClickHouseArrayValue.ofEmpty();
+        }
+        return value;
+    }
+
+    private static ClickHouseValue newSumValue(ClickHouseColumn arg) {
+        ClickHouseDataType type = arg.getDataType();
+        ClickHouseValue value;
+        if (type == ClickHouseDataType.Float32 || type == ClickHouseDataType.Float64) {
+            value = ClickHouseDoubleValue.ofNull();
+        } else if (type.getObjectClass() == BigDecimal.class) {
+            value = ClickHouseBigDecimalValue.ofNull();
+        } else if (type.getObjectClass() == BigInteger.class) {
+            value = ClickHouseBigIntegerValue.ofNull();
+        } else {
+            value = ClickHouseLongValue.ofNull(!type.isSigned());
+        }
+        return value;
+    }
+
     private static ClickHouseValue newValue(ClickHouseConfig config, ClickHouseDataType type, ClickHouseColumn column) {
         ClickHouseValue value = null;
         switch (type) { // still faster than EnumMap and with less overhead
@@ -1079,13 +1156,39 @@ public final class ClickHouseValues {
                 break;
             case AggregateFunction:
                 value = ClickHouseEmptyValue.INSTANCE;
-                if (column != null) {
-                    switch (column.getAggregateFunction()) {
+                ClickHouseAggregateFunction func = column != null ? column.getAggregateFunction() : null;
+                if (func == ClickHouseAggregateFunction.count) {
+                    value = ClickHouseLongValue.ofNull(true);
+                } else if (func != null && !column.getNestedColumns().isEmpty()) {
+                    ClickHouseColumn arg = column.getNestedColumns().get(0);
+                    switch (func) {
                         case any:
-                            value = newValue(config, column.getNestedColumns().get(0));
+                        case anyLast:
+                        case min:
+                        case max:
+                            value = newValue(config, arg);
+                            break;
+                        case avg:
+                            value = ClickHouseTupleValue.of();
+                            break;
+                        case groupArray:
+                        case uniqExact:
+                            value = newArrayValue(arg.getDataType().getPrimitiveClass());
                             break;
                         case groupBitmap:
-                            value = ClickHouseBitmapValue.ofEmpty(column.getNestedColumns().get(0).getDataType());
+                            value = ClickHouseBitmapValue.ofEmpty(arg.getDataType());
+                            break;
+                        case quantile:
+                        case quantiles:
+                            if (ClickHouseReservoirSampler.isSupported(arg.getDataType())) {
+                                value = ClickHouseReservoirSamplerValue.ofEmpty(arg.getDataType());
+                            }
+                            break;
+                        case sum:
+                            value = newSumValue(arg);
+                            break;
+                        case uniq:
+                            value = ClickHouseUniquesHashSetValue.ofEmpty();
                             break;
                         default:
                             break;
@@ -1101,22 +1204,7 @@ public final class ClickHouseValues {
                                     column.getArrayBaseColumn().getDataType().getPrimitiveClass(),
                                     0, column.getArrayNestedLevel()));
                 } else {
-                    Class<?> javaClass = column.getArrayBaseColumn().getDataType().getPrimitiveClass();
-                    if (byte.class == javaClass) {
-                        value = ClickHouseByteArrayValue.ofEmpty();
-                    } else if (short.class == javaClass) {
-                        value = ClickHouseShortArrayValue.ofEmpty();
-                    } else if (int.class == javaClass) {
-                        value = ClickHouseIntArrayValue.ofEmpty();
-                    } else if (long.class == javaClass) {
-                        value = ClickHouseLongArrayValue.ofEmpty();
-                    } else if (float.class == javaClass) {
-                        value = ClickHouseFloatArrayValue.ofEmpty();
-                    } else if (double.class == javaClass) {
-                        value = ClickHouseDoubleArrayValue.ofEmpty();
-                    } else {
-                        value = ClickHouseArrayValue.ofEmpty();
-                    }
+                    value = newArrayValue(column.getArrayBaseColumn().getDataType().getPrimitiveClass());
                 }
                 break;
             case Map:
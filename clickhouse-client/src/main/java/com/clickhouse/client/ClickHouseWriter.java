@@ -2,9 +2,49 @@ package com.clickhouse.client;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
+
+import com.clickhouse.client.data.mapper.ClickHouseRowMapper;
+import com.clickhouse.client.data.vector.ClickHouseColumnBatch;
 
 @FunctionalInterface
 public interface ClickHouseWriter {
+    /**
+     * Creates a writer for serializing objects in RowBinary format.
+     *
+     * @param <T>      type of the object
+     * @param config   non-null configuration, usually from the request
+     * @param columns  non-null columns to write
+     * @param objects  non-null objects to write
+     * @param objClass non-null class of the object
+     * @return non-null writer
+     */
+    static <T> ClickHouseWriter of(ClickHouseConfig config, List<ClickHouseColumn> columns, Iterable<T> objects,
+            Class<T> objClass) {
+        ClickHouseChecker.nonNull(objects, "objects");
+        final ClickHouseRowMapper<T> mapper = ClickHouseRowMapper.of(config, columns, objClass);
+        return output -> {
+            for (T obj : objects) {
+                mapper.write(obj, output);
+            }
+        };
+    }
+
+    /**
+     * Creates a writer for serializing column batches in RowBinary format.
+     *
+     * @param batches non-null column batches
+     * @return non-null writer
+     */
+    static ClickHouseWriter of(Iterable<ClickHouseColumnBatch> batches) {
+        ClickHouseChecker.nonNull(batches, "batches");
+        return output -> {
+            for (ClickHouseColumnBatch batch : batches) {
+                batch.write(output);
+            }
+        };
+    }
+
     /**
      * Writes value to output stream.
      *
@@ -19,6 +19,29 @@ public enum ClickHouseClientOption implements ClickHouseOption {
      * in a separate thread).
      */
     ASYNC("async", true, "Whether the client should run in async mode."),
+    /**
+     * Maximum time in milliseconds a row can stay in
+     * {@link com.clickhouse.client.ClickHouseBatchingWriter} before it's flushed.
+     */
+    BATCH_LINGER_TIME("batch_linger_time", 200,
+            "Maximum time in milliseconds a row can stay in batching writer before it's flushed."),
+    /**
+     * Maximum size in byte of a batch in
+     * {@link com.clickhouse.client.ClickHouseBatchingWriter}.
+     */
+    BATCH_MAX_BYTES("batch_max_bytes", 1024 * 1024,
+            "Maximum size in byte of a batch, which will be flushed when exceeded."),
+    /**
+     * Maximum size in byte of all pending batches in
+     * {@link com.clickhouse.client.ClickHouseBatchingWriter}.
+     */
+    BATCH_MAX_PENDING_BYTES("batch_max_pending_bytes", 64 * 1024 * 1024,
+            "Maximum size in byte of all pending batches, appending will be blocked when exceeded."),
+    /**
+     * Maximum number of rows in a batch in
+     * {@link com.clickhouse.client.ClickHouseBatchingWriter}.
+     */
+    BATCH_MAX_ROWS("batch_max_rows", 10000, "Maximum number of rows in a batch, which will be flushed when exceeded."),
     /**
      * Client name.
      */
@@ -106,6 +129,23 @@ public enum ClickHouseClientOption implements ClickHouseOption {
      */
     MAX_THREADS_PER_CLIENT("max_threads_per_client", 0,
             "Size of thread pool for each client instance, 0 or negative number means the client will use shared thread pool."),
+    /**
+     * Maximum size in byte of an entry kept in
+     * {@link com.clickhouse.client.ClickHouseResultCache}.
+     */
+    RESULT_CACHE_MAX_ENTRY_SIZE("result_cache_max_entry_size", 8 * 1024 * 1024,
+            "Maximum size in byte of an entry kept in result cache, larger result will not be cached."),
+    /**
+     * Maximum size in byte of data cached in
+     * {@link com.clickhouse.client.ClickHouseResultCache}.
+     */
+    RESULT_CACHE_SIZE("result_cache_size", 0,
+            "Maximum size in byte of data cached in result cache, 0 or negative number means result cache is disabled."),
+    /**
+     * Time in seconds before an entry in
+     * {@link com.clickhouse.client.ClickHouseResultCache} expires.
+     */
+    RESULT_CACHE_TTL("result_cache_ttl", 60, "Time in seconds before an entry in result cache expires."),
     /**
      * Whether to enable retry.
      */
@@ -163,6 +203,12 @@ public enum ClickHouseClientOption implements ClickHouseOption {
      */
     USE_OBJECTS_IN_ARRAYS("use_objects_in_arrays", false,
             "Whether Object[] should be used instead of primitive arrays."),
+    /**
+     * Whether to use primitive-specialized map for Map columns with integer keys
+     * and numeric values.
+     */
+    USE_PRIMITIVE_MAP("use_primitive_map", false,
+            "Whether to deserialize Map with integer keys and numeric values into primitive-specialized map backed by fastutil, which must be available in classpath."),
     /**
      * Whether to use server time zone.
      */
@@ -1695,6 +1695,38 @@ public final class BinaryStreamUtils {
         return (int) result;
     }
 
+    /**
+     * Read varint as long from given input stream.
+     *
+     * @param input non-null input stream
+     * @return varint
+     * @throws IOException when failed to read value from input stream or reached
+     *                     end of the stream
+     */
+    public static long readVarLong(InputStream input) throws IOException {
+        long result = 0L;
+        int shift = 0;
+        for (int i = 0; i < 10; i++) {
+            // gets 7 bits from next byte
+            int b = input.read();
+            if (b == -1) {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    // ignore error
+                }
+                throw new EOFException();
+            }
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+        }
+
+        return result;
+    }
+
     /**
      * Read varint from given byte buffer.
      *
@@ -10,10 +10,14 @@ import java.io.InputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
+import org.roaringbitmap.IntIterator;
 import org.roaringbitmap.RoaringBitmap;
 import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.roaringbitmap.longlong.LongIterator;
 import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import com.clickhouse.client.ClickHouseDataType;
@@ -34,6 +38,30 @@ public abstract class ClickHouseBitmap {
     private static final ClickHouseBitmap EMPTY_UINT32_BITMAP = wrap(ImmutableRoaringBitmap.bitmapOf(EMPTY_INT_ARRAY),
             ClickHouseDataType.UInt32);
 
+    static final class IntValueIterator implements PrimitiveIterator.OfLong {
+        private final IntIterator it;
+        private final boolean signed;
+
+        IntValueIterator(IntIterator it, boolean signed) {
+            this.it = it;
+            this.signed = signed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+
+        @Override
+        public long nextLong() {
+            if (!it.hasNext()) {
+                throw new NoSuchElementException("No more value");
+            }
+            int v = it.next();
+            return signed ? v : Integer.toUnsignedLong(v);
+        }
+    }
+
     static class ClickHouseRoaringBitmap extends ClickHouseBitmap {
         private final RoaringBitmap rb;
 
@@ -63,6 +91,11 @@ public abstract class ClickHouseBitmap {
             return rb.serializedSizeInBytes();
         }
 
+        @Override
+        public PrimitiveIterator.OfLong iterator() {
+            return new IntValueIterator(rb.getIntIterator(), innerType.isSigned());
+        }
+
         @Override
         public int[] toIntArray() {
             return rb.toArray();
@@ -98,6 +131,11 @@ public abstract class ClickHouseBitmap {
             return rb.serializedSizeInBytes();
         }
 
+        @Override
+        public PrimitiveIterator.OfLong iterator() {
+            return new IntValueIterator(rb.getIntIterator(), innerType.isSigned());
+        }
+
         @Override
         public int[] toIntArray() {
             return rb.toArray();
@@ -133,6 +171,11 @@ public abstract class ClickHouseBitmap {
             return rb.serializedSizeInBytes();
         }
 
+        @Override
+        public PrimitiveIterator.OfLong iterator() {
+            return new IntValueIterator(rb.getIntIterator(), innerType.isSigned());
+        }
+
         @Override
         public int[] toIntArray() {
             return rb.toArray();
@@ -208,6 +251,25 @@ public abstract class ClickHouseBitmap {
             return ints;
         }
 
+        @Override
+        public PrimitiveIterator.OfLong iterator() {
+            final LongIterator it = rb.getLongIterator();
+            return new PrimitiveIterator.OfLong() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public long nextLong() {
+                    if (!it.hasNext()) {
+                        throw new NoSuchElementException("No more value");
+                    }
+                    return it.next();
+                }
+            };
+        }
+
         @Override
         public long[] toLongArray() {
             return rb.toArray();
@@ -522,6 +584,23 @@ public abstract class ClickHouseBitmap {
 
     public abstract int[] toIntArray();
 
+    /**
+     * Gets an iterator of values in the bitmap. Unlike {@link #toIntArray()} and
+     * {@link #toLongArray()}, values are read one at a time without copying.
+     *
+     * @return non-null iterator of values
+     */
+    public abstract PrimitiveIterator.OfLong iterator();
+
+    /**
+     * Gets inner type of the bitmap.
+     *
+     * @return inner type
+     */
+    public ClickHouseDataType getInnerType() {
+        return innerType;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -243,7 +243,16 @@ public class ClickHouseCityHash {
         return new long[] { hashLen16(x + v[1], w[1]) + y, hashLen16(x + w[1], y + v[1]) };
     }
 
-    static long[] cityHash128(byte[] s, int pos, int len) {
+    /**
+     * Calculates 128-bit CityHash(v1.0.2, same as the one used in ClickHouse for
+     * checksum of compressed blocks) of given bytes.
+     *
+     * @param s   non-null byte array
+     * @param pos start position
+     * @param len number of bytes to hash
+     * @return non-null array containing two longs
+     */
+    public static long[] cityHash128(byte[] s, int pos, int len) {
 
         if (len >= 16) {
             return cityHash128WithSeed(s, pos + 16, len - 16, fetch64(s, pos) ^ k3, fetch64(s, pos + 8));
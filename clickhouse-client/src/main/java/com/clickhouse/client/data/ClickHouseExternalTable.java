@@ -1,27 +1,125 @@
 package com.clickhouse.client.data;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.PrimitiveIterator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 
 import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseClient;
 import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataStreamFactory;
+import com.clickhouse.client.ClickHouseDataType;
 import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.ClickHouseWriter;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
 
+/**
+ * External table sent along with a query. Content is either an input stream
+ * already encoded in {@link #getFormat()}, or a {@link ClickHouseWriter}
+ * encoding data in {@link ClickHouseFormat#RowBinary} lazily while the request
+ * is being sent, so that large filters like {@code id IN _ext} do not need an
+ * intermediate byte array.
+ */
 public class ClickHouseExternalTable {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseExternalTable.class);
+
+    // buffer for writing primitive values in little-endian
+    static final class ValueBuffer {
+        private final OutputStream output;
+        private final int byteLength;
+        private final byte[] buffer;
+
+        private int position;
+
+        ValueBuffer(OutputStream output, int byteLength) {
+            this.output = output;
+            this.byteLength = byteLength;
+            this.buffer = new byte[byteLength * 1024];
+            this.position = 0;
+        }
+
+        void write(long value) throws IOException {
+            if (position == buffer.length) {
+                output.write(buffer, 0, position);
+                position = 0;
+            }
+            for (int i = 0; i < byteLength; i++) {
+                buffer[position++] = (byte) (0xFF & (value >> (i * 8)));
+            }
+        }
+
+        void flush() throws IOException {
+            if (position > 0) {
+                output.write(buffer, 0, position);
+                position = 0;
+            }
+        }
+    }
+
+    // input of piped stream, which fails instead of ending when writer failed
+    static final class ContentInputStream extends FilterInputStream {
+        private final String table;
+
+        private volatile Throwable error;
+
+        ContentInputStream(InputStream input, String table) {
+            super(input);
+            this.table = table;
+            this.error = null;
+        }
+
+        void fail(Throwable cause) {
+            error = cause;
+        }
+
+        private int check(int result) throws IOException {
+            Throwable e = error;
+            if (e != null) {
+                throw new IOException(
+                        ClickHouseUtils.format("Failed to write content of external table [%s]", table), e);
+            }
+            return result;
+        }
+
+        @Override
+        public int read() throws IOException {
+            check(0);
+            return check(super.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            check(0);
+            return check(super.read(b, off, len));
+        }
+    }
+
     public static class Builder {
         private String name;
         private CompletableFuture<InputStream> content;
+        private ClickHouseWriter writer;
+        private Iterable<ClickHouseRecord> records;
         private ClickHouseFormat format;
         private List<ClickHouseColumn> columns;
         private boolean asTempTable;
+        // type of primitive values written by the writer, null for other content
+        private ClickHouseDataType valueType;
 
         protected Builder() {
             columns = new LinkedList<>();
@@ -34,14 +132,148 @@ public class ClickHouseExternalTable {
 
         public Builder content(InputStream content) {
             this.content = CompletableFuture.completedFuture(ClickHouseChecker.nonNull(content, "content"));
+            this.writer = null;
+            this.records = null;
+            this.valueType = null;
             return this;
         }
 
         public Builder content(CompletableFuture<InputStream> content) {
             this.content = ClickHouseChecker.nonNull(content, "Content");
+            this.writer = null;
+            this.records = null;
+            this.valueType = null;
+            return this;
+        }
+
+        /**
+         * Sets a writer to encode content in RowBinary format on demand. Each write
+         * to the output stream should contain complete rows, as the gRPC client
+         * sends each of them as a separate chunk.
+         *
+         * @param writer non-null writer
+         * @return this builder
+         */
+        public Builder content(ClickHouseWriter writer) {
+            this.content = null;
+            this.writer = ClickHouseChecker.nonNull(writer, "writer");
+            this.records = null;
+            this.valueType = null;
+            return this;
+        }
+
+        /**
+         * Sets records, which will be encoded in RowBinary format according to
+         * columns of the table on demand.
+         *
+         * @param records non-null records
+         * @return this builder
+         */
+        public Builder content(Iterable<ClickHouseRecord> records) {
+            this.content = null;
+            this.writer = null;
+            this.records = ClickHouseChecker.nonNull(records, "records");
+            this.valueType = null;
+            return this;
+        }
+
+        /**
+         * Sets values of a single-column table. Column {@code id Int32} will be
+         * added when there's no column defined, otherwise the only column must be a
+         * non-nullable 32-bit integer.
+         *
+         * @param values non-null values
+         * @return this builder
+         */
+        public Builder content(int[] values) {
+            ClickHouseChecker.nonNull(values, "values");
+            return values(ClickHouseDataType.Int32, output -> {
+                ValueBuffer buffer = new ValueBuffer(output, Integer.BYTES);
+                for (int v : values) {
+                    buffer.write(v);
+                }
+                buffer.flush();
+            });
+        }
+
+        /**
+         * Sets values of a single-column table. Column {@code id Int64} will be
+         * added when there's no column defined, otherwise the only column must be a
+         * non-nullable 64-bit integer.
+         *
+         * @param values non-null values
+         * @return this builder
+         */
+        public Builder content(long[] values) {
+            ClickHouseChecker.nonNull(values, "values");
+            return values(ClickHouseDataType.Int64, output -> {
+                ValueBuffer buffer = new ValueBuffer(output, Long.BYTES);
+                for (long v : values) {
+                    buffer.write(v);
+                }
+                buffer.flush();
+            });
+        }
+
+        /**
+         * Sets values of a single-column table. Values are read from the bitmap one
+         * at a time while sending the request. Column {@code id} with same type as
+         * the bitmap will be added when there's no column defined, otherwise the only
+         * column must be a non-nullable integer of same size.
+         *
+         * @param bitmap non-null bitmap
+         * @return this builder
+         */
+        public Builder content(ClickHouseBitmap bitmap) {
+            ClickHouseDataType type = ClickHouseChecker.nonNull(bitmap, "bitmap").getInnerType();
+            return values(type, output -> {
+                ValueBuffer buffer = new ValueBuffer(output, type.getByteLength());
+                PrimitiveIterator.OfLong it = bitmap.iterator();
+                while (it.hasNext()) {
+                    buffer.write(it.nextLong());
+                }
+                buffer.flush();
+            });
+        }
+
+        private Builder values(ClickHouseDataType type, ClickHouseWriter writer) {
+            content(writer).valueType = type;
             return this;
         }
 
+        private List<ClickHouseColumn> getColumns() {
+            if (valueType == null) {
+                return columns;
+            } else if (columns.isEmpty()) {
+                return Collections.singletonList(ClickHouseColumn.of("id", valueType.name()));
+            }
+
+            ClickHouseColumn column = columns.get(0);
+            ClickHouseDataType type = column.getDataType();
+            boolean valid = columns.size() == 1 && !column.isNullable()
+                    && type.getByteLength() == valueType.getByteLength();
+            switch (type) {
+                case Int8:
+                case Int16:
+                case Int32:
+                case Int64:
+                case UInt8:
+                case UInt16:
+                case UInt32:
+                case UInt64:
+                    break;
+                default:
+                    valid = false;
+                    break;
+            }
+            if (!valid) {
+                throw new IllegalArgumentException(ClickHouseUtils.format(
+                        "Expect one non-nullable column of %d-byte integer for %s values, but got %s",
+                        valueType.getByteLength(), valueType.name(), columns));
+            }
+            return columns;
+        }
+
         public Builder format(String format) {
             if (!ClickHouseChecker.isNullOrBlank(format)) {
                 this.format = ClickHouseFormat.valueOf(format);
@@ -100,7 +332,14 @@ public class ClickHouseExternalTable {
         }
 
         public ClickHouseExternalTable build() {
-            return new ClickHouseExternalTable(name, content, format, columns, asTempTable);
+            List<ClickHouseColumn> list = getColumns();
+            if (records != null) {
+                return new ClickHouseExternalTable(name, null, null, records, ClickHouseFormat.RowBinary, list,
+                        asTempTable);
+            }
+
+            return writer != null ? new ClickHouseExternalTable(name, writer, list, asTempTable)
+                    : new ClickHouseExternalTable(name, content, format, list, asTempTable);
         }
     }
 
@@ -110,6 +349,8 @@ public class ClickHouseExternalTable {
 
     private final String name;
     private final CompletableFuture<InputStream> content;
+    private final ClickHouseWriter writer;
+    private final Iterable<ClickHouseRecord> records;
     private final ClickHouseFormat format;
     private final List<ClickHouseColumn> columns;
     private final boolean asTempTable;
@@ -118,9 +359,24 @@ public class ClickHouseExternalTable {
 
     protected ClickHouseExternalTable(String name, CompletableFuture<InputStream> content, ClickHouseFormat format,
             Collection<ClickHouseColumn> columns, boolean asTempTable) {
+        this(name, ClickHouseChecker.nonNull(content, "content"), null, null,
+                format == null ? ClickHouseFormat.TabSeparated : format, columns, asTempTable);
+    }
+
+    protected ClickHouseExternalTable(String name, ClickHouseWriter writer, Collection<ClickHouseColumn> columns,
+            boolean asTempTable) {
+        this(name, null, ClickHouseChecker.nonNull(writer, "writer"), null, ClickHouseFormat.RowBinary, columns,
+                asTempTable);
+    }
+
+    private ClickHouseExternalTable(String name, CompletableFuture<InputStream> content, ClickHouseWriter writer,
+            Iterable<ClickHouseRecord> records, ClickHouseFormat format, Collection<ClickHouseColumn> columns,
+            boolean asTempTable) {
         this.name = name == null ? "" : name.trim();
-        this.content = ClickHouseChecker.nonNull(content, "content");
-        this.format = format == null ? ClickHouseFormat.TabSeparated : format;
+        this.content = content;
+        this.writer = writer;
+        this.records = records;
+        this.format = format;
 
         int size = columns == null ? 0 : columns.size();
         if (size == 0) {
@@ -148,7 +404,77 @@ public class ClickHouseExternalTable {
         return name;
     }
 
+    /**
+     * Checks if content of the table is encoded on demand by a writer.
+     *
+     * @return true if content is encoded on demand; false otherwise
+     */
+    public boolean hasWriter() {
+        return writer != null || records != null;
+    }
+
+    private void write(OutputStream output, ClickHouseConfig config) throws IOException {
+        if (writer != null) {
+            writer.write(output);
+            return;
+        }
+
+        ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+        int size = columns.size();
+        // one write per row
+        ByteArrayOutputStream row = new ByteArrayOutputStream();
+        for (ClickHouseRecord r : records) {
+            row.reset();
+            for (int i = 0; i < size; i++) {
+                m.serialize(r.getValue(i), config, columns.get(i), row);
+            }
+            row.writeTo(output);
+        }
+    }
+
+    /**
+     * Gets content of the table using default configuration.
+     *
+     * @return non-null input stream
+     * @see #getContent(ClickHouseConfig)
+     */
     public InputStream getContent() {
+        return getContent(new ClickHouseConfig());
+    }
+
+    /**
+     * Gets content of the table. When content is encoded by a writer, the writer
+     * will run in a separate thread writing into a piped stream, so
+     * {@link #writeContent(OutputStream, ClickHouseConfig)} should be used
+     * whenever possible. If the writer failed, reading the returned stream will
+     * end up with an {@link IOException} instead of end of stream.
+     *
+     * @param config non-null configuration, usually from the request
+     * @return non-null input stream
+     */
+    public InputStream getContent(ClickHouseConfig config) {
+        ClickHouseChecker.nonNull(config, "config");
+        if (hasWriter()) {
+            ClickHousePipedStream stream = ClickHouseDataStreamFactory.getInstance().createPipedStream(config);
+            ContentInputStream input = new ContentInputStream(stream.getInput(), name);
+            ClickHouseClient.getExecutorService().execute(() -> {
+                try {
+                    write(stream, config);
+                } catch (Exception e) {
+                    log.error("Failed to write content of external table [%s]", name, e);
+                    input.fail(e);
+                } finally {
+                    try {
+                        // unblock reader
+                        stream.close();
+                    } catch (IOException e) {
+                        log.debug("Failed to close piped stream of external table [%s]", name, e);
+                    }
+                }
+            });
+            return input;
+        }
+
         try {
             return content.get();
         } catch (InterruptedException e) {
@@ -159,6 +485,30 @@ public class ClickHouseExternalTable {
         }
     }
 
+    /**
+     * Writes content of the table into the given output stream.
+     *
+     * @param output non-null output stream
+     * @param config non-null configuration, usually from the request
+     * @throws IOException when failed to write content
+     */
+    public void writeContent(OutputStream output, ClickHouseConfig config) throws IOException {
+        ClickHouseChecker.nonNull(output, "output");
+        ClickHouseChecker.nonNull(config, "config");
+        if (hasWriter()) {
+            write(output, config);
+        } else {
+            byte[] bytes = new byte[config.getMaxBufferSize()];
+            int len;
+            try (InputStream input = getContent(config)) {
+                while ((len = input.read(bytes)) != -1) {
+                    output.write(bytes, 0, len);
+                }
+            }
+        }
+        output.flush();
+    }
+
     public ClickHouseFormat getFormat() {
         return format;
     }
@@ -4,6 +4,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 
+import com.clickhouse.client.ClickHouseBufferPool;
 import com.clickhouse.client.ClickHouseByteBuffer;
 import com.clickhouse.client.ClickHouseChecker;
 import com.clickhouse.client.ClickHouseInputStream;
@@ -14,7 +15,9 @@ import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4FastDecompressor;
 
 /**
- * Reader from clickhouse in lz4.
+ * Reader from clickhouse in lz4. Both compressed and decompressed blocks are
+ * borrowed from {@link ClickHouseBufferPool} and reused until the input stream
+ * is closed.
  */
 public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
     private static final LZ4Factory factory = LZ4Factory.fastestInstance();
@@ -24,25 +27,37 @@ public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
 
     private final LZ4FastDecompressor decompressor;
     private final InputStream stream;
+    private final ClickHouseBufferPool pool;
     private final byte[] header;
 
+    private byte[] compressedBlock;
     private byte[] currentBlock;
     private int position;
+    private int limit;
 
     private boolean checkNext() throws IOException {
-        if (!closed && position >= currentBlock.length) {
-            currentBlock = readNextBlock();
+        if (!closed && position >= limit) {
+            readNextBlock();
         }
-        return currentBlock.length > 0;
+        return limit > 0;
+    }
+
+    private byte[] ensureCapacity(byte[] block, int size) {
+        if (block.length < size) {
+            pool.release(block);
+            block = pool.borrowArray(size);
+        }
+        return block;
     }
 
     // every block is:
-    private byte[] readNextBlock() throws IOException {
+    private void readNextBlock() throws IOException {
         position = 0;
+        limit = 0;
 
         // checksum(16 bytes) + 1 magic byte + header(8 bytes)
         if (!readFully(header, 0, HEADER_LENGTH)) {
-            return ClickHouseByteBuffer.EMPTY_BYTES;
+            return;
         } else if (header[16] != MAGIC) {
             // 1 byte - 0x82 (shows this is LZ4)
             throw new IOException(
@@ -54,7 +69,7 @@ public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
         // 4 bytes - size of uncompressed data
         int uncompressedSize = BinaryStreamUtils.toInt32(header, 21);
         int offset = 9;
-        byte[] block = new byte[compressedSizeWithHeader];
+        byte[] block = compressedBlock = ensureCapacity(compressedBlock, compressedSizeWithHeader);
         block[0] = header[16];
         BinaryStreamUtils.setInt32(block, 1, compressedSizeWithHeader);
         BinaryStreamUtils.setInt32(block, 5, uncompressedSize);
@@ -63,14 +78,14 @@ public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
             throw new EOFException();
         }
 
-        long[] real = ClickHouseCityHash.cityHash128(block, 0, block.length);
+        long[] real = ClickHouseCityHash.cityHash128(block, 0, compressedSizeWithHeader);
         if (real[0] != BinaryStreamUtils.toInt64(header, 0) || real[1] != BinaryStreamUtils.toInt64(header, 8)) {
             throw new IllegalArgumentException("Checksum doesn't match: corrupted data.");
         }
 
-        byte[] decompressed = new byte[uncompressedSize];
-        decompressor.decompress(block, offset, decompressed, 0, uncompressedSize);
-        return decompressed;
+        currentBlock = ensureCapacity(currentBlock, uncompressedSize);
+        decompressor.decompress(block, offset, currentBlock, 0, uncompressedSize);
+        limit = uncompressedSize;
     }
 
     private boolean readFully(byte[] b, int off, int len) throws IOException {
@@ -94,14 +109,21 @@ public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
     }
 
     public ClickHouseLZ4InputStream(InputStream stream, Runnable afterClose) {
+        this(stream, null, afterClose);
+    }
+
+    public ClickHouseLZ4InputStream(InputStream stream, ClickHouseBufferPool pool, Runnable afterClose) {
         super(afterClose);
 
         this.decompressor = factory.fastDecompressor();
         this.stream = ClickHouseChecker.nonNull(stream, "InputStream");
+        this.pool = pool != null ? pool : ClickHouseBufferPool.getDefault();
         this.header = new byte[HEADER_LENGTH];
 
+        this.compressedBlock = ClickHouseByteBuffer.EMPTY_BYTES;
         this.currentBlock = ClickHouseByteBuffer.EMPTY_BYTES;
         this.position = 0;
+        this.limit = 0;
         this.closed = false;
     }
 
@@ -117,16 +139,17 @@ public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
             return count;
         }
 
-        int remain = currentBlock.length - position;
+        int remain = limit - position;
         if (remain > 0) {
             output.write(currentBlock, position, remain);
-            position = currentBlock.length;
+            position = limit;
             count += remain;
         }
 
         while (checkNext()) {
-            output.write(currentBlock);
-            count += currentBlock.length;
+            output.write(currentBlock, 0, limit);
+            position = limit;
+            count += limit;
         }
 
         return count;
@@ -148,9 +171,9 @@ public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
             return 0;
         }
 
-        int estimated = currentBlock.length - position;
+        int estimated = limit - position;
         if (estimated == 0 && checkNext()) {
-            estimated = currentBlock.length - position;
+            estimated = limit - position;
         }
         return estimated;
     }
@@ -176,7 +199,7 @@ public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
 
         int copied = 0;
         while (copied != len) {
-            int toCopy = Math.min(currentBlock.length - position, len - copied);
+            int toCopy = Math.min(limit - position, len - copied);
             System.arraycopy(currentBlock, position, b, off, toCopy);
             position += toCopy;
             off += toCopy;
@@ -200,7 +223,7 @@ public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
             }
 
             int newLimit = position + len;
-            if (currentBlock.length >= newLimit) {
+            if (limit >= newLimit) {
                 byteBuffer.update(currentBlock, position, len);
                 position = newLimit;
             } else {
@@ -217,6 +240,13 @@ public class ClickHouseLZ4InputStream extends ClickHouseInputStream {
                 stream.close();
             } finally {
                 super.close();
+
+                pool.release(compressedBlock);
+                pool.release(currentBlock);
+                compressedBlock = ClickHouseByteBuffer.EMPTY_BYTES;
+                currentBlock = ClickHouseByteBuffer.EMPTY_BYTES;
+                position = 0;
+                limit = 0;
             }
         }
     }
@@ -4,11 +4,11 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 
+import com.clickhouse.client.ClickHouseBufferPool;
 import com.clickhouse.client.ClickHouseByteBuffer;
 import com.clickhouse.client.ClickHouseInputStream;
 import com.clickhouse.client.ClickHouseUtils;
@@ -17,26 +17,46 @@ import com.clickhouse.client.ClickHouseUtils;
  * A combination of {@link java.io.PipedOutputStream} and
  * {@link java.io.PipedInputStream} for streaming data between server and
  * client. To avoid dead lock and high memory usage, please make sure writer and
- * reader are on two separate threads.
+ * reader are on two separate threads. Buffers are borrowed from
+ * {@link ClickHouseBufferPool} and released back by the reader once consumed.
+ *
+ * <p>
+ * Buffers are handed over through {@link ClickHouseRingBuffer} when queue
+ * length is limited. Chunk size starts small for low latency, doubles each
+ * time a chunk is filled up until it reaches buffer size, and halves when
+ * {@link #flush()} hands over a chunk which is less than half full. Large
+ * buffers written by {@link #write(ByteBuffer)} skip chunking and are handed
+ * over directly.
  */
 public class ClickHousePipedStream extends OutputStream {
+    static final int MIN_CHUNK_SIZE = 1024;
+
     protected final BlockingQueue<ByteBuffer> queue;
 
     private final int bufferSize;
+    private final int minChunkSize;
     private final int timeout;
+    private final ClickHouseBufferPool pool;
 
+    private int chunkSize;
     private ByteBuffer buffer;
     private boolean closed;
 
     public ClickHousePipedStream(int bufferSize, int queueLength, int timeout) {
-        // DisruptorBlockingQueue? Did not see much difference here...
-        this.queue = queueLength <= 0 ? new LinkedBlockingDeque<>() : new ArrayBlockingQueue<>(queueLength);
+        this(bufferSize, queueLength, timeout, null);
+    }
+
+    public ClickHousePipedStream(int bufferSize, int queueLength, int timeout, ClickHouseBufferPool pool) {
+        // one writer and one reader, so no lock is needed when the queue is bounded
+        this.queue = queueLength <= 0 ? new LinkedBlockingDeque<>() : new ClickHouseRingBuffer<>(queueLength);
 
-        // may need an initialBufferSize and a monitor to update bufferSize in runtime
         this.bufferSize = bufferSize <= 0 ? 8192 : bufferSize;
+        this.minChunkSize = Math.min(this.bufferSize, MIN_CHUNK_SIZE);
         this.timeout = timeout;
+        this.pool = pool != null ? pool : ClickHouseBufferPool.getDefault();
 
-        this.buffer = ByteBuffer.allocate(this.bufferSize);
+        this.chunkSize = this.minChunkSize;
+        this.buffer = this.pool.borrowBuffer(this.chunkSize, false);
         this.closed = false;
     }
 
@@ -46,32 +66,51 @@ public class ClickHousePipedStream extends OutputStream {
         }
     }
 
-    private void updateBuffer() throws IOException {
-        if (buffer.position() > 0) {
-            if (buffer.hasRemaining()) {
-                ((Buffer) buffer).limit(buffer.position());
+    private void enqueue(ByteBuffer b) throws IOException {
+        try {
+            if (timeout > 0) {
+                if (!queue.offer(b, timeout, TimeUnit.MILLISECONDS)) {
+                    throw new IOException(ClickHouseUtils.format("Write timed out after %d ms", timeout));
+                }
+            } else {
+                queue.put(b);
             }
-            ((Buffer) buffer).rewind();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Thread was interrupted when putting buffer into queue", e);
+        }
+    }
 
-            try {
-                if (timeout > 0) {
-                    if (!queue.offer(buffer, timeout, TimeUnit.MILLISECONDS)) {
-                        throw new IOException(ClickHouseUtils.format("Write timed out after %d ms", timeout));
-                    }
-                } else {
-                    queue.put(buffer);
+    private void updateBuffer() throws IOException {
+        int position = buffer.position();
+        if (position > 0) {
+            if (buffer.hasRemaining()) {
+                ((Buffer) buffer).limit(position);
+                if (position < chunkSize / 2 && chunkSize > minChunkSize) {
+                    chunkSize = Math.max(chunkSize / 2, minChunkSize);
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new IOException("Thread was interrupted when putting buffer into queue", e);
+            } else if (chunkSize < bufferSize) {
+                chunkSize = (int) Math.min(chunkSize * 2L, bufferSize);
             }
+            ((Buffer) buffer).rewind();
 
-            buffer = ByteBuffer.allocate(bufferSize);
+            enqueue(buffer);
+            buffer = pool.borrowBuffer(chunkSize, false);
         }
     }
 
+    /**
+     * Gets size of the chunk currently being written.
+     *
+     * @return chunk size, between {@code min(bufferSize, 1024)} and
+     *         {@code bufferSize}
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
     public ClickHouseInputStream getInput() {
-        return ClickHouseInputStream.of(queue, timeout);
+        return ClickHouseInputStream.of(queue, timeout, pool, null);
     }
 
     @Override
@@ -82,6 +121,8 @@ public class ClickHousePipedStream extends OutputStream {
 
         flush();
 
+        // the last buffer was never handed over to reader
+        pool.release(buffer);
         buffer = ClickHouseByteBuffer.EMPTY_BUFFER;
         try {
             if (timeout > 0) {
@@ -103,6 +144,48 @@ public class ClickHousePipedStream extends OutputStream {
         updateBuffer();
     }
 
+    /**
+     * Writes remaining bytes of the given buffer. Small buffers are copied into
+     * current chunk, while larger ones are handed over to reader as is, after
+     * current chunk. Since a handed over buffer is read later on another thread,
+     * its content must not be changed afterwards, and it's never released back
+     * to buffer pool.
+     *
+     * @param b buffer to write, its position will be moved to limit
+     * @throws IOException when failed to write
+     */
+    public void write(ByteBuffer b) throws IOException {
+        ensureOpen();
+
+        int len = b.remaining();
+        if (len == 0) {
+            return;
+        } else if (len < minChunkSize || len <= buffer.remaining()) {
+            if (b.hasArray()) {
+                write(b.array(), b.arrayOffset() + b.position(), len);
+                ((Buffer) b).position(b.limit());
+            } else {
+                while (b.hasRemaining()) {
+                    if (!buffer.hasRemaining()) {
+                        updateBuffer();
+                    }
+                    int n = Math.min(b.remaining(), buffer.remaining());
+                    ByteBuffer slice = b.duplicate();
+                    ((Buffer) slice).limit(slice.position() + n);
+                    buffer.put(slice);
+                    ((Buffer) b).position(b.position() + n);
+                }
+            }
+            return;
+        }
+
+        updateBuffer();
+        // read-only so that reader will not release it to the pool
+        ByteBuffer readOnly = b.asReadOnlyBuffer();
+        ((Buffer) b).position(b.limit());
+        enqueue(readOnly);
+    }
+
     @Override
     public void write(int b) throws IOException {
         ensureOpen();
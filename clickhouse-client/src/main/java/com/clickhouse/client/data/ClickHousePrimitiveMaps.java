@@ -0,0 +1,261 @@
+package com.clickhouse.client.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseInputStream;
+
+import it.unimi.dsi.fastutil.ints.Int2DoubleLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2DoubleMap;
+import it.unimi.dsi.fastutil.ints.Int2DoubleMaps;
+import it.unimi.dsi.fastutil.ints.Int2FloatLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2FloatMap;
+import it.unimi.dsi.fastutil.ints.Int2FloatMaps;
+import it.unimi.dsi.fastutil.ints.Int2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import it.unimi.dsi.fastutil.ints.Int2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMaps;
+import it.unimi.dsi.fastutil.longs.Long2DoubleLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2DoubleMap;
+import it.unimi.dsi.fastutil.longs.Long2DoubleMaps;
+import it.unimi.dsi.fastutil.longs.Long2FloatLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2FloatMap;
+import it.unimi.dsi.fastutil.longs.Long2FloatMaps;
+import it.unimi.dsi.fastutil.longs.Long2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMaps;
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMaps;
+
+/**
+ * Reads and writes {@link ClickHouseDataType#Map} using primitive-specialized
+ * maps from fastutil, so that keys and values are only boxed when they're
+ * accessed through {@link Map} interface. Only non-nullable keys of
+ * {@code UInt16}, {@code Int32}, {@code UInt32} and {@code Int64}, and
+ * non-nullable values of same types plus {@code Float32} and {@code Float64}
+ * are supported. Insertion order is preserved like {@link java.util.LinkedHashMap}.
+ *
+ * <p>
+ * This class references fastutil directly, so it should be loaded on demand
+ * and only used when {@link #create()} succeeded.
+ */
+final class ClickHousePrimitiveMaps {
+    /**
+     * Creates an instance after making sure fastutil is available.
+     *
+     * @return non-null instance
+     * @throws NoClassDefFoundError when fastutil is not available in classpath
+     */
+    static ClickHousePrimitiveMaps create() {
+        new Int2IntLinkedOpenHashMap(0).trim();
+        return new ClickHousePrimitiveMaps();
+    }
+
+    /**
+     * Checks whether the given map column can be deserialized into primitive map.
+     *
+     * @param keyCol non-null key column
+     * @param valCol non-null value column
+     * @return true if both key and value are supported; false otherwise
+     */
+    static boolean isSupported(ClickHouseColumn keyCol, ClickHouseColumn valCol) {
+        if (keyCol.isNullable() || valCol.isNullable()) {
+            return false;
+        }
+
+        Class<?> keyClass = getJavaClass(keyCol.getDataType());
+        Class<?> valClass = getJavaClass(valCol.getDataType());
+        return (keyClass == int.class || keyClass == long.class) && valClass != null;
+    }
+
+    private static Class<?> getJavaClass(ClickHouseDataType type) {
+        switch (type) {
+            case UInt16:
+            case Int32:
+                return int.class;
+            case UInt32:
+            case Int64:
+                return long.class;
+            case Float32:
+                return float.class;
+            case Float64:
+                return double.class;
+            default:
+                return null;
+        }
+    }
+
+    private static int readInt(ClickHouseDataType type, ClickHouseInputStream input) throws IOException {
+        return type == ClickHouseDataType.UInt16 ? BinaryStreamUtils.readUnsignedInt16(input)
+                : BinaryStreamUtils.readInt32(input);
+    }
+
+    private static long readLong(ClickHouseDataType type, ClickHouseInputStream input) throws IOException {
+        return type == ClickHouseDataType.UInt32 ? BinaryStreamUtils.readUnsignedInt32(input)
+                : BinaryStreamUtils.readInt64(input);
+    }
+
+    private static void writeInt(ClickHouseDataType type, OutputStream output, int value) throws IOException {
+        if (type == ClickHouseDataType.UInt16) {
+            BinaryStreamUtils.writeUnsignedInt16(output, value);
+        } else {
+            BinaryStreamUtils.writeInt32(output, value);
+        }
+    }
+
+    private static void writeLong(ClickHouseDataType type, OutputStream output, long value) throws IOException {
+        if (type == ClickHouseDataType.UInt32) {
+            BinaryStreamUtils.writeUnsignedInt32(output, value);
+        } else {
+            BinaryStreamUtils.writeInt64(output, value);
+        }
+    }
+
+    private ClickHousePrimitiveMaps() {
+    }
+
+    /**
+     * Reads map entries into a primitive map.
+     *
+     * @param keyCol non-null key column, must be supported
+     * @param valCol non-null value column, must be supported
+     * @param input  non-null input stream
+     * @param length number of entries
+     * @return non-null primitive map
+     * @throws IOException when failed to read data from input stream
+     */
+    Map<?, ?> read(ClickHouseColumn keyCol, ClickHouseColumn valCol, ClickHouseInputStream input, int length)
+            throws IOException {
+        ClickHouseDataType kt = keyCol.getDataType();
+        ClickHouseDataType vt = valCol.getDataType();
+        Class<?> valClass = getJavaClass(vt);
+        if (getJavaClass(kt) == int.class) {
+            if (valClass == int.class) {
+                Int2IntLinkedOpenHashMap map = new Int2IntLinkedOpenHashMap(length);
+                for (int i = 0; i < length; i++) {
+                    map.put(readInt(kt, input), readInt(vt, input));
+                }
+                return map;
+            } else if (valClass == long.class) {
+                Int2LongLinkedOpenHashMap map = new Int2LongLinkedOpenHashMap(length);
+                for (int i = 0; i < length; i++) {
+                    map.put(readInt(kt, input), readLong(vt, input));
+                }
+                return map;
+            } else if (valClass == float.class) {
+                Int2FloatLinkedOpenHashMap map = new Int2FloatLinkedOpenHashMap(length);
+                for (int i = 0; i < length; i++) {
+                    map.put(readInt(kt, input), BinaryStreamUtils.readFloat32(input));
+                }
+                return map;
+            } else {
+                Int2DoubleLinkedOpenHashMap map = new Int2DoubleLinkedOpenHashMap(length);
+                for (int i = 0; i < length; i++) {
+                    map.put(readInt(kt, input), BinaryStreamUtils.readFloat64(input));
+                }
+                return map;
+            }
+        }
+
+        if (valClass == int.class) {
+            Long2IntLinkedOpenHashMap map = new Long2IntLinkedOpenHashMap(length);
+            for (int i = 0; i < length; i++) {
+                map.put(readLong(kt, input), readInt(vt, input));
+            }
+            return map;
+        } else if (valClass == long.class) {
+            Long2LongLinkedOpenHashMap map = new Long2LongLinkedOpenHashMap(length);
+            for (int i = 0; i < length; i++) {
+                map.put(readLong(kt, input), readLong(vt, input));
+            }
+            return map;
+        } else if (valClass == float.class) {
+            Long2FloatLinkedOpenHashMap map = new Long2FloatLinkedOpenHashMap(length);
+            for (int i = 0; i < length; i++) {
+                map.put(readLong(kt, input), BinaryStreamUtils.readFloat32(input));
+            }
+            return map;
+        } else {
+            Long2DoubleLinkedOpenHashMap map = new Long2DoubleLinkedOpenHashMap(length);
+            for (int i = 0; i < length; i++) {
+                map.put(readLong(kt, input), BinaryStreamUtils.readFloat64(input));
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Writes entries of the given map without boxing, when it's a primitive map
+     * matching both key and value columns. Size of the map must have been written
+     * by caller.
+     *
+     * @param map    non-null map
+     * @param keyCol non-null key column, must be supported
+     * @param valCol non-null value column, must be supported
+     * @param output non-null output stream
+     * @return true if the map has been written; false if it's not a matched
+     *         primitive map
+     * @throws IOException when failed to write data into output stream
+     */
+    boolean write(Map<?, ?> map, ClickHouseColumn keyCol, ClickHouseColumn valCol, OutputStream output)
+            throws IOException {
+        ClickHouseDataType kt = keyCol.getDataType();
+        ClickHouseDataType vt = valCol.getDataType();
+        Class<?> keyClass = getJavaClass(kt);
+        Class<?> valClass = getJavaClass(vt);
+        if (keyClass == int.class) {
+            if (valClass == int.class && map instanceof Int2IntMap) {
+                for (Int2IntMap.Entry e : Int2IntMaps.fastIterable((Int2IntMap) map)) {
+                    writeInt(kt, output, e.getIntKey());
+                    writeInt(vt, output, e.getIntValue());
+                }
+            } else if (valClass == long.class && map instanceof Int2LongMap) {
+                for (Int2LongMap.Entry e : Int2LongMaps.fastIterable((Int2LongMap) map)) {
+                    writeInt(kt, output, e.getIntKey());
+                    writeLong(vt, output, e.getLongValue());
+                }
+            } else if (valClass == float.class && map instanceof Int2FloatMap) {
+                for (Int2FloatMap.Entry e : Int2FloatMaps.fastIterable((Int2FloatMap) map)) {
+                    writeInt(kt, output, e.getIntKey());
+                    BinaryStreamUtils.writeFloat32(output, e.getFloatValue());
+                }
+            } else if (valClass == double.class && map instanceof Int2DoubleMap) {
+                for (Int2DoubleMap.Entry e : Int2DoubleMaps.fastIterable((Int2DoubleMap) map)) {
+                    writeInt(kt, output, e.getIntKey());
+                    BinaryStreamUtils.writeFloat64(output, e.getDoubleValue());
+                }
+            } else {
+                return false;
+            }
+        } else if (valClass == int.class && map instanceof Long2IntMap) {
+            for (Long2IntMap.Entry e : Long2IntMaps.fastIterable((Long2IntMap) map)) {
+                writeLong(kt, output, e.getLongKey());
+                writeInt(vt, output, e.getIntValue());
+            }
+        } else if (valClass == long.class && map instanceof Long2LongMap) {
+            for (Long2LongMap.Entry e : Long2LongMaps.fastIterable((Long2LongMap) map)) {
+                writeLong(kt, output, e.getLongKey());
+                writeLong(vt, output, e.getLongValue());
+            }
+        } else if (valClass == float.class && map instanceof Long2FloatMap) {
+            for (Long2FloatMap.Entry e : Long2FloatMaps.fastIterable((Long2FloatMap) map)) {
+                writeLong(kt, output, e.getLongKey());
+                BinaryStreamUtils.writeFloat32(output, e.getFloatValue());
+            }
+        } else if (valClass == double.class && map instanceof Long2DoubleMap) {
+            for (Long2DoubleMap.Entry e : Long2DoubleMaps.fastIterable((Long2DoubleMap) map)) {
+                writeLong(kt, output, e.getLongKey());
+                BinaryStreamUtils.writeFloat64(output, e.getDoubleValue());
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+}
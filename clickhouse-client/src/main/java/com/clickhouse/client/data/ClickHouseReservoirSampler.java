@@ -0,0 +1,511 @@
+package com.clickhouse.client.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseUtils;
+
+/**
+ * Client-side implementation of {@code ReservoirSampler}, which is the state of
+ * aggregate function {@code quantile}, {@code quantiles} and {@code median}.
+ * Same as server, it uses {@code pcg32_fast} to decide which sample to replace,
+ * and serializes the generator along with samples, so that states can be merged
+ * on server. See <a href=
+ * "https://github.com/ClickHouse/ClickHouse/blob/master/src/AggregateFunctions/ReservoirSampler.h">ReservoirSampler.h</a>
+ * for details.
+ *
+ * <p>
+ * Only native numbers, except {@code UInt64}, are supported. This class is not
+ * thread-safe.
+ */
+public final class ClickHouseReservoirSampler {
+    /**
+     * Default number of samples.
+     */
+    public static final int DEFAULT_SAMPLE_COUNT = 8192;
+
+    // pcg32_fast, which is a 64-bit MCG with XSH-RS output function
+    static final long PCG_MULTIPLIER = 6364136223846793005L;
+    static final long PCG_DEFAULT_STATE = 0xcafef00dd15ea5e5L | 3L;
+    static final long MAX_RANDOM = 0xFFFFFFFFL;
+
+    /**
+     * Checks whether the given type is supported or not.
+     *
+     * @param valueType value type, could be null
+     * @return true if the type is supported; false otherwise
+     */
+    public static boolean isSupported(ClickHouseDataType valueType) {
+        if (valueType == null) {
+            return false;
+        }
+
+        switch (valueType) {
+            case Int8:
+            case UInt8:
+            case Int16:
+            case UInt16:
+            case Int32:
+            case UInt32:
+            case Int64:
+            case Float32:
+            case Float64:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Reads state from the given input stream.
+     *
+     * @param input     non-null input stream
+     * @param valueType non-null value type
+     * @return non-null sampler
+     * @throws IOException when failed to read data from input stream
+     */
+    public static ClickHouseReservoirSampler read(ClickHouseInputStream input, ClickHouseDataType valueType)
+            throws IOException {
+        long sampleCount = BinaryStreamUtils.readInt64(input);
+        long totalValues = BinaryStreamUtils.readInt64(input);
+        if (sampleCount <= 0L || sampleCount > Integer.MAX_VALUE - 8 || totalValues < 0L) {
+            throw new IOException(ClickHouseUtils.format(
+                    "Invalid ReservoirSampler with sample count %d and total values %d", sampleCount, totalValues));
+        }
+
+        ClickHouseReservoirSampler sampler = new ClickHouseReservoirSampler(valueType, (int) sampleCount);
+        sampler.totalValues = totalValues;
+        sampler.rngState = parseState(input.readAsciiString());
+        int size = (int) Math.min(sampleCount, totalValues);
+        sampler.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            if (sampler.floating) {
+                sampler.doubles[i] = valueType == ClickHouseDataType.Float32 ? BinaryStreamUtils.readFloat32(input)
+                        : BinaryStreamUtils.readFloat64(input);
+            } else {
+                sampler.longs[i] = sampler.readLong(input);
+            }
+        }
+        sampler.size = size;
+        return sampler;
+    }
+
+    static long parseState(String str) {
+        // multiplier, increment and state of the generator separated by whitespace
+        String[] parts = str.trim().split("\\s+");
+        long state = PCG_DEFAULT_STATE;
+        if (parts.length == 3) {
+            try {
+                state = Long.parseUnsignedLong(parts[2]);
+            } catch (NumberFormatException e) {
+                // ignore
+            }
+        }
+        return state;
+    }
+
+    private final ClickHouseDataType valueType;
+    private final boolean floating;
+    private final int sampleCount;
+
+    private long totalValues;
+    private long rngState;
+    private boolean sorted;
+    private int size;
+    // samples of Float32 and Float64 are kept in doubles and the others in longs
+    private long[] longs;
+    private double[] doubles;
+
+    /**
+     * Creates an empty sampler using {@link #DEFAULT_SAMPLE_COUNT}.
+     *
+     * @param valueType non-null value type
+     */
+    public ClickHouseReservoirSampler(ClickHouseDataType valueType) {
+        this(valueType, DEFAULT_SAMPLE_COUNT);
+    }
+
+    /**
+     * Creates an empty sampler.
+     *
+     * @param valueType   non-null value type
+     * @param sampleCount maximum number of samples
+     */
+    public ClickHouseReservoirSampler(ClickHouseDataType valueType, int sampleCount) {
+        if (!isSupported(valueType)) {
+            throw new IllegalArgumentException("Unsupported value type: " + valueType);
+        }
+
+        this.valueType = valueType;
+        this.floating = valueType == ClickHouseDataType.Float32 || valueType == ClickHouseDataType.Float64;
+        this.sampleCount = ClickHouseChecker.between(sampleCount, "sampleCount", 1, Integer.MAX_VALUE - 8);
+
+        this.totalValues = 0L;
+        this.rngState = PCG_DEFAULT_STATE;
+        this.sorted = false;
+        this.size = 0;
+        this.longs = floating ? null : new long[0];
+        this.doubles = floating ? new double[0] : null;
+    }
+
+    private long readLong(ClickHouseInputStream input) throws IOException {
+        switch (valueType) {
+            case Int8:
+                return BinaryStreamUtils.readInt8(input);
+            case UInt8:
+                return BinaryStreamUtils.readUnsignedInt8(input);
+            case Int16:
+                return BinaryStreamUtils.readInt16(input);
+            case UInt16:
+                return BinaryStreamUtils.readUnsignedInt16(input);
+            case Int32:
+                return BinaryStreamUtils.readInt32(input);
+            case UInt32:
+                return BinaryStreamUtils.readUnsignedInt32(input);
+            default:
+                return BinaryStreamUtils.readInt64(input);
+        }
+    }
+
+    private void writeLong(OutputStream output, long value) throws IOException {
+        switch (valueType) {
+            case Int8:
+            case UInt8:
+                BinaryStreamUtils.writeInt8(output, (int) value);
+                break;
+            case Int16:
+            case UInt16:
+                BinaryStreamUtils.writeInt16(output, (int) value);
+                break;
+            case Int32:
+            case UInt32:
+                BinaryStreamUtils.writeInt32(output, (int) value);
+                break;
+            default:
+                BinaryStreamUtils.writeInt64(output, value);
+                break;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        int length = floating ? doubles.length : longs.length;
+        if (capacity > length) {
+            int newLength = (int) Math.min(sampleCount, Math.max(capacity, Math.max(16L, length * 2L)));
+            if (floating) {
+                doubles = Arrays.copyOf(doubles, newLength);
+            } else {
+                longs = Arrays.copyOf(longs, newLength);
+            }
+        }
+    }
+
+    private int nextInt() {
+        long x = rngState;
+        rngState *= PCG_MULTIPLIER;
+        int rshift = (int) (x >>> 61);
+        x ^= x >>> 22;
+        return (int) (x >>> (22 + rshift));
+    }
+
+    private long genRandom(long limit) {
+        if (limit <= MAX_RANDOM) {
+            return (nextInt() & MAX_RANDOM) % limit;
+        }
+
+        long high = nextInt() & MAX_RANDOM;
+        long low = nextInt() & MAX_RANDOM;
+        return Long.remainderUnsigned((high << 32) | low, limit);
+    }
+
+    private void set(int index, ClickHouseReservoirSampler from, int fromIndex) {
+        if (floating) {
+            doubles[index] = from.floating ? from.doubles[fromIndex] : from.longs[fromIndex];
+        } else {
+            longs[index] = from.floating ? (long) from.doubles[fromIndex] : from.longs[fromIndex];
+        }
+    }
+
+    private void insert(ClickHouseReservoirSampler from, int fromIndex) {
+        sorted = false;
+        totalValues++;
+        if (size < sampleCount) {
+            ensureCapacity(size + 1);
+            set(size++, from, fromIndex);
+        } else {
+            long rnd = genRandom(totalValues);
+            if (rnd < sampleCount) {
+                set((int) rnd, from, fromIndex);
+            }
+        }
+    }
+
+    /**
+     * Adds an integer.
+     *
+     * @param value value
+     * @return this sampler
+     */
+    public ClickHouseReservoirSampler add(long value) {
+        if (floating) {
+            return add((double) value);
+        }
+
+        sorted = false;
+        totalValues++;
+        if (size < sampleCount) {
+            ensureCapacity(size + 1);
+            longs[size++] = value;
+        } else {
+            long rnd = genRandom(totalValues);
+            if (rnd < sampleCount) {
+                longs[(int) rnd] = value;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a floating point number. {@code NaN} will be ignored.
+     *
+     * @param value value
+     * @return this sampler
+     */
+    public ClickHouseReservoirSampler add(double value) {
+        if (Double.isNaN(value)) {
+            return this;
+        } else if (!floating) {
+            return add((long) value);
+        }
+
+        sorted = false;
+        totalValues++;
+        if (size < sampleCount) {
+            ensureCapacity(size + 1);
+            doubles[size++] = value;
+        } else {
+            long rnd = genRandom(totalValues);
+            if (rnd < sampleCount) {
+                doubles[(int) rnd] = value;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Merges the given sampler into this one. Same as server, when both samplers
+     * are full, samples are replaced roughly in proportion to total values for
+     * better performance.
+     *
+     * @param other sampler to merge, null will be ignored
+     * @return this sampler
+     */
+    public ClickHouseReservoirSampler merge(ClickHouseReservoirSampler other) {
+        if (other == null || other == this) {
+            return this;
+        } else if (other.sampleCount != sampleCount) {
+            throw new IllegalArgumentException(ClickHouseUtils
+                    .format("Cannot merge samplers with different sample count: %d vs %d", sampleCount, other.sampleCount));
+        }
+
+        sorted = false;
+        if (other.totalValues <= sampleCount) {
+            for (int i = 0; i < other.size; i++) {
+                insert(other, i);
+            }
+        } else if (totalValues <= sampleCount) {
+            ClickHouseReservoirSampler from = new ClickHouseReservoirSampler(valueType, sampleCount);
+            from.size = size;
+            from.longs = longs;
+            from.doubles = doubles;
+
+            longs = floating ? null : new long[0];
+            doubles = floating ? new double[0] : null;
+            ensureCapacity(other.size);
+            for (int i = 0; i < other.size; i++) {
+                set(i, other, i);
+            }
+            size = other.size;
+            totalValues = other.totalValues;
+            for (int i = 0; i < from.size; i++) {
+                insert(from, i);
+            }
+        } else {
+            totalValues += other.totalValues;
+            // replace every frequency'th sample
+            double frequency = (double) totalValues / other.totalValues;
+            if (frequency * 2 >= sampleCount) {
+                long rnd = genRandom((long) frequency);
+                if (rnd < sampleCount) {
+                    set((int) rnd, other, (int) rnd);
+                }
+            } else {
+                for (double i = 0; i < sampleCount; i += frequency) {
+                    int index = (int) i;
+                    set(index, other, index);
+                }
+            }
+        }
+        return this;
+    }
+
+    private void sortIfNeeded() {
+        if (!sorted) {
+            if (floating) {
+                Arrays.sort(doubles, 0, size);
+            } else {
+                Arrays.sort(longs, 0, size);
+            }
+            sorted = true;
+        }
+    }
+
+    private double get(int index) {
+        return floating ? doubles[index] : longs[index];
+    }
+
+    /**
+     * Gets interpolated quantile.
+     *
+     * @param level level between 0 and 1
+     * @return quantile, or {@code NaN} when there's no sample
+     */
+    public double quantile(double level) {
+        if (size == 0) {
+            return Double.NaN;
+        }
+
+        sortIfNeeded();
+        double index = Math.max(0D, Math.min(size - 1D, level * (size - 1)));
+        int leftIndex = (int) index;
+        int rightIndex = leftIndex + 1;
+        if (rightIndex == size) {
+            return get(leftIndex);
+        }
+        return get(leftIndex) * (rightIndex - index) + get(rightIndex) * (index - leftIndex);
+    }
+
+    /**
+     * Gets interpolated quantiles.
+     *
+     * @param levels levels between 0 and 1
+     * @return non-null quantiles
+     */
+    public double[] quantiles(double... levels) {
+        int len = levels == null ? 0 : levels.length;
+        double[] results = new double[len];
+        for (int i = 0; i < len; i++) {
+            results[i] = quantile(levels[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Gets value type.
+     *
+     * @return non-null value type
+     */
+    public ClickHouseDataType getValueType() {
+        return valueType;
+    }
+
+    /**
+     * Gets maximum number of samples.
+     *
+     * @return maximum number of samples
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Gets number of values added into the sampler.
+     *
+     * @return number of values
+     */
+    public long getTotalValues() {
+        return totalValues;
+    }
+
+    /**
+     * Gets number of samples.
+     *
+     * @return number of samples
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the sampler is empty.
+     *
+     * @return true if the sampler is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Writes state into the given output stream.
+     *
+     * @param output non-null output stream
+     * @throws IOException when failed to write data into output stream
+     */
+    public void write(OutputStream output) throws IOException {
+        BinaryStreamUtils.writeInt64(output, sampleCount);
+        BinaryStreamUtils.writeInt64(output, totalValues);
+        BinaryStreamUtils.writeString(output, new StringBuilder().append(Long.toUnsignedString(PCG_MULTIPLIER))
+                .append(" 0 ").append(Long.toUnsignedString(rngState)).toString(), StandardCharsets.US_ASCII);
+        for (int i = 0; i < size; i++) {
+            if (!floating) {
+                writeLong(output, longs[i]);
+            } else if (valueType == ClickHouseDataType.Float32) {
+                BinaryStreamUtils.writeFloat32(output, (float) doubles[i]);
+            } else {
+                BinaryStreamUtils.writeFloat64(output, doubles[i]);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        ClickHouseReservoirSampler other = (ClickHouseReservoirSampler) obj;
+        if (valueType != other.valueType || sampleCount != other.sampleCount || totalValues != other.totalValues
+                || size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (floating ? Double.compare(doubles[i], other.doubles[i]) != 0 : longs[i] != other.longs[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * valueType.hashCode() + sampleCount;
+        result = 31 * result + Long.hashCode(totalValues);
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + (floating ? Double.hashCode(doubles[i]) : Long.hashCode(longs[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder().append(getClass().getSimpleName()).append('(').append(valueType.name())
+                .append(", totalValues=").append(totalValues).append(", samples=").append(size).append(')')
+                .toString();
+    }
+}
@@ -0,0 +1,196 @@
+package com.clickhouse.client.data;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+
+/**
+ * Wraper class of {@link ClickHouseReservoirSampler}, which is the state of
+ * aggregate function {@code quantile} and {@code quantiles}.
+ */
+public class ClickHouseReservoirSamplerValue extends ClickHouseObjectValue<ClickHouseReservoirSampler> {
+    private static final long serialVersionUID = 4754869130051037880L;
+
+    /**
+     * Create a new instance representing empty value.
+     *
+     * @param valueType value type, must be native number
+     * @return new instance representing empty value
+     */
+    public static ClickHouseReservoirSamplerValue ofEmpty(ClickHouseDataType valueType) {
+        return new ClickHouseReservoirSamplerValue(new ClickHouseReservoirSampler(valueType), valueType);
+    }
+
+    /**
+     * Wrap the given value.
+     *
+     * @param value non-null value
+     * @return object representing the value
+     */
+    public static ClickHouseReservoirSamplerValue of(ClickHouseReservoirSampler value) {
+        return of(null, value);
+    }
+
+    /**
+     * Update value of the given object or create a new instance if {@code ref} is
+     * null.
+     *
+     * @param ref   object to update, could be null
+     * @param value non-null value
+     * @return same object as {@code ref} or a new instance if it's null
+     */
+    public static ClickHouseReservoirSamplerValue of(ClickHouseValue ref, ClickHouseReservoirSampler value) {
+        ClickHouseChecker.nonNull(value, "value");
+        return ref instanceof ClickHouseReservoirSamplerValue
+                ? (ClickHouseReservoirSamplerValue) ((ClickHouseReservoirSamplerValue) ref).set(value)
+                : new ClickHouseReservoirSamplerValue(value, value.getValueType());
+    }
+
+    private final ClickHouseDataType valueType;
+
+    protected ClickHouseReservoirSamplerValue(ClickHouseReservoirSampler value, ClickHouseDataType valueType) {
+        super(value);
+
+        this.valueType = ClickHouseChecker.nonNull(valueType, "valueType");
+    }
+
+    private ClickHouseReservoirSampler newSampler() {
+        ClickHouseReservoirSampler v = getValue();
+        return v != null ? new ClickHouseReservoirSampler(valueType, v.getSampleCount())
+                : new ClickHouseReservoirSampler(valueType);
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue copy(boolean deep) {
+        if (!deep || getValue() == null) {
+            return new ClickHouseReservoirSamplerValue(getValue(), valueType);
+        }
+
+        return new ClickHouseReservoirSamplerValue(newSampler().merge(getValue()), valueType);
+    }
+
+    @Override
+    public boolean isNullOrEmpty() {
+        ClickHouseReservoirSampler v = getValue();
+        return v == null || v.isEmpty();
+    }
+
+    /**
+     * Gets median of the samples.
+     *
+     * @return median, or zero when there's no sample
+     */
+    @Override
+    public double asDouble() {
+        return isNullOrEmpty() ? 0D : getValue().quantile(0.5D);
+    }
+
+    @Override
+    public float asFloat() {
+        return (float) asDouble();
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue resetToNullOrEmpty() {
+        set(newSampler());
+        return this;
+    }
+
+    @Override
+    public String toSqlExpression() {
+        return isNullOrEmpty() ? ClickHouseValues.NULL_EXPR : String.valueOf(getValue());
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(byte value) {
+        set(newSampler().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(short value) {
+        set(newSampler().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(int value) {
+        set(newSampler().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(long value) {
+        set(newSampler().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(float value) {
+        set(newSampler().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(double value) {
+        set(newSampler().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(BigInteger value) {
+        if (value == null) {
+            resetToNullOrEmpty();
+        } else {
+            set(newSampler().add(value.longValue()));
+        }
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(BigDecimal value) {
+        if (value == null) {
+            resetToNullOrEmpty();
+        } else {
+            set(newSampler().add(value.doubleValue()));
+        }
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(String value) {
+        if (value == null) {
+            resetToNullOrEmpty();
+        } else {
+            set(newSampler().add(Double.parseDouble(value)));
+        }
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(ClickHouseValue value) {
+        if (value == null) {
+            resetToNullOrEmpty();
+        } else if (value instanceof ClickHouseReservoirSamplerValue) {
+            set(((ClickHouseReservoirSamplerValue) value).getValue());
+        } else {
+            set(newSampler().add(value.asDouble()));
+        }
+        return this;
+    }
+
+    @Override
+    public ClickHouseReservoirSamplerValue update(Object value) {
+        if (value instanceof ClickHouseReservoirSampler) {
+            set((ClickHouseReservoirSampler) value);
+            return this;
+        }
+
+        super.update(value);
+        return this;
+    }
+}
@@ -0,0 +1,249 @@
+package com.clickhouse.client.data;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.clickhouse.client.ClickHouseChecker;
+
+/**
+ * Bounded single-producer, single-consumer blocking queue backed by a
+ * pre-allocated ring of slots. Unlike
+ * {@link java.util.concurrent.ArrayBlockingQueue}, no lock is involved -
+ * producer and consumer only publish their own sequence, and a blocked thread
+ * spins for a short while before parking until the other side unparks it.
+ *
+ * <p>
+ * At most one thread may add elements and at most one thread may remove
+ * elements at the same time. Operations like {@link #clear()} and
+ * {@link #drainTo(Collection)} count as removal.
+ *
+ * @param <E> type of element
+ */
+public final class ClickHouseRingBuffer<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    // spinning does not help on single processor
+    static final int SPIN_TRIES = Runtime.getRuntime().availableProcessors() > 1 ? 128 : 0;
+
+    private final Object[] slots;
+    private final int capacity;
+
+    // next sequence to read
+    private final AtomicLong head;
+    // next sequence to write
+    private final AtomicLong tail;
+
+    private volatile Thread waitingProducer;
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity capacity of the ring, must be greater than zero
+     */
+    public ClickHouseRingBuffer(int capacity) {
+        this.capacity = ClickHouseChecker.between(capacity, "Capacity", 1, Integer.MAX_VALUE - 8);
+        this.slots = new Object[capacity];
+
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private static void signal(Thread thread) {
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Waits until the given condition becomes true, or timed out.
+     *
+     * @param producer true if the current thread is producer; false otherwise
+     * @param nanos    timeout in nanoseconds, negative number means no timeout
+     * @return true if condition becomes true; false if timed out
+     * @throws InterruptedException when current thread is interrupted
+     */
+    private boolean await(boolean producer, long nanos) throws InterruptedException {
+        if (nanos == 0L) {
+            return !(producer ? isFull() : isEmpty());
+        }
+
+        final long deadline = nanos > 0L ? System.nanoTime() + nanos : 0L;
+        int spins = 0;
+        while (producer ? isFull() : isEmpty()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            } else if (spins < SPIN_TRIES) {
+                spins++;
+                continue;
+            }
+
+            long remaining = 0L;
+            if (nanos > 0L && (remaining = deadline - System.nanoTime()) <= 0L) {
+                return false;
+            }
+
+            Thread current = Thread.currentThread();
+            if (producer) {
+                waitingProducer = current;
+            } else {
+                waitingConsumer = current;
+            }
+            // check again to avoid missing the signal sent before registration
+            if (producer ? isFull() : isEmpty()) {
+                if (nanos > 0L) {
+                    LockSupport.parkNanos(this, remaining);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            if (producer) {
+                waitingProducer = null;
+            } else {
+                waitingConsumer = null;
+            }
+        }
+        return true;
+    }
+
+    private boolean isFull() {
+        return tail.get() - head.get() >= capacity;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    @Override
+    public boolean offer(E e) {
+        ClickHouseChecker.nonNull(e, "Element");
+
+        long t = tail.get();
+        if (t - head.get() >= capacity) {
+            return false;
+        }
+
+        slots[index(t)] = e;
+        tail.set(t + 1);
+        signal(waitingConsumer);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        ClickHouseChecker.nonNull(e, "Element");
+        return (offer(e) || (await(true, Math.max(unit.toNanos(timeout), 0L)) && offer(e)));
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        ClickHouseChecker.nonNull(e, "Element");
+        while (!offer(e)) {
+            await(true, -1L);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long h = head.get();
+        if (h >= tail.get()) {
+            return null;
+        }
+
+        int index = index(h);
+        E e = (E) slots[index];
+        slots[index] = null;
+        head.set(h + 1);
+        signal(waitingProducer);
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e == null && await(false, Math.max(unit.toNanos(timeout), 0L))) {
+            e = poll();
+        }
+        return e;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e;
+        while ((e = poll()) == null) {
+            await(false, -1L);
+        }
+        return e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long h = head.get();
+        return h < tail.get() ? (E) slots[index(h)] : null;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0L, Math.min(tail.get() - head.get(), capacity));
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        ClickHouseChecker.nonNull(c, "Collection");
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot drain to itself");
+        }
+
+        int count = 0;
+        E e;
+        while (count < maxElements && (e = poll()) != null) {
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Gets a snapshot of elements in the ring. It's weakly consistent and does not
+     * support removal.
+     *
+     * @return non-null iterator
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        long h = head.get();
+        long t = tail.get();
+        List<E> list = new ArrayList<>((int) Math.max(0L, t - h));
+        for (long i = h; i < t; i++) {
+            Object e = slots[index(i)];
+            if (e != null) {
+                list.add((E) e);
+            }
+        }
+        return Collections.unmodifiableList(list).iterator();
+    }
+}
@@ -4,7 +4,11 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.Iterator;
@@ -16,10 +20,12 @@ import java.util.Map.Entry;
 import java.util.function.Supplier;
 
 import com.clickhouse.client.ClickHouseAggregateFunction;
+import com.clickhouse.client.ClickHouseBufferPool;
 import com.clickhouse.client.ClickHouseChecker;
 import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseDataProcessor;
+import com.clickhouse.client.ClickHouseDataWriter;
 import com.clickhouse.client.ClickHouseDataType;
 import com.clickhouse.client.ClickHouseDeserializer;
 import com.clickhouse.client.ClickHouseFormat;
@@ -29,22 +35,255 @@ import com.clickhouse.client.ClickHouseSerializer;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.ClickHouseValue;
 import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.data.mapper.ClickHouseRowMapper;
+import com.clickhouse.client.data.vector.ClickHouseColumnBatch;
 
 /**
  * Data processor for handling {@link ClickHouseFormat#RowBinary} and
  * {@link ClickHouseFormat#RowBinaryWithNamesAndTypes} two formats.
  */
-public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
+public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor implements ClickHouseDataWriter {
     public static class MappedFunctions {
+        // fastutil is optional, so primitive map is not available when it's missing
+        private static final ClickHousePrimitiveMaps primitiveMaps = loadPrimitiveMaps();
         private static final MappedFunctions instance = new MappedFunctions();
 
+        private static ClickHousePrimitiveMaps loadPrimitiveMaps() {
+            ClickHousePrimitiveMaps maps;
+            try {
+                maps = ClickHousePrimitiveMaps.create();
+            } catch (Throwable e) {
+                // ignore
+                maps = null;
+            }
+            return maps;
+        }
+
+        // size of buffer for encoding and decoding primitive array in chunks
+        static final int BULK_BUFFER_SIZE = 8192;
+
+        /**
+         * Gets width in byte of an array element, which can be encoded and decoded in
+         * bulk.
+         *
+         * @param column non-null base column of the array
+         * @return width in byte, or 0 if the element cannot be processed in bulk
+         */
+        static int getBulkWidth(ClickHouseColumn column) {
+            if (column.isNullable()) {
+                return 0;
+            }
+
+            switch (column.getDataType()) {
+                case Int8:
+                case UInt8:
+                    return 1;
+                case Int16:
+                case UInt16:
+                    return 2;
+                case Int32:
+                case UInt32:
+                case Float32:
+                    return 4;
+                case Int64:
+                case UInt64:
+                case IntervalYear:
+                case IntervalQuarter:
+                case IntervalMonth:
+                case IntervalWeek:
+                case IntervalDay:
+                case IntervalHour:
+                case IntervalMinute:
+                case IntervalSecond:
+                case Float64:
+                    return 8;
+                default:
+                    return 0;
+            }
+        }
+
+        private static void readFully(ClickHouseInputStream input, byte[] bytes, int length) throws IOException {
+            for (int offset = 0; offset < length;) {
+                int n = input.read(bytes, offset, length - offset);
+                if (n < 0) {
+                    throw new EOFException(
+                            ClickHouseUtils.format("Expect %d bytes but got %d bytes only", length, offset));
+                }
+                offset += n;
+            }
+        }
+
+        /**
+         * Reads primitive array by decoding fixed-width little-endian elements in
+         * chunks, instead of deserializing element one by one.
+         */
+        static Object readPrimitiveArray(ClickHouseDataType type, int width, ClickHouseInputStream input,
+                int length) throws IOException {
+            if (type == ClickHouseDataType.Int8) {
+                return input.readBytes(length);
+            }
+
+            Object array;
+            switch (type) {
+                case UInt8:
+                case Int16:
+                    array = new short[length];
+                    break;
+                case UInt16:
+                case Int32:
+                    array = new int[length];
+                    break;
+                case Float32:
+                    array = new float[length];
+                    break;
+                case Float64:
+                    array = new double[length];
+                    break;
+                default:
+                    array = new long[length];
+                    break;
+            }
+
+            ClickHouseBufferPool pool = ClickHouseBufferPool.getDefault();
+            byte[] bytes = pool.borrowArray((int) Math.min((long) length * width, BULK_BUFFER_SIZE));
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+                int chunk = bytes.length / width;
+                for (int start = 0; start < length; start += chunk) {
+                    int count = Math.min(chunk, length - start);
+                    readFully(input, bytes, count * width);
+                    switch (type) {
+                        case UInt8: {
+                            short[] values = (short[]) array;
+                            for (int i = 0; i < count; i++) {
+                                values[start + i] = (short) (bytes[i] & 0xFF);
+                            }
+                            break;
+                        }
+                        case Int16:
+                            buffer.asShortBuffer().get((short[]) array, start, count);
+                            break;
+                        case UInt16: {
+                            int[] values = (int[]) array;
+                            for (int i = 0; i < count; i++) {
+                                values[start + i] = buffer.getShort(i << 1) & 0xFFFF;
+                            }
+                            break;
+                        }
+                        case Int32:
+                            buffer.asIntBuffer().get((int[]) array, start, count);
+                            break;
+                        case UInt32: {
+                            long[] values = (long[]) array;
+                            for (int i = 0; i < count; i++) {
+                                values[start + i] = buffer.getInt(i << 2) & 0xFFFFFFFFL;
+                            }
+                            break;
+                        }
+                        case Float32:
+                            buffer.asFloatBuffer().get((float[]) array, start, count);
+                            break;
+                        case Float64:
+                            buffer.asDoubleBuffer().get((double[]) array, start, count);
+                            break;
+                        default:
+                            buffer.asLongBuffer().get((long[]) array, start, count);
+                            break;
+                    }
+                }
+            } finally {
+                pool.release(bytes);
+            }
+            return array;
+        }
+
+        /**
+         * Writes primitive array by encoding fixed-width little-endian elements in
+         * chunks, instead of serializing element one by one.
+         */
+        static void writePrimitiveArray(ClickHouseDataType type, int width, Object array, OutputStream output)
+                throws IOException {
+            if (type == ClickHouseDataType.Int8) {
+                byte[] values = (byte[]) array;
+                BinaryStreamUtils.writeVarInt(output, values.length);
+                output.write(values);
+                return;
+            }
+
+            int length = Array.getLength(array);
+            BinaryStreamUtils.writeVarInt(output, length);
+            if (length == 0) {
+                return;
+            }
+
+            ClickHouseBufferPool pool = ClickHouseBufferPool.getDefault();
+            byte[] bytes = pool.borrowArray((int) Math.min((long) length * width, BULK_BUFFER_SIZE));
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+                int chunk = bytes.length / width;
+                for (int start = 0; start < length; start += chunk) {
+                    int count = Math.min(chunk, length - start);
+                    switch (type) {
+                        case UInt8: {
+                            short[] values = (short[]) array;
+                            for (int i = 0; i < count; i++) {
+                                bytes[i] = (byte) ClickHouseChecker.between(values[start + i],
+                                        ClickHouseValues.TYPE_INT, 0, BinaryStreamUtils.U_INT8_MAX);
+                            }
+                            break;
+                        }
+                        case Int16:
+                            buffer.asShortBuffer().put((short[]) array, start, count);
+                            break;
+                        case UInt16: {
+                            int[] values = (int[]) array;
+                            for (int i = 0; i < count; i++) {
+                                buffer.putShort(i << 1, (short) ClickHouseChecker.between(values[start + i],
+                                        ClickHouseValues.TYPE_INT, 0, BinaryStreamUtils.U_INT16_MAX));
+                            }
+                            break;
+                        }
+                        case Int32:
+                            buffer.asIntBuffer().put((int[]) array, start, count);
+                            break;
+                        case UInt32: {
+                            long[] values = (long[]) array;
+                            for (int i = 0; i < count; i++) {
+                                buffer.putInt(i << 2, (int) ClickHouseChecker.between(values[start + i],
+                                        ClickHouseValues.TYPE_LONG, 0, BinaryStreamUtils.U_INT32_MAX));
+                            }
+                            break;
+                        }
+                        case Float32:
+                            buffer.asFloatBuffer().put((float[]) array, start, count);
+                            break;
+                        case Float64:
+                            buffer.asDoubleBuffer().put((double[]) array, start, count);
+                            break;
+                        default:
+                            buffer.asLongBuffer().put((long[]) array, start, count);
+                            break;
+                    }
+                    output.write(bytes, 0, count * width);
+                }
+            } finally {
+                pool.release(bytes);
+            }
+        }
+
         private void writeArray(ClickHouseValue value, ClickHouseConfig config, ClickHouseColumn column,
                 OutputStream output) throws IOException {
-            ClickHouseColumn nestedColumn = column.getNestedColumns().get(0);
-            ClickHouseColumn baseColumn = column.getArrayBaseColumn();
-            int level = column.getArrayNestedLevel();
+            writeArray(value, config, column.getNestedColumns().get(0), column.getArrayBaseColumn(), output,
+                    column.getArrayNestedLevel());
+        }
+
+        private void writeArray(ClickHouseValue value, ClickHouseConfig config, ClickHouseColumn nestedColumn,
+                ClickHouseColumn baseColumn, OutputStream output, int level) throws IOException {
             Class<?> javaClass = baseColumn.getDataType().getPrimitiveClass();
-            if (level > 1 || !javaClass.isPrimitive()) {
+            int width = level == 1 && javaClass.isPrimitive() ? getBulkWidth(baseColumn) : 0;
+            if (width > 0) {
+                writePrimitiveArray(baseColumn.getDataType(), width, value.asObject(), output);
+            } else if (level > 1 || !javaClass.isPrimitive()) {
                 Object[] array = value.asArray();
                 ClickHouseValue v = ClickHouseValues.newValue(config, nestedColumn);
                 int length = array.length;
@@ -105,7 +344,10 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
         private ClickHouseValue readArray(ClickHouseValue ref, ClickHouseConfig config, ClickHouseColumn nestedColumn,
                 ClickHouseColumn baseColumn, ClickHouseInputStream input, int length, int level) throws IOException {
             Class<?> javaClass = baseColumn.getDataType().getPrimitiveClass();
-            if (level > 1 || !javaClass.isPrimitive()) {
+            int width = level == 1 && javaClass.isPrimitive() ? getBulkWidth(baseColumn) : 0;
+            if (width > 0) {
+                ref.update(readPrimitiveArray(baseColumn.getDataType(), width, input, length));
+            } else if (level > 1 || !javaClass.isPrimitive()) {
                 Object[] array = (Object[]) ClickHouseValues.createPrimitiveArray(javaClass, length, level);
                 for (int i = 0; i < length; i++) {
                     array[i] = deserialize(null, config, nestedColumn, input).asObject();
@@ -162,20 +404,234 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
         private final Map<ClickHouseDataType, ClickHouseDeserializer<? extends ClickHouseValue>> deserializers;
         private final Map<ClickHouseDataType, ClickHouseSerializer<? extends ClickHouseValue>> serializers;
 
+        /**
+         * Gets argument column of the given aggregate function column, which must be
+         * the only argument and should not be nullable.
+         */
+        private static ClickHouseColumn getStateArgument(ClickHouseColumn column, boolean allowNullable)
+                throws IOException {
+            List<ClickHouseColumn> args = column.getNestedColumns();
+            if (args.size() != 1 || (!allowNullable && args.get(0).isNullable())) {
+                throw new IOException(column.getOriginalTypeName() + " is not supported");
+            }
+            return args.get(0);
+        }
+
+        /**
+         * Gets result type of {@code sum}, which is also type of the numerator in
+         * {@code avg} except for big integers.
+         */
+        static ClickHouseDataType getSumType(ClickHouseColumn column) throws IOException {
+            ClickHouseDataType type = column.getDataType();
+            switch (type) {
+                case Int8:
+                case Int16:
+                case Int32:
+                case Int64:
+                    return ClickHouseDataType.Int64;
+                case UInt8:
+                case UInt16:
+                case UInt32:
+                case UInt64:
+                    return ClickHouseDataType.UInt64;
+                case Float32:
+                case Float64:
+                    return ClickHouseDataType.Float64;
+                case Decimal:
+                    return column.getPrecision() > ClickHouseDataType.Decimal128.getMaxPrecision()
+                            ? ClickHouseDataType.Decimal256
+                            : ClickHouseDataType.Decimal128;
+                case Decimal32:
+                case Decimal64:
+                case Decimal128:
+                    return ClickHouseDataType.Decimal128;
+                case Decimal256:
+                case Int128:
+                case UInt128:
+                case Int256:
+                case UInt256:
+                    return type;
+                default:
+                    throw new IOException("Unsupported argument type: " + column.getOriginalTypeName());
+            }
+        }
+
+        static ClickHouseDataType getAvgType(ClickHouseColumn column) throws IOException {
+            ClickHouseDataType type = getSumType(column);
+            switch (type) {
+                case Int128:
+                case UInt128:
+                case Int256:
+                case UInt256:
+                    return ClickHouseDataType.Float64;
+                default:
+                    return type;
+            }
+        }
+
+        private static ClickHouseValue readNumber(ClickHouseValue ref, ClickHouseDataType type, int scale,
+                ClickHouseInputStream input) throws IOException {
+            switch (type) {
+                case Int64:
+                    return ClickHouseLongValue.of(ref, false, BinaryStreamUtils.readInt64(input));
+                case UInt64:
+                    return ClickHouseLongValue.of(ref, true, BinaryStreamUtils.readInt64(input));
+                case Float64:
+                    return ClickHouseDoubleValue.of(ref, BinaryStreamUtils.readFloat64(input));
+                case Decimal128:
+                    return ClickHouseBigDecimalValue.of(ref, BinaryStreamUtils.readDecimal128(input, scale));
+                case Decimal256:
+                    return ClickHouseBigDecimalValue.of(ref, BinaryStreamUtils.readDecimal256(input, scale));
+                case Int128:
+                    return ClickHouseBigIntegerValue.of(ref, BinaryStreamUtils.readInt128(input));
+                case UInt128:
+                    return ClickHouseBigIntegerValue.of(ref, BinaryStreamUtils.readUnsignedInt128(input));
+                case Int256:
+                    return ClickHouseBigIntegerValue.of(ref, BinaryStreamUtils.readInt256(input));
+                case UInt256:
+                    return ClickHouseBigIntegerValue.of(ref, BinaryStreamUtils.readUnsignedInt256(input));
+                default:
+                    throw new IOException("Unsupported type: " + type);
+            }
+        }
+
+        private static void writeNumber(ClickHouseValue value, ClickHouseDataType type, int scale,
+                OutputStream output) throws IOException {
+            switch (type) {
+                case Int64:
+                case UInt64:
+                    BinaryStreamUtils.writeInt64(output, value.asLong());
+                    break;
+                case Float64:
+                    BinaryStreamUtils.writeFloat64(output, value.asDouble());
+                    break;
+                case Decimal128:
+                    BinaryStreamUtils.writeDecimal128(output, value.asBigDecimal(scale), scale);
+                    break;
+                case Decimal256:
+                    BinaryStreamUtils.writeDecimal256(output, value.asBigDecimal(scale), scale);
+                    break;
+                case Int128:
+                    BinaryStreamUtils.writeInt128(output, value.asBigInteger());
+                    break;
+                case UInt128:
+                    BinaryStreamUtils.writeUnsignedInt128(output, value.asBigInteger());
+                    break;
+                case Int256:
+                    BinaryStreamUtils.writeInt256(output, value.asBigInteger());
+                    break;
+                case UInt256:
+                    BinaryStreamUtils.writeUnsignedInt256(output, value.asBigInteger());
+                    break;
+                default:
+                    throw new IOException("Unsupported type: " + type);
+            }
+        }
+
         private void buildMappingsForAggregateFunctions() {
-            // aggregate functions
-            // buildAggMappings(aggDeserializers, aggSerializers,
-            // (r, f, c, i) -> {
-            // BinaryStreamUtils.readInt8(i); // always 1?
-            // return deserialize(r, f, c.getNestedColumns().get(0), i);
-            // },
-            // (v, f, c, o) -> {
-            // // no that simple:
-            // // * select anyState(n) from (select '5' where 0) => FFFF
-            // // * select anyState(n) from (select '5') => 0200 0000 3500
-            // BinaryStreamUtils.writeInt8(o, (byte) 1);
-            // serialize(v, f, c.getNestedColumns().get(0), o);
-            // }, ClickHouseAggregateFunction.any);
+            // https://github.com/ClickHouse/ClickHouse/tree/master/src/AggregateFunctions
+            // states are only supported when the argument is not nullable, because
+            // Null combinator may or may not add a flag in front of the state
+            buildAggMappings(aggDeserializers, aggSerializers,
+                    (r, f, c, i) -> ClickHouseLongValue.of(r, true, BinaryStreamUtils.readVarLong(i)),
+                    (v, f, c, o) -> BinaryStreamUtils.writeVarInt(o, v.asLong()), ClickHouseAggregateFunction.count);
+            buildAggMappings(aggDeserializers, aggSerializers, (r, f, c, i) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                return readNumber(r, getSumType(arg), arg.getScale(), i);
+            }, (v, f, c, o) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                writeNumber(v, getSumType(arg), arg.getScale(), o);
+            }, ClickHouseAggregateFunction.sum);
+            buildAggMappings(aggDeserializers, aggSerializers, (r, f, c, i) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                Object numerator = readNumber(null, getAvgType(arg), arg.getScale(), i).asObject();
+                return ClickHouseTupleValue.of(r, Arrays.asList(numerator, BinaryStreamUtils.readVarLong(i)));
+            }, (v, f, c, o) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                List<Object> tuple = v.asTuple();
+                if (tuple.size() != 2) {
+                    throw new IllegalArgumentException(ClickHouseUtils
+                            .format("Expect numerator and denominator of avg but got %d value(s)", tuple.size()));
+                }
+                ClickHouseDataType type = getAvgType(arg);
+                writeNumber(ClickHouseValues.newValue(f, type).update(tuple.get(0)), type, arg.getScale(), o);
+                BinaryStreamUtils.writeVarInt(o, ClickHouseLongValue.ofNull(true).update(tuple.get(1)).asLong());
+            }, ClickHouseAggregateFunction.avg);
+            // SingleValueDataString uses Int32 size including the trailing zero, while
+            // the others use a flag followed by the value when it's not null
+            buildAggMappings(aggDeserializers, aggSerializers, (r, f, c, i) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                if (arg.getDataType() == ClickHouseDataType.String) {
+                    int size = BinaryStreamUtils.readInt32(i);
+                    if (size < 0) {
+                        return ClickHouseStringValue.ofNull(r);
+                    }
+                    byte[] bytes = i.readBytes(size);
+                    return ClickHouseStringValue.of(r, size > 0 ? Arrays.copyOf(bytes, size - 1) : bytes);
+                } else if (BinaryStreamUtils.readBoolean(i)) {
+                    return deserialize(r, f, arg, i);
+                }
+                return (r != null ? r : ClickHouseValues.newValue(f, arg)).resetToNullOrEmpty();
+            }, (v, f, c, o) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                boolean hasValue = v.asObject() != null;
+                if (arg.getDataType() == ClickHouseDataType.String) {
+                    if (hasValue) {
+                        byte[] bytes = v.asBinary();
+                        BinaryStreamUtils.writeInt32(o, bytes.length + 1);
+                        o.write(bytes);
+                        o.write(0);
+                    } else {
+                        BinaryStreamUtils.writeInt32(o, -1);
+                    }
+                } else {
+                    BinaryStreamUtils.writeBoolean(o, hasValue);
+                    if (hasValue) {
+                        serialize(v, f, arg, o);
+                    }
+                }
+            }, ClickHouseAggregateFunction.any, ClickHouseAggregateFunction.anyLast, ClickHouseAggregateFunction.min,
+                    ClickHouseAggregateFunction.max);
+            // hash set of numbers and array share the same format
+            buildAggMappings(aggDeserializers, aggSerializers, (r, f, c, i) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                if (getBulkWidth(arg) <= 0 && (c.getAggregateFunction() == ClickHouseAggregateFunction.uniqExact
+                        || arg.getDataType() != ClickHouseDataType.String)) {
+                    throw new IOException(c.getOriginalTypeName() + " is not supported");
+                }
+                return readArray(r != null ? r : ClickHouseValues.newValue(f, c), f, arg, arg, i,
+                        BinaryStreamUtils.readVarInt(i), 1);
+            }, (v, f, c, o) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                if (getBulkWidth(arg) <= 0 && (c.getAggregateFunction() == ClickHouseAggregateFunction.uniqExact
+                        || arg.getDataType() != ClickHouseDataType.String)) {
+                    throw new IOException(c.getOriginalTypeName() + " is not supported");
+                }
+                writeArray(v, f, arg, arg, o, 1);
+            }, ClickHouseAggregateFunction.groupArray, ClickHouseAggregateFunction.uniqExact);
+            buildAggMappings(aggDeserializers, aggSerializers,
+                    (r, f, c, i) -> ClickHouseUniquesHashSetValue.of(r, ClickHouseUniquesHashSet.read(i)),
+                    (v, f, c, o) -> {
+                        ClickHouseUniquesHashSet set = v.asObject(ClickHouseUniquesHashSet.class);
+                        (set != null ? set : new ClickHouseUniquesHashSet()).write(o);
+                    }, ClickHouseAggregateFunction.uniq);
+            buildAggMappings(aggDeserializers, aggSerializers, (r, f, c, i) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                if (!ClickHouseReservoirSampler.isSupported(arg.getDataType())) {
+                    throw new IOException(c.getOriginalTypeName() + " is not supported");
+                }
+                return ClickHouseReservoirSamplerValue.of(r, ClickHouseReservoirSampler.read(i, arg.getDataType()));
+            }, (v, f, c, o) -> {
+                ClickHouseColumn arg = getStateArgument(c, false);
+                ClickHouseReservoirSampler sampler = v.asObject(ClickHouseReservoirSampler.class);
+                if (sampler == null) {
+                    sampler = new ClickHouseReservoirSampler(arg.getDataType());
+                } else if (sampler.getValueType() != arg.getDataType()) {
+                    throw new IllegalArgumentException(ClickHouseUtils.format("Expect sampler of %s but got %s",
+                            arg.getDataType(), sampler.getValueType()));
+                }
+                sampler.write(o);
+            }, ClickHouseAggregateFunction.quantile, ClickHouseAggregateFunction.quantiles);
             buildAggMappings(aggDeserializers, aggSerializers,
                     (r, f, c, i) -> ClickHouseBitmapValue
                             .of(BinaryStreamUtils.readBitmap(i, c.getNestedColumns().get(0).getDataType())),
@@ -368,13 +824,21 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
                         c.getArrayNestedLevel());
             }, this::writeArray, ClickHouseDataType.Array);
             buildMappings(deserializers, serializers, (r, f, c, i) -> {
-                Map<Object, Object> map = new LinkedHashMap<>();
                 ClickHouseColumn keyCol = c.getKeyInfo();
                 ClickHouseColumn valCol = c.getValueInfo();
-                for (int k = 0, len = BinaryStreamUtils.readVarInt(i); k < len; k++) {
-                    map.put(deserialize(null, f, keyCol, i).asObject(), deserialize(null, f, valCol, i).asObject());
+                int len = BinaryStreamUtils.readVarInt(i);
+                Map<?, ?> map;
+                if (f.isUsePrimitiveMap() && primitiveMaps != null
+                        && ClickHousePrimitiveMaps.isSupported(keyCol, valCol)) {
+                    map = primitiveMaps.read(keyCol, valCol, i, len);
+                } else {
+                    Map<Object, Object> m = new LinkedHashMap<>();
+                    for (int k = 0; k < len; k++) {
+                        m.put(deserialize(null, f, keyCol, i).asObject(), deserialize(null, f, valCol, i).asObject());
+                    }
+                    map = m;
                 }
-                return ClickHouseMapValue.of(map, valCol.getDataType().getObjectClass(),
+                return ClickHouseMapValue.of(map, keyCol.getDataType().getObjectClass(),
                         valCol.getDataType().getObjectClass());
             }, (v, f, c, o) -> {
                 Map<Object, Object> map = v.asMap();
@@ -382,6 +846,11 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
                 if (!map.isEmpty()) {
                     ClickHouseColumn keyCol = c.getKeyInfo();
                     ClickHouseColumn valCol = c.getValueInfo();
+                    if (primitiveMaps != null && ClickHousePrimitiveMaps.isSupported(keyCol, valCol)
+                            && primitiveMaps.write(map, keyCol, valCol, o)) {
+                        return;
+                    }
+
                     ClickHouseValue kVal = ClickHouseValues.newValue(f, keyCol);
                     ClickHouseValue vVal = ClickHouseValues.newValue(f, valCol);
                     for (Entry<Object, Object> e : map.entrySet()) {
@@ -450,6 +919,65 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
             buildMappingsForDataTypes();
         }
 
+        /**
+         * Gets deserializer for the given column. Unlike
+         * {@link #deserialize(ClickHouseValue, ClickHouseConfig, ClickHouseColumn, ClickHouseInputStream)},
+         * lookup and null check are done only once, so it's better to resolve the
+         * deserializer beforehand when reading many values of the same column. Same
+         * as {@code deserialize}, unsupported data type is only reported when there's
+         * non-null value to read, so {@code Nullable(Nothing)} works as expected.
+         *
+         * @param column non-null column
+         * @return non-null deserializer
+         */
+        @SuppressWarnings("unchecked")
+        public ClickHouseDeserializer<ClickHouseValue> getDeserializer(ClickHouseColumn column) {
+            ClickHouseDeserializer<ClickHouseValue> mapped = (ClickHouseDeserializer<ClickHouseValue>) deserializers
+                    .get(column.getDataType());
+            final ClickHouseDeserializer<ClickHouseValue> func = mapped != null ? mapped : (r, f, c, i) -> {
+                throw new IllegalArgumentException(ERROR_UNKNOWN_DATA_TYPE + c.getDataType().name());
+            };
+            if (!column.isNullable()) {
+                return func;
+            }
+
+            return (r, f, c, i) -> {
+                if (BinaryStreamUtils.readNull(i)) {
+                    return r == null ? ClickHouseValues.newValue(f, c) : r.resetToNullOrEmpty();
+                }
+                return func.deserialize(r, f, c, i);
+            };
+        }
+
+        /**
+         * Gets serializer for the given column. Same as
+         * {@link #getDeserializer(ClickHouseColumn)}, lookup and null check are done
+         * only once.
+         *
+         * @param column non-null column
+         * @return non-null serializer
+         */
+        @SuppressWarnings("unchecked")
+        public ClickHouseSerializer<ClickHouseValue> getSerializer(ClickHouseColumn column) {
+            ClickHouseSerializer<ClickHouseValue> mapped = (ClickHouseSerializer<ClickHouseValue>) serializers
+                    .get(column.getDataType());
+            final ClickHouseSerializer<ClickHouseValue> func = mapped != null ? mapped : (v, f, c, o) -> {
+                throw new IllegalArgumentException(ERROR_UNKNOWN_DATA_TYPE + c.getDataType().name());
+            };
+            if (!column.isNullable()) {
+                return func;
+            }
+
+            return (v, f, c, o) -> {
+                if (v.isNullOrEmpty()) {
+                    BinaryStreamUtils.writeNull(o);
+                } else {
+                    BinaryStreamUtils.writeNonNull(o);
+                    func.serialize(v, f, c, o);
+                }
+            };
+        }
+
         @SuppressWarnings("unchecked")
         public ClickHouseValue deserialize(ClickHouseValue ref, ClickHouseConfig config, ClickHouseColumn column,
                 ClickHouseInputStream input) throws IOException {
@@ -490,13 +1018,18 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
         return MappedFunctions.instance;
     }
 
-    // TODO this is where ASM should come into play...
     private class Records implements Iterator<ClickHouseRecord> {
         private final Supplier<ClickHouseSimpleRecord> factory;
+        private final List<ClickHouseDeserializer<ClickHouseValue>> deserializers;
         private ClickHouseSimpleRecord record;
 
         Records() {
             int size = columns.size();
+            MappedFunctions m = getMappedFunctions();
+            deserializers = new ArrayList<>(size);
+            for (ClickHouseColumn column : columns) {
+                deserializers.add(m.getDeserializer(column));
+            }
             if (config.isReuseValueWrapper()) {
                 ClickHouseValue[] values = new ClickHouseValue[size];
                 record = new ClickHouseSimpleRecord(columns, values);
@@ -513,10 +1046,9 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
             ClickHouseValue[] values = currentRow.getValues();
             ClickHouseColumn column = null;
             try {
-                MappedFunctions m = getMappedFunctions();
                 for (; index < size; index++) {
                     column = columns.get(index);
-                    values[index] = m.deserialize(values[index], config, column, input);
+                    values[index] = deserializers.get(index).deserialize(values[index], config, column, input);
                 }
             } catch (EOFException e) {
                 if (index == 0) { // end of the stream, which is fine
@@ -582,9 +1114,14 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
         return columns;
     }
 
+    // header is written only once, before the first row
+    private boolean headerWritten;
+
     public ClickHouseRowBinaryProcessor(ClickHouseConfig config, ClickHouseInputStream input, OutputStream output,
             List<ClickHouseColumn> columns, Map<String, Object> settings) throws IOException {
         super(config, input, output, columns, settings);
+
+        this.headerWritten = false;
     }
 
     @Override
@@ -596,4 +1133,112 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
             }
         };
     }
+
+    private void writeHeader() throws IOException {
+        if (output == null) {
+            throw new IllegalStateException("No output stream available for serialization");
+        }
+
+        if (!headerWritten && config.getFormat().hasHeader()) {
+            headerWritten = true;
+            BinaryStreamUtils.writeVarInt(output, columns.size());
+            for (ClickHouseColumn column : columns) {
+                BinaryStreamUtils.writeString(output, column.getColumnName());
+            }
+            for (ClickHouseColumn column : columns) {
+                BinaryStreamUtils.writeString(output, column.getOriginalTypeName());
+            }
+        }
+    }
+
+    @Override
+    public <T> Iterable<T> records(Class<T> objClass) {
+        if (columns.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final ClickHouseRowMapper<T> mapper = ClickHouseRowMapper.of(config, columns, objClass);
+        return () -> new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return input.available() > 0;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more record");
+                }
+
+                try {
+                    return mapper.read(input);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read record", e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public <T> void write(Iterable<T> objects, Class<T> objClass) throws IOException {
+        writeHeader();
+
+        ClickHouseRowMapper<T> mapper = ClickHouseRowMapper.of(config, columns, objClass);
+        for (T obj : objects) {
+            mapper.write(obj, output);
+        }
+    }
+
+    @Override
+    public Iterable<ClickHouseColumnBatch> batches(int maxRows) {
+        ClickHouseChecker.notLessThan(maxRows, "maxRows", 1);
+        if (columns.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return () -> new Iterator<ClickHouseColumnBatch>() {
+            private ClickHouseColumnBatch batch;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return input.available() > 0;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public ClickHouseColumnBatch next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more batch");
+                }
+
+                batch = nextBatch(batch, maxRows);
+                try {
+                    for (int i = 0; i < maxRows && input.available() > 0; i++) {
+                        batch.readRow(input);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(ClickHouseUtils.format("Failed to read row #%d of the batch",
+                            batch.getRowCount() + 1), e);
+                }
+                return batch;
+            }
+        };
+    }
+
+    @Override
+    public void write(ClickHouseColumnBatch batch) throws IOException {
+        if (!columns.isEmpty() && !columns.equals(batch.getColumns())) {
+            throw new IllegalArgumentException("Columns of the batch are different from the ones to write");
+        }
+
+        writeHeader();
+        batch.write(output);
+    }
 }
@@ -69,7 +69,7 @@ public class ClickHouseSimpleResponse implements ClickHouseResponse {
             }
         }
 
-        return new ClickHouseSimpleResponse(columns, wrappedValues, summary);
+        return new ClickHouseSimpleResponse(config, columns, wrappedValues, summary);
     }
 
     /**
@@ -118,9 +118,11 @@ public class ClickHouseSimpleResponse implements ClickHouseResponse {
             records.add(rec);
         }
 
-        return new ClickHouseSimpleResponse(response.getColumns(), records, response.getSummary());
+        return new ClickHouseSimpleResponse(response.getConfig(), response.getColumns(), records,
+                response.getSummary());
     }
 
+    private final ClickHouseConfig config;
     private final List<ClickHouseColumn> columns;
     // better to use simple ClickHouseRecord as template along with raw values
     private final List<ClickHouseRecord> records;
@@ -130,6 +132,12 @@ public class ClickHouseSimpleResponse implements ClickHouseResponse {
 
     protected ClickHouseSimpleResponse(List<ClickHouseColumn> columns, List<ClickHouseRecord> records,
             ClickHouseResponseSummary summary) {
+        this(null, columns, records, summary);
+    }
+
+    protected ClickHouseSimpleResponse(ClickHouseConfig config, List<ClickHouseColumn> columns,
+            List<ClickHouseRecord> records, ClickHouseResponseSummary summary) {
+        this.config = config;
         this.columns = columns;
         this.records = Collections.unmodifiableList(records);
         this.summary = summary != null ? summary : ClickHouseResponseSummary.EMPTY;
@@ -137,6 +145,12 @@ public class ClickHouseSimpleResponse implements ClickHouseResponse {
 
     protected ClickHouseSimpleResponse(List<ClickHouseColumn> columns, ClickHouseValue[][] values,
             ClickHouseResponseSummary summary) {
+        this(null, columns, values, summary);
+    }
+
+    protected ClickHouseSimpleResponse(ClickHouseConfig config, List<ClickHouseColumn> columns,
+            ClickHouseValue[][] values, ClickHouseResponseSummary summary) {
+        this.config = config;
         this.columns = columns;
 
         int len = values.length;
@@ -150,6 +164,11 @@ public class ClickHouseSimpleResponse implements ClickHouseResponse {
         this.summary = summary != null ? summary : ClickHouseResponseSummary.EMPTY;
     }
 
+    @Override
+    public ClickHouseConfig getConfig() {
+        return config != null ? config : ClickHouseResponse.super.getConfig();
+    }
+
     @Override
     public List<ClickHouseColumn> getColumns() {
         return columns;
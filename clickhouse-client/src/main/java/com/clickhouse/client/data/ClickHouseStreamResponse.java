@@ -15,6 +15,7 @@ import com.clickhouse.client.ClickHouseInputStream;
 import com.clickhouse.client.ClickHouseRecord;
 import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseResponseSummary;
+import com.clickhouse.client.data.vector.ClickHouseColumnBatch;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
 
@@ -121,6 +122,11 @@ public class ClickHouseStreamResponse implements ClickHouseResponse {
         return columns;
     }
 
+    @Override
+    public ClickHouseConfig getConfig() {
+        return config;
+    }
+
     public ClickHouseFormat getFormat() {
         return this.config.getFormat();
     }
@@ -144,4 +150,24 @@ public class ClickHouseStreamResponse implements ClickHouseResponse {
 
         return processor.records();
     }
+
+    @Override
+    public <T> Iterable<T> records(Class<T> objClass) {
+        if (processor == null) {
+            throw new UnsupportedOperationException(
+                    "No data processor available for deserialization, please consider to use getInputStream instead");
+        }
+
+        return processor.records(objClass);
+    }
+
+    @Override
+    public Iterable<ClickHouseColumnBatch> batches(int maxRows) {
+        if (processor == null) {
+            throw new UnsupportedOperationException(
+                    "No data processor available for deserialization, please consider to use getInputStream instead");
+        }
+
+        return processor.batches(maxRows);
+    }
 }
@@ -2,6 +2,7 @@ package com.clickhouse.client.data;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -12,15 +13,21 @@ import java.util.NoSuchElementException;
 import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseDataProcessor;
+import com.clickhouse.client.ClickHouseDataWriter;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseInputStream;
 import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseSerializer;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.data.mapper.ClickHouseRowMapper;
 import com.clickhouse.client.data.tsv.ByteFragment;
 import com.clickhouse.client.data.tsv.StreamSplitter;
+import com.clickhouse.client.data.vector.ClickHouseColumnBatch;
+import com.clickhouse.client.data.vector.ClickHouseColumnVector;
 
-public class ClickHouseTabSeparatedProcessor extends ClickHouseDataProcessor {
+public class ClickHouseTabSeparatedProcessor extends ClickHouseDataProcessor implements ClickHouseDataWriter {
     private static String[] toStringArray(ByteFragment headerFragment, byte delimitter) {
         if (delimitter == (byte) 0) {
             return new String[] { headerFragment.asString(true) };
@@ -93,12 +100,58 @@ public class ClickHouseTabSeparatedProcessor extends ClickHouseDataProcessor {
         }
     }
 
+    private static final byte COLUMN_DELIMITER = (byte) 0x09;
+    private static final byte[] NULL_VALUE = new byte[] { '\\', 'N' };
+
+    /**
+     * Gets text representation of the given value, which is same as what server
+     * returns in {@code TabSeparated} format but not escaped.
+     *
+     * @param value  non-null value
+     * @param column non-null column of the value
+     * @return text representation of the value, or null when the value is null
+     */
+    private static String toText(ClickHouseValue value, ClickHouseColumn column) {
+        if (value.asObject() == null) {
+            return null;
+        }
+
+        switch (column.getDataType()) {
+            case Array:
+            case Map:
+            case Nested:
+            case Tuple:
+                return value.toSqlExpression();
+            case Float32:
+            case Float64:
+                double d = value.asDouble();
+                if (Double.isNaN(d)) {
+                    return "nan";
+                } else if (Double.isInfinite(d)) {
+                    return d > 0 ? "inf" : "-inf";
+                }
+                return value.asString();
+            case Decimal:
+            case Decimal32:
+            case Decimal64:
+            case Decimal128:
+            case Decimal256:
+                return value.asBigDecimal().toPlainString();
+            default:
+                return value.asString();
+        }
+    }
+
     private final byte rowDelimitter = (byte) 0x0A;
 
     // initialize in readColumns()
     private byte colDelimitter;
     private StreamSplitter splitter;
 
+    // header is written only once, before the first row
+    private boolean headerWritten;
+    private List<ClickHouseSerializer<ClickHouseValue>> serializers;
+
     @Override
     public List<ClickHouseColumn> readColumns() throws IOException {
         if (input == null) {
@@ -162,6 +215,108 @@ public class ClickHouseTabSeparatedProcessor extends ClickHouseDataProcessor {
         }
     }
 
+    private void writeText(String text, boolean escape) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (escape) {
+            ByteFragment.escape(bytes, output);
+        } else {
+            output.write(bytes);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        if (output == null) {
+            throw new IllegalStateException("No output stream available for serialization");
+        }
+
+        if (!headerWritten) {
+            headerWritten = true;
+            ClickHouseFormat format = config.getFormat();
+            if (format.hasHeader()) {
+                int size = columns.size();
+                for (int i = 0; i < size; i++) {
+                    writeText(columns.get(i).getColumnName(), true);
+                    output.write(i + 1 < size ? COLUMN_DELIMITER : rowDelimitter);
+                }
+                if (format == ClickHouseFormat.TSVWithNamesAndTypes
+                        || format == ClickHouseFormat.TabSeparatedWithNamesAndTypes) {
+                    for (int i = 0; i < size; i++) {
+                        writeText(columns.get(i).getOriginalTypeName(), true);
+                        output.write(i + 1 < size ? COLUMN_DELIMITER : rowDelimitter);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets serializers for writing values in {@code TabSeparated} format. Each
+     * serializer writes a value followed by column or row delimiter.
+     *
+     * @return non-null serializers, one for each column
+     */
+    private List<ClickHouseSerializer<ClickHouseValue>> getSerializers() {
+        if (serializers == null) {
+            ClickHouseFormat format = config.getFormat();
+            boolean escape = format != ClickHouseFormat.TSVRaw && format != ClickHouseFormat.TabSeparatedRaw;
+            int size = columns.size();
+            List<ClickHouseSerializer<ClickHouseValue>> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                byte delimiter = i + 1 < size ? COLUMN_DELIMITER : rowDelimitter;
+                list.add((v, f, c, o) -> {
+                    String text = toText(v, c);
+                    if (text == null) {
+                        o.write(NULL_VALUE);
+                    } else {
+                        writeText(text, escape);
+                    }
+                    o.write(delimiter);
+                });
+            }
+            serializers = list;
+        }
+        return serializers;
+    }
+
+    @Override
+    public <T> void write(Iterable<T> objects, Class<T> objClass) throws IOException {
+        writeHeader();
+
+        ClickHouseRowMapper<T> mapper = ClickHouseRowMapper.of(config, columns, objClass, getSerializers());
+        for (T obj : objects) {
+            mapper.write(obj, output);
+        }
+    }
+
+    @Override
+    public void write(ClickHouseColumnBatch batch) throws IOException {
+        if (!columns.equals(batch.getColumns())) {
+            throw new IllegalArgumentException("Columns of the batch are different from the ones to write");
+        }
+
+        writeHeader();
+
+        int size = columns.size();
+        int rows = batch.getRowCount();
+        List<ClickHouseSerializer<ClickHouseValue>> list = getSerializers();
+        ClickHouseValue[] values = new ClickHouseValue[size];
+        for (int i = 0; i < size; i++) {
+            ClickHouseColumnVector v = batch.getVector(i);
+            if (v.size() != rows) {
+                throw new IllegalStateException(ClickHouseUtils.format("Expect %d values in column [%s] but got %d",
+                        rows, v.getColumn().getColumnName(), v.size()));
+            }
+            values[i] = ClickHouseValues.newValue(config, columns.get(i));
+        }
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < size; j++) {
+                ClickHouseColumn column = columns.get(j);
+                list.get(j).serialize(values[j].update(batch.getVector(j).getObject(i)), config, column, output);
+            }
+        }
+    }
+
     @Override
     public Iterable<ClickHouseRecord> records() {
         return new Iterable<ClickHouseRecord>() {
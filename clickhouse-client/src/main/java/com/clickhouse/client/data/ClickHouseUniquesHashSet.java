@@ -0,0 +1,330 @@
+package com.clickhouse.client.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseUtils;
+
+/**
+ * Client-side implementation of {@code UniquesHashSet}, which is the state of
+ * aggregate function {@code uniq}. It keeps 32-bit hashes of values, and
+ * discards hashes whose lower {@code skipDegree} bits are not all zero once it
+ * has more than {@link #MAX_SIZE} elements. Only numeric values are supported,
+ * because hash of string is calculated by CityHash64 on server.
+ *
+ * <p>
+ * Since states are merged on server, the hash function and serialization format
+ * must be exactly same as <a href=
+ * "https://github.com/ClickHouse/ClickHouse/blob/master/src/AggregateFunctions/UniquesHashSet.h">UniquesHashSet.h</a>.
+ * This class is not thread-safe.
+ */
+public final class ClickHouseUniquesHashSet {
+    static final int MAX_SIZE_DEGREE = 17;
+    /**
+     * Maximum number of hashes kept in the set.
+     */
+    public static final int MAX_SIZE = 1 << (MAX_SIZE_DEGREE - 1);
+    static final int BITS_FOR_SKIP = 32 - MAX_SIZE_DEGREE;
+    static final int INITIAL_SIZE_DEGREE = 4;
+
+    /**
+     * Same as {@code intHash64} in ClickHouse, which is the finalizer of
+     * MurmurHash3.
+     *
+     * @param x value
+     * @return 64-bit hash
+     */
+    static long intHash64(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    /**
+     * Reads state from the given input stream.
+     *
+     * @param input non-null input stream
+     * @return non-null set
+     * @throws IOException when failed to read data from input stream
+     */
+    public static ClickHouseUniquesHashSet read(ClickHouseInputStream input) throws IOException {
+        ClickHouseUniquesHashSet set = new ClickHouseUniquesHashSet();
+        int skipDegree = BinaryStreamUtils.readUnsignedInt8(input);
+        int size = BinaryStreamUtils.readVarInt(input);
+        if (skipDegree > BITS_FOR_SKIP || size < 0 || size > MAX_SIZE) {
+            throw new IOException(
+                    ClickHouseUtils.format("Invalid UniquesHashSet with skip degree %d and size %d", skipDegree, size));
+        }
+
+        set.skipDegree = skipDegree;
+        set.resize(size);
+        for (int i = 0; i < size; i++) {
+            int hash = BinaryStreamUtils.readInt32(input);
+            if (hash == 0) {
+                set.hasZero = true;
+                set.size++;
+            } else {
+                set.insertImpl(hash);
+            }
+        }
+        return set;
+    }
+
+    private int skipDegree;
+    private boolean hasZero;
+    private int size;
+    private int[] buffer;
+
+    /**
+     * Creates an empty set.
+     */
+    public ClickHouseUniquesHashSet() {
+        this.buffer = new int[1 << INITIAL_SIZE_DEGREE];
+    }
+
+    private boolean good(int hash) {
+        return hash == ((hash >>> skipDegree) << skipDegree);
+    }
+
+    private boolean insertImpl(int hash) {
+        int mask = buffer.length - 1;
+        int index = (hash >>> BITS_FOR_SKIP) & mask;
+        int v;
+        while ((v = buffer[index]) != 0) {
+            if (v == hash) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        buffer[index] = hash;
+        size++;
+        return true;
+    }
+
+    private void resize(int expectedSize) {
+        int capacity = buffer.length;
+        while (expectedSize > capacity / 2 && capacity < (1 << MAX_SIZE_DEGREE)) {
+            capacity <<= 1;
+        }
+        rehash(capacity);
+    }
+
+    private void rehash(int capacity) {
+        int[] old = buffer;
+        buffer = new int[capacity];
+        size = hasZero ? 1 : 0;
+        for (int hash : old) {
+            if (hash != 0 && good(hash)) {
+                insertImpl(hash);
+            }
+        }
+    }
+
+    private void shrinkIfNeeded() {
+        if (size > buffer.length / 2) {
+            if (size > MAX_SIZE) {
+                while (size > MAX_SIZE) {
+                    skipDegree++;
+                    rehash(buffer.length);
+                }
+            } else {
+                resize(size);
+            }
+        }
+    }
+
+    private void insertHash(int hash) {
+        if (!good(hash)) {
+            return;
+        }
+
+        if (hash == 0) {
+            if (!hasZero) {
+                hasZero = true;
+                size++;
+            }
+        } else {
+            insertImpl(hash);
+        }
+        shrinkIfNeeded();
+    }
+
+    /**
+     * Adds an integer. Signed value should be sign-extended, and unsigned value
+     * should be zero-extended, which is exactly how Java converts {@code int} and
+     * {@code Integer.toUnsignedLong(int)} to {@code long}.
+     *
+     * @param value value
+     * @return this set
+     */
+    public ClickHouseUniquesHashSet add(long value) {
+        insertHash((int) intHash64(value));
+        return this;
+    }
+
+    /**
+     * Adds a {@code Float32} value.
+     *
+     * @param value value
+     * @return this set
+     */
+    public ClickHouseUniquesHashSet add(float value) {
+        return add(Float.floatToRawIntBits(value) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Adds a {@code Float64} value.
+     *
+     * @param value value
+     * @return this set
+     */
+    public ClickHouseUniquesHashSet add(double value) {
+        return add(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Merges the given set into this one.
+     *
+     * @param other set to merge, null will be ignored
+     * @return this set
+     */
+    public ClickHouseUniquesHashSet merge(ClickHouseUniquesHashSet other) {
+        if (other == null || other == this) {
+            return this;
+        }
+
+        if (other.skipDegree > skipDegree) {
+            skipDegree = other.skipDegree;
+            rehash(buffer.length);
+        }
+
+        if (!hasZero && other.hasZero) {
+            hasZero = true;
+            size++;
+            shrinkIfNeeded();
+        }
+
+        for (int hash : other.buffer) {
+            if (hash != 0 && good(hash) && insertImpl(hash)) {
+                shrinkIfNeeded();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Gets estimated number of unique values. Unlike server, it does not add the
+     * pseudo-random remainder, so the result might be slightly different when
+     * skip degree is greater than zero.
+     *
+     * @return estimated number of unique values
+     */
+    public long getCardinality() {
+        if (skipDegree == 0) {
+            return size;
+        }
+
+        long res = (long) size << skipDegree;
+        double p32 = 1L << 32;
+        // correction of systematic error due to collisions of 32-bit hashes
+        return Math.round(p32 * (Math.log(p32) - Math.log(p32 - res)));
+    }
+
+    /**
+     * Gets skip degree.
+     *
+     * @return skip degree
+     */
+    public int getSkipDegree() {
+        return skipDegree;
+    }
+
+    /**
+     * Gets number of hashes kept in the set.
+     *
+     * @return number of hashes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the set is empty.
+     *
+     * @return true if the set is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Writes state into the given output stream.
+     *
+     * @param output non-null output stream
+     * @throws IOException when failed to write data into output stream
+     */
+    public void write(OutputStream output) throws IOException {
+        BinaryStreamUtils.writeUnsignedInt8(output, skipDegree);
+        BinaryStreamUtils.writeVarInt(output, size);
+        if (hasZero) {
+            BinaryStreamUtils.writeInt32(output, 0);
+        }
+        for (int hash : buffer) {
+            if (hash != 0) {
+                BinaryStreamUtils.writeInt32(output, hash);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        ClickHouseUniquesHashSet other = (ClickHouseUniquesHashSet) obj;
+        if (skipDegree != other.skipDegree || hasZero != other.hasZero || size != other.size) {
+            return false;
+        }
+        for (int hash : buffer) {
+            if (hash != 0 && !other.contains(hash)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contains(int hash) {
+        int mask = buffer.length - 1;
+        int index = (hash >>> BITS_FOR_SKIP) & mask;
+        int v;
+        while ((v = buffer[index]) != 0) {
+            if (v == hash) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * skipDegree + size;
+        for (int hash : buffer) {
+            result += hash; // order-independent
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder().append(getClass().getSimpleName()).append("(skipDegree=").append(skipDegree)
+                .append(", size=").append(size).append(')').toString();
+    }
+}
@@ -0,0 +1,191 @@
+package com.clickhouse.client.data;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+
+/**
+ * Wraper class of {@link ClickHouseUniquesHashSet}, which is the state of
+ * aggregate function {@code uniq}.
+ */
+public class ClickHouseUniquesHashSetValue extends ClickHouseObjectValue<ClickHouseUniquesHashSet> {
+    private static final long serialVersionUID = 4430974676317585937L;
+
+    /**
+     * Create a new instance representing empty value.
+     *
+     * @return new instance representing empty value
+     */
+    public static ClickHouseUniquesHashSetValue ofEmpty() {
+        return of(null, new ClickHouseUniquesHashSet());
+    }
+
+    /**
+     * Wrap the given value.
+     *
+     * @param value value
+     * @return object representing the value
+     */
+    public static ClickHouseUniquesHashSetValue of(ClickHouseUniquesHashSet value) {
+        return of(null, value);
+    }
+
+    /**
+     * Update value of the given object or create a new instance if {@code ref} is
+     * null.
+     *
+     * @param ref   object to update, could be null
+     * @param value value
+     * @return same object as {@code ref} or a new instance if it's null
+     */
+    public static ClickHouseUniquesHashSetValue of(ClickHouseValue ref, ClickHouseUniquesHashSet value) {
+        if (value == null) {
+            value = new ClickHouseUniquesHashSet();
+        }
+
+        return ref instanceof ClickHouseUniquesHashSetValue
+                ? (ClickHouseUniquesHashSetValue) ((ClickHouseUniquesHashSetValue) ref).set(value)
+                : new ClickHouseUniquesHashSetValue(value);
+    }
+
+    protected ClickHouseUniquesHashSetValue(ClickHouseUniquesHashSet value) {
+        super(value);
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue copy(boolean deep) {
+        if (!deep || isNullOrEmpty()) {
+            return new ClickHouseUniquesHashSetValue(getValue());
+        }
+
+        return new ClickHouseUniquesHashSetValue(new ClickHouseUniquesHashSet().merge(getValue()));
+    }
+
+    @Override
+    public boolean isNullOrEmpty() {
+        ClickHouseUniquesHashSet v = getValue();
+        return v == null || v.isEmpty();
+    }
+
+    @Override
+    public int asInteger() {
+        return (int) asLong();
+    }
+
+    @Override
+    public long asLong() {
+        return isNullOrEmpty() ? 0L : getValue().getCardinality();
+    }
+
+    @Override
+    public BigInteger asBigInteger() {
+        return isNullOrEmpty() ? null : BigInteger.valueOf(asLong());
+    }
+
+    @Override
+    public double asDouble() {
+        return asLong();
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue resetToNullOrEmpty() {
+        set(new ClickHouseUniquesHashSet());
+        return this;
+    }
+
+    @Override
+    public String toSqlExpression() {
+        return isNullOrEmpty() ? ClickHouseValues.NULL_EXPR : String.valueOf(getValue());
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(byte value) {
+        set(new ClickHouseUniquesHashSet().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(short value) {
+        set(new ClickHouseUniquesHashSet().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(int value) {
+        set(new ClickHouseUniquesHashSet().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(long value) {
+        set(new ClickHouseUniquesHashSet().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(float value) {
+        set(new ClickHouseUniquesHashSet().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(double value) {
+        set(new ClickHouseUniquesHashSet().add(value));
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(BigInteger value) {
+        if (value == null) {
+            resetToNullOrEmpty();
+        } else {
+            set(new ClickHouseUniquesHashSet().add(value.longValue()));
+        }
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(BigDecimal value) {
+        if (value == null) {
+            resetToNullOrEmpty();
+        } else {
+            set(new ClickHouseUniquesHashSet().add(value.longValue()));
+        }
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(String value) {
+        if (value == null) {
+            resetToNullOrEmpty();
+        } else {
+            set(new ClickHouseUniquesHashSet().add(Long.parseLong(value)));
+        }
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(ClickHouseValue value) {
+        if (value == null) {
+            resetToNullOrEmpty();
+        } else if (value instanceof ClickHouseUniquesHashSetValue) {
+            set(((ClickHouseUniquesHashSetValue) value).getValue());
+        } else {
+            set(new ClickHouseUniquesHashSet().add(value.asLong()));
+        }
+        return this;
+    }
+
+    @Override
+    public ClickHouseUniquesHashSetValue update(Object value) {
+        if (value instanceof ClickHouseUniquesHashSet) {
+            set((ClickHouseUniquesHashSet) value);
+            return this;
+        }
+
+        super.update(value);
+        return this;
+    }
+}
@@ -0,0 +1,25 @@
+package com.clickhouse.client.data.mapper;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a field, getter or setter to a column whose name is different from the
+ * property name. Without this annotation, a property is bound to the column
+ * with same name, ignoring case and underscores(e.g. property {@code userId}
+ * matches column {@code user_id}).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface ClickHouseColumnName {
+    /**
+     * Gets column name.
+     *
+     * @return non-empty column name
+     */
+    String value();
+}
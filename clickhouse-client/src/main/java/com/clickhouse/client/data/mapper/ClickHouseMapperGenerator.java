@@ -0,0 +1,584 @@
+package com.clickhouse.client.data.mapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.data.BinaryStreamUtils;
+
+/**
+ * Generates bytecode of {@link ClickHouseRowMapper} using ASM. Columns of
+ * common data types are read and written directly using
+ * {@link BinaryStreamUtils}, while the others go through
+ * {@link ClickHouseValue}.
+ */
+final class ClickHouseMapperGenerator implements Opcodes {
+    /**
+     * Direct read and write methods in {@link BinaryStreamUtils} of a data type.
+     */
+    static final class Accessor {
+        final Class<?> javaType;
+        final String readMethod;
+        final String writeMethod;
+        final String writeDesc;
+
+        Accessor(Class<?> javaType, String readMethod, String writeMethod, Class<?> writeType) {
+            this.javaType = javaType;
+            this.readMethod = readMethod;
+            this.writeMethod = writeMethod;
+            this.writeDesc = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(OutputStream.class),
+                    Type.getType(writeType));
+        }
+
+        String getReadDesc() {
+            return Type.getMethodDescriptor(Type.getType(javaType), TYPE_INPUT);
+        }
+
+        boolean supports(Class<?> type) {
+            return type == javaType || type == ClickHouseRowMapper.wrap(javaType);
+        }
+    }
+
+    static final String PACKAGE_NAME = "com/clickhouse/client/data/mapper/generated/";
+    // generated classes stay in Metaspace until their class loader is gone, so
+    // there's a cap for each class, beyond which reflection will be used instead
+    static final int MAX_MAPPERS_PER_CLASS = 32;
+
+    static final String NAME_BASE = Type.getInternalName(ClickHouseRowMapper.class);
+    static final String NAME_UTILS = Type.getInternalName(BinaryStreamUtils.class);
+    static final String NAME_VALUE = Type.getInternalName(ClickHouseValue.class);
+
+    static final Type TYPE_INPUT = Type.getType(ClickHouseInputStream.class);
+    static final Type TYPE_OUTPUT = Type.getType(OutputStream.class);
+    static final Type TYPE_VALUE = Type.getType(ClickHouseValue.class);
+
+    static final String DESC_READ_VALUE = Type.getMethodDescriptor(TYPE_VALUE, Type.INT_TYPE, TYPE_INPUT);
+    static final String DESC_WRITE_VALUE = Type.getMethodDescriptor(Type.VOID_TYPE, Type.INT_TYPE,
+            Type.getType(Object.class), TYPE_OUTPUT);
+    static final String DESC_TO_OBJECT = Type.getMethodDescriptor(Type.getType(Object.class), TYPE_VALUE,
+            Type.getType(Class.class));
+    static final String DESC_WRITE_STRING = Type.getMethodDescriptor(Type.VOID_TYPE, TYPE_OUTPUT,
+            Type.getType(String.class));
+
+    private static final Map<ClickHouseDataType, Accessor> accessors;
+    private static final AtomicInteger counter = new AtomicInteger(0);
+    // shared by all mappers generated for classes from a same class loader, both
+    // are weakly referenced so that the class loader can still be unloaded
+    private static final Map<ClassLoader, WeakReference<MapperClassLoader>> loaders = new WeakHashMap<>();
+    // generated mappers are kept as long as the class is loaded, so that they
+    // won't be defined again, up to MAX_MAPPERS_PER_CLASS for each class
+    private static final ClassValue<Map<List<ClickHouseColumn>, Constructor<?>>> generated = new ClassValue<Map<List<ClickHouseColumn>, Constructor<?>>>() {
+        @Override
+        protected Map<List<ClickHouseColumn>, Constructor<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    static {
+        Map<ClickHouseDataType, Accessor> map = new EnumMap<>(ClickHouseDataType.class);
+        map.put(ClickHouseDataType.Bool, new Accessor(boolean.class, "readBoolean", "writeBoolean", boolean.class));
+        map.put(ClickHouseDataType.Int8, new Accessor(byte.class, "readInt8", "writeInt8", byte.class));
+        map.put(ClickHouseDataType.UInt8,
+                new Accessor(short.class, "readUnsignedInt8", "writeUnsignedInt8", int.class));
+        map.put(ClickHouseDataType.Int16, new Accessor(short.class, "readInt16", "writeInt16", short.class));
+        map.put(ClickHouseDataType.UInt16,
+                new Accessor(int.class, "readUnsignedInt16", "writeUnsignedInt16", int.class));
+        map.put(ClickHouseDataType.Int32, new Accessor(int.class, "readInt32", "writeInt32", int.class));
+        map.put(ClickHouseDataType.UInt32,
+                new Accessor(long.class, "readUnsignedInt32", "writeUnsignedInt32", long.class));
+        map.put(ClickHouseDataType.Int64, new Accessor(long.class, "readInt64", "writeInt64", long.class));
+        map.put(ClickHouseDataType.UInt64, new Accessor(long.class, "readInt64", "writeInt64", long.class));
+        map.put(ClickHouseDataType.Float32, new Accessor(float.class, "readFloat32", "writeFloat32", float.class));
+        map.put(ClickHouseDataType.Float64, new Accessor(double.class, "readFloat64", "writeFloat64", double.class));
+        accessors = map;
+    }
+
+    /**
+     * Class loader for defining generated class, which falls back to the class
+     * loader of this library when a class cannot be found by parent.
+     */
+    static final class MapperClassLoader extends ClassLoader {
+        MapperClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            return Class.forName(name, false, ClickHouseRowMapper.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Gets class loader for defining mappers of classes from the given class
+     * loader.
+     *
+     * @param parent non-null class loader of the class to map
+     * @return non-null class loader
+     */
+    static MapperClassLoader getClassLoader(ClassLoader parent) {
+        synchronized (loaders) {
+            WeakReference<MapperClassLoader> ref = loaders.get(parent);
+            MapperClassLoader loader = ref != null ? ref.get() : null;
+            if (loader == null) {
+                loader = new MapperClassLoader(parent);
+                loaders.put(parent, new WeakReference<>(loader));
+            }
+            return loader;
+        }
+    }
+
+    static boolean isStringColumn(ClickHouseColumn column) {
+        return column.getDataType() == ClickHouseDataType.String && !column.isArray();
+    }
+
+    static void push(MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    static void box(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            Class<?> boxed = ClickHouseRowMapper.wrap(type);
+            mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(boxed), "valueOf",
+                    Type.getMethodDescriptor(Type.getType(boxed), Type.getType(type)), false);
+        }
+    }
+
+    static void unbox(MethodVisitor mv, Class<?> primitiveType) {
+        Class<?> boxed = ClickHouseRowMapper.wrap(primitiveType);
+        mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(boxed), primitiveType.getName() + "Value",
+                Type.getMethodDescriptor(Type.getType(primitiveType)), false);
+    }
+
+    /**
+     * Converts {@link ClickHouseValue} on top of the stack to the given type.
+     */
+    static void convert(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            String method;
+            if (type == boolean.class) {
+                method = "asBoolean";
+            } else if (type == char.class) {
+                method = "asCharacter";
+            } else if (type == byte.class) {
+                method = "asByte";
+            } else if (type == short.class) {
+                method = "asShort";
+            } else if (type == int.class) {
+                method = "asInteger";
+            } else if (type == long.class) {
+                method = "asLong";
+            } else if (type == float.class) {
+                method = "asFloat";
+            } else {
+                method = "asDouble";
+            }
+            mv.visitMethodInsn(INVOKEINTERFACE, NAME_VALUE, method, Type.getMethodDescriptor(Type.getType(type)),
+                    true);
+        } else {
+            mv.visitLdcInsn(Type.getType(type));
+            mv.visitMethodInsn(INVOKESTATIC, NAME_BASE, "toObject", DESC_TO_OBJECT, false);
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+        }
+    }
+
+    /**
+     * Stores value on top of the stack into the property of object beneath it.
+     */
+    static void store(MethodVisitor mv, String owner, ClickHouseProperty p) {
+        Method setter = p.getSetter();
+        if (setter != null) {
+            mv.visitMethodInsn(INVOKEVIRTUAL, owner, setter.getName(), Type.getMethodDescriptor(setter), false);
+            Class<?> returnType = setter.getReturnType();
+            if (returnType == long.class || returnType == double.class) {
+                mv.visitInsn(POP2);
+            } else if (returnType != void.class) {
+                mv.visitInsn(POP);
+            }
+        } else {
+            Field f = p.getField();
+            mv.visitFieldInsn(PUTFIELD, owner, f.getName(), Type.getDescriptor(f.getType()));
+        }
+    }
+
+    /**
+     * Loads value of the property from object on top of the stack.
+     */
+    static void load(MethodVisitor mv, String owner, ClickHouseProperty p) {
+        Method getter = p.getGetter();
+        if (getter != null) {
+            mv.visitMethodInsn(INVOKEVIRTUAL, owner, getter.getName(), Type.getMethodDescriptor(getter), false);
+        } else {
+            Field f = p.getField();
+            mv.visitFieldInsn(GETFIELD, owner, f.getName(), Type.getDescriptor(f.getType()));
+        }
+    }
+
+    /**
+     * Reads a non-null value of the column directly from input stream(local
+     * variable 1), and pushes it to the stack.
+     */
+    static void readDirect(MethodVisitor mv, Accessor accessor, Class<?> type) {
+        mv.visitVarInsn(ALOAD, 1);
+        if (accessor == null) {
+            mv.visitMethodInsn(INVOKEVIRTUAL, TYPE_INPUT.getInternalName(), "readUnicodeString",
+                    Type.getMethodDescriptor(Type.getType(String.class)), false);
+        } else {
+            mv.visitMethodInsn(INVOKESTATIC, NAME_UTILS, accessor.readMethod, accessor.getReadDesc(), false);
+            if (!type.isPrimitive()) {
+                box(mv, accessor.javaType);
+            }
+        }
+    }
+
+    /**
+     * Writes a non-null value from local variable {@code var} directly into output
+     * stream(local variable 2).
+     */
+    static void writeDirect(MethodVisitor mv, Accessor accessor, Class<?> type, int var) {
+        mv.visitVarInsn(ALOAD, 2);
+        if (accessor == null) {
+            mv.visitVarInsn(ALOAD, var);
+            mv.visitMethodInsn(INVOKESTATIC, NAME_UTILS, "writeString", DESC_WRITE_STRING, false);
+        } else {
+            if (type.isPrimitive()) {
+                mv.visitVarInsn(Type.getType(type).getOpcode(ILOAD), var);
+            } else {
+                mv.visitVarInsn(ALOAD, var);
+                unbox(mv, accessor.javaType);
+            }
+            mv.visitMethodInsn(INVOKESTATIC, NAME_UTILS, accessor.writeMethod, accessor.writeDesc, false);
+        }
+    }
+
+    static void generateConstructor(ClassWriter cw) {
+        String desc = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(ClickHouseConfig.class),
+                Type.getType(List.class));
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", desc, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKESPECIAL, NAME_BASE, "<init>", desc, false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    static void generateReadFromStream(ClassWriter cw, String className, String owner, List<ClickHouseColumn> columns,
+            ClickHouseProperty[] properties) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "read",
+                Type.getMethodDescriptor(Type.getType(Object.class), TYPE_INPUT), null,
+                new String[] { Type.getInternalName(IOException.class) });
+        mv.visitCode();
+        mv.visitTypeInsn(NEW, owner);
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, owner, "<init>", "()V", false);
+        mv.visitVarInsn(ASTORE, 2);
+
+        for (int i = 0, len = properties.length; i < len; i++) {
+            ClickHouseColumn column = columns.get(i);
+            ClickHouseProperty p = properties[i];
+            if (p == null || !p.isWritable()) {
+                mv.visitVarInsn(ALOAD, 0);
+                push(mv, i);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, className, "readValue", DESC_READ_VALUE, false);
+                mv.visitInsn(POP);
+                continue;
+            }
+
+            Class<?> type = p.getType();
+            Accessor accessor = column.isArray() ? null : accessors.get(column.getDataType());
+            boolean direct = accessor != null ? accessor.supports(type)
+                    : isStringColumn(column) && type == String.class;
+            if (direct && column.isNullable() && type.isPrimitive()) {
+                direct = false;
+            }
+
+            if (!direct) {
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitVarInsn(ALOAD, 0);
+                push(mv, i);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, className, "readValue", DESC_READ_VALUE, false);
+                convert(mv, type);
+                store(mv, owner, p);
+            } else if (column.isNullable()) {
+                Label nonNull = new Label();
+                Label end = new Label();
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKESTATIC, NAME_UTILS, "readNull",
+                        Type.getMethodDescriptor(Type.BOOLEAN_TYPE, TYPE_INPUT), false);
+                mv.visitJumpInsn(IFEQ, nonNull);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitInsn(ACONST_NULL);
+                store(mv, owner, p);
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(nonNull);
+                mv.visitVarInsn(ALOAD, 2);
+                readDirect(mv, accessor, type);
+                store(mv, owner, p);
+                mv.visitLabel(end);
+            } else {
+                mv.visitVarInsn(ALOAD, 2);
+                readDirect(mv, accessor, type);
+                store(mv, owner, p);
+            }
+        }
+
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    static void generateReadFromRecord(ClassWriter cw, String owner, ClickHouseProperty[] properties) {
+        Type recordType = Type.getType(ClickHouseRecord.class);
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "read",
+                Type.getMethodDescriptor(Type.getType(Object.class), recordType), null, null);
+        mv.visitCode();
+        mv.visitTypeInsn(NEW, owner);
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, owner, "<init>", "()V", false);
+        mv.visitVarInsn(ASTORE, 2);
+
+        for (int i = 0, len = properties.length; i < len; i++) {
+            ClickHouseProperty p = properties[i];
+            if (p == null || !p.isWritable()) {
+                continue;
+            }
+
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitVarInsn(ALOAD, 1);
+            push(mv, i);
+            mv.visitMethodInsn(INVOKEINTERFACE, recordType.getInternalName(), "getValue",
+                    Type.getMethodDescriptor(TYPE_VALUE, Type.INT_TYPE), true);
+            convert(mv, p.getType());
+            store(mv, owner, p);
+        }
+
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    static void generateWrite(ClassWriter cw, String className, String owner, List<ClickHouseColumn> columns,
+            ClickHouseProperty[] properties) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "write",
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Object.class), TYPE_OUTPUT), null,
+                new String[] { Type.getInternalName(IOException.class) });
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, owner);
+        mv.visitVarInsn(ASTORE, 3);
+
+        // local variable 4 holds property value, which could take two slots
+        final int var = 4;
+        for (int i = 0, len = properties.length; i < len; i++) {
+            ClickHouseColumn column = columns.get(i);
+            ClickHouseProperty p = properties[i];
+            if (p == null || !p.isReadable()) {
+                mv.visitVarInsn(ALOAD, 0);
+                push(mv, i);
+                mv.visitInsn(ACONST_NULL);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEVIRTUAL, className, "writeValue", DESC_WRITE_VALUE, false);
+                continue;
+            }
+
+            Class<?> type = p.getType();
+            Accessor accessor = column.isArray() ? null : accessors.get(column.getDataType());
+            boolean direct = accessor != null ? accessor.supports(type)
+                    : isStringColumn(column) && type == String.class;
+            if (!direct) {
+                mv.visitVarInsn(ALOAD, 0);
+                push(mv, i);
+                mv.visitVarInsn(ALOAD, 3);
+                load(mv, owner, p);
+                box(mv, type);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEVIRTUAL, className, "writeValue", DESC_WRITE_VALUE, false);
+                continue;
+            }
+
+            mv.visitVarInsn(ALOAD, 3);
+            load(mv, owner, p);
+            mv.visitVarInsn(Type.getType(type).getOpcode(ISTORE), var);
+            if (type.isPrimitive()) {
+                if (column.isNullable()) {
+                    mv.visitVarInsn(ALOAD, 2);
+                    mv.visitMethodInsn(INVOKESTATIC, NAME_UTILS, "writeNonNull",
+                            Type.getMethodDescriptor(Type.VOID_TYPE, TYPE_OUTPUT), false);
+                }
+                writeDirect(mv, accessor, type, var);
+                continue;
+            }
+
+            Label nonNull = new Label();
+            Label end = new Label();
+            mv.visitVarInsn(ALOAD, var);
+            mv.visitJumpInsn(IFNONNULL, nonNull);
+            if (column.isNullable()) {
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKESTATIC, NAME_UTILS, "writeNull",
+                        Type.getMethodDescriptor(Type.VOID_TYPE, TYPE_OUTPUT), false);
+            } else { // let writeValue complain
+                mv.visitVarInsn(ALOAD, 0);
+                push(mv, i);
+                mv.visitInsn(ACONST_NULL);
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEVIRTUAL, className, "writeValue", DESC_WRITE_VALUE, false);
+            }
+            mv.visitJumpInsn(GOTO, end);
+            mv.visitLabel(nonNull);
+            if (column.isNullable()) {
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKESTATIC, NAME_UTILS, "writeNonNull",
+                        Type.getMethodDescriptor(Type.VOID_TYPE, TYPE_OUTPUT), false);
+            }
+            writeDirect(mv, accessor, type, var);
+            mv.visitLabel(end);
+        }
+
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Defines mapper class for the given class and columns.
+     *
+     * @param clazz   non-null class
+     * @param columns non-null columns
+     * @param bound   properties bound to the columns
+     * @return non-null constructor of the mapper class
+     * @throws ReflectiveOperationException when failed to create instance of
+     *                                      generated class
+     */
+    static Constructor<?> define(Class<?> clazz, List<ClickHouseColumn> columns, ClickHouseProperty[] bound)
+            throws ReflectiveOperationException {
+        String className = PACKAGE_NAME + clazz.getSimpleName() + "Mapper$" + counter.incrementAndGet();
+        String owner = Type.getInternalName(clazz);
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // avoid loading classes, all merged types are assignable to Object
+                return "java/lang/Object";
+            }
+        };
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, NAME_BASE, null);
+        generateConstructor(cw);
+        generateReadFromStream(cw, className, owner, columns, bound);
+        generateReadFromRecord(cw, owner, bound);
+        generateWrite(cw, className, owner, columns, bound);
+        cw.visitEnd();
+
+        Class<?> mapperClass = getClassLoader(clazz.getClassLoader()).define(className.replace('/', '.'),
+                cw.toByteArray());
+        Constructor<?> constructor = mapperClass.getConstructor(ClickHouseConfig.class, List.class);
+        // fail fast
+        constructor.newInstance(new ClickHouseConfig(), columns);
+        return constructor;
+    }
+
+    /**
+     * Generates mapper for the given class and columns. Mapper class is defined
+     * only once for same class and columns, and at most
+     * {@link #MAX_MAPPERS_PER_CLASS} of them will be defined for a class.
+     *
+     * @param clazz   non-null class
+     * @param columns non-null columns
+     * @return factory for creating mapper instance, or null if the class or any
+     *         of its bound properties is not public, or there are too many mappers
+     *         generated for the class
+     * @throws ReflectiveOperationException when failed to create instance of
+     *                                      generated class
+     */
+    static BiFunction<ClickHouseConfig, List<ClickHouseColumn>, ClickHouseRowMapper<?>> generate(Class<?> clazz,
+            List<ClickHouseColumn> columns) throws ReflectiveOperationException {
+        int modifiers = clazz.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers)
+                || (clazz.getEnclosingClass() != null && !Modifier.isStatic(modifiers))
+                || clazz.getClassLoader() == null) {
+            return null;
+        }
+
+        try {
+            clazz.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+
+        Map<String, ClickHouseProperty> properties = ClickHouseProperty.of(clazz);
+        ClickHouseProperty[] bound = new ClickHouseProperty[columns.size()];
+        for (int i = 0; i < bound.length; i++) {
+            ClickHouseProperty p = ClickHouseProperty.find(properties, columns.get(i).getColumnName());
+            if (p != null && !p.isPublic()) {
+                return null;
+            }
+            bound[i] = p;
+        }
+
+        Map<List<ClickHouseColumn>, Constructor<?>> map = generated.get(clazz);
+        Constructor<?> constructor = map.get(columns);
+        if (constructor == null) {
+            if (map.size() >= MAX_MAPPERS_PER_CLASS) {
+                return null;
+            }
+            constructor = define(clazz, columns, bound);
+            Constructor<?> existing = map.putIfAbsent(columns, constructor);
+            if (existing != null) {
+                constructor = existing;
+            }
+        }
+
+        final Constructor<?> c = constructor;
+        return (config, list) -> {
+            try {
+                return (ClickHouseRowMapper<?>) c.newInstance(config, list);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create mapper", e);
+            }
+        };
+    }
+
+    private ClickHouseMapperGenerator() {
+    }
+}
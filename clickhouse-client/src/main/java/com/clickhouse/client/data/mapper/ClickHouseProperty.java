@@ -0,0 +1,261 @@
+package com.clickhouse.client.data.mapper;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.clickhouse.client.ClickHouseUtils;
+
+/**
+ * Property of a Java class, which is either a field, or a pair of getter and
+ * setter.
+ */
+final class ClickHouseProperty {
+    static final class Builder {
+        private final String name;
+
+        private Field field;
+        private Method getter;
+        private Method setter;
+        private String columnName;
+
+        Builder(String name) {
+            this.name = name;
+        }
+
+        void annotated(ClickHouseColumnName annotation) {
+            if (annotation != null && !annotation.value().isEmpty()) {
+                columnName = annotation.value();
+            }
+        }
+
+        ClickHouseProperty build() {
+            Class<?> type = field != null ? field.getType()
+                    : (getter != null ? getter.getReturnType() : setter.getParameterTypes()[0]);
+            // ignore accessors of different type
+            if (getter != null && getter.getReturnType() != type) {
+                getter = null;
+            }
+            if (setter != null && setter.getParameterTypes()[0] != type) {
+                setter = null;
+            }
+            return new ClickHouseProperty(name, columnName != null ? columnName : name, type, field, getter,
+                    setter);
+        }
+    }
+
+    /**
+     * Normalizes name for loose matching between property and column.
+     *
+     * @param name non-null name
+     * @return normalized name
+     */
+    static String normalize(String name) {
+        StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0, len = name.length(); i < len; i++) {
+            char ch = name.charAt(i);
+            if (ch != '_') {
+                builder.append(Character.toLowerCase(ch));
+            }
+        }
+        return builder.toString();
+    }
+
+    static String getPropertyName(String methodName, int prefixLength) {
+        String name = methodName.substring(prefixLength);
+        return name.length() > 1 && Character.isUpperCase(name.charAt(1)) ? name
+                : name.substring(0, 1).toLowerCase(Locale.ROOT) + name.substring(1);
+    }
+
+    /**
+     * Gets properties of the given class. Static and transient fields, as well as
+     * fields declared in {@link Object}, are ignored.
+     *
+     * @param clazz non-null class
+     * @return non-null properties in declaration order, key is the column name
+     */
+    static Map<String, ClickHouseProperty> of(Class<?> clazz) {
+        Map<String, Builder> builders = new LinkedHashMap<>();
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                int modifiers = f.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || f.isSynthetic()) {
+                    continue;
+                }
+                Builder b = builders.computeIfAbsent(f.getName(), Builder::new);
+                if (b.field == null) {
+                    b.field = f;
+                    b.annotated(f.getAnnotation(ClickHouseColumnName.class));
+                }
+            }
+        }
+
+        for (Method m : clazz.getMethods()) {
+            if (Modifier.isStatic(m.getModifiers()) || m.getDeclaringClass() == Object.class) {
+                continue;
+            }
+
+            String methodName = m.getName();
+            int paramCount = m.getParameterCount();
+            Builder b = null;
+            if (paramCount == 0 && m.getReturnType() != void.class) {
+                if (methodName.length() > 3 && methodName.startsWith("get")) {
+                    b = builders.computeIfAbsent(getPropertyName(methodName, 3), Builder::new);
+                } else if (methodName.length() > 2 && methodName.startsWith("is")
+                        && (m.getReturnType() == boolean.class || m.getReturnType() == Boolean.class)) {
+                    b = builders.computeIfAbsent(getPropertyName(methodName, 2), Builder::new);
+                }
+                // bridge methods are only used when there's nothing better
+                if (b != null && (b.getter == null || b.getter.isBridge())) {
+                    b.getter = m;
+                    b.annotated(m.getAnnotation(ClickHouseColumnName.class));
+                }
+            } else if (paramCount == 1 && methodName.length() > 3 && methodName.startsWith("set")) {
+                b = builders.computeIfAbsent(getPropertyName(methodName, 3), Builder::new);
+                if (b.setter == null || b.setter.isBridge()) {
+                    b.setter = m;
+                    b.annotated(m.getAnnotation(ClickHouseColumnName.class));
+                }
+            }
+        }
+
+        Map<String, ClickHouseProperty> properties = new LinkedHashMap<>();
+        for (Builder b : builders.values()) {
+            ClickHouseProperty p = b.build();
+            if (properties.put(p.getColumnName(), p) != null) {
+                throw new IllegalArgumentException(ClickHouseUtils.format(
+                        "More than one property of %s bound to column [%s]", clazz.getName(), p.getColumnName()));
+            }
+        }
+        return Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * Finds property for the given column name. Exact match is preferred over
+     * loose match.
+     *
+     * @param properties non-null properties
+     * @param columnName non-null column name
+     * @return property bound to the column, or null if not found
+     */
+    static ClickHouseProperty find(Map<String, ClickHouseProperty> properties, String columnName) {
+        ClickHouseProperty property = properties.get(columnName);
+        if (property == null) {
+            String name = normalize(columnName);
+            for (ClickHouseProperty p : properties.values()) {
+                if (name.equals(normalize(p.getColumnName()))) {
+                    property = p;
+                    break;
+                }
+            }
+        }
+        return property;
+    }
+
+    private final String name;
+    private final String columnName;
+    private final Class<?> type;
+    private final Field field;
+    private final Method getter;
+    private final Method setter;
+
+    private ClickHouseProperty(String name, String columnName, Class<?> type, Field field, Method getter,
+            Method setter) {
+        this.name = name;
+        this.columnName = columnName;
+        this.type = type;
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getColumnName() {
+        return columnName;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Gets field for direct access.
+     *
+     * @return field, or null if there's no such field
+     */
+    Field getField() {
+        return field;
+    }
+
+    /**
+     * Gets public getter.
+     *
+     * @return getter, or null if there's no public getter
+     */
+    Method getGetter() {
+        return getter;
+    }
+
+    /**
+     * Gets public setter.
+     *
+     * @return setter, or null if there's no public setter
+     */
+    Method getSetter() {
+        return setter;
+    }
+
+    boolean isReadable() {
+        return getter != null || field != null;
+    }
+
+    boolean isWritable() {
+        return setter != null || (field != null && !Modifier.isFinal(field.getModifiers()));
+    }
+
+    /**
+     * Checks whether the property can be accessed without reflection, from a
+     * class in a different package.
+     *
+     * @return true if the property is publicly accessible; false otherwise
+     */
+    boolean isPublic() {
+        boolean publicField = field == null || (Modifier.isPublic(field.getModifiers())
+                && Modifier.isPublic(field.getDeclaringClass().getModifiers()));
+        return Modifier.isPublic(type.getModifiers()) && (getter != null || publicField)
+                && (setter != null || publicField);
+    }
+
+    Object get(Object obj) {
+        try {
+            if (getter != null) {
+                return getter.invoke(obj);
+            }
+            return field.get(obj);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(
+                    ClickHouseUtils.format("Failed to get property [%s] from %s", name, obj.getClass()), e);
+        }
+    }
+
+    void set(Object obj, Object value) {
+        try {
+            if (setter != null) {
+                setter.invoke(obj, value);
+            } else {
+                field.set(obj, value);
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(
+                    ClickHouseUtils.format("Failed to set property [%s] of %s", name, obj.getClass()), e);
+        }
+    }
+}
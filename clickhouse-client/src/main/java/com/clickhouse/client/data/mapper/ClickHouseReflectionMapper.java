@@ -0,0 +1,120 @@
+package com.clickhouse.client.data.mapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseUtils;
+
+/**
+ * Mapper using reflection to access properties.
+ */
+final class ClickHouseReflectionMapper<T> extends ClickHouseRowMapper<T> {
+    static ClickHouseProperty[] bind(Class<?> clazz, List<ClickHouseColumn> columns) {
+        Map<String, ClickHouseProperty> properties = ClickHouseProperty.of(clazz);
+        ClickHouseProperty[] bound = new ClickHouseProperty[columns.size()];
+        for (int i = 0; i < bound.length; i++) {
+            ClickHouseProperty p = ClickHouseProperty.find(properties, columns.get(i).getColumnName());
+            if (p != null) {
+                Field f = p.getField();
+                if (f != null && (p.getGetter() == null || p.getSetter() == null)) {
+                    try {
+                        f.setAccessible(true);
+                    } catch (RuntimeException e) { // NOSONAR
+                        // inaccessible field, leave it as is
+                    }
+                }
+                bound[i] = p;
+            }
+        }
+        return bound;
+    }
+
+    static BiFunction<ClickHouseConfig, List<ClickHouseColumn>, ClickHouseRowMapper<?>> factory(Class<?> clazz,
+            List<ClickHouseColumn> columns) {
+        final ClickHouseProperty[] bound = bind(clazz, columns);
+
+        Constructor<?> constructor = null;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException | RuntimeException e) { // NOSONAR
+            // write-only
+            constructor = null;
+        }
+
+        final Constructor<?> c = constructor;
+        return (config, list) -> new ClickHouseReflectionMapper<>(config, list, clazz, c, bound);
+    }
+
+    private final Class<?> clazz;
+    private final Constructor<?> constructor;
+    private final ClickHouseProperty[] properties;
+
+    ClickHouseReflectionMapper(ClickHouseConfig config, List<ClickHouseColumn> columns, Class<?> clazz,
+            Constructor<?> constructor, ClickHouseProperty[] properties) {
+        super(config, columns);
+
+        this.clazz = clazz;
+        this.constructor = constructor;
+        this.properties = properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    T newInstance() {
+        if (constructor == null) {
+            throw new UnsupportedOperationException(
+                    "No-argument constructor is required for reading but not found in " + clazz);
+        }
+
+        try {
+            return (T) constructor.newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(
+                    ClickHouseUtils.format("Failed to create instance of %s", clazz), e);
+        }
+    }
+
+    @Override
+    public T read(ClickHouseInputStream input) throws IOException {
+        T obj = newInstance();
+        for (int i = 0, len = properties.length; i < len; i++) {
+            ClickHouseProperty p = properties[i];
+            if (p != null && p.isWritable()) {
+                p.set(obj, toObject(readValue(i, input), p.getType()));
+            } else {
+                readValue(i, input);
+            }
+        }
+        return obj;
+    }
+
+    @Override
+    public T read(ClickHouseRecord record) {
+        T obj = newInstance();
+        for (int i = 0, len = properties.length; i < len; i++) {
+            ClickHouseProperty p = properties[i];
+            if (p != null && p.isWritable()) {
+                p.set(obj, toObject(record.getValue(i), p.getType()));
+            }
+        }
+        return obj;
+    }
+
+    @Override
+    public void write(T obj, OutputStream output) throws IOException {
+        for (int i = 0, len = properties.length; i < len; i++) {
+            ClickHouseProperty p = properties[i];
+            writeValue(i, p != null && p.isReadable() ? p.get(obj) : null, output);
+        }
+    }
+}
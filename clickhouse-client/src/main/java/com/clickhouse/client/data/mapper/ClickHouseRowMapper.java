@@ -0,0 +1,286 @@
+package com.clickhouse.client.data.mapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+import com.clickhouse.client.ClickHouseCache;
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDeserializer;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseSerializer;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Mapper for converting rows to objects of a specific class and vice versa.
+ * Properties of the class are bound to columns by name, which can be overrided
+ * by {@link ClickHouseColumnName}, and unbound columns are simply skipped when
+ * reading and filled with null when writing. Bytecode of the mapper is
+ * generated at runtime when ASM is available and the class, along with its
+ * no-argument constructor and all bound properties, is public. Otherwise
+ * properties will be accessed using reflection, which is slower but works in
+ * any case.
+ *
+ * <p>
+ * Mappers are cached by class and columns, but a mapper instance holds
+ * reusable values so it's not thread-safe.
+ *
+ * @param <T> type of the object
+ */
+public abstract class ClickHouseRowMapper<T> {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseRowMapper.class);
+
+    static final class Key {
+        private final Class<?> clazz;
+        private final List<ClickHouseColumn> columns;
+
+        Key(Class<?> clazz, List<ClickHouseColumn> columns) {
+            this.clazz = clazz;
+            this.columns = columns;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * clazz.hashCode() + columns.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return clazz == other.clazz && Objects.equals(columns, other.columns);
+        }
+    }
+
+    private static final ClickHouseCache<Key, BiFunction<ClickHouseConfig, List<ClickHouseColumn>, ClickHouseRowMapper<?>>> cache = ClickHouseCache
+            .create(ClickHouseCache.DEFAULT_CACHE_SIZE, 600L, ClickHouseRowMapper::newFactory);
+    private static final ClickHouseCache<Key, BiFunction<ClickHouseConfig, List<ClickHouseColumn>, ClickHouseRowMapper<?>>> reflectionCache = ClickHouseCache
+            .create(ClickHouseCache.DEFAULT_CACHE_SIZE, 600L,
+                    k -> ClickHouseReflectionMapper.factory(k.clazz, k.columns));
+
+    static BiFunction<ClickHouseConfig, List<ClickHouseColumn>, ClickHouseRowMapper<?>> newFactory(Key key) {
+        try {
+            BiFunction<ClickHouseConfig, List<ClickHouseColumn>, ClickHouseRowMapper<?>> factory = ClickHouseMapperGenerator
+                    .generate(key.clazz, key.columns);
+            if (factory != null) {
+                return factory;
+            }
+        } catch (Throwable e) { // NOSONAR
+            log.debug("Failed to generate mapper for %s, fall back to reflection: %s", key.clazz, e.getMessage());
+        }
+
+        return ClickHouseReflectionMapper.factory(key.clazz, key.columns);
+    }
+
+    /**
+     * Gets mapper for the given class and columns.
+     *
+     * @param <T>     type of the object
+     * @param config  non-null configuration
+     * @param columns non-null columns
+     * @param clazz   non-null class, which must have a no-argument constructor
+     *                for reading
+     * @return non-null mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ClickHouseRowMapper<T> of(ClickHouseConfig config, List<ClickHouseColumn> columns,
+            Class<T> clazz) {
+        ClickHouseChecker.nonNull(config, "config");
+        ClickHouseChecker.nonNull(columns, "columns");
+        ClickHouseChecker.nonNull(clazz, "class");
+
+        List<ClickHouseColumn> list = Collections.unmodifiableList(new ArrayList<>(columns));
+        return (ClickHouseRowMapper<T>) cache.get(new Key(clazz, list)).apply(config, list);
+    }
+
+    /**
+     * Gets mapper for writing objects using the given serializers, for example in
+     * a text format. Unlike {@link #of(ClickHouseConfig, List, Class)},
+     * properties are always accessed using reflection, because generated mapper
+     * writes values in RowBinary format directly.
+     *
+     * @param <T>         type of the object
+     * @param config      non-null configuration
+     * @param columns     non-null columns
+     * @param clazz       non-null class
+     * @param serializers non-null serializers, one for each column
+     * @return non-null mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ClickHouseRowMapper<T> of(ClickHouseConfig config, List<ClickHouseColumn> columns,
+            Class<T> clazz, List<ClickHouseSerializer<ClickHouseValue>> serializers) {
+        ClickHouseChecker.nonNull(config, "config");
+        ClickHouseChecker.nonNull(columns, "columns");
+        ClickHouseChecker.nonNull(clazz, "class");
+        if (ClickHouseChecker.nonNull(serializers, "serializers").size() != columns.size()) {
+            throw new IllegalArgumentException(ClickHouseUtils.format("Expect %d serializers but got %d",
+                    columns.size(), serializers.size()));
+        }
+
+        List<ClickHouseColumn> list = Collections.unmodifiableList(new ArrayList<>(columns));
+        ClickHouseRowMapper<T> mapper = (ClickHouseRowMapper<T>) reflectionCache.get(new Key(clazz, list))
+                .apply(config, list);
+        for (int i = 0, len = serializers.size(); i < len; i++) {
+            mapper.serializers.set(i, ClickHouseChecker.nonNull(serializers.get(i), "serializer"));
+        }
+        return mapper;
+    }
+
+    /**
+     * Gets boxed class of the given primitive class.
+     *
+     * @param clazz non-null class
+     * @return boxed class, or the given class if it's not primitive
+     */
+    static Class<?> wrap(Class<?> clazz) {
+        if (!clazz.isPrimitive()) {
+            return clazz;
+        } else if (clazz == boolean.class) {
+            return Boolean.class;
+        } else if (clazz == byte.class) {
+            return Byte.class;
+        } else if (clazz == char.class) {
+            return Character.class;
+        } else if (clazz == short.class) {
+            return Short.class;
+        } else if (clazz == int.class) {
+            return Integer.class;
+        } else if (clazz == long.class) {
+            return Long.class;
+        } else if (clazz == float.class) {
+            return Float.class;
+        } else if (clazz == double.class) {
+            return Double.class;
+        } else {
+            return Void.class;
+        }
+    }
+
+    /**
+     * Converts value to an object of the given class.
+     *
+     * @param value non-null value
+     * @param clazz non-null class
+     * @return object of the given class, could be null when {@code clazz} is not
+     *         primitive
+     */
+    protected static Object toObject(ClickHouseValue value, Class<?> clazz) {
+        if (clazz.isPrimitive()) {
+            return value.asObject(wrap(clazz));
+        }
+        // empty array or map is not null
+        return value.isNullOrEmpty() && value.asObject() == null ? null : value.asObject(clazz);
+    }
+
+    protected final ClickHouseConfig config;
+    protected final ClickHouseColumn[] columns;
+
+    private final ClickHouseRowBinaryProcessor.MappedFunctions functions;
+    private final List<ClickHouseDeserializer<ClickHouseValue>> deserializers;
+    private final List<ClickHouseSerializer<ClickHouseValue>> serializers;
+    private final ClickHouseValue[] values;
+
+    /**
+     * Default constructor.
+     *
+     * @param config  non-null configuration
+     * @param columns non-null columns
+     */
+    protected ClickHouseRowMapper(ClickHouseConfig config, List<ClickHouseColumn> columns) {
+        this.config = config;
+        this.columns = columns.toArray(new ClickHouseColumn[0]);
+
+        this.functions = ClickHouseRowBinaryProcessor.getMappedFunctions();
+        // resolved on first use
+        this.deserializers = new ArrayList<>(Collections.nCopies(this.columns.length, null));
+        this.serializers = new ArrayList<>(Collections.nCopies(this.columns.length, null));
+        this.values = new ClickHouseValue[this.columns.length];
+    }
+
+    /**
+     * Reads value of a column from the given input stream in RowBinary format.
+     *
+     * @param index zero-based column index
+     * @param input non-null input stream
+     * @return non-null value, which will be reused for next read
+     * @throws IOException when failed to read data from input stream
+     */
+    protected final ClickHouseValue readValue(int index, ClickHouseInputStream input) throws IOException {
+        ClickHouseDeserializer<ClickHouseValue> func = deserializers.get(index);
+        if (func == null) {
+            deserializers.set(index, func = functions.getDeserializer(columns[index]));
+        }
+        return values[index] = func.deserialize(values[index], config, columns[index], input);
+    }
+
+    /**
+     * Writes value of a column into the given output stream in RowBinary format.
+     *
+     * @param index  zero-based column index
+     * @param value  value to write, null is only allowed for nullable column
+     * @param output non-null output stream
+     * @throws IOException when failed to write data into output stream
+     */
+    protected final void writeValue(int index, Object value, OutputStream output) throws IOException {
+        ClickHouseColumn column = columns[index];
+        if (value == null && !column.isNullable()) {
+            throw new IllegalArgumentException(
+                    ClickHouseUtils.format("Null value is not allowed for non-nullable column [%s]",
+                            column.getColumnName()));
+        }
+
+        ClickHouseValue v = values[index];
+        if (v == null) {
+            values[index] = v = ClickHouseValues.newValue(config, column);
+        }
+        ClickHouseSerializer<ClickHouseValue> func = serializers.get(index);
+        if (func == null) {
+            serializers.set(index, func = functions.getSerializer(column));
+        }
+        func.serialize(v.update(value), config, column, output);
+    }
+
+    /**
+     * Reads an object from the given input stream in RowBinary format.
+     *
+     * @param input non-null input stream
+     * @return non-null object
+     * @throws IOException when failed to read data from input stream
+     */
+    public abstract T read(ClickHouseInputStream input) throws IOException;
+
+    /**
+     * Converts the given record to an object.
+     *
+     * @param record non-null record
+     * @return non-null object
+     */
+    public abstract T read(ClickHouseRecord record);
+
+    /**
+     * Writes the given object into output stream in RowBinary format, unless
+     * the mapper was created with custom serializers.
+     *
+     * @param obj    non-null object
+     * @param output non-null output stream
+     * @throws IOException when failed to write data into output stream
+     */
+    public abstract void write(T obj, OutputStream output) throws IOException;
+}
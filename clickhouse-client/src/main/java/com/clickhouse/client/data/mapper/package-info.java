@@ -0,0 +1,4 @@
+/**
+ * Provides classes to map rows to and from plain Java objects.
+ */
+package com.clickhouse.client.data.mapper;
@@ -0,0 +1,129 @@
+package com.clickhouse.client.data.vector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.data.BinaryStreamUtils;
+
+/**
+ * Vector of arrays, in which elements of all arrays are stored in a child
+ * vector. Elements of the array at index {@code i} are in range
+ * {@code [offsets[i], offsets[i + 1])} of the child vector.
+ */
+public final class ClickHouseArrayVector extends ClickHouseColumnVector {
+    private final ClickHouseColumnVector elements;
+
+    private int[] offsets;
+
+    ClickHouseArrayVector(ClickHouseConfig config, ClickHouseColumn column, int capacity) {
+        super(column);
+
+        this.elements = ClickHouseColumnVector.of(config, column.getNestedColumns().get(0), capacity);
+        this.offsets = new int[capacity + 1];
+    }
+
+    private void endArray() {
+        if (size + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, grow(offsets.length, size + 2));
+        }
+        offsets[++size] = elements.size();
+    }
+
+    @Override
+    protected void appendDefault() {
+        endArray();
+    }
+
+    @Override
+    protected void appendNonNull(ClickHouseValue value) {
+        appendNonNullObject(value.asObject());
+    }
+
+    @Override
+    protected void appendNonNullObject(Object obj) {
+        if (obj instanceof Collection) {
+            for (Object o : (Collection<?>) obj) {
+                elements.appendObject(o);
+            }
+        } else if (obj.getClass().isArray()) {
+            for (int i = 0, len = Array.getLength(obj); i < len; i++) {
+                elements.appendObject(Array.get(obj, i));
+            }
+        } else {
+            throw new IllegalArgumentException("Expect array or collection but got " + obj.getClass());
+        }
+        endArray();
+    }
+
+    @Override
+    protected void readNonNull(ClickHouseInputStream input) throws IOException {
+        for (int i = 0, len = BinaryStreamUtils.readVarInt(input); i < len; i++) {
+            elements.read(input);
+        }
+        endArray();
+    }
+
+    @Override
+    protected void writeNonNull(int index, OutputStream output) throws IOException {
+        int start = offsets[index];
+        int end = offsets[index + 1];
+        BinaryStreamUtils.writeVarInt(output, end - start);
+        for (int i = start; i < end; i++) {
+            elements.write(i, output);
+        }
+    }
+
+    @Override
+    protected Object getNonNull(int index) {
+        int start = offsets[index];
+        Object[] array = new Object[offsets[index + 1] - start];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = elements.getObject(start + i);
+        }
+        return array;
+    }
+
+    /**
+     * Gets child vector holding elements of all arrays.
+     *
+     * @return non-null child vector
+     */
+    public ClickHouseColumnVector getElements() {
+        return elements;
+    }
+
+    /**
+     * Gets backing array of offsets, which is only valid up to
+     * {@code size() + 1}.
+     *
+     * @return non-null backing array
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Gets length of the array at the given index.
+     *
+     * @param index index of the array
+     * @return length of the array
+     */
+    public int getLength(int index) {
+        checkIndex(index);
+        return offsets[index + 1] - offsets[index];
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+
+        elements.reset();
+    }
+}
@@ -0,0 +1,145 @@
+package com.clickhouse.client.data.vector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseUtils;
+
+/**
+ * Batch of rows stored in column vectors, one for each column.
+ */
+public final class ClickHouseColumnBatch {
+    /**
+     * Creates an empty batch.
+     *
+     * @param config   non-null configuration
+     * @param columns  non-null columns
+     * @param capacity initial capacity
+     * @return non-null batch
+     */
+    public static ClickHouseColumnBatch of(ClickHouseConfig config, List<ClickHouseColumn> columns, int capacity) {
+        ClickHouseChecker.nonNull(columns, "columns");
+
+        ClickHouseColumnVector[] vectors = new ClickHouseColumnVector[columns.size()];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = ClickHouseColumnVector.of(config, columns.get(i), capacity);
+        }
+        return new ClickHouseColumnBatch(Collections.unmodifiableList(new ArrayList<>(columns)), vectors);
+    }
+
+    private final List<ClickHouseColumn> columns;
+    private final ClickHouseColumnVector[] vectors;
+
+    private ClickHouseColumnBatch(List<ClickHouseColumn> columns, ClickHouseColumnVector[] vectors) {
+        this.columns = columns;
+        this.vectors = vectors;
+    }
+
+    /**
+     * Gets columns.
+     *
+     * @return non-null columns
+     */
+    public List<ClickHouseColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets number of rows in the batch.
+     *
+     * @return number of rows
+     */
+    public int getRowCount() {
+        return vectors.length == 0 ? 0 : vectors[0].size();
+    }
+
+    /**
+     * Gets vector of the given column.
+     *
+     * @param index zero-based column index
+     * @return non-null vector
+     */
+    public ClickHouseColumnVector getVector(int index) {
+        return vectors[index];
+    }
+
+    /**
+     * Gets vector of the given column.
+     *
+     * @param columnName non-null column name
+     * @return non-null vector
+     * @throws IllegalArgumentException when the column does not exist
+     */
+    public ClickHouseColumnVector getVector(String columnName) {
+        for (ClickHouseColumnVector v : vectors) {
+            if (v.getColumn().getColumnName().equals(columnName)) {
+                return v;
+            }
+        }
+        throw new IllegalArgumentException(ClickHouseUtils.format("Column [%s] not found", columnName));
+    }
+
+    /**
+     * Appends a record to the batch.
+     *
+     * @param record non-null record
+     */
+    public void append(ClickHouseRecord record) {
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i].append(record.getValue(i));
+        }
+    }
+
+    /**
+     * Reads a row from the given input stream in RowBinary format and appends it
+     * to the batch.
+     *
+     * @param input non-null input stream
+     * @throws IOException when failed to read data from input stream
+     */
+    public void readRow(ClickHouseInputStream input) throws IOException {
+        for (ClickHouseColumnVector v : vectors) {
+            v.read(input);
+        }
+    }
+
+    /**
+     * Writes all rows into output stream in RowBinary format.
+     *
+     * @param output non-null output stream
+     * @throws IOException when failed to write data into output stream
+     */
+    public void write(OutputStream output) throws IOException {
+        int rows = getRowCount();
+        for (ClickHouseColumnVector v : vectors) {
+            if (v.size() != rows) {
+                throw new IllegalStateException(ClickHouseUtils.format(
+                        "Expect %d values in column [%s] but got %d", rows, v.getColumn().getColumnName(),
+                        v.size()));
+            }
+        }
+
+        for (int i = 0; i < rows; i++) {
+            for (ClickHouseColumnVector v : vectors) {
+                v.write(i, output);
+            }
+        }
+    }
+
+    /**
+     * Removes all rows from the batch, while keeping allocated memory for reuse.
+     */
+    public void reset() {
+        for (ClickHouseColumnVector v : vectors) {
+            v.reset();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.clickhouse.client.data.vector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.data.BinaryStreamUtils;
+
+/**
+ * Growable vector holding values of a column. Null values are tracked in a
+ * bitmap, which only exists when the column is nullable.
+ *
+ * <p>
+ * Backing arrays exposed by sub-classes are only valid up to {@link #size()},
+ * and they might be replaced when the vector grows. Vector is not thread-safe.
+ */
+public abstract class ClickHouseColumnVector {
+    static final int MIN_CAPACITY = 16;
+
+    static int grow(int capacity, int minCapacity) {
+        int newCapacity = Math.max(MIN_CAPACITY, capacity + (capacity >> 1));
+        return newCapacity < minCapacity || newCapacity < 0 ? minCapacity : newCapacity;
+    }
+
+    /**
+     * Creates a vector for the given column. Integers and booleans are held in
+     * {@code long[]}, floating point numbers in {@code double[]}, strings are
+     * dictionary-encoded, and arrays and maps are represented by offsets along
+     * with child vectors. Everything else is stored as objects.
+     *
+     * @param config   non-null configuration
+     * @param column   non-null column
+     * @param capacity initial capacity
+     * @return non-null vector
+     */
+    public static ClickHouseColumnVector of(ClickHouseConfig config, ClickHouseColumn column, int capacity) {
+        ClickHouseChecker.nonNull(config, "config");
+        ClickHouseChecker.nonNull(column, "column");
+        ClickHouseChecker.notLessThan(capacity, "capacity", 0);
+
+        switch (column.getDataType()) {
+            case Bool:
+            case Enum8:
+            case Enum16:
+            case Int8:
+            case UInt8:
+            case Int16:
+            case UInt16:
+            case Int32:
+            case UInt32:
+            case Int64:
+            case UInt64:
+                return new ClickHouseLongVector(column, capacity);
+            case Float32:
+            case Float64:
+                return new ClickHouseDoubleVector(column, capacity);
+            case String:
+                return new ClickHouseStringVector(column, capacity);
+            case Array:
+                return new ClickHouseArrayVector(config, column, capacity);
+            case Map:
+                return new ClickHouseMapVector(config, column, capacity);
+            default:
+                return new ClickHouseObjectVector(config, column, capacity);
+        }
+    }
+
+    protected final ClickHouseColumn column;
+    protected final BitSet nulls;
+
+    protected int size;
+
+    protected ClickHouseColumnVector(ClickHouseColumn column) {
+        this.column = column;
+        this.nulls = column.isNullable() ? new BitSet() : null;
+        this.size = 0;
+    }
+
+    protected final void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(ClickHouseUtils.format("Index %d out of range [0, %d)", index, size));
+        }
+    }
+
+    /**
+     * Appends default value(e.g. zero or empty) to the vector.
+     */
+    protected abstract void appendDefault();
+
+    /**
+     * Appends non-null value to the vector.
+     *
+     * @param value non-null value
+     */
+    protected abstract void appendNonNull(ClickHouseValue value);
+
+    /**
+     * Appends non-null object to the vector.
+     *
+     * @param obj non-null object
+     * @throws IllegalArgumentException when the object cannot be converted
+     */
+    protected abstract void appendNonNullObject(Object obj);
+
+    /**
+     * Reads non-null value from the given input stream in RowBinary format and
+     * appends it to the vector.
+     *
+     * @param input non-null input stream
+     * @throws IOException when failed to read data from input stream
+     */
+    protected abstract void readNonNull(ClickHouseInputStream input) throws IOException;
+
+    /**
+     * Writes non-null value at the given index into output stream in RowBinary
+     * format.
+     *
+     * @param index  index of the value
+     * @param output non-null output stream
+     * @throws IOException when failed to write data into output stream
+     */
+    protected abstract void writeNonNull(int index, OutputStream output) throws IOException;
+
+    /**
+     * Gets non-null value at the given index as an object.
+     *
+     * @param index index of the value
+     * @return object
+     */
+    protected abstract Object getNonNull(int index);
+
+    /**
+     * Gets column.
+     *
+     * @return non-null column
+     */
+    public ClickHouseColumn getColumn() {
+        return column;
+    }
+
+    /**
+     * Gets number of values in the vector.
+     *
+     * @return number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the vector may contain null value.
+     *
+     * @return true if the column is nullable; false otherwise
+     */
+    public boolean isNullable() {
+        return nulls != null;
+    }
+
+    /**
+     * Checks whether the value at the given index is null.
+     *
+     * @param index index of the value
+     * @return true if the value is null; false otherwise
+     */
+    public boolean isNull(int index) {
+        return nulls != null && nulls.get(index);
+    }
+
+    /**
+     * Gets bitmap of null values, in which a set bit means the value at the same
+     * index is null. Please don't modify the bitmap.
+     *
+     * @return bitmap of null values, or null when the column is not nullable
+     */
+    public BitSet getNulls() {
+        return nulls;
+    }
+
+    /**
+     * Appends null value to the vector.
+     *
+     * @throws IllegalStateException when the column is not nullable
+     */
+    public void appendNull() {
+        if (nulls == null) {
+            throw new IllegalStateException(
+                    ClickHouseUtils.format("Column [%s] is not nullable", column.getColumnName()));
+        }
+        appendDefault();
+        nulls.set(size - 1);
+    }
+
+    /**
+     * Appends value to the vector.
+     *
+     * @param value value to append, null or null value is only allowed for
+     *              nullable column
+     */
+    public void append(ClickHouseValue value) {
+        if (value == null || (nulls != null && value.isNullOrEmpty())) {
+            appendNull();
+        } else {
+            appendNonNull(value);
+        }
+    }
+
+    /**
+     * Appends object to the vector.
+     *
+     * @param obj object to append, null is only allowed for nullable column
+     */
+    public void appendObject(Object obj) {
+        if (obj == null) {
+            appendNull();
+        } else {
+            appendNonNullObject(obj);
+        }
+    }
+
+    /**
+     * Gets value at the given index as an object.
+     *
+     * @param index index of the value
+     * @return object, could be null
+     */
+    public Object getObject(int index) {
+        checkIndex(index);
+        return isNull(index) ? null : getNonNull(index);
+    }
+
+    /**
+     * Reads a value from the given input stream in RowBinary format and appends
+     * it to the vector.
+     *
+     * @param input non-null input stream
+     * @throws IOException when failed to read data from input stream
+     */
+    public void read(ClickHouseInputStream input) throws IOException {
+        if (nulls != null && BinaryStreamUtils.readNull(input)) {
+            appendNull();
+        } else {
+            readNonNull(input);
+        }
+    }
+
+    /**
+     * Writes value at the given index into output stream in RowBinary format.
+     *
+     * @param index  index of the value
+     * @param output non-null output stream
+     * @throws IOException when failed to write data into output stream
+     */
+    public void write(int index, OutputStream output) throws IOException {
+        checkIndex(index);
+        if (nulls != null) {
+            if (nulls.get(index)) {
+                BinaryStreamUtils.writeNull(output);
+                return;
+            }
+            BinaryStreamUtils.writeNonNull(output);
+        }
+        writeNonNull(index, output);
+    }
+
+    /**
+     * Removes all values from the vector, while keeping allocated memory for
+     * reuse.
+     */
+    public void reset() {
+        size = 0;
+        if (nulls != null) {
+            nulls.clear();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.clickhouse.client.data.vector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.data.BinaryStreamUtils;
+
+/**
+ * Vector of floating point numbers backed by {@code double[]}.
+ */
+public final class ClickHouseDoubleVector extends ClickHouseColumnVector {
+    private final boolean float32;
+
+    private double[] values;
+
+    ClickHouseDoubleVector(ClickHouseColumn column, int capacity) {
+        super(column);
+
+        this.float32 = column.getDataType() == ClickHouseDataType.Float32;
+        this.values = new double[capacity];
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, minCapacity));
+        }
+    }
+
+    @Override
+    protected void appendDefault() {
+        append(0D);
+    }
+
+    @Override
+    protected void appendNonNull(ClickHouseValue value) {
+        append(value.asDouble());
+    }
+
+    @Override
+    protected void appendNonNullObject(Object obj) {
+        if (obj instanceof Number) {
+            append(((Number) obj).doubleValue());
+        } else {
+            throw new IllegalArgumentException("Expect number but got " + obj.getClass());
+        }
+    }
+
+    @Override
+    protected void readNonNull(ClickHouseInputStream input) throws IOException {
+        append(float32 ? BinaryStreamUtils.readFloat32(input) : BinaryStreamUtils.readFloat64(input));
+    }
+
+    @Override
+    protected void writeNonNull(int index, OutputStream output) throws IOException {
+        if (float32) {
+            BinaryStreamUtils.writeFloat32(output, (float) values[index]);
+        } else {
+            BinaryStreamUtils.writeFloat64(output, values[index]);
+        }
+    }
+
+    @Override
+    protected Object getNonNull(int index) {
+        return float32 ? (Object) (float) values[index] : (Object) values[index];
+    }
+
+    /**
+     * Appends a value to the vector.
+     *
+     * @param value value to append
+     */
+    public void append(double value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    /**
+     * Gets value at the given index.
+     *
+     * @param index index of the value
+     * @return value, zero when it's null
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Gets backing array, which is only valid up to {@link #size()}.
+     *
+     * @return non-null backing array
+     */
+    public double[] getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,164 @@
+package com.clickhouse.client.data.vector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.data.BinaryStreamUtils;
+
+/**
+ * Vector of integers and booleans backed by {@code long[]}. UInt64 is stored
+ * as is, so values greater than {@link Long#MAX_VALUE} become negative, and
+ * boolean is stored as 1 or 0.
+ */
+public final class ClickHouseLongVector extends ClickHouseColumnVector {
+    private final ClickHouseDataType type;
+
+    private long[] values;
+
+    ClickHouseLongVector(ClickHouseColumn column, int capacity) {
+        super(column);
+
+        this.type = column.getDataType();
+        this.values = new long[capacity];
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, minCapacity));
+        }
+    }
+
+    @Override
+    protected void appendDefault() {
+        append(0L);
+    }
+
+    @Override
+    protected void appendNonNull(ClickHouseValue value) {
+        if (type == ClickHouseDataType.Bool) {
+            append(value.asBoolean() ? 1L : 0L);
+        } else if (type == ClickHouseDataType.UInt64) {
+            append(value.asBigInteger().longValue());
+        } else {
+            append(value.asLong());
+        }
+    }
+
+    @Override
+    protected void appendNonNullObject(Object obj) {
+        if (obj instanceof Number) {
+            append(((Number) obj).longValue());
+        } else if (obj instanceof Boolean) {
+            append((boolean) obj ? 1L : 0L);
+        } else {
+            throw new IllegalArgumentException("Expect number or boolean but got " + obj.getClass());
+        }
+    }
+
+    @Override
+    protected void readNonNull(ClickHouseInputStream input) throws IOException {
+        long value;
+        switch (type) {
+            case Bool:
+                value = BinaryStreamUtils.readBoolean(input) ? 1L : 0L;
+                break;
+            case Enum8:
+            case Int8:
+                value = BinaryStreamUtils.readInt8(input);
+                break;
+            case UInt8:
+                value = BinaryStreamUtils.readUnsignedInt8(input);
+                break;
+            case Enum16:
+            case Int16:
+                value = BinaryStreamUtils.readInt16(input);
+                break;
+            case UInt16:
+                value = BinaryStreamUtils.readUnsignedInt16(input);
+                break;
+            case Int32:
+                value = BinaryStreamUtils.readInt32(input);
+                break;
+            case UInt32:
+                value = BinaryStreamUtils.readUnsignedInt32(input);
+                break;
+            default:
+                value = BinaryStreamUtils.readInt64(input);
+                break;
+        }
+        append(value);
+    }
+
+    @Override
+    protected void writeNonNull(int index, OutputStream output) throws IOException {
+        long value = values[index];
+        switch (type) {
+            case Bool:
+                BinaryStreamUtils.writeBoolean(output, value != 0L);
+                break;
+            case Enum8:
+            case Int8:
+                BinaryStreamUtils.writeInt8(output, (byte) value);
+                break;
+            case UInt8:
+                BinaryStreamUtils.writeUnsignedInt8(output, (int) value);
+                break;
+            case Enum16:
+            case Int16:
+                BinaryStreamUtils.writeInt16(output, (short) value);
+                break;
+            case UInt16:
+                BinaryStreamUtils.writeUnsignedInt16(output, (int) value);
+                break;
+            case Int32:
+                BinaryStreamUtils.writeInt32(output, (int) value);
+                break;
+            case UInt32:
+                BinaryStreamUtils.writeUnsignedInt32(output, value);
+                break;
+            default:
+                BinaryStreamUtils.writeInt64(output, value);
+                break;
+        }
+    }
+
+    @Override
+    protected Object getNonNull(int index) {
+        return type == ClickHouseDataType.Bool ? (Object) (values[index] != 0L) : (Object) values[index];
+    }
+
+    /**
+     * Appends a value to the vector.
+     *
+     * @param value value to append
+     */
+    public void append(long value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    /**
+     * Gets value at the given index.
+     *
+     * @param index index of the value
+     * @return value, zero when it's null
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Gets backing array, which is only valid up to {@link #size()}.
+     *
+     * @return non-null backing array
+     */
+    public long[] getValues() {
+        return values;
+    }
+}
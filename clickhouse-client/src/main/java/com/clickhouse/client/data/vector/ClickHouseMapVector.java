@@ -0,0 +1,140 @@
+package com.clickhouse.client.data.vector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.data.BinaryStreamUtils;
+
+/**
+ * Vector of maps, in which keys and values of all maps are stored in two child
+ * vectors. Entries of the map at index {@code i} are in range
+ * {@code [offsets[i], offsets[i + 1])} of the child vectors.
+ */
+public final class ClickHouseMapVector extends ClickHouseColumnVector {
+    private final ClickHouseColumnVector keys;
+    private final ClickHouseColumnVector values;
+
+    private int[] offsets;
+
+    ClickHouseMapVector(ClickHouseConfig config, ClickHouseColumn column, int capacity) {
+        super(column);
+
+        this.keys = ClickHouseColumnVector.of(config, column.getKeyInfo(), capacity);
+        this.values = ClickHouseColumnVector.of(config, column.getValueInfo(), capacity);
+        this.offsets = new int[capacity + 1];
+    }
+
+    private void endMap() {
+        if (size + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, grow(offsets.length, size + 2));
+        }
+        offsets[++size] = keys.size();
+    }
+
+    @Override
+    protected void appendDefault() {
+        endMap();
+    }
+
+    @Override
+    protected void appendNonNull(ClickHouseValue value) {
+        appendNonNullObject(value.asMap());
+    }
+
+    @Override
+    protected void appendNonNullObject(Object obj) {
+        if (!(obj instanceof Map)) {
+            throw new IllegalArgumentException("Expect map but got " + obj.getClass());
+        }
+
+        for (Entry<?, ?> e : ((Map<?, ?>) obj).entrySet()) {
+            keys.appendObject(e.getKey());
+            values.appendObject(e.getValue());
+        }
+        endMap();
+    }
+
+    @Override
+    protected void readNonNull(ClickHouseInputStream input) throws IOException {
+        for (int i = 0, len = BinaryStreamUtils.readVarInt(input); i < len; i++) {
+            keys.read(input);
+            values.read(input);
+        }
+        endMap();
+    }
+
+    @Override
+    protected void writeNonNull(int index, OutputStream output) throws IOException {
+        int start = offsets[index];
+        int end = offsets[index + 1];
+        BinaryStreamUtils.writeVarInt(output, end - start);
+        for (int i = start; i < end; i++) {
+            keys.write(i, output);
+            values.write(i, output);
+        }
+    }
+
+    @Override
+    protected Object getNonNull(int index) {
+        Map<Object, Object> map = new LinkedHashMap<>();
+        for (int i = offsets[index], end = offsets[index + 1]; i < end; i++) {
+            map.put(keys.getObject(i), values.getObject(i));
+        }
+        return map;
+    }
+
+    /**
+     * Gets child vector holding keys of all maps.
+     *
+     * @return non-null child vector
+     */
+    public ClickHouseColumnVector getKeys() {
+        return keys;
+    }
+
+    /**
+     * Gets child vector holding values of all maps.
+     *
+     * @return non-null child vector
+     */
+    public ClickHouseColumnVector getValues() {
+        return values;
+    }
+
+    /**
+     * Gets backing array of offsets, which is only valid up to
+     * {@code size() + 1}.
+     *
+     * @return non-null backing array
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Gets number of entries in the map at the given index.
+     *
+     * @param index index of the map
+     * @return number of entries
+     */
+    public int getLength(int index) {
+        checkIndex(index);
+        return offsets[index + 1] - offsets[index];
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+
+        keys.reset();
+        values.reset();
+    }
+}
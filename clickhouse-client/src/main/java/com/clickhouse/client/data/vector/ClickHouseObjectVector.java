@@ -0,0 +1,117 @@
+package com.clickhouse.client.data.vector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor.MappedFunctions;
+
+/**
+ * Vector of objects for data types without specialized vector, for example
+ * Decimal, DateTime and Tuple. Values are converted using
+ * {@link ClickHouseValue#asObject()}.
+ */
+public final class ClickHouseObjectVector extends ClickHouseColumnVector {
+    private final ClickHouseConfig config;
+    private final MappedFunctions functions;
+
+    private Object[] values;
+    private ClickHouseValue ref;
+
+    ClickHouseObjectVector(ClickHouseConfig config, ClickHouseColumn column, int capacity) {
+        super(column);
+
+        this.config = config;
+        this.functions = ClickHouseRowBinaryProcessor.getMappedFunctions();
+        this.values = new Object[capacity];
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > values.length) {
+            values = Arrays.copyOf(values, grow(values.length, minCapacity));
+        }
+    }
+
+    private ClickHouseValue getReference() {
+        if (ref == null) {
+            ref = ClickHouseValues.newValue(config, column);
+        }
+        return ref;
+    }
+
+    @Override
+    protected void appendDefault() {
+        ensureCapacity(size + 1);
+        values[size++] = null;
+    }
+
+    @Override
+    protected void appendNonNull(ClickHouseValue value) {
+        ensureCapacity(size + 1);
+        values[size++] = value.asObject();
+    }
+
+    @Override
+    protected void appendNonNullObject(Object obj) {
+        ensureCapacity(size + 1);
+        values[size++] = obj;
+    }
+
+    @Override
+    protected void readNonNull(ClickHouseInputStream input) throws IOException {
+        // new value every time as the object might be mutable
+        appendNonNull(functions.deserialize(null, config, column, input));
+    }
+
+    @Override
+    protected void writeNonNull(int index, OutputStream output) throws IOException {
+        functions.serialize(getReference().update(values[index]), config, column, output);
+    }
+
+    @Override
+    protected Object getNonNull(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void read(ClickHouseInputStream input) throws IOException {
+        if (nulls == null) {
+            readNonNull(input);
+        } else { // null indicator is handled by deserializer
+            append(functions.deserialize(null, config, column, input));
+        }
+    }
+
+    @Override
+    public void write(int index, OutputStream output) throws IOException {
+        checkIndex(index);
+        if (nulls == null) {
+            writeNonNull(index, output);
+        } else { // null indicator is handled by serializer
+            functions.serialize(getReference().update(isNull(index) ? null : values[index]), config, column,
+                    output);
+        }
+    }
+
+    /**
+     * Gets backing array, which is only valid up to {@link #size()}.
+     *
+     * @return non-null backing array
+     */
+    public Object[] getValues() {
+        return values;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+
+        Arrays.fill(values, null);
+    }
+}
@@ -0,0 +1,165 @@
+package com.clickhouse.client.data.vector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.data.BinaryStreamUtils;
+
+/**
+ * Dictionary-encoded vector of strings. Each value is a code pointing to an
+ * entry in the dictionary, and null value has code {@code -1}. The dictionary
+ * is cleared along with values in {@link #reset()}.
+ */
+public final class ClickHouseStringVector extends ClickHouseColumnVector {
+    private final Map<String, Integer> lookup;
+
+    private int[] codes;
+    private String[] dictionary;
+    private byte[][] encoded;
+    private int dictionarySize;
+
+    ClickHouseStringVector(ClickHouseColumn column, int capacity) {
+        super(column);
+
+        this.lookup = new HashMap<>();
+        this.codes = new int[capacity];
+        this.dictionary = new String[MIN_CAPACITY];
+        this.encoded = new byte[MIN_CAPACITY][];
+        this.dictionarySize = 0;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > codes.length) {
+            codes = Arrays.copyOf(codes, grow(codes.length, minCapacity));
+        }
+    }
+
+    private void appendCode(int code) {
+        ensureCapacity(size + 1);
+        codes[size++] = code;
+    }
+
+    @Override
+    protected void appendDefault() {
+        appendCode(-1);
+    }
+
+    @Override
+    protected void appendNonNull(ClickHouseValue value) {
+        append(value.asString());
+    }
+
+    @Override
+    protected void appendNonNullObject(Object obj) {
+        append(obj.toString());
+    }
+
+    @Override
+    protected void readNonNull(ClickHouseInputStream input) throws IOException {
+        append(input.readUnicodeString());
+    }
+
+    @Override
+    protected void writeNonNull(int index, OutputStream output) throws IOException {
+        int code = codes[index];
+        // encode each distinct string only once
+        byte[] bytes = encoded[code];
+        if (bytes == null) {
+            encoded[code] = bytes = dictionary[code].getBytes(StandardCharsets.UTF_8);
+        }
+        BinaryStreamUtils.writeString(output, bytes);
+    }
+
+    @Override
+    protected Object getNonNull(int index) {
+        return dictionary[codes[index]];
+    }
+
+    /**
+     * Appends a string to the vector.
+     *
+     * @param value non-null string
+     */
+    public void append(String value) {
+        Integer code = lookup.get(value);
+        if (code == null) {
+            int c = dictionarySize++;
+            if (c == dictionary.length) {
+                int newCapacity = grow(c, c + 1);
+                dictionary = Arrays.copyOf(dictionary, newCapacity);
+                encoded = Arrays.copyOf(encoded, newCapacity);
+            }
+            dictionary[c] = value;
+            lookup.put(value, code = c);
+        }
+        appendCode(code);
+    }
+
+    /**
+     * Gets string at the given index.
+     *
+     * @param index index of the value
+     * @return string, could be null
+     */
+    public String getString(int index) {
+        checkIndex(index);
+        int code = codes[index];
+        return code < 0 ? null : dictionary[code];
+    }
+
+    /**
+     * Gets dictionary code of the value at the given index.
+     *
+     * @param index index of the value
+     * @return dictionary code, {@code -1} means null
+     */
+    public int getCode(int index) {
+        checkIndex(index);
+        return codes[index];
+    }
+
+    /**
+     * Gets backing array of dictionary codes, which is only valid up to
+     * {@link #size()}.
+     *
+     * @return non-null backing array
+     */
+    public int[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * Gets dictionary, which is only valid up to {@link #getDictionarySize()}.
+     *
+     * @return non-null dictionary
+     */
+    public String[] getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Gets number of distinct strings in the dictionary.
+     *
+     * @return number of distinct strings
+     */
+    public int getDictionarySize() {
+        return dictionarySize;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+
+        lookup.clear();
+        Arrays.fill(dictionary, 0, dictionarySize, null);
+        Arrays.fill(encoded, 0, dictionarySize, null);
+        dictionarySize = 0;
+    }
+}
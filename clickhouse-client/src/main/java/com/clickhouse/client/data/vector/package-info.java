@@ -0,0 +1,4 @@
+/**
+ * Provides column vectors for processing data in batches.
+ */
+package com.clickhouse.client.data.vector;
@@ -6,13 +6,17 @@ module com.clickhouse.client {
     exports com.clickhouse.client.config;
     exports com.clickhouse.client.data;
     exports com.clickhouse.client.data.array;
+    exports com.clickhouse.client.data.mapper;
+    exports com.clickhouse.client.data.vector;
     exports com.clickhouse.client.logging;
 
     requires static java.logging;
     requires static com.google.gson;
     requires static com.github.benmanes.caffeine;
     requires static org.dnsjava;
+    requires static it.unimi.dsi.fastutil;
     requires static org.lz4.java;
+    requires static org.objectweb.asm;
     requires static org.slf4j;
     requires static org.roaringbitmap;
 
@@ -0,0 +1,229 @@
+package com.clickhouse.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseOption;
+import com.clickhouse.client.data.ClickHouseIntegerValue;
+import com.clickhouse.client.data.ClickHouseSimpleResponse;
+
+public class ClickHouseBatchingWriterTest {
+    static class RecordingClient implements ClickHouseClient {
+        private final ClickHouseConfig config = new ClickHouseConfig();
+
+        final ConcurrentLinkedQueue<String> queries = new ConcurrentLinkedQueue<>();
+        final AtomicLong bytes = new AtomicLong();
+        volatile boolean fail;
+
+        @Override
+        public CompletableFuture<ClickHouseResponse> execute(ClickHouseRequest<?> request) {
+            queries.add(request.getStatements(false).get(0));
+            if (fail) {
+                CompletableFuture<ClickHouseResponse> future = new CompletableFuture<>();
+                future.completeExceptionally(new IOException("fake error"));
+                return future;
+            }
+
+            try (InputStream input = request.getInputStream().get()) {
+                byte[] buffer = new byte[1024];
+                int len;
+                while ((len = input.read(buffer)) > 0) {
+                    bytes.addAndGet(len);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return CompletableFuture.completedFuture(ClickHouseSimpleResponse.of(config, Collections.emptyList(), null));
+        }
+
+        @Override
+        public ClickHouseConfig getConfig() {
+            return config;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private ClickHouseConfig newConfig(int maxRows, int lingerTime) {
+        Map<ClickHouseOption, Serializable> options = new HashMap<>();
+        options.put(ClickHouseClientOption.BATCH_MAX_ROWS, maxRows);
+        options.put(ClickHouseClientOption.BATCH_LINGER_TIME, lingerTime);
+        return new ClickHouseConfig(options, null, null, null);
+    }
+
+    @Test(groups = { "unit" })
+    public void testFlushOnRows() throws Exception {
+        ClickHouseNode server = ClickHouseNode.builder().build();
+        List<ClickHouseColumn> columns = Collections.singletonList(ClickHouseColumn.of("a", "Int32"));
+        RecordingClient client = new RecordingClient();
+        try (ClickHouseBatchingWriter writer = new ClickHouseBatchingWriter(client, newConfig(3, 0))) {
+            List<CompletableFuture<ClickHouseResponseSummary>> futures = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                futures.add(writer.appendValues(server, "t", columns, ClickHouseIntegerValue.of(i)));
+            }
+            futures.get(0).get(5, TimeUnit.SECONDS);
+            futures.get(5).get(5, TimeUnit.SECONDS);
+            Assert.assertFalse(futures.get(6).isDone());
+            Assert.assertEquals(writer.getPendingBatches(), 1);
+
+            writer.flush().get(5, TimeUnit.SECONDS);
+            Assert.assertTrue(futures.get(6).isDone());
+            Assert.assertEquals(writer.getPendingBatches(), 0);
+            Assert.assertEquals(client.queries.size(), 3);
+            Assert.assertEquals(client.queries.peek(), "INSERT INTO t(`a`) FORMAT RowBinary");
+            Assert.assertEquals(client.bytes.get(), 7 * 4L);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testFlushOnLingerTime() throws Exception {
+        ClickHouseNode server = ClickHouseNode.builder().build();
+        RecordingClient client = new RecordingClient();
+        try (ClickHouseBatchingWriter writer = new ClickHouseBatchingWriter(client, newConfig(1000, 50))) {
+            CompletableFuture<ClickHouseResponseSummary> future = writer.append(server, "t", Collections.emptyList(),
+                    output -> output.write(1));
+            Assert.assertNotNull(future.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(client.queries.peek(), "INSERT INTO t FORMAT RowBinary");
+            Assert.assertEquals(client.bytes.get(), 1L);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testConcurrentAppend() throws Exception {
+        ClickHouseNode server = ClickHouseNode.builder().build();
+        List<ClickHouseColumn> columns = Collections.singletonList(ClickHouseColumn.of("a", "Int32"));
+        RecordingClient client = new RecordingClient();
+        int threads = 8;
+        int rows = 1000;
+        ClickHouseBatchingWriter writer = new ClickHouseBatchingWriter(client, newConfig(100, 10));
+        List<CompletableFuture<ClickHouseResponseSummary>> futures = Collections
+                .synchronizedList(new ArrayList<>());
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                for (int j = 0; j < rows; j++) {
+                    futures.add(writer.appendValues(server, "t", columns, ClickHouseIntegerValue.of(j)));
+                }
+            });
+            workers[i].start();
+        }
+        for (Thread t : workers) {
+            t.join();
+        }
+        writer.close();
+        Assert.assertTrue(writer.isClosed());
+
+        for (CompletableFuture<ClickHouseResponseSummary> f : futures) {
+            Assert.assertTrue(f.isDone());
+            Assert.assertFalse(f.isCompletedExceptionally());
+        }
+        Assert.assertEquals(client.bytes.get(), threads * rows * 4L);
+        Assert.assertThrows(CompletionException.class,
+                () -> writer.appendValues(server, "t", columns, ClickHouseIntegerValue.of(1)));
+    }
+
+    @Test(groups = { "unit" })
+    public void testAppendWhileClosing() throws Exception {
+        ClickHouseNode server = ClickHouseNode.builder().build();
+        List<ClickHouseColumn> columns = Collections.singletonList(ClickHouseColumn.of("a", "Int32"));
+        RecordingClient client = new RecordingClient();
+        ClickHouseBatchingWriter writer = new ClickHouseBatchingWriter(client, newConfig(1000, 1000));
+        List<CompletableFuture<ClickHouseResponseSummary>> futures = Collections
+                .synchronizedList(new ArrayList<>());
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        Thread[] workers = new Thread[4];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    for (int j = 0;; j++) {
+                        futures.add(writer.appendValues(server, "t", columns, ClickHouseIntegerValue.of(j)));
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+            workers[i].start();
+        }
+        Thread.sleep(50L);
+        writer.close();
+        for (Thread t : workers) {
+            t.join();
+        }
+
+        Assert.assertEquals(errors.size(), workers.length);
+        for (Throwable e : errors) {
+            Assert.assertTrue(e instanceof CompletionException, String.valueOf(e));
+        }
+        for (CompletableFuture<ClickHouseResponseSummary> f : futures) {
+            Assert.assertTrue(f.isDone());
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testFailedRow() throws Exception {
+        ClickHouseNode server = ClickHouseNode.builder().build();
+        RecordingClient client = new RecordingClient();
+        try (ClickHouseBatchingWriter writer = new ClickHouseBatchingWriter(client, newConfig(2, 0))) {
+            for (int i = 0; i < 3; i++) {
+                CompletableFuture<ClickHouseResponseSummary> f1 = writer.append(server, "t",
+                        Collections.emptyList(), output -> output.write(1));
+                Assert.assertThrows(CompletionException.class,
+                        () -> writer.append(server, "t", Collections.emptyList(), output -> {
+                            output.write(new byte[] { 2, 3 });
+                            throw new IOException("fake error");
+                        }));
+                CompletableFuture<ClickHouseResponseSummary> f2 = writer.append(server, "t",
+                        Collections.emptyList(), output -> output.write(4));
+                Assert.assertNotNull(f1.get(5, TimeUnit.SECONDS));
+                Assert.assertNotNull(f2.get(5, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(client.queries.size(), 3);
+            Assert.assertEquals(client.bytes.get(), 6L);
+
+            Assert.assertThrows(CompletionException.class,
+                    () -> writer.append(server, "t", Collections.emptyList(), output -> {
+                        throw new IOException("fake error");
+                    }));
+        }
+        // empty batch left by the failed row should not be sent
+        Assert.assertEquals(client.queries.size(), 3);
+    }
+
+    @Test(groups = { "unit" })
+    public void testFailure() throws Exception {
+        ClickHouseNode server = ClickHouseNode.builder().build();
+        RecordingClient client = new RecordingClient();
+        client.fail = true;
+        try (ClickHouseBatchingWriter writer = new ClickHouseBatchingWriter(client, newConfig(2, 0))) {
+            CompletableFuture<ClickHouseResponseSummary> f1 = writer.append(server, "t", Collections.emptyList(),
+                    output -> output.write(1));
+            CompletableFuture<ClickHouseResponseSummary> f2 = writer.append(server, "t", Collections.emptyList(),
+                    output -> output.write(2));
+            try {
+                f2.get(5, TimeUnit.SECONDS);
+                Assert.fail("Should fail");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof ClickHouseException);
+            }
+            Assert.assertTrue(f1.isCompletedExceptionally());
+        }
+    }
+}
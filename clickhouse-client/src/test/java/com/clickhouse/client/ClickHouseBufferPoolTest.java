@@ -0,0 +1,89 @@
+package com.clickhouse.client;
+
+import java.nio.ByteBuffer;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClickHouseBufferPoolTest {
+    @Test(groups = { "unit" })
+    public void testSizeClass() {
+        Assert.assertEquals(ClickHouseBufferPool.getSizeClass(0), 0);
+        Assert.assertEquals(ClickHouseBufferPool.getSizeClass(1), 0);
+        Assert.assertEquals(ClickHouseBufferPool.getSizeClass(ClickHouseBufferPool.MIN_POOLED_SIZE), 0);
+        Assert.assertEquals(ClickHouseBufferPool.getSizeClass(ClickHouseBufferPool.MIN_POOLED_SIZE + 1), 1);
+        Assert.assertEquals(ClickHouseBufferPool.getSizeClass(ClickHouseBufferPool.MIN_POOLED_SIZE * 2), 1);
+        Assert.assertEquals(ClickHouseBufferPool.getSizeClass(ClickHouseBufferPool.MAX_POOLED_SIZE),
+                ClickHouseBufferPool.SIZE_CLASSES - 1);
+        Assert.assertEquals(ClickHouseBufferPool.getSizeClass(ClickHouseBufferPool.MAX_POOLED_SIZE + 1), -1);
+
+        Assert.assertEquals(ClickHouseBufferPool.getExactSizeClass(1), -1);
+        Assert.assertEquals(ClickHouseBufferPool.getExactSizeClass(100), -1);
+        Assert.assertEquals(ClickHouseBufferPool.getExactSizeClass(128), 1);
+        Assert.assertEquals(ClickHouseBufferPool.getExactSizeClass(ClickHouseBufferPool.MAX_POOLED_SIZE * 2), -1);
+    }
+
+    @Test(groups = { "unit" })
+    public void testBorrowAndRelease() {
+        ClickHouseBufferPool pool = new ClickHouseBufferPool(true);
+        Assert.assertTrue(pool.isTrackingLeaks());
+
+        byte[] bytes = pool.borrowArray(100);
+        Assert.assertEquals(bytes.length, 128);
+        Assert.assertEquals(pool.getOutstanding(), 1L);
+        pool.release(bytes);
+        Assert.assertEquals(pool.getOutstanding(), 0L);
+        Assert.assertSame(pool.borrowArray(128), bytes, "Released array should be reused");
+        pool.release(bytes);
+
+        Assert.assertThrows(IllegalStateException.class, () -> pool.release(bytes));
+        Assert.assertThrows(IllegalStateException.class, () -> pool.release(new byte[128]));
+        pool.release((byte[]) null);
+        pool.release(ClickHouseByteBuffer.EMPTY_BYTES);
+        pool.release(ClickHouseByteBuffer.EMPTY_BUFFER);
+
+        byte[] large = pool.borrowArray(ClickHouseBufferPool.MAX_POOLED_SIZE + 1);
+        Assert.assertEquals(large.length, ClickHouseBufferPool.MAX_POOLED_SIZE + 1);
+        pool.release(large);
+        Assert.assertEquals(pool.getOutstanding(), 0L);
+    }
+
+    @Test(groups = { "unit" })
+    public void testBorrowBuffer() {
+        ClickHouseBufferPool pool = new ClickHouseBufferPool(true);
+        for (boolean direct : new boolean[] { false, true }) {
+            ByteBuffer buffer = pool.borrowBuffer(1000, direct);
+            Assert.assertEquals(buffer.isDirect(), direct);
+            Assert.assertEquals(buffer.position(), 0);
+            Assert.assertEquals(buffer.limit(), 1000);
+            Assert.assertEquals(buffer.capacity(), 1024);
+            buffer.put((byte) 1);
+            Assert.assertEquals(pool.getOutstanding(), 1L);
+            pool.release(buffer);
+            Assert.assertEquals(pool.getOutstanding(), 0L);
+
+            ByteBuffer reused = pool.borrowBuffer(1024, direct);
+            Assert.assertEquals(reused.position(), 0);
+            Assert.assertEquals(reused.limit(), 1024);
+            if (direct) {
+                Assert.assertSame(reused, buffer);
+            } else {
+                Assert.assertSame(reused.array(), buffer.array());
+            }
+            pool.release(reused);
+        }
+        Assert.assertEquals(pool.getOutstanding(), 0L);
+    }
+
+    @Test(groups = { "unit" })
+    public void testReleaseAcrossThreads() throws Exception {
+        ClickHouseBufferPool pool = new ClickHouseBufferPool(false);
+        Assert.assertFalse(pool.isTrackingLeaks());
+        byte[] bytes = pool.borrowArray(1024 * 1024);
+        Thread t = new Thread(() -> pool.release(bytes));
+        t.start();
+        t.join();
+        Assert.assertEquals(pool.getOutstanding(), 0L);
+        Assert.assertSame(pool.borrowArray(1024 * 1024), bytes, "Array released by another thread should be reused");
+    }
+}
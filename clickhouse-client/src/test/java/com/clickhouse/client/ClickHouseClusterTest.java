@@ -1,16 +1,25 @@
 package com.clickhouse.client;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketException;
+import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLHandshakeException;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import com.clickhouse.client.ClickHouseNode.Status;
+import com.clickhouse.client.config.ClickHouseClientOption;
 
 public class ClickHouseClusterTest extends BaseIntegrationTest {
     private ClickHouseCluster createCluster(int size) {
@@ -100,6 +109,166 @@ public class ClickHouseClusterTest extends BaseIntegrationTest {
         }
     }
 
+    @Test(groups = { "unit" })
+    public void testNodeFailure() {
+        Assert.assertFalse(ClickHouseCluster.isNodeFailure(null));
+        Assert.assertFalse(ClickHouseCluster.isNodeFailure(new IllegalArgumentException()));
+        Assert.assertTrue(ClickHouseCluster.isNodeFailure(new IOException()));
+        Assert.assertTrue(ClickHouseCluster.isNodeFailure(ClickHouseException.of(new ConnectException(), null)));
+        Assert.assertTrue(ClickHouseCluster.isNodeFailure(
+                new IllegalStateException(ClickHouseException.of("Code: 202, e.displayText() = DB::Exception", null))));
+        // server error comes with IOException
+        Assert.assertFalse(ClickHouseCluster.isNodeFailure(ClickHouseException
+                .of(new IOException(new IOException("Code: 62, e.displayText() = DB::Exception: Syntax error")), null)));
+        // network errors wrapped by server error
+        Assert.assertTrue(ClickHouseCluster.isNodeFailure(
+                new ClickHouseException(62, new IOException(new SocketException("Connection reset")), null)));
+        Assert.assertTrue(ClickHouseCluster.isNodeFailure(
+                new UncheckedIOException(new IOException(new NoRouteToHostException("No route to host")))));
+        Assert.assertTrue(ClickHouseCluster.isNodeFailure(
+                new ClickHouseException(ClickHouseException.ERROR_UNKNOWN, new UnknownHostException("x"), null)));
+        Assert.assertTrue(ClickHouseCluster.isNodeFailure(
+                new ClickHouseException(ClickHouseException.ERROR_UNKNOWN, new SSLHandshakeException("x"), null)));
+        Assert.assertTrue(ClickHouseCluster.isNodeFailure(
+                ClickHouseException.of("Code: 242, e.displayText() = DB::Exception: Table is in readonly mode", null)));
+        // per-query limit
+        Assert.assertFalse(ClickHouseCluster.isNodeFailure(
+                ClickHouseException.of("Code: 159, e.displayText() = DB::Exception: Timeout exceeded", null)));
+
+        Assert.assertFalse(ClickHouseCluster.isServerError(null));
+        Assert.assertFalse(ClickHouseCluster.isServerError(new IllegalArgumentException()));
+        Assert.assertFalse(ClickHouseCluster.isServerError(ClickHouseException.of(new ConnectException(), null)));
+        Assert.assertFalse(ClickHouseCluster.isServerError(
+                ClickHouseException.forCancellation(new IllegalStateException(), null)));
+        Assert.assertTrue(ClickHouseCluster.isServerError(ClickHouseException
+                .of(new IOException(new IOException("Code: 62, e.displayText() = DB::Exception: Syntax error")), null)));
+    }
+
+    @Test(groups = { "unit" })
+    public void testClose() {
+        ClickHouseCluster cluster = createCluster(2);
+        ClickHouseNode node = cluster.getAvailableNodes().get(0);
+        cluster.close();
+        cluster.close();
+
+        // no more probes after closed
+        node.updateStatus(Status.UNHEALTHY);
+        Assert.assertEquals(cluster.getAvailableNodes().size(), 1);
+        cluster.check(node, cluster.getCircuit(node));
+        Assert.assertTrue(cluster.getCircuit(node).open);
+    }
+
+    @Test(groups = { "unit" })
+    public void testJitter() {
+        for (int i = 0; i < 100; i++) {
+            long backoff = ClickHouseCluster.jitter(1000L);
+            Assert.assertTrue(backoff >= 800L && backoff <= 1200L, "Should be within +/-20%");
+        }
+        Assert.assertEquals(ClickHouseCluster.jitter(0L), 0L);
+    }
+
+    @Test(groups = { "unit" })
+    public void testCircuitBreaker() {
+        ClickHouseCluster cluster = createCluster(3);
+        ClickHouseNode node = cluster.getAvailableNodes().get(0);
+        ClickHouseCluster.Circuit c = cluster.getCircuit(node);
+        Assert.assertNotNull(c);
+
+        IOException error = new IOException("Connection refused");
+        for (int i = 1; i < ClickHouseCluster.FAILURE_THRESHOLD; i++) {
+            node.record(error);
+            // query error does not count
+            node.record(ClickHouseException.of("Code: 62, e.displayText() = DB::Exception: Syntax error", node));
+        }
+        node.record(null);
+        Assert.assertEquals(c.failures.get(), 0);
+        for (int i = 0; i < ClickHouseCluster.FAILURE_THRESHOLD; i++) {
+            Assert.assertEquals(cluster.getAvailableNodes().size(), 3);
+            node.record(error);
+        }
+        Assert.assertTrue(c.open);
+        Assert.assertEquals(cluster.getAvailableNodes().size(), 2);
+        Assert.assertFalse(cluster.getAvailableNodes().contains(node));
+        for (int i = 0; i < 10; i++) {
+            Assert.assertNotEquals(cluster.apply(null), node);
+        }
+
+        // half-open: only one trial request after backoff expired
+        c.nextAttempt.set(0L);
+        Assert.assertEquals(cluster.apply(null), node);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertNotEquals(cluster.apply(null), node);
+        }
+        node.record(error);
+        Assert.assertTrue(c.open);
+        Assert.assertTrue(c.backoff > ClickHouseCluster.INITIAL_BACKOFF);
+
+        c.nextAttempt.set(0L);
+        Assert.assertEquals(cluster.apply(ClickHouseNodeSelector.EMPTY), node);
+        node.record(null);
+        Assert.assertFalse(c.open);
+        Assert.assertEquals(c.backoff, ClickHouseCluster.INITIAL_BACKOFF);
+        Assert.assertEquals(cluster.getAvailableNodes().size(), 3);
+
+        // trial request got a query error, which means the node is serving
+        for (int i = 0; i < ClickHouseCluster.FAILURE_THRESHOLD; i++) {
+            node.record(error);
+        }
+        Assert.assertTrue(c.open);
+        c.nextAttempt.set(0L);
+        Assert.assertEquals(cluster.apply(null), node);
+        node.record(ClickHouseException.of("Code: 62, e.displayText() = DB::Exception: Syntax error", node));
+        Assert.assertFalse(c.open);
+        Assert.assertEquals(cluster.getAvailableNodes().size(), 3);
+    }
+
+    @Test(groups = { "unit" })
+    public void testCancelMonitoredRequest() {
+        ClickHouseCluster cluster = createCluster(3);
+        ClickHouseNode node = cluster.getAvailableNodes().get(0);
+        CompletableFuture<ClickHouseResponse> pending = new CompletableFuture<>();
+        ClickHouseClient client = new ClickHouseTestClient() {
+            @Override
+            public CompletableFuture<ClickHouseResponse> execute(ClickHouseRequest<?> request) {
+                return pending;
+            }
+        };
+        client.init(new ClickHouseConfig());
+
+        CompletableFuture<ClickHouseResponse> future = client.connect(node).query("select 1").execute();
+        Assert.assertSame(future, pending);
+        Assert.assertTrue(future.cancel(true));
+        Assert.assertTrue(pending.isCancelled());
+        // cancellation is not a node failure
+        Assert.assertEquals(cluster.getCircuit(node).failures.get(), 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testRecordWithResultCache() throws Exception {
+        ClickHouseCluster cluster = createCluster(3);
+        ClickHouseNode node = cluster.getAvailableNodes().get(0);
+        ClickHouseClient client = new ClickHouseTestClient() {
+            @Override
+            public CompletableFuture<ClickHouseResponse> execute(ClickHouseRequest<?> request) {
+                CompletableFuture<ClickHouseResponse> future = new CompletableFuture<>();
+                future.completeExceptionally(ClickHouseException.of(new ConnectException("refused"), node));
+                return future;
+            }
+        };
+        client.init(new ClickHouseConfig());
+
+        ClickHouseRequest<?> request = client.connect(node).format(ClickHouseFormat.RowBinaryWithNamesAndTypes)
+                .option(ClickHouseClientOption.RESULT_CACHE_SIZE, 10).query("select 1");
+        Assert.assertNotNull(ClickHouseResultCache.getInstance(request.getConfig()));
+        Assert.assertTrue(request.execute().isCompletedExceptionally());
+        Assert.assertEquals(cluster.getCircuit(node).failures.get(), 1);
+        Assert.assertThrows(ClickHouseException.class, () -> request.executeAndWait());
+        Assert.assertEquals(cluster.getCircuit(node).failures.get(), 2);
+        // not cacheable
+        Assert.assertTrue(request.copy().query("insert into t values(1)").execute().isCompletedExceptionally());
+        Assert.assertTrue(cluster.getCircuit(node).open, "Should have tripped the circuit");
+    }
+
     @Test(groups = { "integration" })
     public void testProbe() {
         // FIXME does not support ClickHouseProtocol.POSTGRESQL for now
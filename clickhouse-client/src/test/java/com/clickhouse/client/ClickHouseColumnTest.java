@@ -200,4 +200,33 @@ public class ClickHouseColumnTest {
         Assert.assertTrue(column.isFixedLength(), "Should have fixed length in byte");
         Assert.assertEquals(column.getEstimatedLength(), column.getDataType().getByteLength());
     }
+
+    @Test(groups = { "unit" })
+    public void testTypeCache() {
+        String type = "Array(Tuple(String, Map(String, Nullable(Decimal(38, 10)))))";
+        ClickHouseColumn c1 = ClickHouseColumn.of("a", type);
+        ClickHouseColumn c2 = ClickHouseColumn.of("b", type);
+        Assert.assertEquals(c1.getColumnName(), "a");
+        Assert.assertEquals(c2.getColumnName(), "b");
+        Assert.assertNotEquals(c1, c2);
+        Assert.assertEquals(c1.getOriginalTypeName(), type);
+        Assert.assertEquals(c2.getOriginalTypeName(), type);
+        // parsed type is shared
+        Assert.assertTrue(c1.getNestedColumns() == c2.getNestedColumns());
+        Assert.assertTrue(c1.getArrayBaseColumn() == c2.getArrayBaseColumn());
+        Assert.assertEquals(c2.getArrayBaseColumn().getNestedColumns().get(1).getValueInfo().getScale(), 10);
+        Assert.assertEquals(ClickHouseColumn.of("a", type), c1);
+        Assert.assertTrue(ClickHouseColumn.of("", type) == ClickHouseColumn.of("", type));
+
+        String columns = "a String, b Nested(x AggregateFunction(max, UInt64), y Nullable(Int8))";
+        List<ClickHouseColumn> list = ClickHouseColumn.parse(columns);
+        Assert.assertTrue(ClickHouseColumn.parse(columns) == list);
+        Assert.assertEquals(list.size(), 2);
+        Assert.assertEquals(list.get(1).getNestedColumns().get(0).getColumnName(), "x");
+        Assert.assertEquals(list.get(1).getNestedColumns().get(0).getNestedColumns().get(0).getDataType(),
+                ClickHouseDataType.UInt64);
+        Assert.assertEquals(list.get(1).getNestedColumns().get(1).getColumnName(), "y");
+        Assert.assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseColumn.of("a", "Array()"));
+    }
 }
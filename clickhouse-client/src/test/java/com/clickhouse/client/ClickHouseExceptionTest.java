@@ -1,5 +1,9 @@
 package com.clickhouse.client;
 
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
 import java.util.concurrent.ExecutionException;
 
 import org.testng.Assert;
@@ -106,4 +110,20 @@ public class ClickHouseExceptionTest {
         Assert.assertEquals(e.getCause(), cause.getCause());
         Assert.assertEquals(e.getMessage(), cause.getCause().getMessage() + ", server " + server);
     }
+
+    @Test(groups = { "unit" })
+    public void testIsNetworkError() {
+        ClickHouseNode server = ClickHouseNode.builder().build();
+        Assert.assertFalse(ClickHouseException.isNetworkError(null));
+        Assert.assertFalse(ClickHouseException.isNetworkError(new IOException("fake error")));
+        Assert.assertFalse(ClickHouseException.isNetworkError(ClickHouseException
+                .of("Code: 62, e.displayText() = DB::Exception: Syntax error", server)));
+
+        Assert.assertTrue(ClickHouseException.isNetworkError(new UnknownHostException()));
+        Assert.assertTrue(ClickHouseException.isNetworkError(ClickHouseException.of(new ConnectException(), server)));
+        Assert.assertTrue(ClickHouseException.isNetworkError(new ExecutionException(
+                ClickHouseException.of(new SocketTimeoutException(), server))));
+        Assert.assertTrue(ClickHouseException
+                .isNetworkError(new ClickHouseException(ClickHouseException.ERROR_NETWORK, "fake error", server)));
+    }
 }
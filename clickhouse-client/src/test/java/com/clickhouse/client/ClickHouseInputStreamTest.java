@@ -87,6 +87,27 @@ public class ClickHouseInputStreamTest {
         }
     }
 
+    @Test(groups = { "unit" })
+    public void testWrappedInputReadArray() throws IOException {
+        int sample = 20000;
+        byte[] bytes = new byte[sample];
+        try (InputStream in = generateInputStream(bytes);
+                ClickHouseInputStream chIn = ClickHouseInputStream.of(in, 8192)) {
+            byte[] b = new byte[10000];
+            Assert.assertEquals(chIn.read(b, 0, 100), 100);
+            Assert.assertEquals(Arrays.copyOfRange(b, 0, 100), Arrays.copyOfRange(bytes, 0, 100));
+            // partially buffered, and smaller than the buffer
+            Assert.assertEquals(chIn.read(b, 100, 8192), 8192);
+            Assert.assertEquals(Arrays.copyOfRange(b, 100, 8292), Arrays.copyOfRange(bytes, 100, 8292));
+            // partially buffered, and larger than the buffer
+            Assert.assertEquals(chIn.read(b, 0, 10000), 10000);
+            Assert.assertEquals(b, Arrays.copyOfRange(bytes, 8292, 18292));
+            Assert.assertEquals(chIn.read(b, 0, 10000), 1708);
+            Assert.assertEquals(Arrays.copyOfRange(b, 0, 1708), Arrays.copyOfRange(bytes, 18292, sample));
+            Assert.assertEquals(chIn.read(b, 0, 10000), -1);
+        }
+    }
+
     @Test(groups = { "unit" })
     public void testNullOrEmptyBlockingInput() throws IOException {
         Assert.assertThrows(IllegalArgumentException.class,
@@ -0,0 +1,223 @@
+package com.clickhouse.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.clickhouse.client.data.ClickHouseSimpleResponse;
+
+public class ClickHouseParallelExecutorTest {
+    static class GatedClient implements ClickHouseClient {
+        private final ClickHouseConfig config = new ClickHouseConfig();
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final Map<String, CompletableFuture<Void>> gates = new ConcurrentHashMap<>();
+        final List<String> killed = new CopyOnWriteArrayList<>();
+        final List<ClickHouseRequest<?>> requests = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> gate(String sql) {
+            return gates.computeIfAbsent(sql, k -> new CompletableFuture<>());
+        }
+
+        @Override
+        public CompletableFuture<ClickHouseResponse> execute(ClickHouseRequest<?> request) {
+            requests.add(request);
+            String sql = request.getStatements(false).get(0);
+            if (sql.startsWith("KILL QUERY")) {
+                killed.add(sql);
+            }
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            return gate(sql).thenApply(v -> {
+                running.decrementAndGet();
+                return ClickHouseSimpleResponse.of(config,
+                        Arrays.asList(ClickHouseColumn.of("q", "String"), ClickHouseColumn.of("h", "String")),
+                        new Object[][] { { sql, request.getServer().getHost() } });
+            });
+        }
+
+        @Override
+        public ClickHouseConfig getConfig() {
+            return config;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testOrderedWithBoundedParallelism() throws Exception {
+        GatedClient client = new GatedClient();
+        ClickHouseRequest<?> request = client.connect(ClickHouseNode.builder().build());
+        try (ClickHouseParallelExecutor executor = new ClickHouseParallelExecutor(2, 0L)) {
+            CompletableFuture<List<ClickHouseResponse>> future = executor.execute(request, "q0", "q1", "q2", "q3");
+            Assert.assertEquals(executor.getRunningRequests(), 2);
+            Assert.assertEquals(executor.getPendingRequests(), 2);
+
+            // complete in reverse order of submission
+            client.gate("q1").complete(null);
+            client.gate("q0").complete(null);
+            client.gate("q3").complete(null);
+            client.gate("q2").complete(null);
+
+            List<ClickHouseResponse> list = future.get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(list.size(), 4);
+            for (int i = 0; i < 4; i++) {
+                Assert.assertEquals(list.get(i).firstRecord().getValue(0).asString(), "q" + i);
+            }
+            Assert.assertEquals(client.maxRunning.get(), 2);
+            // slots are released when responses arrived, not when they're closed
+            Assert.assertEquals(executor.getRunningRequests(), 0);
+            Assert.assertEquals(executor.getPendingRequests(), 0);
+            for (ClickHouseResponse r : list) {
+                r.close();
+            }
+            Assert.assertEquals(executor.getRunningRequests(), 0);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testLongQueueOfCompletedRequests() throws Exception {
+        GatedClient client = new GatedClient();
+        client.gate("select 1").complete(null);
+        ClickHouseRequest<?> request = client.connect(ClickHouseNode.builder().build()).query("select 1");
+        List<ClickHouseRequest<?>> requests = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            requests.add(request.copy());
+        }
+        try (ClickHouseParallelExecutor executor = new ClickHouseParallelExecutor(1, 0L)) {
+            List<CompletableFuture<ClickHouseResponse>> futures = executor.submit(requests);
+            Assert.assertEquals(futures.size(), requests.size());
+            for (CompletableFuture<ClickHouseResponse> f : futures) {
+                Assert.assertTrue(f.isDone());
+                f.get().close();
+            }
+            Assert.assertEquals(executor.getRunningRequests(), 0);
+            Assert.assertEquals(executor.getPendingRequests(), 0);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testTimeoutAndFailure() throws Exception {
+        GatedClient client = new GatedClient();
+        ClickHouseRequest<?> request = client.connect(ClickHouseNode.builder().build());
+        try (ClickHouseParallelExecutor executor = new ClickHouseParallelExecutor(1, 50L)) {
+            List<CompletableFuture<ClickHouseResponse>> futures = executor.submit(
+                    Arrays.asList(request.copy().query("slow", "q'1"), request.copy().query("bad"),
+                            request.copy().query("ok")));
+            try {
+                futures.get(0).get(5, TimeUnit.SECONDS);
+                Assert.fail("Should time out");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(((ClickHouseException) e.getCause()).getErrorCode(),
+                        ClickHouseException.ERROR_TIMEOUT);
+            }
+
+            // slot is held until the query is killed
+            for (int i = 0; i < 100 && client.killed.isEmpty(); i++) {
+                Thread.sleep(50L);
+            }
+            Assert.assertEquals(client.killed, Collections.singletonList("KILL QUERY WHERE query_id='q\\'1'"));
+            Assert.assertEquals(executor.getRunningRequests(), 1);
+            Assert.assertEquals(executor.getPendingRequests(), 2);
+            client.gate(client.killed.get(0)).complete(null);
+
+            client.gate("bad").completeExceptionally(new IllegalStateException("fake error"));
+            client.gate("ok").complete(null);
+            try {
+                futures.get(1).get(5, TimeUnit.SECONDS);
+                Assert.fail("Should fail");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof ClickHouseException);
+            }
+            Assert.assertEquals(futures.get(2).get(5, TimeUnit.SECONDS).firstRecord().getValue(0).asString(), "ok");
+
+            // timed out request completes later
+            client.gate("slow").complete(null);
+            Assert.assertTrue(futures.get(0).isCompletedExceptionally());
+
+            CompletableFuture<List<ClickHouseResponse>> all = executor.execute(request, "ok", "bad");
+            try {
+                all.get(5, TimeUnit.SECONDS);
+                Assert.fail("Should fail");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof ClickHouseException);
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testSealedRequestWithoutQueryId() throws Exception {
+        GatedClient client = new GatedClient();
+        ClickHouseRequest<?> request = client.connect(ClickHouseNode.builder().host("n1").build()).query("slow")
+                .seal();
+        ClickHouseRequest.Mutation mutation = client.connect(ClickHouseNode.builder().host("n2").build()).write()
+                .query("insert").seal();
+        try (ClickHouseParallelExecutor executor = new ClickHouseParallelExecutor(2, 50L)) {
+            List<CompletableFuture<ClickHouseResponse>> futures = executor.submit(Arrays.asList(request, mutation));
+            try {
+                futures.get(0).get(5, TimeUnit.SECONDS);
+                Assert.fail("Should time out");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(((ClickHouseException) e.getCause()).getErrorCode(),
+                        ClickHouseException.ERROR_TIMEOUT);
+            }
+            Assert.assertFalse(request.getQueryId().isPresent());
+
+            ClickHouseRequest<?> sent = client.requests.stream().filter(r -> "n1".equals(r.getServer().getHost()))
+                    .findFirst().orElseThrow(AssertionError::new);
+            Assert.assertTrue(sent.isSealed());
+            String queryId = sent.getQueryId().orElse(null);
+            Assert.assertNotNull(queryId);
+            for (int i = 0; i < 100 && client.killed.isEmpty(); i++) {
+                Thread.sleep(50L);
+            }
+            Assert.assertEquals(client.killed.get(0), "KILL QUERY WHERE query_id='" + queryId + "'");
+
+            sent = client.requests.stream().filter(r -> "n2".equals(r.getServer().getHost())).findFirst()
+                    .orElseThrow(AssertionError::new);
+            Assert.assertTrue(sent instanceof ClickHouseRequest.Mutation);
+            Assert.assertTrue(sent.getQueryId().isPresent());
+            Assert.assertFalse(mutation.getQueryId().isPresent());
+
+            for (String sql : new ArrayList<>(client.gates.keySet())) {
+                client.gate(sql).complete(null);
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testExecuteOnAll() throws Exception {
+        GatedClient client = new GatedClient();
+        client.gate("select 1").complete(null);
+        ClickHouseRequest<?> request = client.connect(ClickHouseNode.builder().build()).query("select 1");
+        List<ClickHouseNode> nodes = Arrays.asList(ClickHouseNode.builder().host("n1").build(),
+                ClickHouseNode.builder().host("n2").build(), ClickHouseNode.builder().host("n3").build());
+        ClickHouseParallelExecutor executor = new ClickHouseParallelExecutor(3, 1000L);
+        try (ClickHouseResponse response = executor.executeOnAll(request, nodes).get(5, TimeUnit.SECONDS)) {
+            Assert.assertEquals(response.getColumns().size(), 2);
+            List<String> hosts = new ArrayList<>();
+            for (ClickHouseRecord r : response.records()) {
+                Assert.assertEquals(r.getValue(0).asString(), "select 1");
+                hosts.add(r.getValue(1).asString());
+            }
+            Assert.assertEquals(hosts, Arrays.asList("n1", "n2", "n3"));
+        }
+        executor.close();
+        Assert.assertTrue(executor.isClosed());
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> executor.executeOnAll(request, Collections.emptyList()));
+    }
+}
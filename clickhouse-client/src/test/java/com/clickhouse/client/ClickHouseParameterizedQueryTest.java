@@ -266,6 +266,7 @@ public class ClickHouseParameterizedQueryTest {
         Assert.assertNull(templates[0]);
         Assert.assertTrue(templates[1] instanceof ClickHouseDateTimeValue);
         Assert.assertEquals(((ClickHouseDateTimeValue) templates[1]).getScale(), 0);
+        Assert.assertEquals(q.getParameterTypes(), new String[] { null, "DateTime32" });
         Assert.assertEquals(apply(q, ts, ts),
                 "select '1970-01-01 02:46:40.123456789' ts1, '1970-01-01 02:46:40' ts2, '1970-01-01 02:46:40' ts3");
     }
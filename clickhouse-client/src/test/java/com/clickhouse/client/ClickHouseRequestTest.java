@@ -221,6 +221,32 @@ public class ClickHouseRequestTest {
         Assert.assertThrows(IllegalStateException.class, () -> sealed.write());
     }
 
+    @Test(groups = { "unit" })
+    public void testQueryParameters() {
+        ClickHouseRequest<?> request = ClickHouseClient.newInstance().connect(ClickHouseNode.builder().build());
+        Assert.assertTrue(request.getQueryParameters().isEmpty());
+        Assert.assertThrows(IllegalArgumentException.class, () -> request.queryParameter("", "1"));
+
+        String sql = "select {a:Int32}, {b:Nullable(String)}";
+        request.query(sql).queryParameter("a", "1").queryParameter("b", null);
+        Assert.assertEquals(request.getStatements(), Collections.singletonList(sql));
+        Assert.assertEquals(request.getQueryParameters().get("a"), "1");
+        Assert.assertEquals(request.getQueryParameters().get("b"), "\\N");
+        Assert.assertEquals(request.copy().getQueryParameters(), request.getQueryParameters());
+        Assert.assertEquals(request.seal().getQueryParameters(), request.getQueryParameters());
+        Assert.assertThrows(IllegalStateException.class, () -> request.seal().queryParameter("a", "2"));
+
+        Map<String, String> params = new HashMap<>();
+        params.put("x", "'");
+        request.queryParameters(params);
+        Assert.assertEquals(request.getQueryParameters(), params);
+        request.queryParameters(null);
+        Assert.assertTrue(request.getQueryParameters().isEmpty());
+
+        request.queryParameter("a", "2").reset();
+        Assert.assertTrue(request.getQueryParameters().isEmpty());
+    }
+
     @Test(groups = { "unit" })
     public void testSession() {
         String sessionId = UUID.randomUUID().toString();
@@ -0,0 +1,239 @@
+package com.clickhouse.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.data.BinaryStreamUtils;
+import com.clickhouse.client.data.ClickHouseStreamResponse;
+
+public class ClickHouseResultCacheTest {
+    static class CountingClient implements ClickHouseClient {
+        private final ClickHouseConfig config = new ClickHouseConfig();
+
+        final AtomicInteger counter = new AtomicInteger();
+        volatile CompletableFuture<Void> gate;
+        volatile int rows;
+
+        ClickHouseResponse newResponse(ClickHouseRequest<?> request, int rows) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                BinaryStreamUtils.writeVarInt(out, 1);
+                BinaryStreamUtils.writeString(out, "a");
+                BinaryStreamUtils.writeString(out, "Int32");
+                for (int i = 0; i < rows; i++) {
+                    BinaryStreamUtils.writeInt32(out, i);
+                }
+                return ClickHouseStreamResponse.of(request.getConfig(),
+                        ClickHouseInputStream.of(new ByteArrayInputStream(out.toByteArray())));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public CompletableFuture<ClickHouseResponse> execute(ClickHouseRequest<?> request) {
+            int n = counter.incrementAndGet();
+            int count = rows > 0 ? rows : n;
+            CompletableFuture<Void> g = gate;
+            if (g != null) {
+                return g.thenApply(v -> newResponse(request, count));
+            }
+            return CompletableFuture.completedFuture(newResponse(request, count));
+        }
+
+        @Override
+        public ClickHouseConfig getConfig() {
+            return config;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static List<Integer> read(ClickHouseResponse response) {
+        List<Integer> list = new ArrayList<>();
+        try (ClickHouseResponse r = response) {
+            Assert.assertEquals(r.getColumns().size(), 1);
+            Assert.assertEquals(r.getColumns().get(0).getColumnName(), "a");
+            for (ClickHouseRecord record : r.records()) {
+                list.add(record.getValue(0).asInteger());
+            }
+        }
+        return list;
+    }
+
+    private static ClickHouseRequest<?> newRequest(ClickHouseClient client, String sql) {
+        return client.connect(ClickHouseNode.builder().build()).format(ClickHouseFormat.RowBinaryWithNamesAndTypes)
+                .query(sql);
+    }
+
+    @Test(groups = { "unit" })
+    public void testNormalize() {
+        Assert.assertEquals(ClickHouseResultCache.normalize(null), "");
+        Assert.assertEquals(ClickHouseResultCache.normalize(" \tselect\n  1 ;"), "select 1 ");
+        Assert.assertEquals(ClickHouseResultCache.normalize("select 1;"), "select 1");
+        Assert.assertEquals(ClickHouseResultCache.normalize("select  'a  b', `c  d` ,\"e\\\"  f\""),
+                "select 'a  b', `c  d` ,\"e\\\"  f\"");
+    }
+
+    @Test(groups = { "unit" })
+    public void testCacheable() {
+        ClickHouseClient client = new CountingClient();
+        Assert.assertTrue(ClickHouseResultCache.isCacheable(newRequest(client, "select 1")));
+        Assert.assertTrue(ClickHouseResultCache.isCacheable(newRequest(client, " WITH 1 as a select a")));
+        Assert.assertFalse(ClickHouseResultCache.isCacheable(newRequest(client, "insert into t values(1)")));
+        Assert.assertFalse(ClickHouseResultCache.isCacheable(newRequest(client, "select 1").session("s")));
+        Assert.assertFalse(
+                ClickHouseResultCache.isCacheable(newRequest(client, "select 1").format(ClickHouseFormat.TSV)));
+        Assert.assertFalse(ClickHouseResultCache.isCacheable(newRequest(client, "select 1").write()));
+    }
+
+    @Test(groups = { "unit" })
+    public void testReplay() throws Exception {
+        CountingClient client = new CountingClient();
+        ClickHouseResultCache cache = new ClickHouseResultCache(64 * 1024, 60, 1024);
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select a from t"))),
+                Collections.singletonList(0));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(read(cache.executeAndWait(newRequest(client, " select a\nfrom t "))),
+                    Collections.singletonList(0));
+        }
+        Assert.assertEquals(client.counter.get(), 1);
+
+        // different settings
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select a from t").set("a", 1))).size(), 2);
+        Assert.assertEquals(client.counter.get(), 2);
+
+        // too large to be cached
+        cache = new ClickHouseResultCache(64 * 1024, 60, 1);
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select a from t"))).size(), 3);
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select a from t"))).size(), 4);
+        Assert.assertEquals(client.counter.get(), 4);
+
+        // streamed through once exceeded max entry size
+        client.rows = 1000;
+        cache = new ClickHouseResultCache(64 * 1024, 60, 100);
+        for (int i = 0; i < 2; i++) {
+            List<Integer> list = read(cache.executeAndWait(newRequest(client, "select a from t")));
+            Assert.assertEquals(list.size(), 1000);
+            Assert.assertEquals(list.get(999), 999);
+        }
+        Assert.assertEquals(client.counter.get(), 6);
+    }
+
+    @Test(groups = { "unit" })
+    public void testOptions() throws Exception {
+        CountingClient client = new CountingClient();
+        ClickHouseResultCache cache = new ClickHouseResultCache(64 * 1024, 60, 1024);
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select a from t"))).size(), 1);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select a from t")
+                    .option(ClickHouseClientOption.MAX_RESULT_ROWS, 1L))).size(), 2);
+        }
+        Assert.assertEquals(client.counter.get(), 2);
+
+        // same as default value
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select a from t")
+                .option(ClickHouseClientOption.MAX_RESULT_ROWS, 0L))).size(), 1);
+        Assert.assertEquals(client.counter.get(), 2);
+    }
+
+    @Test(groups = { "unit" })
+    public void testSingleFlight() throws Exception {
+        CountingClient client = new CountingClient();
+        ClickHouseResultCache cache = new ClickHouseResultCache(64 * 1024, 60, 1024 * 1024);
+
+        client.gate = new CompletableFuture<>();
+        List<CompletableFuture<ClickHouseResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(cache.execute(newRequest(client, "select a from t")));
+        }
+        Assert.assertEquals(client.counter.get(), 1);
+        for (CompletableFuture<ClickHouseResponse> f : futures) {
+            Assert.assertFalse(f.isDone());
+        }
+        client.gate.complete(null);
+        for (CompletableFuture<ClickHouseResponse> f : futures) {
+            Assert.assertEquals(read(f.get(5, TimeUnit.SECONDS)), Collections.singletonList(0));
+        }
+        Assert.assertEquals(client.counter.get(), 1);
+
+        // failure is shared by in-flight requests but never cached
+        client.gate = new CompletableFuture<>();
+        futures.clear();
+        for (int i = 0; i < 3; i++) {
+            futures.add(cache.execute(newRequest(client, "select b from t")));
+        }
+        client.gate.completeExceptionally(new IOException("fake error"));
+        for (CompletableFuture<ClickHouseResponse> f : futures) {
+            Assert.assertTrue(f.isCompletedExceptionally());
+        }
+        Assert.assertThrows(ClickHouseException.class,
+                () -> cache.executeAndWait(newRequest(client, "select b from t")));
+        Assert.assertEquals(client.counter.get(), 3);
+    }
+
+    @Test(groups = { "unit" })
+    public void testEviction() throws Exception {
+        CountingClient client = new CountingClient();
+        client.rows = 5;
+        // 20 bytes for each entry, as header has been read into columns
+        ClickHouseResultCache cache = new ClickHouseResultCache(50, 60, 1024);
+        for (String sql : new String[] { "select 1", "select 2", "select 3", "select 3", "select 2" }) {
+            Assert.assertEquals(read(cache.executeAndWait(newRequest(client, sql))).size(), 5);
+        }
+        Assert.assertEquals(client.counter.get(), 3);
+
+        // least recently used one was evicted
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select 1"))).size(), 5);
+        Assert.assertEquals(client.counter.get(), 4);
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select 2"))).size(), 5);
+        Assert.assertEquals(client.counter.get(), 4);
+
+        // larger than the cache
+        client.rows = 20;
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select 4"))).size(), 20);
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select 4"))).size(), 20);
+        Assert.assertEquals(client.counter.get(), 6);
+    }
+
+    @Test(groups = { "unit" })
+    public void testExpiration() throws Exception {
+        CountingClient client = new CountingClient();
+        ClickHouseResultCache cache = new ClickHouseResultCache(64 * 1024, 1, 1024);
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select 1"))).size(), 1);
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select 1"))).size(), 1);
+        Thread.sleep(1100L);
+        Assert.assertEquals(read(cache.executeAndWait(newRequest(client, "select 1"))).size(), 2);
+        Assert.assertEquals(client.counter.get(), 2);
+    }
+
+    @Test(groups = { "unit" })
+    public void testRequestOption() throws Exception {
+        CountingClient client = new CountingClient();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(read(newRequest(client, "select 2").option(ClickHouseClientOption.RESULT_CACHE_SIZE, 64 * 1024)
+                    .execute().get(5, TimeUnit.SECONDS)).size(), 1);
+        }
+        Assert.assertEquals(client.counter.get(), 1);
+        Assert.assertNotNull(ClickHouseResultCache.getInstance(newRequest(client, "select 2")
+                .option(ClickHouseClientOption.RESULT_CACHE_SIZE, 64 * 1024).getConfig()));
+        Assert.assertNull(ClickHouseResultCache.getInstance(client.getConfig()));
+
+        // disabled by default
+        read(newRequest(client, "select 2").executeAndWait());
+        Assert.assertEquals(client.counter.get(), 2);
+    }
+}
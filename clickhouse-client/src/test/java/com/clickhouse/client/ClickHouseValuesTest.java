@@ -263,4 +263,20 @@ public class ClickHouseValuesTest extends BaseClickHouseValueTest {
                         new boolean[] { false, true } }),
                 "[1,97,1,2,3,4,5.555,6.666666,'\\'x\\'','00000000-0000-0000-0000-000000000002','127.0.0.1','0:0:0:0:0:0:0:1',30,123456789,1.23456789,NULL,'2021-11-12','11:12:13.123456789','2021-11-12 11:12:13.123456789',[0,1]]");
     }
+
+    @Test(groups = { "unit" })
+    public void testConvertToQueryParameter() {
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter(null), "\\N");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter(ClickHouseValues.NULL_EXPR), "\\N");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter("123"), "123");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter("-1.5"), "-1.5");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter("''"), "");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter("'"), "'");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter("'2021-11-12'"), "2021-11-12");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter(ClickHouseValues.convertToSqlExpression("a'b\\c")),
+                "a\\'b\\\\c");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter("'a''b'"), "a'b");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter("'a\tb\nc'"), "a\\tb\\nc");
+        Assert.assertEquals(ClickHouseValues.convertToQueryParameter("[1,'x',NULL]"), "[1,'x',NULL]");
+    }
 }
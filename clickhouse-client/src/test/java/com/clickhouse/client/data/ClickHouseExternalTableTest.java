@@ -0,0 +1,139 @@
+package com.clickhouse.client.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseValue;
+
+public class ClickHouseExternalTableTest {
+    private byte[] getContent(ClickHouseExternalTable table) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.writeContent(out, new ClickHouseConfig());
+        return out.toByteArray();
+    }
+
+    @Test(groups = { "unit" })
+    public void testInputStream() throws IOException {
+        ClickHouseExternalTable table = ClickHouseExternalTable.builder().name("x").columns("a String")
+                .content(new ByteArrayInputStream(new byte[] { 0x31, 0x0A })).build();
+        Assert.assertFalse(table.hasWriter());
+        Assert.assertEquals(table.getFormat(), ClickHouseFormat.TabSeparated);
+        Assert.assertEquals(getContent(table), new byte[] { 0x31, 0x0A });
+    }
+
+    @Test(groups = { "unit" })
+    public void testPrimitiveArrays() throws IOException {
+        ClickHouseExternalTable table = ClickHouseExternalTable.builder().name("x")
+                .content(new int[] { 1, -1, 0x01020304 }).build();
+        Assert.assertTrue(table.hasWriter());
+        Assert.assertEquals(table.getFormat(), ClickHouseFormat.RowBinary);
+        Assert.assertEquals(table.getStructure(), "id Int32");
+        Assert.assertEquals(getContent(table), new byte[] { 1, 0, 0, 0, -1, -1, -1, -1, 4, 3, 2, 1 });
+
+        table = ClickHouseExternalTable.builder().name("x").addColumn("uid", "UInt64").content(new long[] { 2L })
+                .build();
+        Assert.assertEquals(table.getStructure(), "uid UInt64");
+        Assert.assertEquals(getContent(table), new byte[] { 2, 0, 0, 0, 0, 0, 0, 0 });
+
+        // default column does not depend on order of calls
+        table = ClickHouseExternalTable.builder().name("x").content(new long[] { 3L }).addColumn("uid", "UInt64")
+                .build();
+        Assert.assertEquals(table.getStructure(), "uid UInt64");
+        table = ClickHouseExternalTable.builder().name("x").content(new long[] { 3L }).content(new int[] { 3 })
+                .build();
+        Assert.assertEquals(table.getStructure(), "id Int32");
+
+        // values must match the column type
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseExternalTable.builder()
+                .addColumn("a", "Int64").content(new int[] { 1 }).build());
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseExternalTable.builder()
+                .addColumn("a", "Float32").content(new int[] { 1 }).build());
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseExternalTable.builder()
+                .addColumn("a", "Nullable(Int32)").content(new int[] { 1 }).build());
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseExternalTable.builder()
+                .columns("a Int64, b Int64").content(new long[] { 1L }).build());
+
+        // larger than internal buffer
+        int[] values = new int[5000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        byte[] bytes = getContent(ClickHouseExternalTable.builder().content(values).build());
+        Assert.assertEquals(bytes.length, values.length * 4);
+        Assert.assertEquals(
+                BinaryStreamUtils.readInt32(ClickHouseInputStream.of(new ByteArrayInputStream(bytes, 4999 * 4, 4))),
+                4999);
+    }
+
+    @Test(groups = { "unit" })
+    public void testBitmap() throws IOException {
+        ClickHouseBitmap bitmap = ClickHouseBitmap.wrap(RoaringBitmap.bitmapOf(1, 5, 0xFFFFFFFF),
+                ClickHouseDataType.UInt32);
+        PrimitiveIterator.OfLong it = bitmap.iterator();
+        Assert.assertEquals(it.nextLong(), 1L);
+        Assert.assertEquals(it.nextLong(), 5L);
+        Assert.assertEquals(it.nextLong(), 0xFFFFFFFFL);
+        Assert.assertFalse(it.hasNext());
+
+        ClickHouseExternalTable table = ClickHouseExternalTable.builder().name("x").content(bitmap).build();
+        Assert.assertEquals(table.getStructure(), "id UInt32");
+        Assert.assertEquals(getContent(table), new byte[] { 1, 0, 0, 0, 5, 0, 0, 0, -1, -1, -1, -1 });
+
+        bitmap = ClickHouseBitmap.wrap(Roaring64NavigableMap.bitmapOf(3L, 0x100000000L), ClickHouseDataType.Int64);
+        table = ClickHouseExternalTable.builder().name("x").content(bitmap).build();
+        Assert.assertEquals(table.getStructure(), "id Int64");
+        Assert.assertEquals(getContent(table), new byte[] { 3, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0 });
+    }
+
+    @Test(groups = { "unit" })
+    public void testRecords() throws IOException {
+        ClickHouseRecord r1 = ClickHouseSimpleRecord.of(
+                Arrays.asList(ClickHouseColumn.of("a", "Int8"), ClickHouseColumn.of("b", "String")),
+                new ClickHouseValue[] { ClickHouseByteValue.of(1), ClickHouseStringValue.of("x") });
+        ClickHouseExternalTable table = ClickHouseExternalTable.builder().name("x").columns("a Int8, b String")
+                .content(Arrays.asList(r1, r1)).build();
+        Assert.assertEquals(table.getFormat(), ClickHouseFormat.RowBinary);
+        Assert.assertEquals(getContent(table), new byte[] { 1, 1, 0x78, 1, 1, 0x78 });
+
+        // piped for callers reading content as input stream
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = table.getContent(new ClickHouseConfig())) {
+            int b;
+            while ((b = in.read()) != -1) {
+                out.write(b);
+            }
+        }
+        Assert.assertEquals(out.toByteArray(), new byte[] { 1, 1, 0x78, 1, 1, 0x78 });
+    }
+
+    @Test(groups = { "unit" })
+    public void testWriterFailure() throws IOException {
+        ClickHouseExternalTable table = ClickHouseExternalTable.builder().name("x").columns("a Int8")
+                .content(output -> {
+                    output.write(1);
+                    throw new IOException("fake error");
+                }).build();
+        try (InputStream in = table.getContent(new ClickHouseConfig())) {
+            while (in.read() != -1) {
+                // consume until failure
+            }
+            Assert.fail("Should fail instead of ending the stream");
+        } catch (IOException e) {
+            Assert.assertEquals(e.getCause().getMessage(), "fake error");
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package com.clickhouse.client.data;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.Buffer;
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import com.clickhouse.client.ClickHouseBufferPool;
 import com.clickhouse.client.ClickHouseByteBuffer;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseOutputStream;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class ClickHousePipedStreamTest {
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] toBytes(ClickHouseByteBuffer buffer) {
+        return Arrays.copyOfRange(buffer.array(), buffer.position(), buffer.position() + buffer.length());
+    }
+
     @Test(groups = { "unit" })
     public void testRead() throws Exception {
         ClickHousePipedStream stream = new ClickHousePipedStream(4, 3, 1);
@@ -152,8 +167,8 @@ public class ClickHousePipedStreamTest {
             Assert.assertEquals(stream.queue.size(), 1);
             out.flush();
             Assert.assertEquals(stream.queue.size(), 2);
-            Assert.assertEquals(stream.queue.take().array(), new byte[] { (byte) 5, (byte) 6 });
-            Assert.assertEquals(stream.queue.take().array(), new byte[] { (byte) 7, (byte) 0 });
+            Assert.assertEquals(toBytes(stream.queue.take()), new byte[] { (byte) 5, (byte) 6 });
+            Assert.assertEquals(toBytes(stream.queue.take()), new byte[] { (byte) 7 });
         }
 
         stream = new ClickHousePipedStream(1, 1, 2);
@@ -194,8 +209,8 @@ public class ClickHousePipedStreamTest {
             Assert.assertEquals(stream.queue.size(), 1);
             out.flush();
             Assert.assertEquals(stream.queue.size(), 2);
-            Assert.assertEquals(stream.queue.take().array(), new byte[] { (byte) 9, (byte) 10 });
-            Assert.assertEquals(stream.queue.take().array(), new byte[] { (byte) 12, (byte) 0 });
+            Assert.assertEquals(toBytes(stream.queue.take()), new byte[] { (byte) 9, (byte) 10 });
+            Assert.assertEquals(toBytes(stream.queue.take()), new byte[] { (byte) 12 });
         }
 
         try (OutputStream out = stream) {
@@ -261,4 +276,127 @@ public class ClickHousePipedStreamTest {
             }
         }
     }
+
+    @Test(groups = { "unit" })
+    public void testRecycleBuffers() throws Exception {
+        ClickHouseBufferPool pool = new ClickHouseBufferPool(true);
+        ClickHousePipedStream stream = new ClickHousePipedStream(3, 0, 1000, pool);
+        try (InputStream in = stream.getInput()) {
+            try (OutputStream out = stream) {
+                for (int i = 0; i < 10; i++) {
+                    out.write(i);
+                }
+            }
+            Assert.assertEquals(stream.queue.size(), 5);
+            Assert.assertEquals(pool.getOutstanding(), 4L);
+
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(in.read(), i);
+            }
+            Assert.assertEquals(in.read(), -1);
+        }
+        Assert.assertEquals(stream.queue.size(), 0);
+        Assert.assertEquals(pool.getOutstanding(), 0L);
+    }
+
+    @Test(groups = { "unit" })
+    public void testWriteByteBuffer() throws Exception {
+        ClickHouseBufferPool pool = new ClickHouseBufferPool(true);
+        ClickHousePipedStream stream = new ClickHousePipedStream(4096, 0, 1000, pool);
+        byte[] large = new byte[5000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(large.length);
+        direct.put(large);
+        ((Buffer) direct).flip();
+
+        try (ClickHouseInputStream in = stream.getInput()) {
+            try (ClickHousePipedStream out = stream) {
+                out.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }).asReadOnlyBuffer());
+                ByteBuffer b = ByteBuffer.wrap(large, 1, large.length - 1);
+                out.write(b);
+                Assert.assertFalse(b.hasRemaining());
+                out.write(direct.asReadOnlyBuffer());
+                out.write(ByteBuffer.allocate(0));
+                ByteBuffer small = ByteBuffer.allocateDirect(2).put((byte) 7).put((byte) 8);
+                out.write((ByteBuffer) ((Buffer) small).flip());
+            }
+            // small chunk, handed over buffer, handed over buffer, small chunk and EOF
+            Assert.assertEquals(stream.queue.size(), 5);
+            Assert.assertEquals(pool.getOutstanding(), 2L);
+
+            Assert.assertEquals(in.readBytes(3), new byte[] { 1, 2, 3 });
+            Assert.assertEquals(toBytes(in.read(4)), new byte[] { 1, 2, 3, 4 });
+            Assert.assertEquals(in.readBytes(large.length - 5), Arrays.copyOfRange(large, 5, large.length));
+            Assert.assertEquals(toBytes(in.read(2)), new byte[] { 0, 1 });
+            Assert.assertEquals(toBytes(in.read(3)), new byte[] { 2, 3, 4 });
+            Assert.assertEquals(in.readBytes(large.length - 5), Arrays.copyOfRange(large, 5, large.length));
+            Assert.assertEquals(in.read(), 7);
+            Assert.assertEquals(in.read(), 8);
+            Assert.assertEquals(in.read(), -1);
+        }
+        Assert.assertEquals(pool.getOutstanding(), 0L);
+        Assert.assertEquals(direct.remaining(), large.length);
+    }
+
+    @Test(groups = { "unit" })
+    public void testPipeByteBuffer() throws Exception {
+        ClickHouseBufferPool pool = new ClickHouseBufferPool(true);
+        ClickHousePipedStream stream = new ClickHousePipedStream(4096, 0, 1000, pool);
+        byte[] large = new byte[5000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(large.length);
+        direct.put(large);
+        ((Buffer) direct).flip();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ClickHouseInputStream in = stream.getInput()) {
+            try (ClickHousePipedStream out = stream) {
+                out.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }).asReadOnlyBuffer());
+                out.write(ByteBuffer.wrap(large).asReadOnlyBuffer());
+                out.write(direct.asReadOnlyBuffer());
+            }
+            Assert.assertEquals(in.read(), 1);
+            // smaller than the slices so that they're copied in multiple rounds
+            try (ClickHouseOutputStream out = ClickHouseOutputStream.of(bytes, 1000)) {
+                Assert.assertEquals(in.pipe(out), 2L + large.length * 2);
+            }
+        }
+        byte[] expected = new byte[2 + large.length * 2];
+        expected[0] = 2;
+        expected[1] = 3;
+        System.arraycopy(large, 0, expected, 2, large.length);
+        System.arraycopy(large, 0, expected, 2 + large.length, large.length);
+        Assert.assertEquals(bytes.toByteArray(), expected);
+        Assert.assertEquals(pool.getOutstanding(), 0L);
+        Assert.assertEquals(direct.remaining(), large.length);
+    }
+
+    @Test(groups = { "unit" })
+    public void testAdaptiveChunkSize() throws Exception {
+        ClickHousePipedStream stream = new ClickHousePipedStream(8192, 16, 1000);
+        Assert.assertEquals(stream.getChunkSize(), ClickHousePipedStream.MIN_CHUNK_SIZE);
+        try (InputStream in = stream.getInput(); OutputStream out = stream) {
+            // bulk write
+            out.write(new byte[ClickHousePipedStream.MIN_CHUNK_SIZE * 3 + 1]);
+            Assert.assertEquals(stream.getChunkSize(), ClickHousePipedStream.MIN_CHUNK_SIZE * 4);
+            Assert.assertEquals(stream.queue.size(), 2);
+            byte[] bytes = new byte[ClickHousePipedStream.MIN_CHUNK_SIZE * 3];
+            Assert.assertEquals(in.read(bytes), bytes.length);
+
+            // small writes followed by flush
+            out.flush();
+            Assert.assertEquals(stream.getChunkSize(), ClickHousePipedStream.MIN_CHUNK_SIZE * 2);
+            Assert.assertEquals(in.read(), 0);
+            for (int i = 0; i < 3; i++) {
+                out.write(1);
+                out.flush();
+                Assert.assertEquals(in.read(), 1);
+            }
+            Assert.assertEquals(stream.getChunkSize(), ClickHousePipedStream.MIN_CHUNK_SIZE);
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package com.clickhouse.client.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseInputStream;
+
+public class ClickHouseReservoirSamplerTest {
+    private ClickHouseReservoirSampler roundTrip(ClickHouseReservoirSampler sampler) throws IOException {
+        ByteArrayOutputStream bas = new ByteArrayOutputStream();
+        sampler.write(bas);
+        return ClickHouseReservoirSampler.read(ClickHouseInputStream.of(new ByteArrayInputStream(bas.toByteArray())),
+                sampler.getValueType());
+    }
+
+    @Test(groups = { "unit" })
+    public void testIsSupported() {
+        Assert.assertTrue(ClickHouseReservoirSampler.isSupported(ClickHouseDataType.Int8));
+        Assert.assertTrue(ClickHouseReservoirSampler.isSupported(ClickHouseDataType.UInt32));
+        Assert.assertTrue(ClickHouseReservoirSampler.isSupported(ClickHouseDataType.Float64));
+        Assert.assertFalse(ClickHouseReservoirSampler.isSupported(ClickHouseDataType.UInt64));
+        Assert.assertFalse(ClickHouseReservoirSampler.isSupported(ClickHouseDataType.String));
+        Assert.assertFalse(ClickHouseReservoirSampler.isSupported(null));
+    }
+
+    @Test(groups = { "unit" })
+    public void testQuantile() throws IOException {
+        ClickHouseReservoirSampler sampler = new ClickHouseReservoirSampler(ClickHouseDataType.Int32);
+        Assert.assertTrue(sampler.isEmpty());
+        Assert.assertTrue(Double.isNaN(sampler.quantile(0.5D)));
+        Assert.assertEquals(roundTrip(sampler), sampler);
+
+        for (int i = 10; i > 0; i--) {
+            sampler.add(i);
+        }
+        Assert.assertEquals(sampler.size(), 10);
+        Assert.assertEquals(sampler.getTotalValues(), 10L);
+        Assert.assertEquals(sampler.quantile(0D), 1D);
+        Assert.assertEquals(sampler.quantile(0.5D), 5.5D);
+        Assert.assertEquals(sampler.quantiles(0.25D, 1D), new double[] { 3.25D, 10D });
+
+        ClickHouseReservoirSampler copy = roundTrip(sampler);
+        Assert.assertEquals(copy, sampler);
+        Assert.assertEquals(copy.quantile(0.5D), 5.5D);
+
+        sampler = new ClickHouseReservoirSampler(ClickHouseDataType.Float64).add(1.5D).add(Double.NaN).add(0.5D);
+        Assert.assertEquals(sampler.size(), 2);
+        Assert.assertEquals(sampler.quantile(0.5D), 1D);
+        Assert.assertEquals(roundTrip(sampler), sampler);
+    }
+
+    @Test(groups = { "unit" })
+    public void testSampling() throws IOException {
+        ClickHouseReservoirSampler sampler = new ClickHouseReservoirSampler(ClickHouseDataType.UInt16, 100);
+        ClickHouseReservoirSampler other = new ClickHouseReservoirSampler(ClickHouseDataType.UInt16, 100);
+        for (int i = 0; i < 10000; i++) {
+            sampler.add(i % 1000);
+            other.add(1000 + i % 1000);
+        }
+        Assert.assertEquals(sampler.size(), 100);
+        Assert.assertEquals(sampler.getTotalValues(), 10000L);
+        Assert.assertEquals(roundTrip(sampler), sampler);
+        double median = sampler.quantile(0.5D);
+        Assert.assertTrue(median > 250D && median < 750D, "Unexpected median " + median);
+
+        sampler.merge(other);
+        Assert.assertEquals(sampler.size(), 100);
+        Assert.assertEquals(sampler.getTotalValues(), 20000L);
+        median = sampler.quantile(0.5D);
+        Assert.assertTrue(median > 500D && median < 1500D, "Unexpected median " + median);
+    }
+}
@@ -0,0 +1,75 @@
+package com.clickhouse.client.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClickHouseRingBufferTest {
+    @Test(groups = { "unit" })
+    public void testQueue() throws Exception {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ClickHouseRingBuffer<Integer>(0));
+
+        ClickHouseRingBuffer<Integer> ring = new ClickHouseRingBuffer<>(3);
+        Assert.assertTrue(ring.isEmpty());
+        Assert.assertNull(ring.peek());
+        Assert.assertNull(ring.poll());
+        Assert.assertNull(ring.poll(1, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(ring.remainingCapacity(), 3);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(ring.offer(i));
+        }
+        Assert.assertFalse(ring.offer(3));
+        Assert.assertFalse(ring.offer(3, 1, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(ring.size(), 3);
+        Assert.assertEquals(ring.remainingCapacity(), 0);
+        Assert.assertEquals(ring.peek(), 0);
+        Assert.assertEquals(ring.toArray(), new Object[] { 0, 1, 2 });
+
+        Assert.assertEquals(ring.take(), 0);
+        Assert.assertTrue(ring.offer(3, 1, TimeUnit.MILLISECONDS));
+        List<Integer> list = new ArrayList<>();
+        Assert.assertEquals(ring.drainTo(list, 2), 2);
+        Assert.assertEquals(list.toArray(), new Object[] { 1, 2 });
+        Assert.assertEquals(ring.poll(), 3);
+        Assert.assertTrue(ring.isEmpty());
+
+        ring.put(4);
+        ring.clear();
+        Assert.assertEquals(ring.size(), 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testProducerConsumer() throws Exception {
+        for (int capacity : new int[] { 1, 2, 7, 64 }) {
+            ClickHouseRingBuffer<Integer> ring = new ClickHouseRingBuffer<>(capacity);
+            int count = 10000;
+            Thread producer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < count; i++) {
+                        ring.put(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+            for (int i = 0; i < count; i++) {
+                Assert.assertEquals(ring.take().intValue(), i);
+            }
+            producer.join();
+            Assert.assertTrue(ring.isEmpty());
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testInterrupt() throws Exception {
+        ClickHouseRingBuffer<Integer> ring = new ClickHouseRingBuffer<>(1);
+        Thread.currentThread().interrupt();
+        Assert.assertThrows(InterruptedException.class, () -> ring.take());
+        Assert.assertFalse(Thread.interrupted());
+    }
+}
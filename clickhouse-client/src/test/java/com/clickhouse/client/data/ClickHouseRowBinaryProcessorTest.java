@@ -1,6 +1,8 @@
 package com.clickhouse.client.data;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.net.InetAddress;
@@ -13,26 +15,106 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseDeserializer;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
 import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.data.array.ClickHouseByteArrayValue;
 import com.clickhouse.client.data.array.ClickHouseShortArrayValue;
 
+import it.unimi.dsi.fastutil.ints.Int2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2DoubleMap;
+
 public class ClickHouseRowBinaryProcessorTest {
     private ClickHouseRowBinaryProcessor newProcessor(int... bytes) throws IOException {
         return new ClickHouseRowBinaryProcessor(new ClickHouseConfig(), BinaryStreamUtilsTest.generateInput(bytes),
                 null, Collections.emptyList(), null);
     }
 
-    // @Test(groups = { "unit" })
-    // public void testDeserializeAggregateFunction() throws IOException {
-    // ClickHouseConfig config = new ClickHouseConfig();
-    // ClickHouseValue value =
-    // ClickHouseRowBinaryProcessor.getMappedFunctions().deserialize(null, config,
-    // ClickHouseColumn.of("a", "AggregateFunction(any, String)"),
-    // BinaryStreamUtilsTest.generateInput(0xFF, 0xFF));
-    // Assert.assertTrue(value instanceof ClickHouseStringValue);
-    // Assert.assertEquals(value.asObject(), null);
-    // }
+    private byte[] serialize(ClickHouseValue value, ClickHouseColumn column) throws IOException {
+        ByteArrayOutputStream bas = new ByteArrayOutputStream();
+        ClickHouseRowBinaryProcessor.getMappedFunctions().serialize(value, new ClickHouseConfig(), column, bas);
+        return bas.toByteArray();
+    }
+
+    private ClickHouseValue deserialize(ClickHouseColumn column, byte[] bytes) throws IOException {
+        return ClickHouseRowBinaryProcessor.getMappedFunctions().deserialize(null, new ClickHouseConfig(), column,
+                ClickHouseInputStream.of(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test(groups = { "unit" })
+    public void testAggregateFunctionState() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        ClickHouseColumn column = ClickHouseColumn.of("a", "AggregateFunction(count)");
+        ClickHouseValue value = ClickHouseValues.newValue(config, column).update(300L);
+        byte[] bytes = serialize(value, column);
+        Assert.assertEquals(bytes, BinaryStreamUtilsTest.generateBytes(0xAC, 2));
+        Assert.assertEquals(deserialize(column, bytes).asLong(), 300L);
+
+        column = ClickHouseColumn.of("a", "AggregateFunction(sum, Int32)");
+        value = ClickHouseValues.newValue(config, column).update(-1);
+        bytes = serialize(value, column);
+        Assert.assertEquals(bytes, BinaryStreamUtilsTest.generateBytes(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF));
+        Assert.assertEquals(deserialize(column, bytes).asLong(), -1L);
+
+        column = ClickHouseColumn.of("a", "AggregateFunction(avg, UInt8)");
+        value = ClickHouseValues.newValue(config, column).update(Arrays.asList(5L, 2L));
+        bytes = serialize(value, column);
+        Assert.assertEquals(bytes, BinaryStreamUtilsTest.generateBytes(5, 0, 0, 0, 0, 0, 0, 0, 2));
+        Assert.assertEquals(deserialize(column, bytes).asTuple(), Arrays.asList(5L, 2L));
+
+        column = ClickHouseColumn.of("a", "AggregateFunction(any, String)");
+        value = ClickHouseValues.newValue(config, column).update("5");
+        bytes = serialize(value, column);
+        Assert.assertEquals(bytes, BinaryStreamUtilsTest.generateBytes(2, 0, 0, 0, 0x35, 0));
+        Assert.assertEquals(deserialize(column, bytes).asString(), "5");
+        bytes = serialize(value.resetToNullOrEmpty(), column);
+        Assert.assertEquals(bytes, BinaryStreamUtilsTest.generateBytes(0xFF, 0xFF, 0xFF, 0xFF));
+        Assert.assertNull(deserialize(column, bytes).asObject());
+
+        column = ClickHouseColumn.of("a", "AggregateFunction(min, Int16)");
+        value = ClickHouseValues.newValue(config, column).update(3);
+        bytes = serialize(value, column);
+        Assert.assertEquals(bytes, BinaryStreamUtilsTest.generateBytes(1, 3, 0));
+        Assert.assertEquals(deserialize(column, bytes).asShort(), (short) 3);
+        Assert.assertEquals(serialize(value.resetToNullOrEmpty(), column), BinaryStreamUtilsTest.generateBytes(0));
+
+        column = ClickHouseColumn.of("a", "AggregateFunction(groupArray, Int8)");
+        value = ClickHouseValues.newValue(config, column).update(new byte[] { 1, 2 });
+        bytes = serialize(value, column);
+        Assert.assertEquals(bytes, BinaryStreamUtilsTest.generateBytes(2, 1, 2));
+        Assert.assertEquals(deserialize(column, bytes).asObject(), new byte[] { 1, 2 });
+        ClickHouseValue strings = ClickHouseValues.newValue(config, ClickHouseColumn.of("a", "Array(String)"));
+        Assert.assertThrows(IOException.class,
+                () -> serialize(strings, ClickHouseColumn.of("a", "AggregateFunction(uniqExact, String)")));
+
+        column = ClickHouseColumn.of("a", "AggregateFunction(uniq, UInt64)");
+        ClickHouseUniquesHashSet set = new ClickHouseUniquesHashSet().add(1L).add(2L).add(1L);
+        bytes = serialize(ClickHouseUniquesHashSetValue.of(set), column);
+        value = deserialize(column, bytes);
+        Assert.assertTrue(value instanceof ClickHouseUniquesHashSetValue);
+        Assert.assertEquals(value.asObject(), set);
+        Assert.assertEquals(value.asLong(), 2L);
+
+        column = ClickHouseColumn.of("a", "AggregateFunction(quantile(0.5), Float64)");
+        ClickHouseReservoirSampler sampler = new ClickHouseReservoirSampler(ClickHouseDataType.Float64).add(1D)
+                .add(2D);
+        bytes = serialize(ClickHouseReservoirSamplerValue.of(sampler), column);
+        value = deserialize(column, bytes);
+        Assert.assertTrue(value instanceof ClickHouseReservoirSamplerValue);
+        Assert.assertEquals(value.asObject(), sampler);
+        Assert.assertEquals(value.asDouble(), 1.5D);
+        Assert.assertThrows(IllegalArgumentException.class, () -> serialize(ClickHouseReservoirSamplerValue.of(
+                sampler), ClickHouseColumn.of("a", "AggregateFunction(quantile(0.5), Int32)")));
+
+        // nullable argument is not supported
+        Assert.assertThrows(IOException.class,
+                () -> deserialize(ClickHouseColumn.of("a", "AggregateFunction(sum, Nullable(Int32))"),
+                        new byte[8]));
+    }
 
     @Test(groups = { "unit" })
     public void testDeserializeArray() throws IOException {
@@ -196,6 +278,67 @@ public class ClickHouseRowBinaryProcessorTest {
                 BinaryStreamUtilsTest.generateBytes(2, 1, 0x32, 2, 0, 0, 0, 1, 0x31, 1, 0, 0, 0));
     }
 
+    @Test(groups = { "unit" })
+    public void testPrimitiveMap() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig(
+                Collections.singletonMap(ClickHouseClientOption.USE_PRIMITIVE_MAP, true), null, null, null);
+        ClickHouseColumn column = ClickHouseColumn.of("m", "Map(UInt32, Float64)");
+        ByteArrayOutputStream bas = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(bas, 3);
+        long[] keys = new long[] { 4294967295L, 1L, 7L };
+        double[] values = new double[] { 1.5D, -2D, 0D };
+        for (int i = 0; i < keys.length; i++) {
+            BinaryStreamUtils.writeUnsignedInt32(bas, keys[i]);
+            BinaryStreamUtils.writeFloat64(bas, values[i]);
+        }
+        byte[] bytes = bas.toByteArray();
+
+        ClickHouseValue value = ClickHouseRowBinaryProcessor.getMappedFunctions().deserialize(null, config, column,
+                ClickHouseInputStream.of(new ByteArrayInputStream(bytes)));
+        Assert.assertTrue(value instanceof ClickHouseMapValue);
+        Map<Long, Double> map = value.asMap(Long.class, Double.class);
+        Assert.assertTrue(map instanceof Long2DoubleMap);
+        Assert.assertEquals(map.size(), 3);
+        Assert.assertEquals(map.keySet().toArray(), new Long[] { 4294967295L, 1L, 7L });
+        Assert.assertEquals(map.get(1L), -2D);
+        Assert.assertEquals(((Long2DoubleMap) map).get(4294967295L), 1.5D);
+        Assert.assertNull(map.get(2L));
+
+        // boxed map by default
+        value = ClickHouseRowBinaryProcessor.getMappedFunctions().deserialize(null, new ClickHouseConfig(), column,
+                ClickHouseInputStream.of(new ByteArrayInputStream(bytes)));
+        Assert.assertFalse(value.asObject() instanceof Long2DoubleMap);
+        Assert.assertEquals(value.asMap(), map);
+
+        // nullable value is not supported
+        value = ClickHouseRowBinaryProcessor.getMappedFunctions().deserialize(null, config,
+                ClickHouseColumn.of("m", "Map(Int32, Nullable(Int32))"),
+                BinaryStreamUtilsTest.generateInput(1, 1, 0, 0, 0, 1));
+        Assert.assertEquals(value.asMap(), Collections.singletonMap(1, null));
+
+        bas = new ByteArrayOutputStream();
+        ClickHouseRowBinaryProcessor.getMappedFunctions().serialize(ClickHouseMapValue.of(map, Long.class,
+                Double.class), config, column, bas);
+        Assert.assertEquals(bas.toByteArray(), bytes);
+
+        Int2IntLinkedOpenHashMap intMap = new Int2IntLinkedOpenHashMap();
+        intMap.put(65535, -1);
+        intMap.put(2, 3);
+        bas = new ByteArrayOutputStream();
+        ClickHouseRowBinaryProcessor.getMappedFunctions().serialize(
+                ClickHouseMapValue.of(intMap, Integer.class, Integer.class), config,
+                ClickHouseColumn.of("m", "Map(UInt16, Int32)"), bas);
+        Assert.assertEquals(bas.toByteArray(),
+                BinaryStreamUtilsTest.generateBytes(2, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 2, 0, 3, 0, 0, 0));
+        // falls back to boxed map when value type does not match
+        bas = new ByteArrayOutputStream();
+        ClickHouseRowBinaryProcessor.getMappedFunctions().serialize(
+                ClickHouseMapValue.of(intMap, Integer.class, Integer.class), config,
+                ClickHouseColumn.of("m", "Map(UInt16, Int64)"), bas);
+        Assert.assertEquals(bas.toByteArray(), BinaryStreamUtilsTest.generateBytes(2, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF,
+                0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 2, 0, 3, 0, 0, 0, 0, 0, 0, 0));
+    }
+
     @Test(groups = { "unit" })
     public void testDeserializeNested() throws IOException {
         ClickHouseConfig config = new ClickHouseConfig();
@@ -267,4 +410,142 @@ public class ClickHouseRowBinaryProcessorTest {
         Assert.assertEquals(bas.toByteArray(), BinaryStreamUtilsTest.generateBytes(1, 0, 0, 0, 2, 0, 0, 0, 0, 0, 0, 0,
                 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0x05, 0xa8, 0xc0));
     }
+
+    @Test(groups = { "unit" })
+    public void testResolvedFunctions() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+        ClickHouseColumn column = ClickHouseColumn.of("a", "Nullable(Int32)");
+        ByteArrayOutputStream bas = new ByteArrayOutputStream();
+        m.getSerializer(column).serialize(ClickHouseIntegerValue.of(5), config, column, bas);
+        m.getSerializer(column).serialize(ClickHouseIntegerValue.ofNull(), config, column, bas);
+        byte[] bytes = bas.toByteArray();
+        Assert.assertEquals(bytes, BinaryStreamUtilsTest.generateBytes(0, 5, 0, 0, 0, 1));
+
+        ClickHouseInputStream input = ClickHouseInputStream.of(new ByteArrayInputStream(bytes));
+        ClickHouseValue v = m.getDeserializer(column).deserialize(null, config, column, input);
+        Assert.assertEquals(v.asInteger(), 5);
+        Assert.assertTrue(m.getDeserializer(column).deserialize(v, config, column, input).isNullOrEmpty());
+
+        column = ClickHouseColumn.of("b", "Int32");
+        bas = new ByteArrayOutputStream();
+        m.getSerializer(column).serialize(ClickHouseIntegerValue.of(5), config, column, bas);
+        Assert.assertEquals(bas.toByteArray(), BinaryStreamUtilsTest.generateBytes(5, 0, 0, 0));
+        Assert.assertEquals(m.getDeserializer(column)
+                .deserialize(null, config, column, ClickHouseInputStream.of(new ByteArrayInputStream(bas.toByteArray())))
+                .asInteger(), 5);
+    }
+
+    @Test(groups = { "unit" })
+    public void testNullableNothing() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        // SELECT NULL
+        ClickHouseRowBinaryProcessor p = new ClickHouseRowBinaryProcessor(config,
+                ClickHouseInputStream.of(new ByteArrayInputStream(new byte[] { 1, 1 })), null,
+                ClickHouseColumn.parse("a Nullable(Nothing)"), null);
+        int count = 0;
+        for (ClickHouseRecord r : p.records()) {
+            Assert.assertTrue(r.getValue(0).isNullOrEmpty());
+            count++;
+        }
+        Assert.assertEquals(count, 2);
+
+        // unsupported data type is reported only when there's value to read
+        ClickHouseColumn column = ClickHouseColumn.of("b", "Nullable(Nothing)");
+        ClickHouseDeserializer<ClickHouseValue> func = ClickHouseRowBinaryProcessor.getMappedFunctions()
+                .getDeserializer(column);
+        Assert.assertThrows(IllegalArgumentException.class, () -> func.deserialize(null, config, column,
+                ClickHouseInputStream.of(new ByteArrayInputStream(new byte[] { 0, 1 }))));
+    }
+
+    @Test(groups = { "unit" })
+    public void testBulkPrimitiveArray() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+        // larger than the buffer so that it has to be processed in chunks
+        int length = ClickHouseRowBinaryProcessor.MappedFunctions.BULK_BUFFER_SIZE / 2 + 3;
+
+        byte[] bytes = new byte[length];
+        short[] shorts = new short[length];
+        short[] ubytes = new short[length];
+        int[] ints = new int[length];
+        int[] ushorts = new int[length];
+        long[] longs = new long[length];
+        long[] uints = new long[length];
+        float[] floats = new float[length];
+        double[] doubles = new double[length];
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Object[][] arrays = new Object[][] { { "Int8", bytes }, { "UInt8", ubytes }, { "Int16", shorts },
+                { "UInt16", ushorts }, { "Int32", ints }, { "UInt32", uints }, { "Int64", longs },
+                { "UInt64", longs }, { "Float32", floats }, { "Float64", doubles } };
+        for (Object[] pair : arrays) {
+            BinaryStreamUtils.writeVarInt(expected, length);
+            for (int i = 0; i < length; i++) {
+                int sign = i % 2 == 0 ? 1 : -1;
+                switch ((String) pair[0]) {
+                    case "Int8":
+                        BinaryStreamUtils.writeInt8(expected, bytes[i] = (byte) (sign * i));
+                        break;
+                    case "UInt8":
+                        BinaryStreamUtils.writeUnsignedInt8(expected, ubytes[i] = (short) (i % 256));
+                        break;
+                    case "Int16":
+                        BinaryStreamUtils.writeInt16(expected, shorts[i] = (short) (sign * i * 7));
+                        break;
+                    case "UInt16":
+                        BinaryStreamUtils.writeUnsignedInt16(expected, ushorts[i] = 65535 - i);
+                        break;
+                    case "Int32":
+                        BinaryStreamUtils.writeInt32(expected, ints[i] = sign * i * 100003);
+                        break;
+                    case "UInt32":
+                        BinaryStreamUtils.writeUnsignedInt32(expected, uints[i] = 4294967295L - i);
+                        break;
+                    case "Int64":
+                        BinaryStreamUtils.writeInt64(expected, longs[i] = sign * i * 10000000019L);
+                        break;
+                    case "UInt64":
+                        BinaryStreamUtils.writeInt64(expected, longs[i]);
+                        break;
+                    case "Float32":
+                        BinaryStreamUtils.writeFloat32(expected, floats[i] = sign * i / 3F);
+                        break;
+                    default:
+                        BinaryStreamUtils.writeFloat64(expected, doubles[i] = sign * i / 7D);
+                        break;
+                }
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Object[] pair : arrays) {
+            ClickHouseColumn column = ClickHouseColumn.of("a", "Array(" + pair[0] + ")");
+            m.serialize(ClickHouseValues.newValue(config, column).update(pair[1]), config, column, out);
+        }
+        Assert.assertEquals(out.toByteArray(), expected.toByteArray());
+
+        ClickHouseInputStream input = ClickHouseInputStream.of(new ByteArrayInputStream(out.toByteArray()));
+        for (Object[] pair : arrays) {
+            ClickHouseColumn column = ClickHouseColumn.of("a", "Array(" + pair[0] + ")");
+            Assert.assertEquals(m.deserialize(null, config, column, input).asObject(), pair[1]);
+        }
+        Assert.assertEquals(input.available(), 0);
+
+        // empty array
+        out = new ByteArrayOutputStream();
+        ClickHouseColumn column = ClickHouseColumn.of("a", "Array(Float32)");
+        m.serialize(ClickHouseValues.newValue(config, column).update(new float[0]), config, column, out);
+        Assert.assertEquals(out.toByteArray(), new byte[] { 0 });
+        Assert.assertEquals(m.deserialize(null, config, column, BinaryStreamUtilsTest.generateInput(0)).asObject(),
+                new float[0]);
+
+        // truncated stream and out of range value
+        Assert.assertThrows(EOFException.class,
+                () -> m.deserialize(null, config, column, BinaryStreamUtilsTest.generateInput(2, 0, 0, 0, 0, 0)));
+        ClickHouseColumn ucolumn = ClickHouseColumn.of("a", "Array(UInt16)");
+        Assert.assertThrows(IllegalArgumentException.class, () -> m.serialize(
+                ClickHouseValues.newValue(config, ucolumn).update(new int[] { 1, -1 }), config, ucolumn,
+                new ByteArrayOutputStream()));
+    }
 }
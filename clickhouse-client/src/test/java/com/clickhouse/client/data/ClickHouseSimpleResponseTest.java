@@ -8,6 +8,7 @@ import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseRecord;
 import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.config.ClickHouseClientOption;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -114,4 +115,15 @@ public class ClickHouseSimpleResponseTest {
             i++;
         }
     }
+
+    @Test(groups = { "unit" })
+    public void testConfig() {
+        ClickHouseConfig customConfig = new ClickHouseConfig(
+                Collections.singletonMap(ClickHouseClientOption.USE_OBJECTS_IN_ARRAYS, true), null, null, null);
+        ClickHouseResponse resp = ClickHouseSimpleResponse.of(customConfig, ClickHouseColumn.parse("a Array(Int32)"),
+                new Object[][] { new Object[] { new Integer[] { 1, 2 } } });
+        Assert.assertSame(resp.getConfig(), customConfig);
+        Assert.assertTrue(resp.getConfig().isUseObjectsInArray());
+        Assert.assertEquals(resp.batches(10).iterator().next().getRowCount(), 1);
+    }
 }
@@ -0,0 +1,75 @@
+package com.clickhouse.client.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import com.clickhouse.client.ClickHouseInputStream;
+
+public class ClickHouseUniquesHashSetTest {
+    private ClickHouseUniquesHashSet roundTrip(ClickHouseUniquesHashSet set) throws IOException {
+        ByteArrayOutputStream bas = new ByteArrayOutputStream();
+        set.write(bas);
+        return ClickHouseUniquesHashSet.read(ClickHouseInputStream.of(new ByteArrayInputStream(bas.toByteArray())));
+    }
+
+    @Test(groups = { "unit" })
+    public void testIntHash64() {
+        Assert.assertEquals(ClickHouseUniquesHashSet.intHash64(0L), 0L);
+        // SELECT intHash64(1)
+        Assert.assertEquals(ClickHouseUniquesHashSet.intHash64(1L), -5451962507482445012L);
+    }
+
+    @Test(groups = { "unit" })
+    public void testEmpty() throws IOException {
+        ClickHouseUniquesHashSet set = new ClickHouseUniquesHashSet();
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertEquals(set.getCardinality(), 0L);
+
+        ByteArrayOutputStream bas = new ByteArrayOutputStream();
+        set.write(bas);
+        Assert.assertEquals(bas.toByteArray(), BinaryStreamUtilsTest.generateBytes(0, 0));
+        Assert.assertEquals(roundTrip(set), set);
+    }
+
+    @Test(groups = { "unit" })
+    public void testAddAndMerge() throws IOException {
+        ClickHouseUniquesHashSet set = new ClickHouseUniquesHashSet();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i % 100);
+        }
+        Assert.assertEquals(set.size(), 100);
+        Assert.assertEquals(set.getSkipDegree(), 0);
+        Assert.assertEquals(set.getCardinality(), 100L);
+        Assert.assertEquals(roundTrip(set), set);
+
+        ClickHouseUniquesHashSet other = new ClickHouseUniquesHashSet();
+        for (int i = 50; i < 150; i++) {
+            other.add(i);
+        }
+        Assert.assertEquals(set.merge(other).getCardinality(), 150L);
+        Assert.assertEquals(set.merge(null).getCardinality(), 150L);
+
+        Assert.assertEquals(new ClickHouseUniquesHashSet().add(1.5D).size(), 1);
+        Assert.assertEquals(new ClickHouseUniquesHashSet().add(1.5F).add(1.5F).size(), 1);
+    }
+
+    @Test(groups = { "unit" })
+    public void testSkipDegree() throws IOException {
+        int count = ClickHouseUniquesHashSet.MAX_SIZE * 4;
+        ClickHouseUniquesHashSet set = new ClickHouseUniquesHashSet();
+        for (int i = 0; i < count; i++) {
+            set.add(i);
+        }
+        Assert.assertTrue(set.getSkipDegree() > 0);
+        Assert.assertTrue(set.size() <= ClickHouseUniquesHashSet.MAX_SIZE);
+        long cardinality = set.getCardinality();
+        Assert.assertTrue(Math.abs(cardinality - count) < count * 0.05D,
+                "Cardinality " + cardinality + " is too far from " + count);
+        Assert.assertEquals(roundTrip(set), set);
+
+        Assert.assertThrows(IOException.class, () -> ClickHouseUniquesHashSet
+                .read(BinaryStreamUtilsTest.generateInput(0xFF, 0)));
+    }
+}
@@ -10,6 +10,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
+import com.clickhouse.client.ClickHouseBufferPool;
+
 public class ClickhouseLZ4InputStreamTest {
     private InputStream generateInputStream(String prefix, int samples, StringBuilder builder) throws IOException {
         builder.setLength(0);
@@ -186,4 +188,24 @@ public class ClickhouseLZ4InputStreamTest {
             Assert.assertEquals(new String(buf, 0, read), sb.toString());
         }
     }
+
+    @Test(dataProvider = "samples", groups = { "unit" })
+    public void testRecycleBlocks(String prefix, int samples) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        ClickHouseBufferPool pool = new ClickHouseBufferPool(true);
+        try (InputStream in = generateInputStream(prefix, samples, builder);
+                ClickHouseLZ4InputStream lz4In = new ClickHouseLZ4InputStream(in, pool, null);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();) {
+            byte[] bytes = new byte[1025];
+            int result = 0;
+            while ((result = lz4In.read(bytes)) != -1) {
+                out.write(bytes, 0, result);
+                Assert.assertTrue(pool.getOutstanding() <= 2L);
+            }
+            out.flush();
+
+            Assert.assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8), builder.toString());
+        }
+        Assert.assertEquals(pool.getOutstanding(), 0L);
+    }
 }
@@ -0,0 +1,347 @@
+package com.clickhouse.client.data.mapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.ClickHouseWriter;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+import com.clickhouse.client.data.ClickHouseSimpleRecord;
+import com.clickhouse.client.data.ClickHouseTabSeparatedProcessor;
+
+public class ClickHouseRowMapperTest {
+    public static class Item {
+        private long id;
+        private String name;
+        private Integer score;
+        private boolean active;
+        private BigDecimal price;
+        private LocalDate createdAt;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Item setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Integer getScore() {
+            return score;
+        }
+
+        public void setScore(Integer score) {
+            this.score = score;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        @ClickHouseColumnName("amount")
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+
+        public LocalDate getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDate createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+
+    public static class PublicFields {
+        public short flag;
+        public Long total;
+        public String[] tags;
+        public transient String ignored;
+    }
+
+    public static class IdOnly {
+        public long id;
+    }
+
+    static class HiddenItem {
+        private long id;
+        private String name;
+        private Integer score;
+    }
+
+    static final List<ClickHouseColumn> ITEM_COLUMNS = ClickHouseColumn.parse(
+            "id UInt64, name String, score Nullable(Int32), active Bool, amount Decimal(10,2), created_at Nullable(Date)");
+
+    static Item newItem(long id, String name, Integer score, boolean active, String price, LocalDate createdAt) {
+        Item item = new Item().setName(name);
+        item.setId(id);
+        item.setScore(score);
+        item.setActive(active);
+        item.setPrice(price == null ? null : new BigDecimal(price));
+        item.setCreatedAt(createdAt);
+        return item;
+    }
+
+    static ClickHouseInputStream toInput(ByteArrayOutputStream out) {
+        return ClickHouseInputStream.of(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    static void assertItem(Item actual, Item expected) {
+        Assert.assertEquals(actual.getId(), expected.getId());
+        Assert.assertEquals(actual.getName(), expected.getName());
+        Assert.assertEquals(actual.getScore(), expected.getScore());
+        Assert.assertEquals(actual.isActive(), expected.isActive());
+        Assert.assertEquals(actual.getPrice(), expected.getPrice());
+        Assert.assertEquals(actual.getCreatedAt(), expected.getCreatedAt());
+    }
+
+    @Test(groups = { "unit" })
+    public void testPropertyBinding() {
+        Assert.assertEquals(ClickHouseProperty.normalize("Created_At"), "createdat");
+        Assert.assertEquals(ClickHouseProperty.getPropertyName("getURL", 3), "URL");
+        Assert.assertEquals(ClickHouseProperty.getPropertyName("getName", 3), "name");
+
+        Assert.assertEquals(ClickHouseProperty.find(ClickHouseProperty.of(Item.class), "amount").getName(), "price");
+        Assert.assertEquals(ClickHouseProperty.find(ClickHouseProperty.of(Item.class), "created_at").getName(),
+                "createdAt");
+        Assert.assertNull(ClickHouseProperty.find(ClickHouseProperty.of(Item.class), "price"));
+        Assert.assertNull(ClickHouseProperty.find(ClickHouseProperty.of(PublicFields.class), "ignored"));
+        Assert.assertTrue(ClickHouseProperty.find(ClickHouseProperty.of(PublicFields.class), "total").isPublic());
+        Assert.assertFalse(ClickHouseProperty.find(ClickHouseProperty.of(HiddenItem.class), "id").isPublic());
+    }
+
+    @Test(groups = { "unit" })
+    public void testRoundTrip() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        ClickHouseRowMapper<Item> mapper = ClickHouseRowMapper.of(config, ITEM_COLUMNS, Item.class);
+        Assert.assertFalse(mapper instanceof ClickHouseReflectionMapper, "Mapper should have been generated");
+        Assert.assertEquals(ClickHouseRowMapper.of(config, ITEM_COLUMNS, Item.class).getClass(), mapper.getClass());
+
+        List<Item> items = Arrays.asList(newItem(1L, "a", 3, true, "1.23", LocalDate.of(2021, 1, 1)),
+                newItem(2L, "", null, false, "0.00", null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Item item : items) {
+            mapper.write(item, out);
+        }
+
+        // compare with the reflection-based implementation
+        ClickHouseRowMapper<Item> reflection = new ClickHouseReflectionMapper<>(config, ITEM_COLUMNS, Item.class,
+                null, ClickHouseReflectionMapper.bind(Item.class, ITEM_COLUMNS));
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (Item item : items) {
+            reflection.write(item, expected);
+        }
+        Assert.assertEquals(out.toByteArray(), expected.toByteArray());
+
+        try (ClickHouseInputStream in = toInput(out)) {
+            for (Item item : items) {
+                assertItem(mapper.read(in), item);
+            }
+            Assert.assertEquals(in.available(), 0);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testGeneratedClassReuse() throws ReflectiveOperationException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("id UInt64, name String");
+        Class<?> mapperClass = ClickHouseMapperGenerator.generate(Item.class, columns).apply(config, columns)
+                .getClass();
+        // same class is returned even the factory has been evicted from cache
+        List<ClickHouseColumn> same = ClickHouseColumn.parse("id UInt64, name String");
+        Assert.assertEquals(ClickHouseMapperGenerator.generate(Item.class, same).apply(config, same).getClass(),
+                mapperClass);
+
+        List<ClickHouseColumn> other = ClickHouseColumn.parse("id UInt64");
+        Class<?> otherClass = ClickHouseMapperGenerator.generate(Item.class, other).apply(config, other).getClass();
+        Assert.assertNotEquals(otherClass, mapperClass);
+        // one class loader for mappers of classes from a same class loader
+        Assert.assertSame(otherClass.getClassLoader(), mapperClass.getClassLoader());
+    }
+
+    @Test(groups = { "unit" })
+    public void testMaxGeneratedClasses() throws ReflectiveOperationException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        // use a class not mapped by other tests
+        Class<?> clazz = IdOnly.class;
+        int count = 0;
+        for (int i = 0; i < ClickHouseMapperGenerator.MAX_MAPPERS_PER_CLASS + 5; i++) {
+            List<ClickHouseColumn> columns = ClickHouseColumn.parse("id UInt64, c" + i + " String");
+            if (ClickHouseMapperGenerator.generate(clazz, columns) != null) {
+                count++;
+            }
+        }
+        Assert.assertEquals(count, ClickHouseMapperGenerator.MAX_MAPPERS_PER_CLASS);
+
+        // existing ones are still available
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("id UInt64, c0 String");
+        Assert.assertNotNull(ClickHouseMapperGenerator.generate(clazz, columns));
+        // and the others fall back to reflection
+        columns = ClickHouseColumn.parse("id UInt64, x String");
+        Assert.assertTrue(ClickHouseRowMapper.of(config, columns, clazz) instanceof ClickHouseReflectionMapper);
+    }
+
+    @Test(groups = { "unit" })
+    public void testPublicFields() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("flag UInt8, total Nullable(Int64), tags Array(String)");
+        ClickHouseRowMapper<PublicFields> mapper = ClickHouseRowMapper.of(config, columns, PublicFields.class);
+        Assert.assertFalse(mapper instanceof ClickHouseReflectionMapper, "Mapper should have been generated");
+
+        PublicFields obj = new PublicFields();
+        obj.flag = 255;
+        obj.total = null;
+        obj.tags = new String[] { "x", "y" };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mapper.write(obj, out);
+        obj.total = -1L;
+        obj.tags = new String[0];
+        mapper.write(obj, out);
+        Assert.assertEquals(out.toByteArray(),
+                new byte[] { (byte) 0xFF, 1, 2, 1, 'x', 1, 'y', (byte) 0xFF, 0, -1, -1, -1, -1, -1, -1, -1, -1, 0 });
+
+        try (ClickHouseInputStream in = toInput(out)) {
+            PublicFields result = mapper.read(in);
+            Assert.assertEquals(result.flag, (short) 255);
+            Assert.assertNull(result.total);
+            Assert.assertEquals(result.tags, new String[] { "x", "y" });
+            result = mapper.read(in);
+            Assert.assertEquals(result.total, Long.valueOf(-1L));
+            Assert.assertEquals(result.tags, new String[0]);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testReflectionFallback() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("id Int64, name String, score Nullable(Int32)");
+        ClickHouseRowMapper<HiddenItem> mapper = ClickHouseRowMapper.of(config, columns, HiddenItem.class);
+        Assert.assertTrue(mapper instanceof ClickHouseReflectionMapper, "Should fall back to reflection");
+
+        HiddenItem item = new HiddenItem();
+        item.id = 9L;
+        item.name = "nine";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mapper.write(item, out);
+        try (ClickHouseInputStream in = toInput(out)) {
+            HiddenItem result = mapper.read(in);
+            Assert.assertEquals(result.id, 9L);
+            Assert.assertEquals(result.name, "nine");
+            Assert.assertNull(result.score);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testUnboundColumns() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("x Int32, id UInt64, y Nullable(String)");
+        ClickHouseRowMapper<Item> mapper = ClickHouseRowMapper.of(config, columns, Item.class);
+        try (ClickHouseInputStream in = ClickHouseInputStream
+                .of(new ByteArrayInputStream(new byte[] { 1, 0, 0, 0, 5, 0, 0, 0, 0, 0, 0, 0, 0, 1, 'z' }))) {
+            Assert.assertEquals(mapper.read(in).getId(), 5L);
+            Assert.assertEquals(in.available(), 0);
+        }
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> mapper.write(new Item(), new ByteArrayOutputStream()));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> ClickHouseRowMapper.of(config, ITEM_COLUMNS, Item.class).write(new Item(),
+                        new ByteArrayOutputStream()));
+    }
+
+    @Test(groups = { "unit" })
+    public void testRecordsAndWriter() throws IOException {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(newItem(i, "item" + i, i % 2 == 0 ? null : i, i % 3 == 0, i + ".50", LocalDate.ofEpochDay(i)));
+        }
+
+        ClickHouseConfig config = new ClickHouseConfig();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ClickHouseWriter.of(config, ITEM_COLUMNS, items, Item.class).write(out);
+
+        int index = 0;
+        for (Item item : new ClickHouseRowBinaryProcessor(config, toInput(out), null, ITEM_COLUMNS, null)
+                .records(Item.class)) {
+            assertItem(item, items.get(index++));
+        }
+        Assert.assertEquals(index, items.size());
+
+        index = 0;
+        ClickHouseRowMapper<Item> mapper = ClickHouseRowMapper.of(config, ITEM_COLUMNS, Item.class);
+        for (ClickHouseRecord r : new ClickHouseRowBinaryProcessor(config, toInput(out), null, ITEM_COLUMNS, null)
+                .records()) {
+            assertItem(mapper.read(r), items.get(index++));
+        }
+        Assert.assertEquals(index, items.size());
+
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        new ClickHouseRowBinaryProcessor(config, null, copy, ITEM_COLUMNS, null).write(items, Item.class);
+        Assert.assertEquals(copy.toByteArray(), out.toByteArray());
+    }
+
+    @Test(groups = { "unit" })
+    public void testWriteTabSeparated() throws IOException {
+        List<Item> items = Arrays.asList(newItem(1L, "a\tb", 3, true, "1.23", LocalDate.of(2021, 1, 1)),
+                newItem(2L, "", null, false, "0.00", null));
+        ClickHouseConfig config = new ClickHouseConfig(
+                Collections.singletonMap(ClickHouseClientOption.FORMAT, ClickHouseFormat.TSVWithNamesAndTypes), null,
+                null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ClickHouseTabSeparatedProcessor processor = new ClickHouseTabSeparatedProcessor(config, null, out, ITEM_COLUMNS,
+                null);
+        processor.write(items.subList(0, 1), Item.class);
+        processor.write(items.subList(1, 2), Item.class);
+        Assert.assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8),
+                "id\tname\tscore\tactive\tamount\tcreated_at\n"
+                        + "UInt64\tString\tNullable(Int32)\tBool\tDecimal(10,2)\tNullable(Date)\n"
+                        + "1\ta\\tb\t3\ttrue\t1.23\t2021-01-01\n" + "2\t\t\\N\tfalse\t0.00\t\\N\n");
+    }
+
+    @Test(groups = { "unit" })
+    public void testReadPrimitiveFromRecord() {
+        ClickHouseConfig config = new ClickHouseConfig();
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("id Nullable(Int64), active Nullable(Bool)");
+        ClickHouseValue[] values = new ClickHouseValue[] {
+                ClickHouseValues.newValue(config, columns.get(0)),
+                ClickHouseValues.newValue(config, columns.get(1)).update(true) };
+        Item item = ClickHouseRowMapper.of(config, columns, Item.class)
+                .read(ClickHouseSimpleRecord.of(columns, values));
+        Assert.assertEquals(item.getId(), 0L);
+        Assert.assertTrue(item.isActive());
+    }
+}
@@ -0,0 +1,226 @@
+package com.clickhouse.client.data.vector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseWriter;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseOption;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+import com.clickhouse.client.data.ClickHouseSimpleResponse;
+import com.clickhouse.client.data.ClickHouseTabSeparatedProcessor;
+
+public class ClickHouseColumnBatchTest {
+    static final List<ClickHouseColumn> COLUMNS = ClickHouseColumn.parse("id UInt64, flag Nullable(Bool), "
+            + "score Float32, name LowCardinality(String), tags Array(Nullable(Int32)), "
+            + "attrs Map(String, Float64), price Nullable(Decimal(10,2))");
+
+    static ClickHouseColumnBatch newBatch(ClickHouseConfig config, int rows) {
+        ClickHouseColumnBatch batch = ClickHouseColumnBatch.of(config, COLUMNS, 1);
+        for (int i = 0; i < rows; i++) {
+            ((ClickHouseLongVector) batch.getVector(0)).append(i == 0 ? -1L : i);
+            if (i % 3 == 0) {
+                batch.getVector("flag").appendNull();
+            } else {
+                batch.getVector("flag").appendObject(i % 3 == 1);
+            }
+            ((ClickHouseDoubleVector) batch.getVector(2)).append(i / 2D);
+            ((ClickHouseStringVector) batch.getVector(3)).append("name" + (i % 2));
+            List<Integer> tags = new ArrayList<>();
+            for (int j = 0; j < i % 4; j++) {
+                tags.add(j == 1 ? null : j);
+            }
+            batch.getVector(4).appendObject(tags);
+            batch.getVector(5).appendObject(Collections.singletonMap("k" + i, (double) i));
+            batch.getVector(6).appendObject(i % 2 == 0 ? null : new BigDecimal(i + ".25"));
+        }
+        return batch;
+    }
+
+    static void assertBatch(ClickHouseColumnBatch batch, int start, int rows) {
+        Assert.assertEquals(batch.getRowCount(), rows);
+        ClickHouseLongVector ids = (ClickHouseLongVector) batch.getVector("id");
+        ClickHouseColumnVector flags = batch.getVector("flag");
+        ClickHouseDoubleVector scores = (ClickHouseDoubleVector) batch.getVector("score");
+        ClickHouseStringVector names = (ClickHouseStringVector) batch.getVector("name");
+        ClickHouseArrayVector tags = (ClickHouseArrayVector) batch.getVector("tags");
+        ClickHouseMapVector attrs = (ClickHouseMapVector) batch.getVector("attrs");
+        ClickHouseColumnVector prices = batch.getVector("price");
+        for (int r = 0; r < rows; r++) {
+            int i = start + r;
+            Assert.assertEquals(ids.getLong(r), i == 0 ? -1L : i);
+            Assert.assertEquals(flags.isNull(r), i % 3 == 0);
+            Assert.assertEquals(flags.getObject(r), i % 3 == 0 ? null : i % 3 == 1);
+            Assert.assertEquals(scores.getDouble(r), i / 2D);
+            Assert.assertEquals(names.getString(r), "name" + (i % 2));
+            Assert.assertEquals(tags.getLength(r), i % 4);
+            int offset = tags.getOffsets()[r];
+            for (int j = 0; j < i % 4; j++) {
+                Assert.assertEquals(tags.getElements().getObject(offset + j), j == 1 ? null : (long) j);
+            }
+            Assert.assertEquals(attrs.getObject(r), Collections.singletonMap("k" + i, (double) i));
+            Assert.assertEquals(prices.getObject(r), i % 2 == 0 ? null : new BigDecimal(i + ".25"));
+        }
+        Assert.assertTrue(names.getDictionarySize() <= 2);
+    }
+
+    @Test(groups = { "unit" })
+    public void testVectors() {
+        ClickHouseConfig config = new ClickHouseConfig();
+        ClickHouseColumnBatch batch = newBatch(config, 10);
+        assertBatch(batch, 0, 10);
+        Assert.assertNull(batch.getVector(0).getNulls());
+        Assert.assertEquals(batch.getVector(1).getNulls().cardinality(), 4);
+        Assert.assertEquals(((ClickHouseStringVector) batch.getVector(3)).getCodes()[9], 1);
+        Assert.assertEquals(batch.getVector(4).getObject(2), new Object[] { 0L, null });
+
+        Assert.assertThrows(IllegalStateException.class, () -> batch.getVector(0).appendNull());
+        Assert.assertThrows(IllegalArgumentException.class, () -> batch.getVector(0).appendObject("x"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> batch.getVector("unknown"));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> batch.getVector(0).getObject(10));
+
+        batch.reset();
+        Assert.assertEquals(batch.getRowCount(), 0);
+        Assert.assertEquals(((ClickHouseStringVector) batch.getVector(3)).getDictionarySize(), 0);
+        Assert.assertEquals(((ClickHouseArrayVector) batch.getVector(4)).getElements().size(), 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testRowBinary() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig(
+                Collections.singletonMap(ClickHouseClientOption.REUSE_VALUE_WRAPPER, false), null, null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ClickHouseWriter.of(Collections.singletonList(newBatch(config, 25))).write(out);
+        byte[] bytes = out.toByteArray();
+
+        // should be readable as records
+        int count = 0;
+        for (ClickHouseRecord r : new ClickHouseRowBinaryProcessor(config,
+                ClickHouseInputStream.of(new ByteArrayInputStream(bytes)), null, COLUMNS, null).records()) {
+            Assert.assertEquals(r.getValue(3).asString(), "name" + (count % 2));
+            Assert.assertEquals(r.getValue(6).asObject(), count % 2 == 0 ? null : new BigDecimal(count + ".25"));
+            count++;
+        }
+        Assert.assertEquals(count, 25);
+
+        int start = 0;
+        List<ClickHouseColumnBatch> list = new ArrayList<>();
+        for (ClickHouseColumnBatch batch : new ClickHouseRowBinaryProcessor(config,
+                ClickHouseInputStream.of(new ByteArrayInputStream(bytes)), null, COLUMNS, null).batches(10)) {
+            assertBatch(batch, start, Math.min(10, 25 - start));
+            start += batch.getRowCount();
+            list.add(batch);
+        }
+        Assert.assertEquals(start, 25);
+        Assert.assertEquals(list.size(), 3);
+        Assert.assertNotSame(list.get(0), list.get(1));
+
+        out = new ByteArrayOutputStream();
+        ClickHouseRowBinaryProcessor processor = new ClickHouseRowBinaryProcessor(config, null, out, COLUMNS, null);
+        for (ClickHouseColumnBatch batch : list) {
+            processor.write(batch);
+        }
+        Assert.assertEquals(out.toByteArray(), bytes);
+
+        // header should be written only once
+        Map<ClickHouseOption, Serializable> options = new HashMap<>();
+        options.put(ClickHouseClientOption.REUSE_VALUE_WRAPPER, false);
+        options.put(ClickHouseClientOption.FORMAT, ClickHouseFormat.RowBinaryWithNamesAndTypes);
+        ClickHouseConfig headerConfig = new ClickHouseConfig(options, null, null, null);
+        out = new ByteArrayOutputStream();
+        processor = new ClickHouseRowBinaryProcessor(headerConfig, null, out, COLUMNS, null);
+        for (ClickHouseColumnBatch batch : list) {
+            processor.write(batch);
+        }
+        count = 0;
+        for (ClickHouseRecord r : new ClickHouseRowBinaryProcessor(headerConfig,
+                ClickHouseInputStream.of(new ByteArrayInputStream(out.toByteArray())), null, null, null).records()) {
+            Assert.assertEquals(r.getValue(3).asString(), "name" + (count % 2));
+            count++;
+        }
+        Assert.assertEquals(count, 25);
+    }
+
+    @Test(groups = { "unit" })
+    public void testWriteTabSeparated() throws IOException {
+        Map<ClickHouseOption, Serializable> options = new HashMap<>();
+        options.put(ClickHouseClientOption.FORMAT, ClickHouseFormat.TSVWithNames);
+        ClickHouseConfig config = new ClickHouseConfig(options, null, null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ClickHouseTabSeparatedProcessor processor = new ClickHouseTabSeparatedProcessor(config, null, out, COLUMNS,
+                null);
+        processor.write(newBatch(config, 2));
+        processor.write(newBatch(config, 1));
+        Assert.assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8),
+                "id\tflag\tscore\tname\ttags\tattrs\tprice\n"
+                        + "18446744073709551615\t\\N\t0.0\tname0\t[]\t{\\'k0\\' : 0.0}\t\\N\n"
+                        + "1\ttrue\t0.5\tname1\t[0]\t{\\'k1\\' : 1.0}\t1.25\n"
+                        + "18446744073709551615\t\\N\t0.0\tname0\t[]\t{\\'k0\\' : 0.0}\t\\N\n");
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> processor.write(ClickHouseColumnBatch.of(config, COLUMNS.subList(0, 1), 1)));
+    }
+
+    @Test(groups = { "unit" })
+    public void testNullableElements() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("a Array(Nullable(Int32)), b Nullable(String)");
+        ClickHouseColumnBatch batch = ClickHouseColumnBatch.of(config, columns, 0);
+        batch.getVector(0).appendObject(new Integer[] { 1, null });
+        batch.getVector(1).appendNull();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batch.write(out);
+        Assert.assertEquals(out.toByteArray(), new byte[] { 2, 0, 1, 0, 0, 0, 1, 1 });
+
+        batch.getVector(0).appendObject(new int[0]);
+        Assert.assertThrows(IllegalStateException.class, () -> batch.write(new ByteArrayOutputStream()));
+    }
+
+    @Test(groups = { "unit" })
+    public void testFromRecords() {
+        ClickHouseConfig config = new ClickHouseConfig();
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("a Nullable(Int32), b String, c Array(UInt8)");
+        ClickHouseResponse response = ClickHouseSimpleResponse.of(config, columns,
+                new Object[][] { { 1, "x", new short[] { 1, 2 } }, { null, "y", new short[0] },
+                        { 3, "x", new short[] { 3 } } });
+        int count = 0;
+        for (ClickHouseColumnBatch batch : response.batches(2)) {
+            if (count++ == 0) {
+                Assert.assertEquals(batch.getRowCount(), 2);
+                Assert.assertEquals(batch.getVector(0).getObject(0), 1L);
+                Assert.assertTrue(batch.getVector(0).isNull(1));
+                Assert.assertEquals(((ClickHouseArrayVector) batch.getVector(2)).getLength(0), 2);
+                Assert.assertEquals(((ClickHouseArrayVector) batch.getVector(2)).getLength(1), 0);
+            } else {
+                Assert.assertEquals(batch.getRowCount(), 1);
+                Assert.assertEquals(((ClickHouseStringVector) batch.getVector(1)).getString(0), "x");
+                Assert.assertEquals(batch.getVector(2).getObject(0), new Object[] { 3L });
+            }
+        }
+        Assert.assertEquals(count, 2);
+
+        Map<?, ?> empty = Collections.emptyMap();
+        ClickHouseColumnVector v = ClickHouseColumnVector.of(config, ClickHouseColumn.of("m", "Map(String,UInt8)"),
+                0);
+        v.appendObject(empty);
+        Assert.assertEquals(v.getObject(0), empty);
+    }
+}
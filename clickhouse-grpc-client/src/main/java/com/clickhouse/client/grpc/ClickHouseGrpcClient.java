@@ -2,6 +2,8 @@ package com.clickhouse.client.grpc;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -106,7 +108,85 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
         return builder.setAlgorithm(algorithm).setLevel(level).build();
     }
 
+    /**
+     * Output stream sending content of an external table as a series of
+     * {@link QueryInfo}. Bytes from one write are never split into two chunks,
+     * because server parses each chunk separately.
+     */
+    static final class ExternalTableOutputStream extends OutputStream {
+        private final StreamObserver<QueryInfo> observer;
+        private final ExternalTable.Builder template;
+        private final byte[] buffer;
+
+        private int position;
+
+        ExternalTableOutputStream(StreamObserver<QueryInfo> observer, ClickHouseExternalTable table,
+                int bufferSize) {
+            this.observer = observer;
+            this.template = ExternalTable.newBuilder().setName(table.getName())
+                    .setFormat(table.getFormat().name());
+            this.buffer = new byte[bufferSize];
+            this.position = 0;
+        }
+
+        private void send(byte[] bytes, int offset, int length) {
+            observer.onNext(QueryInfo.newBuilder()
+                    .addExternalTables(template.clone().setData(ByteString.copyFrom(bytes, offset, length)))
+                    .setNextQueryInfo(true).build());
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (position + len > buffer.length) {
+                flush();
+            }
+
+            if (len >= buffer.length) {
+                send(b, off, len);
+            } else {
+                System.arraycopy(b, off, buffer, position, len);
+                position += len;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (position > 0) {
+                send(buffer, 0, position);
+                position = 0;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
     protected static QueryInfo convert(ClickHouseNode server, ClickHouseRequest<?> request) {
+        return convert(server, request, false);
+    }
+
+    /**
+     * Converts the given request to {@link QueryInfo}.
+     *
+     * @param server    server
+     * @param request   request
+     * @param streaming whether extra {@link QueryInfo} can be sent after the
+     *                  first one, when it's true, content of external tables
+     *                  encoded on demand will be left out, and
+     *                  {@link QueryInfo#getNextQueryInfo()} will be set
+     * @return query info
+     */
+    protected static QueryInfo convert(ClickHouseNode server, ClickHouseRequest<?> request, boolean streaming) {
         ClickHouseConfig config = request.getConfig();
         ClickHouseCredentials credentials = server.getCredentials(config);
 
@@ -140,6 +220,9 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
         for (Entry<String, Object> s : request.getSettings().entrySet()) {
             builder.putSettings(s.getKey(), String.valueOf(s.getValue()));
         }
+        for (Entry<String, String> p : request.getQueryParameters().entrySet()) {
+            builder.putSettings("param_" + p.getKey(), p.getValue());
+        }
 
         Optional<InputStream> input = request.getInputStream();
         if (input.isPresent()) {
@@ -162,8 +245,22 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
                     b.setFormat(external.getFormat().name());
                 }
 
+                if (streaming && external.hasWriter()) {
+                    // content will be sent in following query info
+                    builder.addExternalTables(b.build()).setNextQueryInfo(true);
+                    continue;
+                }
+
                 try {
-                    builder.addExternalTables(b.setData(ByteString.readFrom(external.getContent())).build());
+                    ByteString data;
+                    if (external.hasWriter()) {
+                        ByteString.Output out = ByteString.newOutput();
+                        external.writeContent(out, request.getConfig());
+                        data = out.toByteString();
+                    } else {
+                        data = ByteString.readFrom(external.getContent(request.getConfig()));
+                    }
+                    builder.addExternalTables(b.setData(data).build());
                 } catch (IOException e) {
                     throw new CompletionException(ClickHouseException.of(e, server));
                 }
@@ -220,10 +317,29 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
 
     protected void fill(ClickHouseRequest<?> request, StreamObserver<QueryInfo> observer) {
         try {
-            observer.onNext(convert(getServer(), request));
-        } finally {
-            observer.onCompleted();
+            QueryInfo info = convert(getServer(), request, true);
+            observer.onNext(info);
+
+            if (info.getNextQueryInfo()) {
+                int bufferSize = request.getConfig().getMaxBufferSize();
+                for (ClickHouseExternalTable external : request.getExternalTables()) {
+                    if (external.hasWriter()) {
+                        // close only on success, so that partial content is never flushed
+                        OutputStream out = new ExternalTableOutputStream(observer, external, bufferSize);
+                        external.writeContent(out, request.getConfig());
+                        out.close();
+                    }
+                }
+                observer.onNext(QueryInfo.newBuilder().setNextQueryInfo(false).build());
+            }
+        } catch (IOException | RuntimeException e) {
+            // abort the call instead of half-closing it, or the server may run the query
+            // against truncated external tables
+            observer.onError(Status.CANCELLED.withCause(e).asRuntimeException());
+            throw new CompletionException(ClickHouseException.of(e, getServer()));
         }
+
+        observer.onCompleted();
     }
 
     @Override
@@ -286,18 +402,33 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
         ClickHouseGrpc.ClickHouseBlockingStub stub = ClickHouseGrpc.newBlockingStub(channel);
         stub.withCompression(getRequestEncoding(sealedRequest.getConfig()));
 
-        // TODO not as elegant as ClickHouseImmediateFuture :<
+        // stream output so that result size is no longer limited by max inbound
+        // message size, and records can be read before the query completes
+        Context.CancellableContext context = Context.current().withCancellation();
+        Iterator<Result> results;
+        Context previous = context.attach();
         try {
-            Result result = stub.executeQuery(convert(server, sealedRequest));
+            results = stub.executeQueryWithStreamOutput(convert(server, sealedRequest));
+        } catch (RuntimeException e) {
+            context.cancel(e);
+            throw e;
+        } finally {
+            context.detach(previous);
+        }
 
-            ClickHouseResponse response = new ClickHouseGrpcResponse(sealedRequest.getConfig(),
-                    sealedRequest.getSettings(), result);
+        ClickHouseGrpcInputStream input = new ClickHouseGrpcInputStream(results, server,
+                () -> context.cancel(new StatusException(Status.CANCELLED)), () -> context.cancel(null));
+        ClickHouseException error = input.prefetch();
+        if (error != null) {
+            context.cancel(null);
+            return failedResponse(error);
+        }
 
-            return result.hasException()
-                    ? failedResponse(new ClickHouseException(result.getException().getCode(),
-                            result.getException().getDisplayText(), server))
-                    : CompletableFuture.completedFuture(response);
+        try {
+            return CompletableFuture.completedFuture(
+                    new ClickHouseGrpcResponse(sealedRequest.getConfig(), sealedRequest.getSettings(), input));
         } catch (IOException e) {
+            context.cancel(e);
             throw new CompletionException(ClickHouseException.of(e, server));
         }
     }
@@ -0,0 +1,183 @@
+package com.clickhouse.client.grpc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import io.grpc.StatusRuntimeException;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseException;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseResponseSummary;
+import com.clickhouse.client.grpc.impl.Progress;
+import com.clickhouse.client.grpc.impl.Result;
+import com.clickhouse.client.grpc.impl.Stats;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Input stream reading output of a server-streaming call one {@link Result} at
+ * a time, so that only current chunk is kept in memory. Progress and
+ * statistics are updated as results arrive, and server error is raised as
+ * {@link IOException} when reaching the failed result. Resources held by the
+ * call are released as soon as the stream reaches its end, fails or gets
+ * closed.
+ */
+final class ClickHouseGrpcInputStream extends InputStream {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseGrpcInputStream.class);
+
+    private final Iterator<Result> results;
+    private final ClickHouseNode server;
+    private final ClickHouseResponseSummary summary;
+    private final Runnable cancel;
+    private final Runnable release;
+
+    private InputStream current;
+    private ClickHouseException error;
+    private boolean finished;
+    private boolean closed;
+    private boolean released;
+
+    ClickHouseGrpcInputStream(Iterator<Result> results, ClickHouseNode server, Runnable cancel) {
+        this(results, server, cancel, null);
+    }
+
+    ClickHouseGrpcInputStream(Iterator<Result> results, ClickHouseNode server, Runnable cancel, Runnable release) {
+        this.results = ClickHouseChecker.nonNull(results, "Results");
+        this.server = server;
+        this.summary = new ClickHouseResponseSummary(null, null);
+        this.cancel = cancel;
+        this.release = release;
+
+        this.current = null;
+        this.error = null;
+        this.finished = false;
+        this.closed = false;
+        this.released = false;
+    }
+
+    private void release() {
+        if (!released) {
+            released = true;
+            if (release != null) {
+                release.run();
+            }
+        }
+    }
+
+    private void update(Result result) {
+        summary.update();
+
+        if (result.hasStats()) {
+            Stats s = result.getStats();
+            summary.update(new ClickHouseResponseSummary.Statistics(s.getRows(), s.getBlocks(), s.getAllocatedBytes(),
+                    s.getAppliedLimit(), s.getRowsBeforeLimit()));
+        }
+
+        if (result.hasProgress()) {
+            Progress p = result.getProgress();
+            summary.update(new ClickHouseResponseSummary.Progress(p.getReadRows(), p.getReadBytes(),
+                    p.getTotalRowsToRead(), p.getWrittenRows(), p.getWrittenBytes()));
+        }
+
+        if (result.getCancelled()) {
+            error = ClickHouseException.of("Query was cancelled", server);
+        } else if (result.hasException()) {
+            com.clickhouse.client.grpc.impl.Exception e = result.getException();
+            log.error("Server error: Code=%s, %s", e.getCode(), e.getDisplayText());
+            error = new ClickHouseException(e.getCode(), e.getDisplayText(), server);
+        }
+    }
+
+    /**
+     * Moves to next non-empty chunk.
+     *
+     * @return true if there's more to read; false when reached end of the stream
+     * @throws IOException when failed to get next result, or server responded
+     *                     with an error
+     */
+    private boolean nextChunk() throws IOException {
+        if (closed) {
+            throw new IOException("Stream has been closed");
+        }
+
+        while (error == null && !finished) {
+            if (current != null && current.available() > 0) {
+                return true;
+            }
+
+            Result result;
+            try {
+                if (!results.hasNext()) {
+                    finished = true;
+                    break;
+                }
+                result = results.next();
+            } catch (StatusRuntimeException e) {
+                error = ClickHouseException.of(e, server);
+                break;
+            }
+
+            update(result);
+            current = error == null && !result.getOutput().isEmpty() ? result.getOutput().newInput() : null;
+        }
+
+        release();
+        if (error != null) {
+            throw new IOException(error.getMessage(), error);
+        }
+        return false;
+    }
+
+    /**
+     * Waits for the first chunk of data, or end of the stream.
+     *
+     * @return server error, or null when there's no error so far
+     */
+    ClickHouseException prefetch() {
+        try {
+            nextChunk();
+        } catch (IOException e) {
+            // error has been recorded
+        }
+        return error;
+    }
+
+    ClickHouseResponseSummary getSummary() {
+        return summary;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return current != null && !closed ? current.available() : 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return nextChunk() ? current.read() : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        return nextChunk() ? current.read(b, off, len) : -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        current = null;
+        if (!finished && error == null && cancel != null) {
+            // stop receiving results we're not going to read
+            cancel.run();
+        }
+        release();
+    }
+}
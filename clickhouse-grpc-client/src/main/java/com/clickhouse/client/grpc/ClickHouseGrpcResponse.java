@@ -23,6 +23,15 @@ public class ClickHouseGrpcResponse extends ClickHouseStreamResponse {
         this.result = null;
     }
 
+    protected ClickHouseGrpcResponse(ClickHouseConfig config, Map<String, Object> settings,
+            ClickHouseGrpcInputStream input) throws IOException {
+        super(config, ClickHouseInputStream.of(input, config.getMaxBufferSize()), settings, null,
+                input.getSummary());
+
+        this.observer = null;
+        this.result = null;
+    }
+
     protected ClickHouseGrpcResponse(ClickHouseConfig config, Map<String, Object> settings, Result result)
             throws IOException {
         super(config, ClickHouseInputStream.of(result.getOutput().newInput()), settings, null,
@@ -2,6 +2,7 @@ package com.clickhouse.client.grpc;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import io.grpc.Status;
@@ -137,7 +138,10 @@ public class ClickHouseStreamObserver implements StreamObserver<Result> {
             if (updateStatus(value)) {
                 try {
                     // TODO close output stream if value.getOutput().isEmpty()?
-                    value.getOutput().writeTo(stream);
+                    // hand over slices of the output without copying
+                    for (ByteBuffer b : value.getOutput().asReadOnlyByteBufferList()) {
+                        stream.write(b);
+                    }
                 } catch (IOException e) {
                     onError(e);
                 }
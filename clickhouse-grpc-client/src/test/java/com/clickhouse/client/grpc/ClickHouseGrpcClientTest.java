@@ -1,19 +1,62 @@
 package com.clickhouse.client.grpc;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.clickhouse.client.ClickHouseClient;
+import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseNode;
 import com.clickhouse.client.ClickHouseProtocol;
 import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseResponseSummary;
 import com.clickhouse.client.ClientIntegrationTest;
 import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.data.ClickHouseExternalTable;
+import com.clickhouse.client.grpc.config.ClickHouseGrpcOption;
+import com.clickhouse.client.grpc.impl.QueryInfo;
 import com.clickhouse.client.ClickHouseFormat;
 
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
 public class ClickHouseGrpcClientTest extends ClientIntegrationTest {
+    static class RecordingObserver implements StreamObserver<QueryInfo> {
+        final List<QueryInfo> messages = new ArrayList<>();
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onNext(QueryInfo value) {
+            messages.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+    }
+
+    static class FillingClient extends ClickHouseGrpcClient {
+        void fillExternalTables(ClickHouseRequest<?> request, StreamObserver<QueryInfo> observer) {
+            // channel is created lazily, no connection will be made
+            getConnection(request);
+            fill(request, observer);
+        }
+    }
+
     @Override
     protected ClickHouseProtocol getProtocol() {
         return ClickHouseProtocol.GRPC;
@@ -24,6 +67,30 @@ public class ClickHouseGrpcClientTest extends ClientIntegrationTest {
         return ClickHouseGrpcClient.class;
     }
 
+    @Test(groups = "unit")
+    public void testFailedExternalTableWriter() {
+        ClickHouseExternalTable table = ClickHouseExternalTable.builder().name("x").columns("i Int32")
+                .content(out -> {
+                    out.write(new byte[4]);
+                    out.write(new byte[4]);
+                    throw new IOException("fake error");
+                }).build();
+        RecordingObserver observer = new RecordingObserver();
+        try (FillingClient client = new FillingClient()) {
+            client.init(new ClickHouseConfig());
+            ClickHouseRequest<?> request = client
+                    .connect(ClickHouseNode.builder().port(ClickHouseProtocol.GRPC).build())
+                    .query("select * from x").external(table);
+            Assert.assertThrows(CompletionException.class, () -> client.fillExternalTables(request, observer));
+        }
+
+        Assert.assertFalse(observer.completed, "Call should be aborted instead of half-closed");
+        Assert.assertNotNull(observer.error);
+        Assert.assertEquals(Status.fromThrowable(observer.error).getCode(), Status.Code.CANCELLED);
+        Assert.assertEquals(observer.messages.size(), 1, "Partial content should never be sent");
+        Assert.assertTrue(observer.messages.get(0).getNextQueryInfo());
+    }
+
     @Test(groups = "integration")
     public void testResponseSummary() throws Exception {
         ClickHouseNode server = getServer();
@@ -46,4 +113,29 @@ public class ClickHouseGrpcClientTest extends ClientIntegrationTest {
             Assert.assertEquals(summary.getStatistics().getRows(), n);
         }
     }
+
+    @Test(groups = "integration")
+    public void testSyncQueryLargerThanMaxMessageSize() throws Exception {
+        ClickHouseNode server = getServer();
+
+        try (ClickHouseClient client = getClient();
+                ClickHouseResponse resp = client.connect(server).option(ClickHouseClientOption.ASYNC, false)
+                        .option(ClickHouseGrpcOption.MAX_INBOUND_MESSAGE_SIZE, 1024 * 1024)
+                        .format(ClickHouseFormat.RowBinaryWithNamesAndTypes)
+                        .query("select number, toString(number) from numbers(500000)").execute().get()) {
+            long n = 0L;
+            for (ClickHouseRecord record : resp.records()) {
+                Assert.assertEquals(record.getValue(0).asLong(), n);
+                Assert.assertEquals(record.getValue(1).asString(), String.valueOf(n++));
+            }
+            Assert.assertEquals(n, 500000L);
+            Assert.assertEquals(resp.getSummary().getReadRows(), n);
+        }
+
+        try (ClickHouseClient client = getClient()) {
+            Assert.assertThrows(ExecutionException.class, () -> client.connect(server)
+                    .option(ClickHouseClientOption.ASYNC, false).query("select * from non_existing_table")
+                    .execute().get());
+        }
+    }
 }
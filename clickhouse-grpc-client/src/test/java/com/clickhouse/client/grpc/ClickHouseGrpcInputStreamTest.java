@@ -0,0 +1,107 @@
+package com.clickhouse.client.grpc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.clickhouse.client.ClickHouseException;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.grpc.impl.Exception;
+import com.clickhouse.client.grpc.impl.Progress;
+import com.clickhouse.client.grpc.impl.Result;
+import com.clickhouse.client.grpc.impl.Stats;
+import com.google.protobuf.ByteString;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClickHouseGrpcInputStreamTest {
+    private static Result output(String str) {
+        return Result.newBuilder().setOutput(ByteString.copyFromUtf8(str)).build();
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] bytes = new byte[3];
+        int n;
+        while ((n = in.read(bytes)) != -1) {
+            out.write(bytes, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test(groups = "unit")
+    public void testRead() throws IOException {
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        ClickHouseGrpcInputStream in = new ClickHouseGrpcInputStream(Arrays.asList(output("12"), output(""),
+                Result.newBuilder().setProgress(Progress.newBuilder().setReadRows(3L)).build(), output("3\n45"),
+                Result.newBuilder().setStats(Stats.newBuilder().setRows(2L)).build()).iterator(),
+                ClickHouseNode.builder().build(), cancelled::incrementAndGet, released::incrementAndGet);
+        Assert.assertNull(in.prefetch());
+        Assert.assertEquals(in.available(), 2);
+        Assert.assertEquals(in.read(), '1');
+        Assert.assertEquals(released.get(), 0);
+        Assert.assertEquals(readAll(in), "23\n45");
+        // released as soon as reaching end of the stream
+        Assert.assertEquals(released.get(), 1);
+        Assert.assertEquals(in.read(), -1);
+        Assert.assertEquals(in.getSummary().getReadRows(), 3L);
+        Assert.assertEquals(in.getSummary().getStatistics().getRows(), 2L);
+        in.close();
+        Assert.assertEquals(cancelled.get(), 0);
+        Assert.assertEquals(released.get(), 1);
+        Assert.assertThrows(IOException.class, () -> in.read());
+
+        ClickHouseGrpcInputStream empty = new ClickHouseGrpcInputStream(Collections.<Result>emptyIterator(),
+                ClickHouseNode.builder().build(), cancelled::incrementAndGet);
+        Assert.assertNull(empty.prefetch());
+        Assert.assertEquals(empty.read(), -1);
+        empty.close();
+        Assert.assertEquals(cancelled.get(), 0);
+    }
+
+    @Test(groups = "unit")
+    public void testCancel() throws IOException {
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        ClickHouseGrpcInputStream in = new ClickHouseGrpcInputStream(
+                Arrays.asList(output("1"), output("2")).iterator(), ClickHouseNode.builder().build(),
+                cancelled::incrementAndGet, released::incrementAndGet);
+        Assert.assertEquals(in.read(), '1');
+        in.close();
+        in.close();
+        Assert.assertEquals(cancelled.get(), 1);
+        Assert.assertEquals(released.get(), 1);
+    }
+
+    @Test(groups = "unit")
+    public void testError() throws IOException {
+        Result error = Result.newBuilder()
+                .setException(Exception.newBuilder().setCode(60).setDisplayText("Table doesn't exist")).build();
+        ClickHouseGrpcInputStream in = new ClickHouseGrpcInputStream(Collections.singletonList(error).iterator(),
+                ClickHouseNode.builder().build(), null);
+        ClickHouseException e = in.prefetch();
+        Assert.assertNotNull(e);
+        Assert.assertEquals(e.getErrorCode(), 60);
+
+        AtomicInteger released = new AtomicInteger();
+        in = new ClickHouseGrpcInputStream(Arrays.asList(output("1"), error, output("2")).iterator(),
+                ClickHouseNode.builder().build(), null, released::incrementAndGet);
+        Assert.assertNull(in.prefetch());
+        Assert.assertEquals(in.read(), '1');
+        try {
+            in.read();
+            Assert.fail("Should fail with server error");
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getCause() instanceof ClickHouseException);
+        }
+        Assert.assertEquals(released.get(), 1);
+        in.close();
+        Assert.assertEquals(released.get(), 1);
+    }
+}
@@ -16,6 +16,7 @@ import java.util.Map.Entry;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
+import com.clickhouse.client.ClickHouseBufferPool;
 import com.clickhouse.client.ClickHouseChecker;
 import com.clickhouse.client.ClickHouseCompression;
 import com.clickhouse.client.ClickHouseConfig;
@@ -115,6 +116,10 @@ public abstract class ClickHouseHttpConnection implements AutoCloseable {
             appendQueryParameter(builder, entry.getKey(), String.valueOf(entry.getValue()));
         }
 
+        for (Map.Entry<String, String> entry : request.getQueryParameters().entrySet()) {
+            appendQueryParameter(builder, "param_" + entry.getKey(), entry.getValue());
+        }
+
         if (builder.length() > 0) {
             builder.setLength(builder.length() - 1);
         }
@@ -296,7 +301,8 @@ public abstract class ClickHouseHttpConnection implements AutoCloseable {
 
     /**
      * Pipes data from input stream to output stream. Input stream will be closed
-     * but output stream will remain open.
+     * but output stream will remain open. The buffer used for copying is borrowed
+     * from {@link ClickHouseBufferPool#getDefault()}.
      *
      * @param input      non-null input stream, which will be closed
      * @param output     non-null output stream, which will remain open
@@ -310,7 +316,8 @@ public abstract class ClickHouseHttpConnection implements AutoCloseable {
             bufferSize = DEFAULT_BUFFER_SIZE;
         }
 
-        byte[] bytes = new byte[bufferSize];
+        ClickHouseBufferPool pool = ClickHouseBufferPool.getDefault();
+        byte[] bytes = pool.borrowArray(bufferSize);
         int counter = 0;
         try {
             while ((counter = input.read(bytes, 0, bufferSize)) >= 0) {
@@ -320,6 +327,7 @@ public abstract class ClickHouseHttpConnection implements AutoCloseable {
             input.close();
             input = null;
         } finally {
+            pool.release(bytes);
             if (input != null) {
                 try {
                     input.close();
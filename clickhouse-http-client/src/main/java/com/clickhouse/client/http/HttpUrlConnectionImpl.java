@@ -150,6 +150,13 @@ public class HttpUrlConnectionImpl extends ClickHouseHttpConnection {
         if (tables != null && !tables.isEmpty()) {
             boundary = UUID.randomUUID().toString();
             conn.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
+            for (ClickHouseExternalTable t : tables) {
+                if (t.hasWriter()) {
+                    // stream content encoded on demand instead of buffering the whole body
+                    conn.setChunkedStreamingMode(config.getMaxBufferSize());
+                    break;
+                }
+            }
         } else {
             conn.setRequestProperty("Content-Type", "text/plain; charset=UTF-8");
         }
@@ -178,7 +185,11 @@ public class HttpUrlConnectionImpl extends ClickHouseHttpConnection {
                     writer.write(builder.toString());
                     writer.flush();
 
-                    pipe(t.getContent(), out, DEFAULT_BUFFER_SIZE);
+                    if (t.hasWriter()) {
+                        t.writeContent(out, config);
+                    } else {
+                        pipe(t.getContent(config), out, DEFAULT_BUFFER_SIZE);
+                    }
                 }
 
                 writer.write("\r\n--" + boundary + "--\r\n");
@@ -188,7 +188,11 @@ public class HttpClientConnectionImpl extends ClickHouseHttpConnection {
                     writer.write(builder.toString());
                     writer.flush();
 
-                    pipe(t.getContent(), stream, DEFAULT_BUFFER_SIZE);
+                    if (t.hasWriter()) {
+                        t.writeContent(stream, config);
+                    } else {
+                        pipe(t.getContent(config), stream, DEFAULT_BUFFER_SIZE);
+                    }
                 }
 
                 writer.write("\r\n--" + boundary + "--\r\n");
@@ -72,5 +72,11 @@ public class ClickHouseHttpConnectionTest {
         Assert.assertEquals(
                 ClickHouseHttpConnection.buildUrl(server, request.option(ClickHouseHttpOption.WEB_CONTEXT, "///.//")),
                 "http://localhost:8123/./?compress=1&extremes=0");
+
+        Assert.assertEquals(
+                ClickHouseHttpConnection.buildUrl(server,
+                        request.option(ClickHouseHttpOption.WEB_CONTEXT, "/").queryParameter("id", "1")
+                                .queryParameter("s", "a b&c").queryParameter("n", null)),
+                "http://localhost:8123/?compress=1&extremes=0&param_id=1&param_s=a+b%26c&param_n=%5CN");
     }
 }
@@ -5,6 +5,7 @@ import javax.sql.DataSource;
 import com.clickhouse.client.ClickHouseNode;
 import com.clickhouse.client.config.ClickHouseDefaults;
 import com.clickhouse.jdbc.internal.ClickHouseConnectionImpl;
+import com.clickhouse.jdbc.internal.ClickHouseConnectionPool;
 import com.clickhouse.jdbc.internal.ClickHouseJdbcUrlParser;
 import com.clickhouse.jdbc.internal.ClickHouseJdbcUrlParser.ConnectionInfo;
 
@@ -13,14 +14,17 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.logging.Logger;
 
-public class ClickHouseDataSource extends JdbcWrapper implements DataSource {
+public class ClickHouseDataSource extends JdbcWrapper implements DataSource, AutoCloseable {
     private final String url;
 
     protected final ClickHouseDriver driver;
     protected final ConnectionInfo connInfo;
+    // null when pooling is disabled
+    protected final ClickHouseConnectionPool pool;
 
     protected PrintWriter printWriter;
     protected int loginTimeoutSeconds = 0;
@@ -37,11 +41,12 @@ public class ClickHouseDataSource extends JdbcWrapper implements DataSource {
 
         this.driver = new ClickHouseDriver();
         this.connInfo = ClickHouseJdbcUrlParser.parse(url, properties);
+        this.pool = connInfo.getJdbcConfig().getPoolSize() > 0 ? new ClickHouseConnectionPool(connInfo) : null;
     }
 
     @Override
     public ClickHouseConnection getConnection() throws SQLException {
-        return new ClickHouseConnectionImpl(connInfo);
+        return pool != null ? pool.getConnection() : new ClickHouseConnectionImpl(connInfo, true);
     }
 
     @Override
@@ -60,6 +65,32 @@ public class ClickHouseDataSource extends JdbcWrapper implements DataSource {
         return driver.connect(url, props);
     }
 
+    /**
+     * Gets connection pool, which is only available when
+     * {@link JdbcConfig#PROP_POOL_SIZE} is greater than zero.
+     *
+     * @return optional connection pool
+     */
+    public Optional<ClickHouseConnectionPool> getConnectionPool() {
+        return Optional.ofNullable(pool);
+    }
+
+    /**
+     * Closes connection pool if there's any, as well as client shared by
+     * connections created from this data source. Connections created by
+     * {@link #getConnection(String, String)} will not be affected.
+     */
+    @Override
+    public void close() {
+        try {
+            if (pool != null) {
+                pool.close();
+            }
+        } finally {
+            connInfo.closeSharedClient();
+        }
+    }
+
     public String getHost() {
         return connInfo.getServer().getHost();
     }
@@ -17,11 +17,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import com.clickhouse.client.ClickHouseChecker;
 import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseDataType;
 import com.clickhouse.client.ClickHouseParameterizedQuery;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.ClickHouseValues;
 import com.clickhouse.client.data.ClickHouseRecordTransformer;
@@ -40,6 +43,41 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
 
     private final ClickHouseConnection connection;
     private final Map<String, Class<?>> typeMaps;
+    // null when metadata cache is disabled
+    private final JdbcMetaDataCache cache;
+
+    /**
+     * Converts the given {@code LIKE} pattern to regular expression.
+     *
+     * @param pattern {@code LIKE} pattern, null or empty string matches everything
+     * @return non-null regular expression
+     */
+    static Pattern toRegex(String pattern) {
+        if (ClickHouseChecker.isNullOrEmpty(pattern)) {
+            return Pattern.compile(".*", Pattern.DOTALL);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0, len = pattern.length(); i < len; i++) {
+            char ch = pattern.charAt(i);
+            if (ch == '\\' && i + 1 < len) {
+                literal.append(pattern.charAt(++i));
+            } else if (ch == '%' || ch == '_') {
+                if (literal.length() > 0) {
+                    builder.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                builder.append(ch == '%' ? ".*" : ".");
+            } else {
+                literal.append(ch);
+            }
+        }
+        if (literal.length() > 0) {
+            builder.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(builder.toString(), Pattern.DOTALL);
+    }
 
     protected ResultSet empty(String columns) throws SQLException {
         return fixed(columns, null);
@@ -62,6 +100,50 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
         return query(sql, func, false);
     }
 
+    /**
+     * Gets result of the given query from metadata cache, and executes the query
+     * only when it's not cached or expired.
+     *
+     * @param sql         non-null SQL query
+     * @param func        optional function to update records
+     * @param ignoreError whether to return null instead of throwing exception on
+     *                    error
+     * @return in-memory response, which could be null when {@code ignoreError} is
+     *         {@code true}
+     * @throws SQLException when failed to execute query
+     */
+    private ClickHouseResponse cachedQuery(String sql, ClickHouseRecordTransformer func, boolean ignoreError)
+            throws SQLException {
+        String key = func == null || typeMaps.isEmpty() ? sql : sql + '\n' + typeMaps;
+        return cache.get(key, () -> {
+            try (ClickHouseStatement stmt = connection.createStatement();
+                    ClickHouseResponse response = stmt.getRequest().query(sql).execute().get()) {
+                return ClickHouseSimpleResponse.of(response, func);
+            }
+        }, ignoreError);
+    }
+
+    /**
+     * Same as {@link #query(String, ClickHouseRecordTransformer, boolean)} but
+     * uses metadata cache when it's enabled.
+     *
+     * @param sql         non-null SQL query
+     * @param func        optional function to update records
+     * @param ignoreError whether to return null instead of throwing exception on
+     *                    error
+     * @return result set, which could be null when {@code ignoreError} is
+     *         {@code true}
+     * @throws SQLException when failed to execute query
+     */
+    protected ResultSet cached(String sql, ClickHouseRecordTransformer func, boolean ignoreError) throws SQLException {
+        if (cache == null) {
+            return query(sql, func, ignoreError);
+        }
+
+        ClickHouseResponse response = cachedQuery(sql, func, ignoreError);
+        return response != null ? new ClickHouseResultSet("", "", connection.createStatement(), response) : null;
+    }
+
     protected ResultSet query(String sql, ClickHouseRecordTransformer func, boolean ignoreError) throws SQLException {
         SQLException error = null;
         try {
@@ -84,8 +166,21 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
     }
 
     public ClickHouseDatabaseMetaData(ClickHouseConnection connection) throws SQLException {
+        this(connection, null);
+    }
+
+    /**
+     * Creates metadata of the given connection.
+     *
+     * @param connection non-null connection
+     * @param cache      optional metadata cache shared among connections
+     * @throws SQLException when failed to get type map from the connection
+     */
+    public ClickHouseDatabaseMetaData(ClickHouseConnection connection, JdbcMetaDataCache cache)
+            throws SQLException {
         this.connection = ClickHouseChecker.nonNull(connection, "Connection");
         this.typeMaps = connection.getTypeMap();
+        this.cache = cache;
     }
 
     @Override
@@ -738,7 +833,7 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
 
         List<String> databases = new LinkedList<>();
         if (ClickHouseChecker.isNullOrEmpty(schemaPattern)) {
-            try (ResultSet rs = query("select name from system.databases order by name")) {
+            try (ResultSet rs = cached("select name from system.databases order by name", null, false)) {
                 while (rs.next()) {
                     databases.add(rs.getString(1));
                 }
@@ -774,7 +869,7 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
                             + "from system.tables t inner join system.databases d on t.database = d.name\n"
                             + "where t.database like :database and t.name like :table and TABLE_TYPE in (:types) "
                             + "order by t.database, t.name", params);
-            results.add(query(sql, true));
+            results.add(cached(sql, null, true));
         }
         return new CombinedResultSet(results);
     }
@@ -815,6 +910,8 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
         params.put("defaultNullable", String.valueOf(DatabaseMetaData.typeNullable));
         params.put("defaultNonNull", String.valueOf(DatabaseMetaData.typeNoNulls));
         params.put("defaultType", String.valueOf(Types.OTHER));
+        // load all columns of matched databases in one go when cache is enabled
+        boolean prefetch = cache != null && !ClickHouseChecker.isNullOrEmpty(schemaPattern);
         String sql = ClickHouseParameterizedQuery
                 .apply("select null as TABLE_CAT, database as TABLE_SCHEM, table as TABLE_NAME, "
                         + "name as COLUMN_NAME, toInt32(:defaultType) as DATA_TYPE, type as TYPE_NAME, toInt32(0) as COLUMN_SIZE, "
@@ -823,8 +920,11 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
                         + "0 as SQL_DATA_TYPE, 0 as SQL_DATETIME_SUB, cast(null as Nullable(Int32)) as CHAR_OCTET_LENGTH, position as ORDINAL_POSITION, "
                         + "position(type, 'Nullable(') >= 1 ? 'YES' : 'NO' as IS_NULLABLE, null as SCOPE_CATALOG, null as SCOPE_SCHEMA, null as SCOPE_TABLE, "
                         + "null as SOURCE_DATA_TYPE, 'NO' as IS_AUTOINCREMENT, 'NO' as IS_GENERATEDCOLUMN from system.columns\n"
-                        + "where database like :database and table like :table and name like :column", params);
-        return query(sql, (i, r) -> {
+                        + "where database like :database "
+                        + (prefetch ? "order by database, table, position"
+                                : "and table like :table and name like :column"),
+                        params);
+        ClickHouseRecordTransformer func = (i, r) -> {
             String typeName = r.getValue("TYPE_NAME").asString();
             try {
                 ClickHouseColumn column = ClickHouseColumn.of("", typeName);
@@ -853,7 +953,25 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
             } catch (Exception e) {
                 log.warn("Failed to read column: %s", typeName, e);
             }
-        });
+        };
+
+        if (!prefetch) {
+            return cached(sql, func, false);
+        }
+
+        ClickHouseResponse response = cachedQuery(sql, func, false);
+        Pattern table = toRegex(tableNamePattern);
+        Pattern column = toRegex(columnNamePattern);
+        List<ClickHouseRecord> records = new ArrayList<>();
+        for (ClickHouseRecord r : response.records()) {
+            if (table.matcher(r.getValue("TABLE_NAME").asString()).matches()
+                    && column.matcher(r.getValue("COLUMN_NAME").asString()).matches()) {
+                records.add(r);
+            }
+        }
+        return new ClickHouseResultSet("", "", connection.createStatement(),
+                JdbcMetaDataCache.newResponse(response.getConfig(), response.getColumns(), records,
+                        response.getSummary()));
     }
 
     @Override
@@ -984,7 +1102,8 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
     @Override
     public ResultSet getTypeInfo() throws SQLException {
         List<Object[]> list = new ArrayList<>();
-        try (ResultSet rs = query("select name, alias_to from system.data_type_families order by name")) {
+        try (ResultSet rs = cached("select name, alias_to from system.data_type_families order by name", null,
+                false)) {
             while (rs.next()) {
                 Object[] row = toTypeRow(rs.getString(1), rs.getString(2));
                 if (row.length > 0) {
@@ -1212,12 +1331,12 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
                 ClickHouseChecker.isNullOrEmpty(schemaPattern) ? "'%'"
                         : ClickHouseValues.convertToQuotedString(schemaPattern));
         return new CombinedResultSet(
-                query(ClickHouseParameterizedQuery.apply("select name as TABLE_SCHEM, null as TABLE_CATALOG "
-                        + "from system.databases where name like :pattern order by name", params)),
-                query(ClickHouseParameterizedQuery.apply(
+                cached(ClickHouseParameterizedQuery.apply("select name as TABLE_SCHEM, null as TABLE_CATALOG "
+                        + "from system.databases where name like :pattern order by name", params), null, false),
+                cached(ClickHouseParameterizedQuery.apply(
                         "select concat('jdbc(''', name, ''')') as TABLE_SCHEM, null as TABLE_CATALOG "
                                 + "from jdbc('', 'SHOW DATASOURCES') where TABLE_SCHEM like :pattern order by name",
-                        params), true));
+                        params), null, true));
     }
 
     @Override
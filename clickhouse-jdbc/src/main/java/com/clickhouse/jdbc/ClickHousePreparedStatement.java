@@ -19,10 +19,65 @@ import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.concurrent.CompletableFuture;
 
 import com.clickhouse.client.data.BinaryStreamUtils;
 
 public interface ClickHousePreparedStatement extends PreparedStatement {
+    /**
+     * Asynchronous version of {@link #executeQuery()}. Parameters are captured
+     * when this method is called, so they can be changed right after. Same as
+     * {@link ClickHouseStatement#executeQueryAsync(String)}, the result set is
+     * not tracked by this statement, cancelling the future kills the query, and
+     * query timeout is applied when it's set.
+     *
+     * @return non-null future of the result set
+     * @throws SQLException when the statement is closed or there's missing
+     *                      parameter
+     */
+    CompletableFuture<ResultSet> executeQueryAsync() throws SQLException;
+
+    /**
+     * Asynchronous version of {@link #executeLargeUpdate()}.
+     *
+     * @return non-null future of the update count
+     * @throws SQLException when the statement is closed or there's missing
+     *                      parameter
+     * @see #executeQueryAsync()
+     */
+    CompletableFuture<Long> executeLargeUpdateAsync() throws SQLException;
+
+    /**
+     * Asynchronous version of {@link #executeUpdate()}.
+     *
+     * @return non-null future of the update count
+     * @throws SQLException when the statement is closed or there's missing
+     *                      parameter
+     * @see #executeQueryAsync()
+     */
+    default CompletableFuture<Integer> executeUpdateAsync() throws SQLException {
+        return executeLargeUpdateAsync().thenApply(Long::intValue);
+    }
+
+    /**
+     * Asynchronous version of {@link #executeLargeBatch()}. The batch is cleared
+     * once this method returns.
+     *
+     * @return non-null future of update counts, which will be completed
+     *         exceptionally with {@link java.sql.BatchUpdateException} on failure
+     * @throws SQLException when the statement is closed or the batch is empty
+     */
+    CompletableFuture<long[]> executeLargeBatchAsync() throws SQLException;
+
+    /**
+     * Asynchronous version of {@link #executeBatch()}.
+     *
+     * @return non-null future of update counts
+     * @throws SQLException when the statement is closed or the batch is empty
+     * @see #executeLargeBatchAsync()
+     */
+    CompletableFuture<int[]> executeBatchAsync() throws SQLException;
+
     @Override
     default void setNull(int parameterIndex, int sqlType) throws SQLException {
         setNull(parameterIndex, sqlType, null);
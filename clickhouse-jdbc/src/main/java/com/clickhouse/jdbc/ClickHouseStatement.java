@@ -1,7 +1,9 @@
 package com.clickhouse.jdbc;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
 
 import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseRequest;
@@ -18,4 +20,64 @@ public interface ClickHouseStatement extends Statement {
     default Mutation write() {
         return getRequest().write();
     }
+
+    /**
+     * Asynchronous version of {@link #executeQuery(String)}. Unlike the
+     * synchronous method, the result set is not tracked by this statement, so
+     * {@link #getResultSet()} is not affected and caller is responsible for
+     * closing it. Cancelling the returned future kills the query on server, and
+     * the future will be completed exceptionally with
+     * {@link java.sql.SQLTimeoutException} when query timeout is set and
+     * exceeded.
+     *
+     * @param sql non-null SQL query
+     * @return non-null future of the result set
+     * @throws SQLException when the statement is closed or the query cannot be
+     *                      parsed
+     */
+    CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLException;
+
+    /**
+     * Asynchronous version of {@link #executeLargeUpdate(String)}.
+     *
+     * @param sql non-null SQL statement
+     * @return non-null future of the update count
+     * @throws SQLException when the statement is closed or the statement cannot
+     *                      be parsed
+     * @see #executeQueryAsync(String)
+     */
+    CompletableFuture<Long> executeLargeUpdateAsync(String sql) throws SQLException;
+
+    /**
+     * Asynchronous version of {@link #executeUpdate(String)}.
+     *
+     * @param sql non-null SQL statement
+     * @return non-null future of the update count
+     * @throws SQLException when the statement is closed or the statement cannot
+     *                      be parsed
+     * @see #executeQueryAsync(String)
+     */
+    default CompletableFuture<Integer> executeUpdateAsync(String sql) throws SQLException {
+        return executeLargeUpdateAsync(sql).thenApply(Long::intValue);
+    }
+
+    /**
+     * Asynchronous version of {@link #executeLargeBatch()}. Statements in the
+     * batch are still executed one after another, but without blocking current
+     * thread. The batch is cleared once this method returns.
+     *
+     * @return non-null future of update counts, which will be completed
+     *         exceptionally with {@link java.sql.BatchUpdateException} on failure
+     * @throws SQLException when the statement is closed or the batch is empty
+     */
+    CompletableFuture<long[]> executeLargeBatchAsync() throws SQLException;
+
+    /**
+     * Asynchronous version of {@link #executeBatch()}.
+     *
+     * @return non-null future of update counts
+     * @throws SQLException when the statement is closed or the batch is empty
+     * @see #executeLargeBatchAsync()
+     */
+    CompletableFuture<int[]> executeBatchAsync() throws SQLException;
 }
@@ -25,7 +25,15 @@ public class JdbcConfig {
     public static final String PROP_CONTINUE_BATCH = "continueBatchOnError";
     public static final String PROP_FETCH_SIZE = "fetchSize";
     public static final String PROP_JDBC_COMPLIANT = "jdbcCompliant";
+    public static final String PROP_METADATA_CACHE_SIZE = "metadataCacheSize";
+    public static final String PROP_METADATA_CACHE_TTL = "metadataCacheTtl";
     public static final String PROP_NAMED_PARAM = "namedParameter";
+    public static final String PROP_POOL_SIZE = "poolSize";
+    public static final String PROP_POOL_IDLE_TIMEOUT = "poolIdleTimeout";
+    public static final String PROP_POOL_VALIDATION_INTERVAL = "poolValidationInterval";
+    public static final String PROP_POOL_WAIT_TIMEOUT = "poolWaitTimeout";
+    public static final String PROP_SERVER_PARAM = "serverSideParameter";
+    public static final String PROP_SERVER_INFO_TTL = "serverInfoTtl";
     public static final String PROP_TYPE_MAP = "typeMappings";
     public static final String PROP_WRAPPER_OBJ = "wrapperObject";
 
@@ -37,7 +45,15 @@ public class JdbcConfig {
     private static final String DEFAULT_CONTINUE_BATCH = BOOLEAN_FALSE;
     private static final String DEFAULT_FETCH_SIZE = "0";
     private static final String DEFAULT_JDBC_COMPLIANT = BOOLEAN_TRUE;
+    private static final String DEFAULT_METADATA_CACHE_SIZE = "1000";
+    private static final String DEFAULT_METADATA_CACHE_TTL = "0";
     private static final String DEFAULT_NAMED_PARAM = BOOLEAN_FALSE;
+    private static final String DEFAULT_POOL_SIZE = "0";
+    private static final String DEFAULT_POOL_IDLE_TIMEOUT = "600";
+    private static final String DEFAULT_POOL_VALIDATION_INTERVAL = "30";
+    private static final String DEFAULT_POOL_WAIT_TIMEOUT = "30";
+    private static final String DEFAULT_SERVER_PARAM = BOOLEAN_FALSE;
+    private static final String DEFAULT_SERVER_INFO_TTL = "300";
     private static final String DEFAULT_TYPE_MAP = "";
     private static final String DEFAULT_WRAPPER_OBJ = BOOLEAN_FALSE;
 
@@ -115,11 +131,44 @@ public class JdbcConfig {
         info.description = "Whether to enable JDBC-compliant features like fake transaction and standard UPDATE and DELETE statements.";
         list.add(info);
 
+        info = new DriverPropertyInfo(PROP_METADATA_CACHE_SIZE, DEFAULT_METADATA_CACHE_SIZE);
+        info.description = "Maximum number of metadata query results cached for connections created from same data source.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_METADATA_CACHE_TTL, DEFAULT_METADATA_CACHE_TTL);
+        info.description = "Time in seconds to cache metadata(e.g. schemas, tables and columns) for connections created from same data source, zero or negative number means no cache.";
+        list.add(info);
+
         info = new DriverPropertyInfo(PROP_NAMED_PARAM, DEFAULT_NAMED_PARAM);
         info.choices = new String[] { BOOLEAN_TRUE, BOOLEAN_FALSE };
         info.description = "Whether to use named parameter(e.g. :ts(DateTime64(6)) or :value etc.) instead of standard JDBC question mark placeholder.";
         list.add(info);
 
+        info = new DriverPropertyInfo(PROP_POOL_SIZE, DEFAULT_POOL_SIZE);
+        info.description = "Maximum number of connections pooled by data source, zero or negative number means no pooling.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_POOL_IDLE_TIMEOUT, DEFAULT_POOL_IDLE_TIMEOUT);
+        info.description = "Time in seconds a pooled connection can stay idle before it's closed, zero or negative number means no timeout.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_POOL_VALIDATION_INTERVAL, DEFAULT_POOL_VALIDATION_INTERVAL);
+        info.description = "Interval in seconds to validate idle connections in pool in background, zero or negative number means no validation.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_POOL_WAIT_TIMEOUT, DEFAULT_POOL_WAIT_TIMEOUT);
+        info.description = "Time in seconds to wait for an available connection when the pool is exhausted, zero or negative number means no wait.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_SERVER_PARAM, DEFAULT_SERVER_PARAM);
+        info.choices = new String[] { BOOLEAN_TRUE, BOOLEAN_FALSE };
+        info.description = "Whether to send parameters of prepared statement(except insert) to server as typed query parameters, when types of all parameters are known, instead of formatting them as literals into query.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_SERVER_INFO_TTL, DEFAULT_SERVER_INFO_TTL);
+        info.description = "Time in seconds to cache server information(e.g. current user, time zone and version) for connections created from same data source, zero or negative number means no cache.";
+        list.add(info);
+
         info = new DriverPropertyInfo(PROP_TYPE_MAP, DEFAULT_TYPE_MAP);
         info.description = "Default type mappings between ClickHouse data type and Java class. You can define multiple mappings using comma as separator.";
         list.add(info);
@@ -137,7 +186,15 @@ public class JdbcConfig {
     private final boolean continueBatch;
     private final int fetchSize;
     private final boolean jdbcCompliant;
+    private final int metadataCacheSize;
+    private final int metadataCacheTtl;
     private final boolean namedParameter;
+    private final int poolSize;
+    private final int poolIdleTimeout;
+    private final int poolValidationInterval;
+    private final int poolWaitTimeout;
+    private final boolean serverParameter;
+    private final int serverInfoTtl;
     private final Map<String, Class<?>> typeMap;
     private final boolean wrapperObject;
 
@@ -155,7 +212,16 @@ public class JdbcConfig {
         this.continueBatch = extractBooleanValue(props, PROP_CONTINUE_BATCH, DEFAULT_CONTINUE_BATCH);
         this.fetchSize = extractIntValue(props, PROP_FETCH_SIZE, DEFAULT_FETCH_SIZE);
         this.jdbcCompliant = extractBooleanValue(props, PROP_JDBC_COMPLIANT, DEFAULT_JDBC_COMPLIANT);
+        this.metadataCacheSize = extractIntValue(props, PROP_METADATA_CACHE_SIZE, DEFAULT_METADATA_CACHE_SIZE);
+        this.metadataCacheTtl = extractIntValue(props, PROP_METADATA_CACHE_TTL, DEFAULT_METADATA_CACHE_TTL);
         this.namedParameter = extractBooleanValue(props, PROP_NAMED_PARAM, DEFAULT_NAMED_PARAM);
+        this.poolSize = extractIntValue(props, PROP_POOL_SIZE, DEFAULT_POOL_SIZE);
+        this.poolIdleTimeout = extractIntValue(props, PROP_POOL_IDLE_TIMEOUT, DEFAULT_POOL_IDLE_TIMEOUT);
+        this.poolValidationInterval = extractIntValue(props, PROP_POOL_VALIDATION_INTERVAL,
+                DEFAULT_POOL_VALIDATION_INTERVAL);
+        this.poolWaitTimeout = extractIntValue(props, PROP_POOL_WAIT_TIMEOUT, DEFAULT_POOL_WAIT_TIMEOUT);
+        this.serverParameter = extractBooleanValue(props, PROP_SERVER_PARAM, DEFAULT_SERVER_PARAM);
+        this.serverInfoTtl = extractIntValue(props, PROP_SERVER_INFO_TTL, DEFAULT_SERVER_INFO_TTL);
         this.typeMap = extractTypeMapValue(props, PROP_TYPE_MAP, DEFAULT_TYPE_MAP);
         this.wrapperObject = extractBooleanValue(props, PROP_WRAPPER_OBJ, DEFAULT_WRAPPER_OBJ);
     }
@@ -198,6 +264,75 @@ public class JdbcConfig {
         return fetchSize;
     }
 
+    /**
+     * Gets maximum number of metadata query results to cache.
+     *
+     * @return maximum number of cached metadata query results
+     */
+    public int getMetaDataCacheSize() {
+        return metadataCacheSize;
+    }
+
+    /**
+     * Gets time in seconds to cache metadata for connections created from same
+     * data source.
+     *
+     * @return time in seconds to cache metadata, zero or negative number means no
+     *         cache
+     */
+    public int getMetaDataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    /**
+     * Gets maximum number of connections pooled by data source.
+     *
+     * @return maximum number of pooled connections, zero or negative number means
+     *         no pooling
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Gets time in seconds a pooled connection can stay idle before it's closed.
+     *
+     * @return idle timeout in seconds, zero or negative number means no timeout
+     */
+    public int getPoolIdleTimeout() {
+        return poolIdleTimeout;
+    }
+
+    /**
+     * Gets interval in seconds to validate idle connections in pool.
+     *
+     * @return validation interval in seconds, zero or negative number means no
+     *         validation
+     */
+    public int getPoolValidationInterval() {
+        return poolValidationInterval;
+    }
+
+    /**
+     * Gets time in seconds to wait for an available connection from pool.
+     *
+     * @return wait timeout in seconds, zero or negative number means no wait
+     */
+    public int getPoolWaitTimeout() {
+        return poolWaitTimeout;
+    }
+
+    /**
+     * Gets time in seconds to cache server information for connections created
+     * from same data source.
+     *
+     * @return time in seconds to cache server information, zero or negative
+     *         number means no cache
+     */
+    public int getServerInfoTtl() {
+        return serverInfoTtl;
+    }
+
     /**
      * Gets custom type map.
      *
@@ -226,6 +361,16 @@ public class JdbcConfig {
         return namedParameter;
     }
 
+    /**
+     * Checks whether parameters of prepared statement should be sent to server
+     * as typed query parameters, instead of being formatted into the query.
+     *
+     * @return true if server-side query parameter should be used; false otherwise
+     */
+    public boolean useServerSideParameter() {
+        return serverParameter;
+    }
+
     /**
      * Checks whether {@link java.sql.Array} and {@link java.sql.Struct} should be
      * returned for array and tuple when calling
@@ -0,0 +1,148 @@
+package com.clickhouse.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.clickhouse.client.ClickHouseCache;
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseResponseSummary;
+import com.clickhouse.client.data.ClickHouseSimpleResponse;
+
+/**
+ * Cache of metadata query results shared among connections created from same
+ * data source. Entries expire after {@link JdbcConfig#getMetaDataCacheTtl()}
+ * seconds, and they're all invalidated at once when a connection runs DDL
+ * which may change schema.
+ */
+public final class JdbcMetaDataCache {
+    static final class CachedResponse extends ClickHouseSimpleResponse {
+        private static final long serialVersionUID = 2146519618315326702L;
+
+        CachedResponse(ClickHouseConfig config, List<ClickHouseColumn> columns, List<ClickHouseRecord> records,
+                ClickHouseResponseSummary summary) {
+            super(config, columns, records, summary);
+        }
+    }
+
+    static final class Entry {
+        final ClickHouseConfig config;
+        final List<ClickHouseColumn> columns;
+        // null means failed query, which should be ignored
+        final List<ClickHouseRecord> records;
+        final ClickHouseResponseSummary summary;
+        final long generation;
+        final long expireTime;
+
+        Entry(ClickHouseResponse response, long generation, long expireTime) {
+            if (response != null) {
+                this.config = response.getConfig();
+                this.columns = response.getColumns();
+                List<ClickHouseRecord> list = new ArrayList<>();
+                for (ClickHouseRecord r : response.records()) {
+                    list.add(r);
+                }
+                this.records = Collections.unmodifiableList(list);
+                this.summary = response.getSummary();
+            } else {
+                this.config = null;
+                this.columns = Collections.emptyList();
+                this.records = null;
+                this.summary = ClickHouseResponseSummary.EMPTY;
+            }
+            this.generation = generation;
+            this.expireTime = expireTime;
+        }
+    }
+
+    /**
+     * Creates an in-memory response using the given columns and records. The
+     * response can be closed independently, so it's safe to use the same list of
+     * records in multiple responses.
+     *
+     * @param config  configuration of the original response, could be null
+     * @param columns non-null columns
+     * @param records non-null records
+     * @param summary optional summary
+     * @return non-null in-memory response
+     */
+    public static ClickHouseResponse newResponse(ClickHouseConfig config, List<ClickHouseColumn> columns,
+            List<ClickHouseRecord> records, ClickHouseResponseSummary summary) {
+        return new CachedResponse(config, columns, records, summary);
+    }
+
+    private final ClickHouseCache<String, AtomicReference<Entry>> cache;
+    private final long ttl;
+    private final AtomicLong generation;
+
+    /**
+     * Creates a metadata cache.
+     *
+     * @param capacity capacity of the cache
+     * @param ttl      time in seconds before an entry expires
+     */
+    public JdbcMetaDataCache(int capacity, int ttl) {
+        this.cache = ClickHouseCache.create(ClickHouseChecker.between(capacity, "Capacity", 1, Integer.MAX_VALUE),
+                ClickHouseChecker.between(ttl, "TTL", 1, Integer.MAX_VALUE), k -> new AtomicReference<>());
+        this.ttl = TimeUnit.SECONDS.toNanos(ttl);
+        this.generation = new AtomicLong();
+    }
+
+    /**
+     * Gets cached response, or loads it when it's not cached or expired. A failed
+     * query is cached as {@code null} when {@code ignoreError} is {@code true}.
+     *
+     * @param key         non-null key, usually the SQL query
+     * @param loader      non-null loader to execute query and load everything into
+     *                    memory
+     * @param ignoreError whether to return null instead of throwing exception when
+     *                    failed to load
+     * @return in-memory response, which could be null when {@code ignoreError} is
+     *         {@code true}
+     * @throws SQLException when failed to load and {@code ignoreError} is
+     *                      {@code false}
+     */
+    public ClickHouseResponse get(String key, Callable<ClickHouseResponse> loader, boolean ignoreError)
+            throws SQLException {
+        AtomicReference<Entry> slot = cache.get(ClickHouseChecker.nonNull(key, "Key"));
+        long gen = generation.get();
+        Entry entry = slot.get();
+        if (entry == null || entry.generation != gen || entry.expireTime <= System.nanoTime()) {
+            ClickHouseResponse response = null;
+            try {
+                response = loader.call();
+            } catch (Exception e) {
+                if (!ignoreError) {
+                    throw SqlExceptionUtils.handle(e);
+                }
+            }
+
+            entry = new Entry(response, gen, System.nanoTime() + ttl);
+            if (response != null) {
+                response.close();
+            }
+            // discard the entry if it's invalidated in the middle
+            if (generation.get() == gen) {
+                slot.set(entry);
+            }
+        }
+
+        return entry.records != null ? newResponse(entry.config, entry.columns, entry.records, entry.summary) : null;
+    }
+
+    /**
+     * Invalidates all cached entries.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+}
@@ -3,6 +3,7 @@ package com.clickhouse.jdbc.internal;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 
 import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.ClickHouseUtils;
@@ -18,6 +19,9 @@ public abstract class AbstractPreparedStatement extends ClickHouseStatementImpl
 
     protected abstract int getMaxParameterIndex();
 
+    @Override
+    public abstract CompletableFuture<long[]> executeLargeBatchAsync() throws SQLException;
+
     protected int toArrayIndex(int parameterIndex) throws SQLException {
         int max = getMaxParameterIndex();
         if (max < 1) {
@@ -121,6 +125,15 @@ public abstract class AbstractPreparedStatement extends ClickHouseStatementImpl
                         "executeLargeUpdate(String, String[]) cannot be called in PreparedStatement or CallableStatement!");
     }
 
+    @Override
+    public final CompletableFuture<Long> executeLargeUpdateAsync(String sql) throws SQLException {
+        ensureOpen();
+
+        throw SqlExceptionUtils
+                .unsupportedError(
+                        "executeLargeUpdateAsync(String) cannot be called in PreparedStatement or CallableStatement!");
+    }
+
     @Override
     public final ResultSet executeQuery(String sql) throws SQLException {
         ensureOpen();
@@ -130,6 +143,15 @@ public abstract class AbstractPreparedStatement extends ClickHouseStatementImpl
                         "executeQuery(String) cannot be called in PreparedStatement or CallableStatement!");
     }
 
+    @Override
+    public final CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLException {
+        ensureOpen();
+
+        throw SqlExceptionUtils
+                .unsupportedError(
+                        "executeQueryAsync(String) cannot be called in PreparedStatement or CallableStatement!");
+    }
+
     @Override
     public final int executeUpdate() throws SQLException {
         return (int) executeLargeUpdate();
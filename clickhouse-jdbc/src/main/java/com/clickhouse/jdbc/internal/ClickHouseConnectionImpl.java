@@ -1,5 +1,6 @@
 package com.clickhouse.jdbc.internal;
 
+import java.io.Serializable;
 import java.net.URI;
 import java.sql.ClientInfoStatus;
 import java.sql.Connection;
@@ -11,15 +12,20 @@ import java.sql.SQLClientInfoException;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Savepoint;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.WeakHashMap;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
@@ -29,25 +35,25 @@ import com.clickhouse.client.ClickHouseChecker;
 import com.clickhouse.client.ClickHouseClient;
 import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseException;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseNode;
-import com.clickhouse.client.ClickHouseNodeSelector;
 import com.clickhouse.client.ClickHouseParameterizedQuery;
 import com.clickhouse.client.ClickHouseRecord;
 import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseUtils;
-import com.clickhouse.client.ClickHouseValues;
 import com.clickhouse.client.ClickHouseVersion;
 import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseOption;
 import com.clickhouse.client.http.config.ClickHouseHttpOption;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
 import com.clickhouse.jdbc.ClickHouseConnection;
 import com.clickhouse.jdbc.ClickHouseDatabaseMetaData;
-import com.clickhouse.jdbc.ClickHouseDriver;
 import com.clickhouse.jdbc.ClickHouseStatement;
 import com.clickhouse.jdbc.JdbcConfig;
+import com.clickhouse.jdbc.JdbcMetaDataCache;
 import com.clickhouse.jdbc.JdbcParameterizedQuery;
 import com.clickhouse.jdbc.JdbcParseHandler;
 import com.clickhouse.jdbc.SqlExceptionUtils;
@@ -109,6 +115,10 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
 
     private final ClickHouseClient client;
     private final ClickHouseRequest<?> clientRequest;
+    // null when client is not shared
+    private final ConnectionInfo sharedConnInfo;
+    // null when metadata cache is disabled
+    private final JdbcMetaDataCache metaDataCache;
 
     private boolean autoCommit;
     private boolean closed;
@@ -125,11 +135,20 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
     private final ClickHouseVersion serverVersion;
     private final String user;
     private final int initialReadOnly;
+    // snapshot of request after connection is created, for resetting state
+    private final String initialDatabase;
+    private final Map<ClickHouseOption, Serializable> initialOptions;
+    private final Map<String, Object> initialSettings;
 
     private final Map<String, Class<?>> typeMap;
 
     private final AtomicReference<FakeTransaction> fakeTransaction;
 
+    // statements not yet closed, which will be closed on reset
+    private final Set<ClickHouseStatementImpl> statements;
+    // connection exposed to application, which is a proxy when pooled
+    private volatile ClickHouseConnection handle;
+
     private URI uri;
 
     /**
@@ -195,11 +214,23 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
             Thread.currentThread().interrupt();
             throw SqlExceptionUtils.forCancellation(e);
         } catch (Exception e) {
+            if (ClickHouseException.isNetworkError(e)) {
+                invalidateServerInfo();
+            }
             throw SqlExceptionUtils.handle(e);
         }
         return list;
     }
 
+    /**
+     * Gets metadata cache shared with other connections.
+     *
+     * @return metadata cache, or null when it's disabled
+     */
+    final JdbcMetaDataCache getMetaDataCache() {
+        return metaDataCache;
+    }
+
     // for testing only
     final FakeTransaction getTransaction() {
         return fakeTransaction.get();
@@ -214,6 +245,19 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
     }
 
     public ClickHouseConnectionImpl(ConnectionInfo connInfo) throws SQLException {
+        this(connInfo, false);
+    }
+
+    /**
+     * Creates a connection. When {@code shared} is {@code true}, client and server
+     * information will be shared with other connections created from the same
+     * {@code connInfo}, so that no query will be issued in most cases.
+     *
+     * @param connInfo non-null connection information
+     * @param shared   whether to share client and server information
+     * @throws SQLException when failed to create connection
+     */
+    public ClickHouseConnectionImpl(ConnectionInfo connInfo, boolean shared) throws SQLException {
         jdbcConf = connInfo.getJdbcConfig();
 
         autoCommit = !jdbcConf.isJdbcCompliant() || jdbcConf.isAutoCommit();
@@ -226,42 +270,46 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
 
         jvmTimeZone = TimeZone.getDefault();
 
-        client = ClickHouseClient.builder().options(ClickHouseDriver.toClientOptions(connInfo.getProperties()))
-                .nodeSelector(ClickHouseNodeSelector.of(node.getProtocol())).build();
+        sharedConnInfo = shared ? connInfo : null;
+        client = shared ? connInfo.getSharedClient() : connInfo.newClient();
+        metaDataCache = connInfo.getMetaDataCache();
         clientRequest = client.connect(node);
         ClickHouseConfig config = clientRequest.getConfig();
         String currentUser = null;
         TimeZone timeZone = null;
         ClickHouseVersion version = null;
-        if (config.hasServerInfo()) { // when both serverTimeZone and serverVersion are configured
+        if (config.hasServerInfo() && !jdbcConf.isCreateDbIfNotExist()) {
+            // when both serverTimeZone and serverVersion are configured
             timeZone = config.getServerTimeZone();
             version = config.getServerVersion();
-            if (jdbcConf.isCreateDbIfNotExist()) {
-                initialReadOnly = getServerInfo(node, clientRequest, true).getValue(3).asInteger();
-            } else {
-                initialReadOnly = (int) clientRequest.getSettings().getOrDefault("readonly", 0);
-            }
+            initialReadOnly = (int) clientRequest.getSettings().getOrDefault("readonly", 0);
         } else {
-            ClickHouseRecord r = getServerInfo(node, clientRequest, jdbcConf.isCreateDbIfNotExist());
-            currentUser = r.getValue(0).asString();
-            String tz = r.getValue(1).asString();
-            String ver = r.getValue(2).asString();
-            version = ClickHouseVersion.of(ver);
-            // https://github.com/ClickHouse/ClickHouse/commit/486d63864bcc6e15695cd3e9f9a3f83a84ec4009
-            if (version.check("(,20.7)")) {
-                throw SqlExceptionUtils
-                        .unsupportedError("Sorry this driver only supports ClickHouse server 20.7 or above");
-            }
-            if (ClickHouseChecker.isNullOrBlank(tz)) {
-                tz = "UTC";
+            ServerInfo info = shared ? connInfo.getServerInfo(node) : null;
+            if (info == null) {
+                info = new ServerInfo(getServerInfo(node, clientRequest, jdbcConf.isCreateDbIfNotExist()),
+                        TimeUnit.SECONDS.toMillis(jdbcConf.getServerInfoTtl()));
+                // https://github.com/ClickHouse/ClickHouse/commit/486d63864bcc6e15695cd3e9f9a3f83a84ec4009
+                if (!config.hasServerInfo() && info.version.check("(,20.7)")) {
+                    throw SqlExceptionUtils
+                            .unsupportedError("Sorry this driver only supports ClickHouse server 20.7 or above");
+                }
+                if (shared) {
+                    connInfo.setServerInfo(node, info);
+                }
             }
-            // tsTimeZone.hasSameRules(ClickHouseValues.UTC_TIMEZONE)
-            timeZone = "UTC".equals(tz) ? ClickHouseValues.UTC_TIMEZONE : TimeZone.getTimeZone(tz);
-            initialReadOnly = r.getValue(3).asInteger();
+            initialReadOnly = info.readOnly;
 
-            // update request and corresponding config
-            clientRequest.option(ClickHouseClientOption.SERVER_TIME_ZONE, tz)
-                    .option(ClickHouseClientOption.SERVER_VERSION, ver);
+            if (config.hasServerInfo()) {
+                timeZone = config.getServerTimeZone();
+                version = config.getServerVersion();
+            } else {
+                currentUser = info.user;
+                timeZone = info.timeZone;
+                version = info.version;
+                // update request and corresponding config
+                clientRequest.option(ClickHouseClientOption.SERVER_TIME_ZONE, info.timeZoneId)
+                        .option(ClickHouseClientOption.SERVER_VERSION, info.versionString);
+            }
         }
 
         this.autoCommit = true;
@@ -287,6 +335,64 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
         this.serverVersion = version;
         this.typeMap = new HashMap<>(jdbcConf.getTypeMap());
         this.fakeTransaction = new AtomicReference<>();
+        this.statements = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+        this.handle = null;
+
+        this.initialDatabase = this.database;
+        this.initialOptions = new HashMap<>(clientRequest.getConfig().getAllOptions());
+        this.initialSettings = new HashMap<>(clientRequest.getSettings());
+    }
+
+    /**
+     * Resets per-connection state, including current database, settings,
+     * read-only flag, type map, fake transaction and client info etc., to what
+     * it was when the connection was created, so that it can be reused.
+     *
+     * @throws SQLException when the connection is closed
+     */
+    void reset() throws SQLException {
+        ensureOpen();
+
+        ClickHouseStatementImpl[] list;
+        synchronized (statements) {
+            list = statements.toArray(new ClickHouseStatementImpl[0]);
+            statements.clear();
+        }
+        for (ClickHouseStatementImpl stmt : list) {
+            try {
+                // close current result set as well
+                stmt.close();
+            } catch (Exception e) {
+                log.debug("Failed to close statement due to %s", e.getMessage());
+            }
+        }
+
+        // work left uncommitted by previous user should never be committed
+        FakeTransaction tx = fakeTransaction.getAndSet(null);
+        if (tx != null) {
+            tx.logTransactionDetails(log, FakeTransaction.ACTION_ROLLBACK);
+            tx.clear();
+        }
+
+        clientRequest.options(initialOptions);
+        for (String key : new ArrayList<>(clientRequest.getSettings().keySet())) {
+            if (!initialSettings.containsKey(key)) {
+                clientRequest.removeSetting(key);
+            }
+        }
+        for (Entry<String, Object> e : initialSettings.entrySet()) {
+            clientRequest.set(e.getKey(), (Serializable) e.getValue());
+        }
+
+        this.autoCommit = true;
+        this.database = initialDatabase;
+        this.readOnly = initialReadOnly != 0;
+        this.networkTimeout = 0;
+        this.rsHoldability = ResultSet.HOLD_CURSORS_OVER_COMMIT;
+        this.txIsolation = jdbcConf.isJdbcCompliant() ? Connection.TRANSACTION_READ_COMMITTED
+                : Connection.TRANSACTION_NONE;
+        this.typeMap.clear();
+        this.typeMap.putAll(jdbcConf.getTypeMap());
     }
 
     @Override
@@ -369,7 +475,10 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
     @Override
     public void close() throws SQLException {
         try {
-            this.client.close();
+            // shared client stays open for other connections
+            if (sharedConnInfo == null) {
+                this.client.close();
+            }
         } catch (Exception e) {
             log.warn("Failed to close connection due to %s", e.getMessage());
             throw SqlExceptionUtils.handle(e);
@@ -391,7 +500,7 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
 
     @Override
     public DatabaseMetaData getMetaData() throws SQLException {
-        return new ClickHouseDatabaseMetaData(this);
+        return new ClickHouseDatabaseMetaData(getHandle(), metaDataCache);
     }
 
     @Override
@@ -685,7 +794,63 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
             return false;
         }
 
-        return client.ping(clientRequest.getServer(), (int) TimeUnit.SECONDS.toMillis(timeout));
+        boolean valid = client.ping(clientRequest.getServer(), (int) TimeUnit.SECONDS.toMillis(timeout));
+        if (!valid) {
+            invalidateServerInfo();
+        }
+        return valid;
+    }
+
+    /**
+     * Gets connection exposed to application, which could be a proxy of this
+     * connection when it's pooled.
+     *
+     * @return non-null connection
+     */
+    ClickHouseConnection getHandle() {
+        ClickHouseConnection h = handle;
+        return h != null ? h : this;
+    }
+
+    /**
+     * Sets connection exposed to application, so that statements and metadata
+     * will not leak this connection.
+     *
+     * @param handle connection exposed to application, null means this
+     *               connection
+     */
+    void setHandle(ClickHouseConnection handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Tracks the given statement, which will be closed on reset.
+     *
+     * @param stmt non-null statement
+     */
+    void register(ClickHouseStatementImpl stmt) {
+        statements.add(stmt);
+    }
+
+    /**
+     * Stops tracking the given statement.
+     *
+     * @param stmt non-null statement
+     */
+    void unregister(ClickHouseStatementImpl stmt) {
+        statements.remove(stmt);
+    }
+
+    /**
+     * Removes cached server information when client is shared, so that it will
+     * be queried again on next connection. It's called when failed to connect
+     * to the server or execute a query, as server might have been restarted,
+     * upgraded or reconfigured.
+     */
+    void invalidateServerInfo() {
+        if (sharedConnInfo != null) {
+            sharedConnInfo.invalidateServerInfo(clientRequest.getServer());
+        }
     }
 
     @Override
@@ -812,8 +977,10 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
 
         executor.execute(() -> {
             try {
-                // try harder please
-                this.client.close();
+                // try harder please, but leave shared client alone
+                if (sharedConnInfo == null) {
+                    this.client.close();
+                }
             } finally {
                 this.closed = true;
             }
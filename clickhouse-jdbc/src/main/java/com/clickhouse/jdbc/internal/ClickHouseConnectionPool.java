@@ -0,0 +1,405 @@
+package com.clickhouse.jdbc.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseThreadFactory;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+import com.clickhouse.jdbc.ClickHouseConnection;
+import com.clickhouse.jdbc.JdbcConfig;
+import com.clickhouse.jdbc.SqlExceptionUtils;
+import com.clickhouse.jdbc.internal.ClickHouseJdbcUrlParser.ConnectionInfo;
+
+/**
+ * A lightweight pool of connections sharing same client and server
+ * information. Connections handed out by the pool are returned back, with
+ * open statements closed and per-connection state reset, when they're closed.
+ * Idle connections are validated in background, so no round-trip is needed on
+ * checkout.
+ */
+public final class ClickHouseConnectionPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseConnectionPool.class);
+
+    // timeout in seconds for validating idle connections
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    static final class PooledConnection {
+        final ClickHouseConnectionImpl conn;
+        final long lastUsed;
+
+        PooledConnection(ClickHouseConnectionImpl conn) {
+            this.conn = conn;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    final class PooledConnectionHandler implements InvocationHandler {
+        final ClickHouseConnectionImpl conn;
+
+        private final AtomicBoolean closed;
+
+        PooledConnectionHandler(ClickHouseConnectionImpl conn) {
+            this.conn = conn;
+            this.closed = new AtomicBoolean(false);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("equals".equals(name) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            } else if ("close".equals(name)) {
+                if (closed.compareAndSet(false, true)) {
+                    release(conn);
+                }
+                return null;
+            } else if ("isClosed".equals(name)) {
+                return closed.get() || conn.isClosed();
+            } else if ("isValid".equals(name) && closed.get()) {
+                return false;
+            } else if (closed.get() && !"toString".equals(name)) {
+                for (Class<?> clazz : method.getExceptionTypes()) {
+                    if (clazz.isAssignableFrom(SQLException.class)) {
+                        throw SqlExceptionUtils.clientError("Cannot operate on a closed connection");
+                    }
+                }
+                throw new IllegalStateException("Cannot operate on a closed connection");
+            }
+
+            if ("unwrap".equals(name) && args != null && args.length == 1 && args[0] instanceof Class
+                    && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+
+            Object result;
+            try {
+                result = method.invoke(conn, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if ("abort".equals(name) && closed.compareAndSet(false, true)) {
+                discard(conn);
+            } else if (result == conn) { // never leak pooled connection
+                throw SqlExceptionUtils.clientError("Cannot unwrap pooled connection");
+            }
+            return result;
+        }
+    }
+
+    private final ConnectionInfo connInfo;
+    private final int maxSize;
+    private final long idleTimeout;
+    private final long waitTimeout;
+    private final boolean validate;
+
+    private final Semaphore permits;
+    // most recently used connection comes first
+    private final Deque<PooledConnection> idleConnections;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicInteger activeCount;
+    private final AtomicLong waitCount;
+    private final AtomicLong totalWaitTime;
+    private final AtomicLong maxWaitTime;
+
+    private volatile boolean closed;
+
+    /**
+     * Closes the connection without throwing exception.
+     *
+     * @param conn connection to close
+     */
+    static void closeQuietly(ClickHouseConnectionImpl conn) {
+        try {
+            conn.close();
+        } catch (Exception e) {
+            log.debug("Failed to close pooled connection due to %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param connInfo non-null connection information
+     */
+    public ClickHouseConnectionPool(ConnectionInfo connInfo) {
+        this.connInfo = ClickHouseChecker.nonNull(connInfo, "ConnectionInfo");
+
+        JdbcConfig config = connInfo.getJdbcConfig();
+        this.maxSize = ClickHouseChecker.between(config.getPoolSize(), JdbcConfig.PROP_POOL_SIZE, 1,
+                Integer.MAX_VALUE);
+        this.idleTimeout = config.getPoolIdleTimeout() > 0 ? TimeUnit.SECONDS.toMillis(config.getPoolIdleTimeout())
+                : 0L;
+        this.waitTimeout = config.getPoolWaitTimeout() > 0 ? TimeUnit.SECONDS.toMillis(config.getPoolWaitTimeout())
+                : 0L;
+
+        this.permits = new Semaphore(maxSize, true);
+        this.idleConnections = new ConcurrentLinkedDeque<>();
+
+        this.activeCount = new AtomicInteger();
+        this.waitCount = new AtomicLong();
+        this.totalWaitTime = new AtomicLong();
+        this.maxWaitTime = new AtomicLong();
+
+        this.closed = false;
+
+        long interval = config.getPoolValidationInterval();
+        this.validate = interval > 0L;
+        if (validate || idleTimeout > 0L) {
+            if (!validate) {
+                interval = config.getPoolIdleTimeout();
+            }
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(new ClickHouseThreadFactory(this));
+            this.scheduler.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.SECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    boolean isExpired(PooledConnection pc, long now) {
+        return idleTimeout > 0L && now - pc.lastUsed >= idleTimeout;
+    }
+
+    /**
+     * Takes the given connection out of the pool without closing it, as it has
+     * been aborted already.
+     *
+     * @param conn aborted connection
+     */
+    void discard(ClickHouseConnectionImpl conn) {
+        activeCount.decrementAndGet();
+        permits.release();
+    }
+
+    void release(ClickHouseConnectionImpl conn) {
+        activeCount.decrementAndGet();
+        try {
+            if (!closed && !conn.isClosed()) {
+                conn.reset();
+                idleConnections.offerFirst(new PooledConnection(conn));
+                conn = null;
+                if (closed) { // closed in the middle
+                    evictAll();
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Failed to reset pooled connection due to %s", e.getMessage());
+        } finally {
+            if (conn != null) {
+                closeQuietly(conn);
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes all idle connections.
+     */
+    void evictAll() {
+        PooledConnection pc;
+        while ((pc = idleConnections.pollFirst()) != null) {
+            closeQuietly(pc.conn);
+        }
+    }
+
+    /**
+     * Closes expired idle connections, and validates remaining ones in
+     * background. As all pooled connections share same client and server, only
+     * one of them will be validated and all idle connections will be closed when
+     * it's invalid.
+     */
+    void maintain() {
+        long now = System.currentTimeMillis();
+        PooledConnection candidate = null;
+        for (Iterator<PooledConnection> it = idleConnections.descendingIterator(); it.hasNext();) {
+            PooledConnection pc = it.next();
+            if (isExpired(pc, now) && idleConnections.removeLastOccurrence(pc)) {
+                closeQuietly(pc.conn);
+            } else if (candidate == null) {
+                candidate = pc;
+            }
+        }
+
+        if (!validate || candidate == null || !idleConnections.removeLastOccurrence(candidate)) {
+            return;
+        }
+
+        boolean valid = false;
+        try {
+            valid = candidate.conn.isValid(VALIDATION_TIMEOUT);
+        } catch (Exception e) {
+            log.debug("Failed to validate pooled connection due to %s", e.getMessage());
+        }
+
+        if (valid) {
+            // keep last used time so that idle timeout still applies
+            idleConnections.offerLast(candidate);
+        } else {
+            log.debug("Closing all idle connections as validation failed");
+            closeQuietly(candidate.conn);
+            evictAll();
+        }
+    }
+
+    /**
+     * Gets a connection from the pool. A new connection will be created when
+     * there's no idle one, and the caller will wait until timeout when the pool
+     * is exhausted.
+     *
+     * @return non-null connection
+     * @throws SQLException when failed to get a connection
+     */
+    public ClickHouseConnection getConnection() throws SQLException {
+        if (closed) {
+            throw SqlExceptionUtils.clientError("Cannot get connection from a closed pool");
+        }
+
+        if (!permits.tryAcquire()) {
+            long startTime = System.nanoTime();
+            boolean acquired = false;
+            try {
+                acquired = permits.tryAcquire(waitTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw SqlExceptionUtils.forCancellation(e);
+            } finally {
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                waitCount.incrementAndGet();
+                totalWaitTime.addAndGet(elapsed);
+                maxWaitTime.accumulateAndGet(elapsed, Math::max);
+            }
+
+            if (!acquired) {
+                throw SqlExceptionUtils.clientError(ClickHouseUtils.format(
+                        "Timed out after waiting %d ms for an available connection, all %d connections are in use",
+                        waitTimeout, maxSize));
+            }
+        }
+
+        ClickHouseConnectionImpl conn = null;
+        try {
+            long now = System.currentTimeMillis();
+            PooledConnection pc;
+            while ((pc = idleConnections.pollFirst()) != null) {
+                if (isExpired(pc, now) || pc.conn.isClosed()) {
+                    closeQuietly(pc.conn);
+                } else {
+                    conn = pc.conn;
+                    break;
+                }
+            }
+
+            if (conn == null) {
+                conn = new ClickHouseConnectionImpl(connInfo, true);
+            }
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        activeCount.incrementAndGet();
+        ClickHouseConnection proxy = (ClickHouseConnection) Proxy.newProxyInstance(
+                ClickHouseConnectionPool.class.getClassLoader(), new Class<?>[] { ClickHouseConnection.class },
+                new PooledConnectionHandler(conn));
+        // statements and metadata return the proxy instead of pooled connection
+        conn.setHandle(proxy);
+        return proxy;
+    }
+
+    /**
+     * Gets maximum number of connections in the pool.
+     *
+     * @return maximum number of connections
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets number of connections currently in use.
+     *
+     * @return number of active connections
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Gets number of idle connections in the pool.
+     *
+     * @return number of idle connections
+     */
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Gets how many times callers had to wait for an available connection.
+     *
+     * @return number of waits
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    /**
+     * Gets total time in milliseconds callers spent on waiting for an available
+     * connection.
+     *
+     * @return total wait time in milliseconds
+     */
+    public long getTotalWaitTime() {
+        return totalWaitTime.get();
+    }
+
+    /**
+     * Gets maximum time in milliseconds a caller spent on waiting for an
+     * available connection.
+     *
+     * @return maximum wait time in milliseconds
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    /**
+     * Checks whether the pool is closed or not.
+     *
+     * @return true if the pool is closed; false otherwise
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the pool along with all idle connections. Connections in use will be
+     * closed when they're returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        evictAll();
+    }
+}
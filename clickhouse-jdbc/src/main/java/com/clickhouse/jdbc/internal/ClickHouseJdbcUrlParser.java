@@ -7,19 +7,25 @@ import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseClient;
 import com.clickhouse.client.ClickHouseCredentials;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseNodeSelector;
 import com.clickhouse.client.ClickHouseProtocol;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.config.ClickHouseDefaults;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
+import com.clickhouse.jdbc.ClickHouseDriver;
 import com.clickhouse.jdbc.JdbcConfig;
+import com.clickhouse.jdbc.JdbcMetaDataCache;
 import com.clickhouse.jdbc.SqlExceptionUtils;
 
 public class ClickHouseJdbcUrlParser {
@@ -31,6 +37,12 @@ public class ClickHouseJdbcUrlParser {
         private final JdbcConfig jdbcConf;
         private final Properties props;
 
+        // shared among connections created from this object
+        private final Map<ClickHouseNode, ServerInfo> serverInfo;
+        private ClickHouseClient client;
+        private JdbcMetaDataCache metaDataCache;
+        private boolean closed;
+
         protected ConnectionInfo(URI uri, ClickHouseNode server, Properties props) throws URISyntaxException {
             this.uri = new URI("jdbc:clickhouse:" + server.getProtocol().name().toLowerCase(Locale.ROOT), null,
                     server.getHost(), server.getPort(), "/" + server.getDatabase().orElse(""),
@@ -38,6 +50,109 @@ public class ClickHouseJdbcUrlParser {
             this.server = server;
             this.jdbcConf = new JdbcConfig(props);
             this.props = props;
+
+            this.serverInfo = new ConcurrentHashMap<>();
+            this.closed = false;
+        }
+
+        /**
+         * Creates a new client according to properties.
+         *
+         * @return non-null client
+         */
+        ClickHouseClient newClient() {
+            return ClickHouseClient.builder().options(ClickHouseDriver.toClientOptions(props))
+                    .nodeSelector(ClickHouseNodeSelector.of(server.getProtocol())).build();
+        }
+
+        /**
+         * Gets client shared by connections created from this object. The client
+         * is created on first call and it stays open until
+         * {@link #closeSharedClient()} is called by the owner, usually
+         * {@link com.clickhouse.jdbc.ClickHouseDataSource}.
+         *
+         * @return non-null shared client
+         * @throws SQLException when the shared client has been closed
+         */
+        synchronized ClickHouseClient getSharedClient() throws SQLException {
+            if (closed) {
+                throw SqlExceptionUtils.clientError("Shared client has been closed");
+            } else if (client == null) {
+                client = newClient();
+            }
+            return client;
+        }
+
+        /**
+         * Closes the shared client, if any, and clears cached server information.
+         * Connections can no longer be created from this object using shared
+         * client afterwards.
+         */
+        public synchronized void closeSharedClient() {
+            closed = true;
+            serverInfo.clear();
+            if (client != null) {
+                try {
+                    client.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close shared client due to %s", e.getMessage());
+                } finally {
+                    client = null;
+                }
+            }
+        }
+
+        /**
+         * Gets metadata cache shared by connections created from this object.
+         *
+         * @return metadata cache, or null when
+         *         {@link JdbcConfig#getMetaDataCacheTtl()} is not positive
+         */
+        synchronized JdbcMetaDataCache getMetaDataCache() {
+            if (metaDataCache == null && jdbcConf.getMetaDataCacheTtl() > 0) {
+                metaDataCache = new JdbcMetaDataCache(jdbcConf.getMetaDataCacheSize(),
+                        jdbcConf.getMetaDataCacheTtl());
+            }
+            return metaDataCache;
+        }
+
+        /**
+         * Gets cached server information.
+         *
+         * @param node non-null node
+         * @return cached server information, or null when it's not cached or
+         *         expired
+         */
+        ServerInfo getServerInfo(ClickHouseNode node) {
+            ServerInfo info = serverInfo.get(node);
+            if (info != null && info.isExpired()) {
+                serverInfo.remove(node, info);
+                info = null;
+            }
+            return info;
+        }
+
+        /**
+         * Caches server information, when {@link JdbcConfig#getServerInfoTtl()} is
+         * positive.
+         *
+         * @param node non-null node
+         * @param info non-null server information
+         */
+        void setServerInfo(ClickHouseNode node, ServerInfo info) {
+            if (jdbcConf.getServerInfoTtl() > 0) {
+                serverInfo.put(node, info);
+            }
+        }
+
+        /**
+         * Removes cached server information, so that it will be queried again on
+         * next connection.
+         *
+         * @param node non-null node
+         */
+        void invalidateServerInfo(ClickHouseNode node) {
+            serverInfo.remove(node);
         }
 
         public URI getUri() {
@@ -4,22 +4,37 @@ import java.io.InputStream;
 import java.io.Serializable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.Map.Entry;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.clickhouse.client.ClickHouseChecker;
 import com.clickhouse.client.ClickHouseClient;
 import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseException;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseResponseSummary;
+import com.clickhouse.client.ClickHouseThreadFactory;
+import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.config.ClickHouseOption;
 import com.clickhouse.client.data.ClickHouseExternalTable;
@@ -28,15 +43,47 @@ import com.clickhouse.client.logging.LoggerFactory;
 import com.clickhouse.jdbc.ClickHouseConnection;
 import com.clickhouse.jdbc.ClickHouseResultSet;
 import com.clickhouse.jdbc.ClickHouseStatement;
-import com.clickhouse.jdbc.SqlExceptionUtils;
+import com.clickhouse.jdbc.JdbcMetaDataCache;
 import com.clickhouse.jdbc.JdbcWrapper;
+import com.clickhouse.jdbc.SqlExceptionUtils;
 import com.clickhouse.jdbc.parser.ClickHouseSqlStatement;
 import com.clickhouse.jdbc.parser.StatementType;
 
 public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseStatement {
     private static final Logger log = LoggerFactory.getLogger(ClickHouseStatementImpl.class);
 
-    private final ClickHouseConnection connection;
+    static final class TimeoutScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors
+                .newSingleThreadScheduledExecutor(new ClickHouseThreadFactory("ClickHouseStatementTimeout-"));
+
+        private TimeoutScheduler() {
+        }
+    }
+
+    /**
+     * Makes sure cancelling the derived future cancels the source future as well.
+     *
+     * @param <T>     type of the derived future
+     * @param derived non-null derived future
+     * @param source  non-null source future
+     * @return derived future
+     */
+    protected static <T> CompletableFuture<T> cancellable(CompletableFuture<T> derived, CompletableFuture<?> source) {
+        derived.whenComplete((r, e) -> {
+            if (derived.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private final ClickHouseConnectionImpl connection;
+    // null when metadata cache is disabled
+    private final JdbcMetaDataCache metaDataCache;
     private final ClickHouseRequest<?> request;
 
     private final int resultSetType;
@@ -55,6 +102,8 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
     private long maxRows;
     private boolean poolable;
     private volatile String queryId;
+    // ids of queries executed asynchronously and not yet responded
+    private final Set<String> runningQueries;
     private int queryTimeout;
 
     private ClickHouseResultSet currentResult;
@@ -73,12 +122,7 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
             ClickHouseSqlStatement stmt = parsedStmts[i];
             // TODO skip useless queries to reduce network calls and server load
             try {
-                response = request.query(stmt.getSQL(), queryId = connection.newQueryId()).execute().get();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw SqlExceptionUtils.forCancellation(e);
-            } catch (Exception e) {
-                throw SqlExceptionUtils.handle(e);
+                response = executeStatement(stmt, options, tables, settings);
             } finally {
                 if (i + 1 < len && response != null) {
                     response.close();
@@ -95,6 +139,31 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
         }
     }
 
+    /**
+     * Invalidates shared metadata cache when the given statement may change
+     * schema.
+     *
+     * @param stmt parsed statement
+     */
+    protected void invalidateMetaData(ClickHouseSqlStatement stmt) {
+        if (metaDataCache == null || stmt == null) {
+            return;
+        }
+
+        switch (stmt.getStatementType()) {
+            case ALTER:
+            case ATTACH:
+            case CREATE:
+            case DETACH:
+            case DROP:
+            case RENAME:
+                metaDataCache.invalidate();
+                break;
+            default:
+                break;
+        }
+    }
+
     protected ClickHouseResponse executeStatement(String stmt,
             Map<ClickHouseOption, Serializable> options, List<ClickHouseExternalTable> tables,
             Map<String, String> settings) throws SQLException {
@@ -123,7 +192,7 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
                         request.write()
                                 .table(t.getName())
                                 .format(t.getFormat() != null ? t.getFormat() : ClickHouseFormat.RowBinary)
-                                .data(t.getContent()).send().get();
+                                .data(t.getContent(request.getConfig())).send().get();
                     } else {
                         list.add(t);
                     }
@@ -137,14 +206,18 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
             Thread.currentThread().interrupt();
             throw SqlExceptionUtils.forCancellation(e);
         } catch (Exception e) {
-            throw SqlExceptionUtils.handle(e);
+            throw handleExecutionError(e);
         }
     }
 
     protected ClickHouseResponse executeStatement(ClickHouseSqlStatement stmt,
             Map<ClickHouseOption, Serializable> options, List<ClickHouseExternalTable> tables,
             Map<String, String> settings) throws SQLException {
-        return executeStatement(stmt.getSQL(), options, tables, settings);
+        try {
+            return executeStatement(stmt.getSQL(), options, tables, settings);
+        } finally {
+            invalidateMetaData(stmt);
+        }
     }
 
     protected int executeInsert(String sql, InputStream input) throws SQLException {
@@ -158,12 +231,312 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
             Thread.currentThread().interrupt();
             throw SqlExceptionUtils.forCancellation(e);
         } catch (Exception e) {
-            throw SqlExceptionUtils.handle(e);
+            throw handleExecutionError(e);
         }
 
         return summary != null && summary.getWrittenRows() > 0L ? (int) summary.getWrittenRows() : 1;
     }
 
+    /**
+     * Gets deadline of a call according to current query timeout.
+     *
+     * @return deadline in nanoseconds, or zero when there's no timeout
+     */
+    private long newDeadline() {
+        return queryTimeout > 0 ? System.nanoTime() + TimeUnit.SECONDS.toNanos(queryTimeout) : 0L;
+    }
+
+    /**
+     * Executes the given query asynchronously. The query will be killed when the
+     * returned future is cancelled or timed out.
+     *
+     * @param req non-null request, usually a copy of {@link #getRequest()}
+     * @param sql non-null SQL query
+     * @return non-null future of the response, which will be completed
+     *         exceptionally with {@link SQLException} on failure
+     */
+    protected CompletableFuture<ClickHouseResponse> executeAsync(ClickHouseRequest<?> req, String sql) {
+        return executeAsync(req, sql, newDeadline());
+    }
+
+    private CompletableFuture<ClickHouseResponse> executeAsync(ClickHouseRequest<?> req, String sql, long deadline) {
+        final String qid = connection.newQueryId();
+        final CompletableFuture<ClickHouseResponse> result = new CompletableFuture<>();
+        final long remaining = deadline != 0L ? deadline - System.nanoTime() : 0L;
+        if (deadline != 0L && remaining <= 0L) {
+            result.completeExceptionally(new SQLTimeoutException(
+                    ClickHouseUtils.format("Query [%s] timed out before it was sent", qid)));
+            return result;
+        }
+
+        final CompletableFuture<ClickHouseResponse> future;
+        runningQueries.add(qid);
+        try {
+            future = req.query(sql, qid).execute();
+        } catch (Exception e) {
+            runningQueries.remove(qid);
+            result.completeExceptionally(handleExecutionError(e));
+            return result;
+        }
+
+        future.whenComplete((r, e) -> {
+            runningQueries.remove(qid);
+            if (e != null) {
+                result.completeExceptionally(handleExecutionError(unwrap(e)));
+            } else if (!result.complete(r)) { // cancelled or timed out
+                r.close();
+            }
+        });
+
+        final ScheduledFuture<?> timer = deadline != 0L ? TimeoutScheduler.INSTANCE.schedule(
+                () -> result.completeExceptionally(new SQLTimeoutException(
+                        ClickHouseUtils.format("Query [%s] timed out", qid))),
+                remaining, TimeUnit.NANOSECONDS) : null;
+        result.whenComplete((r, e) -> {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            if (e != null && !future.isDone()) {
+                future.cancel(true);
+                killQuery(qid);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Executes the given queries one after another asynchronously in a new
+     * session, and returns response of the last one. Query timeout applies to
+     * all the queries as a whole.
+     *
+     * @param stmts non-empty parsed statements
+     * @return non-null future of the last response
+     */
+    protected CompletableFuture<ClickHouseResponse> executeAsync(ClickHouseSqlStatement[] stmts) {
+        if (stmts.length == 1) {
+            CompletableFuture<ClickHouseResponse> f = executeAsync(request.copy(), stmts[0].getSQL());
+            f.whenComplete((v, e) -> invalidateMetaData(stmts[0]));
+            return f;
+        }
+
+        final long deadline = newDeadline();
+        final ClickHouseRequest<?> req = request.copy().session(UUID.randomUUID().toString());
+        final AtomicReference<CompletableFuture<ClickHouseResponse>> current = new AtomicReference<>();
+        CompletableFuture<ClickHouseResponse> future = CompletableFuture.completedFuture(null);
+        for (ClickHouseSqlStatement stmt : stmts) {
+            final String sql = stmt.getSQL();
+            future = future.thenCompose(r -> {
+                if (r != null) {
+                    r.close();
+                }
+                CompletableFuture<ClickHouseResponse> f = executeAsync(req, sql, deadline);
+                f.whenComplete((v, e) -> invalidateMetaData(stmt));
+                current.set(f);
+                return f;
+            });
+        }
+
+        final CompletableFuture<ClickHouseResponse> result = future;
+        result.whenComplete((r, e) -> {
+            CompletableFuture<ClickHouseResponse> f = current.get();
+            if (f != null && result.isCancelled()) {
+                f.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Executes the given query asynchronously and turns the response into a
+     * result set, which is not tracked by this statement.
+     *
+     * @param req  non-null request
+     * @param sql  non-null SQL query
+     * @param stmt non-null parsed statement for database and table name
+     * @return non-null future of the result set
+     */
+    protected CompletableFuture<ResultSet> executeQueryAsync(ClickHouseRequest<?> req, String sql,
+            ClickHouseSqlStatement stmt) {
+        CompletableFuture<ClickHouseResponse> future = executeAsync(req, sql);
+        return cancellable(future.thenApply(r -> newResultSet(stmt, r)), future);
+    }
+
+    /**
+     * Executes the given statement asynchronously and returns number of written
+     * rows.
+     *
+     * @param req non-null request
+     * @param sql non-null SQL statement
+     * @return non-null future of the update count
+     */
+    protected CompletableFuture<Long> executeLargeUpdateAsync(ClickHouseRequest<?> req, String sql) {
+        CompletableFuture<ClickHouseResponse> future = executeAsync(req, sql);
+        return cancellable(future.thenApply(ClickHouseStatementImpl::getUpdateCount), future);
+    }
+
+    /**
+     * Executes a batch, which is sent to server as one statement, asynchronously.
+     * As the server does not report how many rows failed, all or none of the
+     * update counts will be marked as {@link #EXECUTE_FAILED}.
+     *
+     * @param req             non-null request
+     * @param sql             non-null SQL statement
+     * @param count           number of rows in the batch
+     * @param continueOnError whether to complete the future normally on error
+     * @return non-null future of update counts
+     */
+    protected CompletableFuture<long[]> executeBatchAsync(ClickHouseRequest<?> req, String sql, int count,
+            boolean continueOnError) {
+        CompletableFuture<ClickHouseResponse> future = executeAsync(req, sql);
+        return cancellable(future.handle((r, e) -> {
+            long[] results = new long[count];
+            Throwable error = e;
+            if (r != null) {
+                try (ClickHouseResponse resp = r) {
+                    if (!resp.getColumns().isEmpty()) {
+                        error = SqlExceptionUtils.queryInBatchError(results);
+                    }
+                } catch (Exception exp) {
+                    error = exp;
+                }
+            }
+
+            if (error == null) {
+                for (int i = 0; i < count; i++) {
+                    results[i] = 1L;
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    results[i] = EXECUTE_FAILED;
+                }
+                if (!continueOnError) {
+                    throw new CompletionException(SqlExceptionUtils.batchUpdateError(unwrap(error), results));
+                }
+                log.error("Failed to execute batch insertion of %d records", count, error);
+            }
+            return results;
+        }), future);
+    }
+
+    /**
+     * Executes statements in a batch one after another asynchronously. Query
+     * timeout applies to the batch as a whole.
+     *
+     * @param requests        non-null requests, one for each statement
+     * @param stmts           non-null statements
+     * @param continueOnError whether to continue on error
+     * @return non-null future of update counts
+     */
+    protected CompletableFuture<long[]> executeBatchAsync(List<? extends ClickHouseRequest<?>> requests,
+            List<ClickHouseSqlStatement> stmts, boolean continueOnError) {
+        final CompletableFuture<long[]> result = new CompletableFuture<>();
+        final AtomicReference<CompletableFuture<ClickHouseResponse>> current = new AtomicReference<>();
+        result.whenComplete((r, e) -> {
+            CompletableFuture<ClickHouseResponse> f = current.get();
+            if (f != null && result.isCancelled()) {
+                f.cancel(true);
+            }
+        });
+        executeBatchAsync(requests, stmts, 0, new long[stmts.size()], continueOnError, newDeadline(), current,
+                result);
+        return result;
+    }
+
+    private void executeBatchAsync(List<? extends ClickHouseRequest<?>> requests, List<ClickHouseSqlStatement> stmts,
+            int index, long[] results, boolean continueOnError, long deadline,
+            AtomicReference<CompletableFuture<ClickHouseResponse>> current, CompletableFuture<long[]> result) {
+        // loop instead of recursion when the response is already available
+        for (int i = index, len = stmts.size(); i < len; i++) {
+            final int idx = i;
+            final ClickHouseSqlStatement stmt = stmts.get(i);
+            final CompletableFuture<ClickHouseResponse> f = executeAsync(requests.get(i), stmt.getSQL(), deadline);
+            current.set(f);
+            if (result.isDone()) { // cancelled
+                f.cancel(true);
+                return;
+            } else if (!f.isDone()) {
+                f.whenComplete((r, e) -> {
+                    if (updateBatchResult(stmt, r, e, idx, results, continueOnError, result)) {
+                        executeBatchAsync(requests, stmts, idx + 1, results, continueOnError, deadline, current,
+                                result);
+                    }
+                });
+                return;
+            }
+
+            ClickHouseResponse r = null;
+            Throwable error = null;
+            try {
+                r = f.join();
+            } catch (CancellationException | CompletionException e) {
+                error = e;
+            }
+            if (!updateBatchResult(stmt, r, error, idx, results, continueOnError, result)) {
+                return;
+            }
+        }
+        result.complete(results);
+    }
+
+    private boolean updateBatchResult(ClickHouseSqlStatement stmt, ClickHouseResponse response, Throwable error,
+            int index, long[] results, boolean continueOnError, CompletableFuture<long[]> result) {
+        invalidateMetaData(stmt);
+        if (response != null) {
+            try (ClickHouseResponse r = response) {
+                if (stmt.isQuery() || !r.getColumns().isEmpty()) {
+                    error = SqlExceptionUtils.queryInBatchError(results);
+                } else {
+                    long rows = r.getSummary().getWrittenRows();
+                    results[index] = rows > 0L ? rows : 1L;
+                }
+            } catch (Exception e) {
+                error = e;
+            }
+        }
+
+        if (error != null) {
+            results[index] = EXECUTE_FAILED;
+            if (!continueOnError) {
+                result.completeExceptionally(SqlExceptionUtils.batchUpdateError(unwrap(error), results));
+                return false;
+            }
+            log.error("Failed to execute task %d of %d", index + 1, results.length, error);
+        }
+        return !result.isDone();
+    }
+
+    private static long getUpdateCount(ClickHouseResponse response) {
+        try (ClickHouseResponse r = response) {
+            ClickHouseResponseSummary summary = r.getSummary();
+            return summary != null ? summary.getWrittenRows() : 1L;
+        }
+    }
+
+    /**
+     * Creates a result set which is not tracked by this statement. Same as
+     * {@link #updateResult(ClickHouseSqlStatement, ClickHouseResponse)}, an
+     * empty result set will be returned when the response has no column.
+     *
+     * @param stmt     non-null parsed statement
+     * @param response non-null response
+     * @return non-null result set
+     * @throws CompletionException when failed to create result set
+     */
+    protected ResultSet newResultSet(ClickHouseSqlStatement stmt, ClickHouseResponse response) {
+        try {
+            if (stmt.isQuery() || !response.getColumns().isEmpty()) {
+                return new ClickHouseResultSet(stmt.getDatabaseOrDefault(connection.getCurrentDatabase()),
+                        stmt.getTable(), this, response);
+            }
+
+            response.close();
+            return newEmptyResultSet();
+        } catch (Exception e) {
+            response.close();
+            throw new CompletionException(SqlExceptionUtils.handle(e));
+        }
+    }
+
     protected ClickHouseSqlStatement getLastStatement() {
         ClickHouseSqlStatement stmt = null;
 
@@ -191,6 +564,16 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
         return getLastStatement();
     }
 
+    protected ClickHouseSqlStatement[] parseSqlStatementsForAsync(String sql) throws SQLException {
+        // unlike parseSqlStatements, parsed statements are not shared with synchronous
+        // execution
+        ClickHouseSqlStatement[] stmts = connection.parse(sql, getConfig());
+        if (stmts == null || stmts.length == 0) {
+            throw SqlExceptionUtils.clientError("Failed to parse given SQL: " + sql);
+        }
+        return stmts;
+    }
+
     protected ClickHouseResultSet newEmptyResultSet() throws SQLException {
         return new ClickHouseResultSet("", "", this, ClickHouseResponse.EMPTY);
     }
@@ -222,6 +605,7 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
         }
 
         this.connection = connection;
+        this.metaDataCache = connection.getMetaDataCache();
         this.request = request;
 
         // TODO validate resultSet attributes
@@ -237,6 +621,7 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
         this.maxRows = 0L;
         this.poolable = false;
         this.queryId = null;
+        this.runningQueries = ConcurrentHashMap.newKeySet();
 
         this.queryTimeout = 0;
 
@@ -248,6 +633,8 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
         ClickHouseConfig c = request.getConfig();
         setLargeMaxRows(c.getMaxResultRows());
         setQueryTimeout(c.getMaxExecutionTime());
+
+        connection.register(this);
     }
 
     @Override
@@ -302,6 +689,30 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
         return (int) executeLargeUpdate(sql);
     }
 
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLException {
+        ensureOpen();
+        if (!batchStmts.isEmpty()) {
+            throw SqlExceptionUtils.undeterminedExecutionError();
+        }
+
+        ClickHouseSqlStatement[] stmts = parseSqlStatementsForAsync(sql);
+        ClickHouseSqlStatement stmt = stmts[stmts.length - 1];
+        CompletableFuture<ClickHouseResponse> future = executeAsync(stmts);
+        return cancellable(future.thenApply(r -> newResultSet(stmt, r)), future);
+    }
+
+    @Override
+    public CompletableFuture<Long> executeLargeUpdateAsync(String sql) throws SQLException {
+        ensureOpen();
+        if (!batchStmts.isEmpty()) {
+            throw SqlExceptionUtils.undeterminedExecutionError();
+        }
+
+        CompletableFuture<ClickHouseResponse> future = executeAsync(parseSqlStatementsForAsync(sql));
+        return cancellable(future.thenApply(ClickHouseStatementImpl::getUpdateCount), future);
+    }
+
     @Override
     public void close() throws SQLException {
         if (currentResult != null) {
@@ -309,6 +720,7 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
         }
 
         this.closed = true;
+        connection.unregister(this);
     }
 
     @Override
@@ -395,13 +807,22 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
         }
     }
 
-    @Override
-    public void cancel() throws SQLException {
-        final String qid;
-        if ((qid = this.queryId) == null || isClosed()) {
-            return;
+    /**
+     * Converts failure of query execution into {@link SQLException}, and makes
+     * sure server information will be refreshed on next connection when it's a
+     * network error.
+     *
+     * @param e non-null error
+     * @return non-null SQL exception
+     */
+    private SQLException handleExecutionError(Throwable e) {
+        if (ClickHouseException.isNetworkError(e)) {
+            connection.invalidateServerInfo();
         }
+        return SqlExceptionUtils.handle(e);
+    }
 
+    private void killQuery(String qid) {
         ClickHouseClient.send(request.getServer(), String.format("KILL QUERY WHERE query_id='%s'", qid))
                 .whenComplete((summary, exception) -> {
                     if (exception != null) {
@@ -412,6 +833,21 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
                 });
     }
 
+    @Override
+    public void cancel() throws SQLException {
+        if (isClosed()) {
+            return;
+        }
+
+        final String qid = this.queryId;
+        if (qid != null && !runningQueries.contains(qid)) {
+            killQuery(qid);
+        }
+        for (String id : runningQueries) {
+            killQuery(id);
+        }
+    }
+
     @Override
     public SQLWarning getWarnings() throws SQLException {
         ensureOpen();
@@ -580,6 +1016,32 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
         return results;
     }
 
+    @Override
+    public CompletableFuture<int[]> executeBatchAsync() throws SQLException {
+        CompletableFuture<long[]> future = executeLargeBatchAsync();
+        return cancellable(future.thenApply(largeUpdateCounts -> {
+            int len = largeUpdateCounts.length;
+            int[] results = new int[len];
+            for (int i = 0; i < len; i++) {
+                results[i] = (int) largeUpdateCounts[i];
+            }
+            return results;
+        }), future);
+    }
+
+    @Override
+    public CompletableFuture<long[]> executeLargeBatchAsync() throws SQLException {
+        ensureOpen();
+        if (batchStmts.isEmpty()) {
+            throw SqlExceptionUtils.emptyBatchError();
+        }
+
+        List<ClickHouseSqlStatement> stmts = new ArrayList<>(batchStmts);
+        clearBatch();
+        return executeBatchAsync(Collections.nCopies(stmts.size(), request.copy()), stmts,
+                getConnection().getJdbcConfig().isContinueBatchOnError());
+    }
+
     @Override
     public boolean getMoreResults(int current) throws SQLException {
         ensureOpen();
@@ -680,7 +1142,7 @@ public class ClickHouseStatementImpl extends JdbcWrapper implements ClickHouseSt
     public ClickHouseConnection getConnection() throws SQLException {
         ensureOpen();
 
-        return connection;
+        return connection.getHandle();
     }
 
     @Override
@@ -17,9 +17,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.ClickHouseValue;
@@ -137,6 +140,26 @@ public class InputBasedPreparedStatement extends AbstractPreparedStatement imple
         return results;
     }
 
+    /**
+     * Closes current stream and creates a request for inserting all rows in the
+     * batch. The batch will be cleared afterwards.
+     *
+     * @return non-null request
+     * @throws SQLException when failed to close the stream
+     */
+    protected ClickHouseRequest<?> newBatchRequest() throws SQLException {
+        ClickHousePipedStream input = stream;
+        try {
+            input.close();
+        } catch (IOException e) {
+            throw SqlExceptionUtils.handle(e);
+        } finally {
+            clearBatch();
+        }
+
+        return getRequest().write().format(ClickHouseFormat.RowBinary).data(input.getInput());
+    }
+
     @Override
     protected int getMaxParameterIndex() {
         return values.length;
@@ -172,6 +195,45 @@ public class InputBasedPreparedStatement extends AbstractPreparedStatement imple
         return row > 0L ? row : 0L;
     }
 
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync() throws SQLException {
+        CompletableFuture<Long> future = executeLargeUpdateAsync();
+        return cancellable(future.thenApply(r -> {
+            try {
+                return newEmptyResultSet();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }), future);
+    }
+
+    @Override
+    public CompletableFuture<Long> executeLargeUpdateAsync() throws SQLException {
+        ensureOpen();
+        ensureParams();
+        if (counter != 0) {
+            throw SqlExceptionUtils.undeterminedExecutionError();
+        }
+
+        addBatch();
+        String sql = getRequest().getStatements(false).get(0);
+        CompletableFuture<Long> future = executeLargeUpdateAsync(newBatchRequest(), sql);
+        return cancellable(future.thenApply(rows -> rows > 0L ? rows : 0L), future);
+    }
+
+    @Override
+    public CompletableFuture<long[]> executeLargeBatchAsync() throws SQLException {
+        ensureOpen();
+        if (counter < 1) {
+            throw SqlExceptionUtils.emptyBatchError();
+        }
+
+        int count = counter;
+        String sql = getRequest().getStatements(false).get(0);
+        return executeBatchAsync(newBatchRequest(), sql, count,
+                getConnection().getJdbcConfig().isContinueBatchOnError());
+    }
+
     @Override
     public void setByte(int parameterIndex, byte x) throws SQLException {
         ensureOpen();
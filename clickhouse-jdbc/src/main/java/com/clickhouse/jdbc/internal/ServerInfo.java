@@ -0,0 +1,51 @@
+package com.clickhouse.jdbc.internal;
+
+import java.util.TimeZone;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.ClickHouseVersion;
+
+/**
+ * Server information queried when opening a connection, which can be cached
+ * and shared among connections to the same node.
+ */
+final class ServerInfo {
+    final String user;
+    final String timeZoneId;
+    final TimeZone timeZone;
+    final String versionString;
+    final ClickHouseVersion version;
+    final int readOnly;
+
+    private final long expiresAt;
+
+    /**
+     * Default constructor.
+     *
+     * @param r   non-null record of current user, time zone, version and
+     *            readonly setting
+     * @param ttl time to live in milliseconds
+     */
+    ServerInfo(ClickHouseRecord r, long ttl) {
+        String tz = r.getValue(1).asString();
+        if (ClickHouseChecker.isNullOrBlank(tz)) {
+            tz = "UTC";
+        }
+
+        this.user = r.getValue(0).asString();
+        this.timeZoneId = tz;
+        // tsTimeZone.hasSameRules(ClickHouseValues.UTC_TIMEZONE)
+        this.timeZone = "UTC".equals(tz) ? ClickHouseValues.UTC_TIMEZONE : TimeZone.getTimeZone(tz);
+        this.versionString = r.getValue(2).asString();
+        this.version = ClickHouseVersion.of(versionString);
+        this.readOnly = r.getValue(3).asInteger();
+
+        this.expiresAt = System.currentTimeMillis() + ttl;
+    }
+
+    boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+}
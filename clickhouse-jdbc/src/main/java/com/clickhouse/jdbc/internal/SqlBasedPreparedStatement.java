@@ -1,6 +1,7 @@
 package com.clickhouse.jdbc.internal;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Array;
 import java.sql.Date;
 import java.sql.ParameterMetaData;
@@ -15,9 +16,15 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import com.clickhouse.client.ClickHouseChecker;
 import com.clickhouse.client.ClickHouseConfig;
@@ -54,6 +61,15 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
     private final List<String[]> batch;
     private final StringBuilder builder;
 
+    // only for server-side query parameters
+    private final String[] declaredTypes;
+    private final String[] types;
+    private final List<String[]> batchTypes;
+    private final String[] queryParts;
+    private final int[] paramIndices;
+    private String[] lastTypes;
+    private String lastQuery;
+
     private int counter;
 
     protected SqlBasedPreparedStatement(ClickHouseConnectionImpl connection, ClickHouseRequest<?> request,
@@ -100,6 +116,27 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
             builder.append(insertValuesQuery);
         }
 
+        batchTypes = new LinkedList<>();
+        if (connection.getJdbcConfig().useServerSideParameter() && !parsedStmt.hasValues() && values.length > 0) {
+            declaredTypes = preparedQuery.getParameterTypes();
+            types = new String[values.length];
+            List<String> names = preparedQuery.getParameters();
+            List<String[]> parts = preparedQuery.getQueryParts();
+            int len = parts.size();
+            queryParts = new String[len];
+            paramIndices = new int[len];
+            for (int i = 0; i < len; i++) {
+                String[] part = parts.get(i);
+                queryParts[i] = part[0];
+                paramIndices[i] = part[1] != null ? names.indexOf(part[1]) : -1;
+            }
+        } else {
+            declaredTypes = null;
+            types = null;
+            queryParts = null;
+            paramIndices = null;
+        }
+
         counter = 0;
     }
 
@@ -116,6 +153,107 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         }
     }
 
+    private static String getDecimalType(BigDecimal value) {
+        int precision = value.precision();
+        int scale = value.scale();
+        if (scale < 0 || scale > 76 || precision > 76) {
+            return null;
+        }
+        return (precision > 38 || scale > 38 ? "Decimal(76, " : "Decimal(38, ") + scale + ")";
+    }
+
+    private static String getType(Object value) {
+        String type = null;
+        if (value instanceof String) {
+            type = "String";
+        } else if (value instanceof Integer) {
+            type = "Int32";
+        } else if (value instanceof Long) {
+            type = "Int64";
+        } else if (value instanceof Short) {
+            type = "Int16";
+        } else if (value instanceof Byte) {
+            type = "Int8";
+        } else if (value instanceof Boolean) {
+            type = "UInt8";
+        } else if (value instanceof Double) {
+            type = "Float64";
+        } else if (value instanceof Float) {
+            type = "Float32";
+        } else if (value instanceof BigInteger) {
+            type = "Int256";
+        } else if (value instanceof BigDecimal) {
+            type = getDecimalType((BigDecimal) value);
+        } else if (value instanceof LocalDate) {
+            type = "Date";
+        } else if (value instanceof LocalDateTime) {
+            type = "DateTime64(9)";
+        } else if (value instanceof UUID) {
+            type = "UUID";
+        }
+        return type;
+    }
+
+    private void setType(int idx, String type) {
+        if (types != null) {
+            String declaredType = declaredTypes[idx];
+            types[idx] = declaredType != null ? declaredType : type;
+        }
+    }
+
+    /**
+     * Gets query for the given parameters. When types of all parameters are
+     * known, parameters will be set to the request as server-side query
+     * parameters, and the query stays same as long as types do not change.
+     * Otherwise, parameters are formatted into the query as usual.
+     *
+     * @param req        non-null request
+     * @param params     non-null parameters
+     * @param paramTypes types of the parameters, could be null
+     * @return non-null query
+     */
+    private String getQuery(ClickHouseRequest<?> req, String[] params, String[] paramTypes) {
+        int len = params.length;
+        String[] effectiveTypes = paramTypes != null ? new String[len] : null;
+        for (int i = 0; effectiveTypes != null && i < len; i++) {
+            String type = paramTypes[i];
+            if (type == null) {
+                effectiveTypes = null;
+            } else if (ClickHouseValues.NULL_EXPR.equals(params[i]) && !type.startsWith("Nullable(")) {
+                effectiveTypes[i] = "Nullable(" + type + ")";
+            } else {
+                effectiveTypes[i] = type;
+            }
+        }
+
+        // never touch the shared builder, which is only for insert ... values
+        StringBuilder sb = new StringBuilder();
+        if (effectiveTypes == null) {
+            req.queryParameters(null);
+            preparedQuery.apply(sb, params);
+            return sb.toString();
+        }
+
+        if (!Arrays.equals(effectiveTypes, lastTypes)) {
+            for (int i = 0, size = queryParts.length; i < size; i++) {
+                sb.append(queryParts[i]);
+                int idx = paramIndices[i];
+                if (idx >= 0) {
+                    sb.append("{p").append(idx).append(':').append(effectiveTypes[idx]).append('}');
+                }
+            }
+            lastTypes = effectiveTypes;
+            lastQuery = sb.toString();
+        }
+
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < len; i++) {
+            map.put("p" + i, ClickHouseValues.convertToQueryParameter(params[i]));
+        }
+        req.queryParameters(map);
+        return lastQuery;
+    }
+
     @Override
     protected long[] executeAny(boolean asBatch) throws SQLException {
         ensureOpen();
@@ -169,6 +307,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
                 }
                 log.error("Failed to execute batch insertion of %d records", counter, e);
             } finally {
+                invalidateMetaData(parsedStmt);
                 if (asBatch && r != null) {
                     r.close();
                 }
@@ -177,11 +316,12 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         } else {
             int index = 0;
             try {
+                Iterator<String[]> it = batchTypes.iterator();
                 for (String[] params : batch) {
-                    builder.setLength(0);
-                    preparedQuery.apply(builder, params);
+                    ClickHouseRequest<?> req = getRequest();
+                    String sql = getQuery(req, params, it.hasNext() ? it.next() : null);
                     try {
-                        r = executeStatement(builder.toString(), null, null, null);
+                        r = executeStatement(sql, null, null, null);
                         updateResult(parsedStmt, r);
                         if (asBatch && getResultSet() != null) {
                             throw SqlExceptionUtils.queryInBatchError(results);
@@ -195,6 +335,9 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
                         }
                         log.error("Failed to execute batch insert at %d of %d", index + 1, counter, e);
                     } finally {
+                        // request is shared by the statement, don't leave parameters for next execution
+                        req.queryParameters(null);
+                        invalidateMetaData(parsedStmt);
                         index++;
                         if (asBatch && r != null) {
                             r.close();
@@ -235,11 +378,74 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         return getLargeUpdateCount();
     }
 
+    private String getSqlForCurrentParameters(ClickHouseRequest<?> req) throws SQLException {
+        ensureParams();
+        if (counter != 0) {
+            throw SqlExceptionUtils.undeterminedExecutionError();
+        }
+
+        if (insertValuesQuery == null) {
+            return getQuery(req, values, types);
+        }
+
+        StringBuilder sb = new StringBuilder(insertValuesQuery);
+        preparedQuery.apply(sb, values);
+        return sb.toString();
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync() throws SQLException {
+        ensureOpen();
+
+        ClickHouseRequest<?> req = getRequest().copy();
+        return executeQueryAsync(req, getSqlForCurrentParameters(req), parsedStmt);
+    }
+
+    @Override
+    public CompletableFuture<Long> executeLargeUpdateAsync() throws SQLException {
+        ensureOpen();
+
+        ClickHouseRequest<?> req = getRequest().copy();
+        return executeLargeUpdateAsync(req, getSqlForCurrentParameters(req));
+    }
+
+    @Override
+    public CompletableFuture<long[]> executeLargeBatchAsync() throws SQLException {
+        ensureOpen();
+        if (counter < 1) {
+            throw SqlExceptionUtils.emptyBatchError();
+        }
+
+        boolean continueOnError = getConnection().getJdbcConfig().isContinueBatchOnError();
+        ClickHouseRequest<?> req = getRequest().copy();
+        CompletableFuture<long[]> future;
+        if (builder.length() > 0) { // insert ... values
+            future = executeBatchAsync(req, builder.toString(), counter, continueOnError);
+        } else {
+            List<ClickHouseSqlStatement> stmts = new ArrayList<>(counter);
+            List<ClickHouseRequest<?>> requests = types != null ? new ArrayList<>(counter)
+                    : Collections.nCopies(counter, req);
+            Iterator<String[]> it = batchTypes.iterator();
+            for (String[] params : batch) {
+                ClickHouseRequest<?> r = req;
+                if (types != null) {
+                    requests.add(r = req.copy());
+                }
+                stmts.add(new ClickHouseSqlStatement(getQuery(r, params, it.hasNext() ? it.next() : null),
+                        parsedStmt.getStatementType()));
+            }
+            future = executeBatchAsync(requests, stmts, continueOnError);
+        }
+        clearBatch();
+        return future;
+    }
+
     @Override
     public void setByte(int parameterIndex, byte x) throws SQLException {
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, "Int8");
         ClickHouseValue value = templates[idx];
         if (value != null) {
             value.update(x);
@@ -254,6 +460,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, "Int16");
         ClickHouseValue value = templates[idx];
         if (value != null) {
             value.update(x);
@@ -268,6 +475,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, "Int32");
         ClickHouseValue value = templates[idx];
         if (value != null) {
             value.update(x);
@@ -282,6 +490,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, "Int64");
         ClickHouseValue value = templates[idx];
         if (value != null) {
             value.update(x);
@@ -296,6 +505,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, "Float32");
         ClickHouseValue value = templates[idx];
         if (value != null) {
             value.update(x);
@@ -310,6 +520,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, "Float64");
         ClickHouseValue value = templates[idx];
         if (value != null) {
             value.update(x);
@@ -324,6 +535,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, x != null ? getDecimalType(x) : null);
         ClickHouseValue value = templates[idx];
         if (value != null) {
             value.update(x);
@@ -338,6 +550,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, "String");
         ClickHouseValue value = templates[idx];
         if (value != null) {
             value.update(x);
@@ -352,6 +565,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, "String");
         ClickHouseValue value = templates[idx];
         if (value == null) {
             templates[idx] = value = ClickHouseStringValue.ofNull();
@@ -366,6 +580,9 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         for (int i = 0, len = values.length; i < len; i++) {
             values[i] = null;
         }
+        if (types != null) {
+            Arrays.fill(types, null);
+        }
     }
 
     @Override
@@ -374,6 +591,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
 
         int idx = toArrayIndex(parameterIndex);
         ClickHouseValue value = templates[idx];
+        setType(idx, value == null ? getType(x) : null);
         if (value != null) {
             value.update(x);
             values[idx] = value.toSqlExpression();
@@ -413,6 +631,9 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
             }
             preparedQuery.apply(builder, values);
         } else {
+            if (types != null) {
+                batchTypes.add(types.clone());
+            }
             int len = values.length;
             String[] newValues = new String[len];
             for (int i = 0; i < len; i++) {
@@ -435,6 +656,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         this.batch.clear();
+        this.batchTypes.clear();
         this.builder.setLength(0);
         if (insertValuesQuery != null) {
             this.builder.append(insertValuesQuery);
@@ -448,6 +670,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, null);
         Object array = x != null ? x.getArray() : x;
         values[idx] = array != null ? ClickHouseValues.convertToSqlExpression(array)
                 : ClickHouseValues.EMPTY_ARRAY_EXPR;
@@ -458,6 +681,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, x != null ? "Date" : null);
         if (x == null) {
             values[idx] = ClickHouseValues.NULL_EXPR;
             return;
@@ -488,6 +712,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, null);
         if (x == null) {
             values[idx] = ClickHouseValues.NULL_EXPR;
             return;
@@ -519,6 +744,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
 
         int idx = toArrayIndex(parameterIndex);
         if (x == null) {
+            setType(idx, null);
             values[idx] = ClickHouseValues.NULL_EXPR;
             return;
         }
@@ -540,6 +766,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         if (value == null) {
             value = ClickHouseDateTimeValue.ofNull(dt.getNano() > 0 ? 9 : 0, preferredTimeZone);
         }
+        setType(idx, dt.getNano() > 0 ? "DateTime64(9)" : "DateTime");
         values[idx] = value.update(dt).toSqlExpression();
     }
 
@@ -548,6 +775,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
         ensureOpen();
 
         int idx = toArrayIndex(parameterIndex);
+        setType(idx, null);
         ClickHouseValue value = templates[idx];
         if (value != null) {
             value.resetToNullOrEmpty();
@@ -569,6 +797,7 @@ public class SqlBasedPreparedStatement extends AbstractPreparedStatement impleme
 
         int idx = toArrayIndex(parameterIndex);
         ClickHouseValue value = templates[idx];
+        setType(idx, null);
         if (value == null) {
             value = ClickHouseValues.newValue(getConfig(), JdbcTypeMapping.fromJdbcType(targetSqlType, scaleOrLength));
             templates[idx] = value;
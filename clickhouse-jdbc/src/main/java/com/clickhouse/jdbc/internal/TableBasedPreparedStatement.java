@@ -15,6 +15,7 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.ClickHouseResponse;
@@ -148,6 +149,57 @@ public class TableBasedPreparedStatement extends AbstractPreparedStatement imple
         }
     }
 
+    protected ClickHouseRequest<?> newRequest(List<ClickHouseExternalTable> list) throws SQLException {
+        for (ClickHouseExternalTable t : list) {
+            if (t.isTempTable()) {
+                throw SqlExceptionUtils.unsupportedError(ClickHouseUtils.format(
+                        "Temporary table [%s] is not supported in asynchronous execution", t.getName()));
+            }
+        }
+        return getRequest().copy().external(list);
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync() throws SQLException {
+        ensureOpen();
+        ensureParams();
+        if (!batch.isEmpty()) {
+            throw SqlExceptionUtils.undeterminedExecutionError();
+        }
+
+        return executeQueryAsync(newRequest(Arrays.asList(values.clone())), getSql(), parsedStmt);
+    }
+
+    @Override
+    public CompletableFuture<Long> executeLargeUpdateAsync() throws SQLException {
+        ensureOpen();
+        ensureParams();
+        if (!batch.isEmpty()) {
+            throw SqlExceptionUtils.undeterminedExecutionError();
+        }
+
+        return executeLargeUpdateAsync(newRequest(Arrays.asList(values.clone())), getSql());
+    }
+
+    @Override
+    public CompletableFuture<long[]> executeLargeBatchAsync() throws SQLException {
+        ensureOpen();
+        if (batch.isEmpty()) {
+            throw SqlExceptionUtils.emptyBatchError();
+        }
+
+        int size = batch.size();
+        List<ClickHouseRequest<?>> requests = new ArrayList<>(size);
+        for (List<ClickHouseExternalTable> list : batch) {
+            requests.add(newRequest(list));
+        }
+        ClickHouseSqlStatement stmt = new ClickHouseSqlStatement(getSql(), parsedStmt.getStatementType());
+        CompletableFuture<long[]> future = executeBatchAsync(requests, Collections.nCopies(size, stmt),
+                getConnection().getJdbcConfig().isContinueBatchOnError());
+        clearBatch();
+        return future;
+    }
+
     @Override
     public void setByte(int parameterIndex, byte x) throws SQLException {
         throw SqlExceptionUtils.clientError(ERROR_SET_TABLE);
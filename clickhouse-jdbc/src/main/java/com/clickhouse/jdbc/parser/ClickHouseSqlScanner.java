@@ -0,0 +1,352 @@
+package com.clickhouse.jdbc.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.clickhouse.client.ClickHouseConfig;
+
+/**
+ * Pre-scanner for {@code INSERT ... VALUES} and {@code INSERT ... FORMAT}
+ * statements. It locates end of the statement header in one pass, so that only
+ * the header is tokenized by {@link ClickHouseSqlParser}, while the data
+ * following it is kept as an opaque span of the original SQL. Statements
+ * requiring full parsing, for example those with parameters, macros, JDBC
+ * escapes or multiple statements, are left to the parser.
+ */
+final class ClickHouseSqlScanner {
+    private static final String KEYWORD_INSERT = "INSERT";
+    private static final String KEYWORD_FORMAT = "FORMAT";
+
+    private static boolean isWordChar(char ch) {
+        return Character.isLetterOrDigit(ch) || ch == '_' || ch == '$';
+    }
+
+    private static boolean isJdbcEscape(String sql, int index) {
+        char next = index + 1 < sql.length() ? sql.charAt(index + 1) : '\0';
+        return next == 'd' || next == 't';
+    }
+
+    /**
+     * Skips quoted string or identifier.
+     *
+     * @param sql   non-null SQL
+     * @param index index of opening quote
+     * @return index right after closing quote, or -1 when it's not closed
+     */
+    static int skipQuoted(String sql, int index) {
+        char quote = sql.charAt(index);
+        for (int i = index + 1, len = sql.length(); i < len; i++) {
+            char ch = sql.charAt(i);
+            if (ch == '\\') {
+                i++;
+            } else if (ch == quote) {
+                if (i + 1 < len && sql.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips comment.
+     *
+     * @param sql   non-null SQL
+     * @param index start index
+     * @return index right after the comment, same as {@code index} when there's
+     *         no comment, or -1 when multi-line comment is not closed
+     */
+    static int skipComment(String sql, int index) {
+        int len = sql.length();
+        if (index + 1 >= len) {
+            return index;
+        }
+
+        char ch = sql.charAt(index);
+        char next = sql.charAt(index + 1);
+        if ((ch == '-' && next == '-') || (ch == '/' && next == '/')) {
+            int i = index + 2;
+            while (i < len && (ch = sql.charAt(i)) != '\r' && ch != '\n') {
+                i++;
+            }
+            return i;
+        } else if (ch == '/' && next == '*') {
+            int depth = 1;
+            for (int i = index + 2; i < len; i++) {
+                ch = sql.charAt(i);
+                if (i + 1 < len) {
+                    next = sql.charAt(i + 1);
+                    if (ch == '/' && next == '*') {
+                        depth++;
+                        i++;
+                    } else if (ch == '*' && next == '/') {
+                        i++;
+                        if (--depth == 0) {
+                            return i + 1;
+                        }
+                    }
+                }
+            }
+            return -1;
+        }
+
+        return index;
+    }
+
+    /**
+     * Skips whitespaces and comments.
+     *
+     * @param sql   non-null SQL
+     * @param index start index
+     * @return index of next meaningful character, or -1 when multi-line comment
+     *         is not closed
+     */
+    static int skipBlank(String sql, int index) {
+        int len = sql.length();
+        while (index >= 0 && index < len) {
+            if (Character.isWhitespace(sql.charAt(index)) || Character.isSpaceChar(sql.charAt(index))) {
+                index++;
+            } else {
+                int i = skipComment(sql, index);
+                if (i == index) {
+                    break;
+                }
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private static int readWord(String sql, int index) {
+        int len = sql.length();
+        while (index < len && isWordChar(sql.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Scans data part starting from the given index till end of the statement.
+     *
+     * @param sql       non-null SQL
+     * @param index     start index of data part
+     * @param values    whether data part is a values expression
+     * @param positions positions to update
+     * @return end index(exclusive) of the statement, or -1 when full parsing is
+     *         required
+     */
+    static int scanData(String sql, int index, boolean values, Map<String, Integer> positions) {
+        int len = sql.length();
+        int depth = 0;
+        int tuples = 0;
+        int end = len;
+        for (int i = index; i < len; i++) {
+            char ch = sql.charAt(i);
+            int j = skipComment(sql, i);
+            if (j < 0) {
+                return -1;
+            } else if (j > i) {
+                i = j - 1;
+                continue;
+            }
+
+            switch (ch) {
+            case '\'':
+            case '"':
+            case '`':
+                if ((j = skipQuoted(sql, i)) < 0 || (values && depth == 0)) {
+                    return -1;
+                }
+                i = j - 1;
+                break;
+            case '?':
+            case '#':
+                // parameter or macro
+                return -1;
+            case '{':
+                if (isJdbcEscape(sql, i)) {
+                    return -1;
+                }
+                break;
+            case '(':
+                if (depth++ == 0 && values && ++tuples == 1) {
+                    positions.put(ClickHouseSqlStatement.KEYWORD_VALUES_START, i);
+                }
+                break;
+            case ')':
+                if (--depth < 0) {
+                    return -1;
+                } else if (depth == 0 && values && tuples == 1) {
+                    positions.put(ClickHouseSqlStatement.KEYWORD_VALUES_END, i);
+                }
+                break;
+            case ';':
+                if (depth == 0) {
+                    // only whitespaces and comments are allowed after the last statement
+                    if (skipBlank(sql, i + 1) != len) {
+                        return -1;
+                    }
+                    end = i;
+                    i = len;
+                }
+                break;
+            default:
+                if (values && depth == 0 && ch != ',' && !Character.isWhitespace(ch)
+                        && !Character.isSpaceChar(ch)) {
+                    // something like SETTINGS after values expression
+                    return -1;
+                }
+                break;
+            }
+        }
+
+        if (depth != 0 || (values && tuples == 0)) {
+            return -1;
+        }
+
+        if (tuples > 1) {
+            positions.remove(ClickHouseSqlStatement.KEYWORD_VALUES_START);
+            positions.remove(ClickHouseSqlStatement.KEYWORD_VALUES_END);
+        }
+        return end;
+    }
+
+    /**
+     * Parses the given SQL when it's a single {@code INSERT ... VALUES} or
+     * {@code INSERT ... FORMAT} statement. Only the statement header will be
+     * parsed by {@link ClickHouseSqlParser}, so time and memory needed no longer
+     * grow with size of the data.
+     *
+     * @param sql     non-empty SQL
+     * @param config  non-null configuration
+     * @param handler optional parse handler
+     * @return parsed statement, or null when full parsing is required
+     */
+    static ClickHouseSqlStatement scanInsert(String sql, ClickHouseConfig config, ParseHandler handler) {
+        int len = sql.length();
+        int index = skipBlank(sql, 0);
+        if (index < 0 || index + KEYWORD_INSERT.length() >= len
+                || !sql.regionMatches(true, index, KEYWORD_INSERT, 0, KEYWORD_INSERT.length())
+                || isWordChar(sql.charAt(index + KEYWORD_INSERT.length()))) {
+            return null;
+        }
+
+        // locate end of the header, which is either VALUES or FORMAT <name>
+        int valuesIndex = -1;
+        int dataIndex = -1;
+        String format = null;
+        int depth = 0;
+        for (int i = index; i < len && dataIndex < 0; i++) {
+            char ch = sql.charAt(i);
+            int j = skipComment(sql, i);
+            if (j < 0) {
+                return null;
+            } else if (j > i) {
+                i = j - 1;
+                continue;
+            }
+
+            switch (ch) {
+            case '\'':
+            case '"':
+            case '`':
+                if ((j = skipQuoted(sql, i)) < 0) {
+                    return null;
+                }
+                i = j - 1;
+                break;
+            case '?':
+            case '#':
+            case ';':
+                return null;
+            case '{':
+                if (isJdbcEscape(sql, i)) {
+                    return null;
+                }
+                break;
+            case '(':
+                depth++;
+                break;
+            case ')':
+                if (--depth < 0) {
+                    return null;
+                }
+                break;
+            default:
+                if (isWordChar(ch)) {
+                    j = readWord(sql, i);
+                    if (depth == 0) {
+                        String word = sql.substring(i, j);
+                        if (ClickHouseSqlStatement.KEYWORD_VALUES.equalsIgnoreCase(word)) {
+                            valuesIndex = i;
+                            dataIndex = j;
+                        } else if (KEYWORD_FORMAT.equalsIgnoreCase(word)) {
+                            int k = skipBlank(sql, j);
+                            int l = k < 0 ? k : readWord(sql, k);
+                            if (l <= k) {
+                                return null;
+                            }
+                            format = sql.substring(k, l);
+                            dataIndex = l;
+                        } else if ("SELECT".equalsIgnoreCase(word) || "WITH".equalsIgnoreCase(word)) {
+                            return null;
+                        }
+                    }
+                    i = j - 1;
+                }
+                break;
+            }
+        }
+
+        if (dataIndex < 0) {
+            return null;
+        }
+
+        Map<String, Integer> positions = new HashMap<>();
+        int end = scanData(sql, dataIndex, valuesIndex >= 0, positions);
+        if (end < 0) {
+            return null;
+        }
+
+        ClickHouseSqlStatement header = null;
+        try {
+            ClickHouseSqlStatement[] stmts = new ClickHouseSqlParser(sql.substring(0, valuesIndex >= 0 ? valuesIndex
+                    : dataIndex), config, handler).sql();
+            if (stmts.length == 1) {
+                header = stmts[0];
+            }
+        } catch (Exception e) {
+            // fall back to full parsing
+        }
+
+        if (header == null || header.getStatementType() != StatementType.INSERT || header.hasValues()
+                || (format == null ? header.getFormat() != null : !format.equals(header.getFormat()))) {
+            return null;
+        }
+
+        positions.putAll(header.getPositions());
+        if (valuesIndex >= 0) {
+            positions.put(ClickHouseSqlStatement.KEYWORD_VALUES, valuesIndex);
+        }
+
+        String stmt = sql.substring(0, end);
+        ClickHouseSqlStatement s = null;
+        if (handler != null) {
+            s = handler.handleStatement(stmt, header.getStatementType(), header.getCluster(), header.getDatabase(),
+                    header.getTable(), header.getInput(), header.getFormat(), header.getOutfile(),
+                    header.getParameters(), positions, header.getSettings(), header.getTempTables());
+        }
+        if (s == null) {
+            s = new ClickHouseSqlStatement(stmt, header.getStatementType(), header.getCluster(),
+                    header.getDatabase(), header.getTable(), header.getInput(), header.getFormat(),
+                    header.getOutfile(), header.getParameters(), positions, header.getSettings(),
+                    header.getTempTables());
+        }
+        return s;
+    }
+
+    private ClickHouseSqlScanner() {
+    }
+}
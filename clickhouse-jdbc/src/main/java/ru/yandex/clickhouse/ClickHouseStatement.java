@@ -1,5 +1,6 @@
 package ru.yandex.clickhouse;
 
+import ru.yandex.clickhouse.response.ClickHouseJsonResponseStream;
 import ru.yandex.clickhouse.response.ClickHouseResponse;
 import ru.yandex.clickhouse.response.ClickHouseResponseSummary;
 import ru.yandex.clickhouse.settings.ClickHouseQueryParam;
@@ -24,6 +25,25 @@ public interface ClickHouseStatement extends Statement {
                                                       Map<ClickHouseQueryParam, String> additionalDBParams,
                                                       Map<String, String> additionalRequestParams) throws SQLException;
 
+    /**
+     * Executes the given query and returns a stream for reading rows one at a
+     * time, so that memory usage does not grow with number of rows. Unlike
+     * {@link #executeQueryClickhouseResponse(String)}, the stream must be closed
+     * after use.
+     *
+     * @param sql query
+     * @return non-null stream of rows
+     * @throws SQLException when failed to execute the query
+     */
+    ClickHouseJsonResponseStream executeQueryClickhouseResponseStream(String sql) throws SQLException;
+
+    ClickHouseJsonResponseStream executeQueryClickhouseResponseStream(String sql,
+                                                                      Map<ClickHouseQueryParam, String> additionalDBParams) throws SQLException;
+
+    ClickHouseJsonResponseStream executeQueryClickhouseResponseStream(String sql,
+                                                                      Map<ClickHouseQueryParam, String> additionalDBParams,
+                                                                      Map<String, String> additionalRequestParams) throws SQLException;
+
     ClickHouseRowBinaryInputStream executeQueryClickhouseRowBinaryStream(String sql) throws SQLException;
 
     ClickHouseRowBinaryInputStream executeQueryClickhouseRowBinaryStream(String sql,
@@ -51,11 +51,13 @@ import ru.yandex.clickhouse.domain.ClickHouseCompression;
 import ru.yandex.clickhouse.domain.ClickHouseFormat;
 import ru.yandex.clickhouse.except.ClickHouseException;
 import ru.yandex.clickhouse.except.ClickHouseExceptionSpecifier;
+import ru.yandex.clickhouse.response.ClickHouseJsonResponseStream;
 import ru.yandex.clickhouse.response.ClickHouseLZ4Stream;
 import ru.yandex.clickhouse.response.ClickHouseResponse;
 import ru.yandex.clickhouse.response.ClickHouseResponseGsonDeserializer;
 import ru.yandex.clickhouse.response.ClickHouseResponseSummary;
 import ru.yandex.clickhouse.response.ClickHouseResultSet;
+import ru.yandex.clickhouse.response.ClickHouseRowBinaryResultSet;
 import ru.yandex.clickhouse.response.ClickHouseScrollableResultSet;
 import ru.yandex.clickhouse.response.FastByteArrayOutputStream;
 import ru.yandex.clickhouse.settings.ClickHouseProperties;
@@ -68,6 +70,7 @@ import ru.yandex.clickhouse.util.Utils;
 public class ClickHouseStatementImpl extends ConfigurableApi<ClickHouseStatement> implements ClickHouseStatement {
 
     private static final Logger log = LoggerFactory.getLogger(ClickHouseStatementImpl.class);
+
     private static final Gson gson = new GsonBuilder().registerTypeAdapter(ClickHouseResponse.class,
             new ClickHouseResponseGsonDeserializer()).create();
 
@@ -207,6 +210,11 @@ public class ClickHouseStatementImpl extends ConfigurableApi<ClickHouseStatement
     protected ClickHouseSqlStatement applyFormat(ClickHouseSqlStatement stmt, ClickHouseFormat preferredFormat) {
         if (Objects.requireNonNull(stmt).isQuery() && !stmt.hasFormat()) {
             String sql = stmt.getSQL();
+            // binary format is only used for forward-only result sets without totals
+            if (preferredFormat == ClickHouseFormat.TabSeparatedWithNamesAndTypes && properties.isUseBinaryResultSet()
+                    && !isResultSetScrollable && !stmt.hasWithTotals()) {
+                preferredFormat = ClickHouseFormat.RowBinaryWithNamesAndTypes;
+            }
             String format = Objects.requireNonNull(preferredFormat).name();
 
             Map<String, Integer> positions = new HashMap<>();
@@ -232,6 +240,12 @@ public class ClickHouseStatementImpl extends ConfigurableApi<ClickHouseStatement
         return additionalDBParams;
     }
 
+    /**
+     * @deprecated responses are now streamed by
+     *             {@link #readJsonResponseStream(InputStream)} and this will be
+     *             removed in 0.4.0
+     */
+    @Deprecated
     protected <T> T readJsonResponse(InputStream input, Class<T> clazz) throws IOException {
         return gson.fromJson(new InputStreamReader(input, StandardCharsets.UTF_8), clazz);
     }
@@ -243,7 +257,7 @@ public class ClickHouseStatementImpl extends ConfigurableApi<ClickHouseStatement
             currentUpdateCount = -1;
             currentResult = createResultSet(properties.isCompress() ? new ClickHouseLZ4Stream(is) : is,
                     properties.getBufferSize(), stmt.getDatabaseOrDefault(properties.getDatabase()), stmt.getTable(),
-                    stmt.hasWithTotals(), this, getConnection().getTimeZone(), properties);
+                    stmt.hasWithTotals(), stmt.getFormat(), this, getConnection().getTimeZone(), properties);
             currentResult.setMaxRows(maxRows);
             rs = currentResult;
         } else {
@@ -298,14 +312,27 @@ public class ClickHouseStatementImpl extends ConfigurableApi<ClickHouseStatement
         additionalDBParams = importAdditionalDBParameters(additionalDBParams);
         stmt = applyFormat(stmt, ClickHouseFormat.JSONCompact);
 
-        try (InputStream is = getInputStream(stmt, additionalDBParams, null, additionalRequestParams)) {
-            return readJsonResponse(properties.isCompress() ? new ClickHouseLZ4Stream(is) : is,
-                    ClickHouseResponse.class);
+        try (ClickHouseJsonResponseStream stream = readJsonResponseStream(
+                getInputStream(stmt, additionalDBParams, null, additionalRequestParams))) {
+            return stream.toResponse();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    protected ClickHouseJsonResponseStream readJsonResponseStream(InputStream is) throws SQLException {
+        try {
+            return new ClickHouseJsonResponseStream(properties.isCompress() ? new ClickHouseLZ4Stream(is) : is);
+        } catch (Exception e) {
+            try {
+                is.close();
+            } catch (IOException ioe) {
+                log.error("can not close stream: %s", ioe.getMessage());
+            }
+            throw ClickHouseExceptionSpecifier.specify(e, properties.getHost(), properties.getPort());
+        }
+    }
+
     public ClickHouseStatementImpl(CloseableHttpClient client, ClickHouseConnection connection,
             ClickHouseProperties properties, int resultSetType) {
         super(null);
@@ -378,17 +405,35 @@ public class ClickHouseStatementImpl extends ConfigurableApi<ClickHouseStatement
     public ClickHouseResponse executeQueryClickhouseResponse(String sql,
             Map<ClickHouseQueryParam, String> additionalDBParams, Map<String, String> additionalRequestParams)
             throws SQLException {
-        additionalDBParams = importAdditionalDBParameters(additionalDBParams);
-        parseSqlStatements(sql, ClickHouseFormat.JSONCompact, additionalDBParams);
-
-        try (InputStream is = getLastInputStream(additionalDBParams, null, additionalRequestParams)) {
-            return readJsonResponse(properties.isCompress() ? new ClickHouseLZ4Stream(is) : is,
-                    ClickHouseResponse.class);
+        try (ClickHouseJsonResponseStream stream = executeQueryClickhouseResponseStream(sql, additionalDBParams,
+                additionalRequestParams)) {
+            return stream.toResponse();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    @Override
+    public ClickHouseJsonResponseStream executeQueryClickhouseResponseStream(String sql) throws SQLException {
+        return executeQueryClickhouseResponseStream(sql, null);
+    }
+
+    @Override
+    public ClickHouseJsonResponseStream executeQueryClickhouseResponseStream(String sql,
+            Map<ClickHouseQueryParam, String> additionalDBParams) throws SQLException {
+        return executeQueryClickhouseResponseStream(sql, additionalDBParams, null);
+    }
+
+    @Override
+    public ClickHouseJsonResponseStream executeQueryClickhouseResponseStream(String sql,
+            Map<ClickHouseQueryParam, String> additionalDBParams, Map<String, String> additionalRequestParams)
+            throws SQLException {
+        additionalDBParams = importAdditionalDBParameters(additionalDBParams);
+        parseSqlStatements(sql, ClickHouseFormat.JSONCompact, additionalDBParams);
+
+        return readJsonResponseStream(getLastInputStream(additionalDBParams, null, additionalRequestParams));
+    }
+
     @Override
     public ClickHouseRowBinaryInputStream executeQueryClickhouseRowBinaryStream(String sql) throws SQLException {
         return executeQueryClickhouseRowBinaryStream(sql, null);
@@ -1115,11 +1160,14 @@ public class ClickHouseStatementImpl extends ConfigurableApi<ClickHouseStatement
     }
 
     private ClickHouseResultSet createResultSet(InputStream is, int bufferSize, String db, String table,
-            boolean usesWithTotals, ClickHouseStatement statement, TimeZone timezone, ClickHouseProperties properties)
-            throws IOException {
+            boolean usesWithTotals, String format, ClickHouseStatement statement, TimeZone timezone,
+            ClickHouseProperties properties) throws IOException {
         if (isResultSetScrollable) {
             return new ClickHouseScrollableResultSet(is, bufferSize, db, table, usesWithTotals, statement, timezone,
                     properties);
+        } else if (properties.isUseBinaryResultSet() && !usesWithTotals
+                && ClickHouseFormat.RowBinaryWithNamesAndTypes.name().equals(format)) {
+            return new ClickHouseRowBinaryResultSet(is, bufferSize, db, table, statement, timezone, properties);
         } else {
             return new ClickHouseResultSet(is, bufferSize, db, table, usesWithTotals, statement, timezone, properties);
         }
@@ -0,0 +1,304 @@
+package ru.yandex.clickhouse.response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Streaming reader of response in {@code JSONCompact} format. Unlike
+ * {@link ClickHouseResponse}, rows are parsed one at a time when iterating, so
+ * memory usage does not grow with number of rows. Meta is available right after
+ * the stream is created, while totals, extremes, rows and statistics are only
+ * available after all rows have been consumed, because that's the order
+ * ClickHouse sends them.
+ */
+public class ClickHouseJsonResponseStream implements Iterator<List<String>>, Closeable {
+    private final JsonReader reader;
+    private final List<ClickHouseResponse.Meta> meta;
+
+    private boolean hasMeta;
+    private boolean hasData;
+    private boolean inData;
+    private boolean finished;
+
+    private List<String> totals;
+    private ClickHouseResponse.Extremes extremes;
+    private int rows;
+    private int rowsBeforeLimitAtLeast;
+    private ClickHouseResponse.Statistics statistics;
+
+    public ClickHouseJsonResponseStream(InputStream input) throws IOException {
+        this.reader = new JsonReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.meta = new ArrayList<>();
+
+        reader.beginObject();
+        readFields();
+    }
+
+    /**
+     * Reads fields until beginning of data or end of the response.
+     */
+    private void readFields() throws IOException {
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "meta":
+                    hasMeta = true;
+                    readMeta();
+                    break;
+                case "data":
+                    reader.beginArray();
+                    hasData = true;
+                    inData = true;
+                    return;
+                case "totals":
+                    totals = readRow();
+                    break;
+                case "extremes":
+                    readExtremes();
+                    break;
+                case "rows":
+                    rows = reader.nextInt();
+                    break;
+                case "rows_before_limit_at_least":
+                    rowsBeforeLimitAtLeast = reader.nextInt();
+                    break;
+                case "statistics":
+                    readStatistics();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+
+        reader.endObject();
+        finished = true;
+    }
+
+    private void readMeta() throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            ClickHouseResponse.Meta m = new ClickHouseResponse.Meta();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("name".equals(name)) {
+                    m.setName(reader.nextString());
+                } else if ("type".equals(name)) {
+                    m.setType(reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            meta.add(m);
+        }
+        reader.endArray();
+    }
+
+    private void readExtremes() throws IOException {
+        extremes = new ClickHouseResponse.Extremes();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("min".equals(name)) {
+                extremes.setMin(readRow());
+            } else if ("max".equals(name)) {
+                extremes.setMax(readRow());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readStatistics() throws IOException {
+        statistics = new ClickHouseResponse.Statistics();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("elapsed".equals(name)) {
+                statistics.setElapsed(reader.nextDouble());
+            } else if ("rows_read".equals(name)) {
+                statistics.setRows_read(reader.nextLong());
+            } else if ("bytes_read".equals(name)) {
+                statistics.setBytes_read(reader.nextLong());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private List<String> readRow() throws IOException {
+        List<String> row = new ArrayList<>(meta.size());
+        reader.beginArray();
+        while (reader.hasNext()) {
+            row.add(readValue());
+        }
+        reader.endArray();
+        return row;
+    }
+
+    private String readValue() throws IOException {
+        JsonToken token = reader.peek();
+        switch (token) {
+            case NULL:
+                reader.nextNull();
+                return null;
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            case NUMBER: // keep number as is
+            case STRING:
+                return reader.nextString();
+            case BEGIN_ARRAY:
+            case BEGIN_OBJECT:
+                // nested value like array, tuple and map is returned in compact json
+                return JsonParser.parseReader(reader).toString();
+            default:
+                throw new IllegalStateException("Unexpected token: " + token);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!inData) {
+            return false;
+        }
+
+        try {
+            if (reader.hasNext()) {
+                return true;
+            }
+
+            reader.endArray();
+            inData = false;
+            readFields();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return false;
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more row");
+        }
+
+        try {
+            return readRow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks whether the whole response has been read.
+     *
+     * @return true if all rows and trailing fields have been read; false otherwise
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public List<ClickHouseResponse.Meta> getMeta() {
+        return Collections.unmodifiableList(meta);
+    }
+
+    /**
+     * Gets totals, which is only available after all rows have been consumed.
+     *
+     * @return totals, could be null
+     */
+    public List<String> getTotals() {
+        return totals;
+    }
+
+    /**
+     * Gets extremes, which is only available after all rows have been consumed.
+     *
+     * @return extremes, could be null
+     */
+    public ClickHouseResponse.Extremes getExtremes() {
+        return extremes;
+    }
+
+    /**
+     * Gets number of rows, which is only available after all rows have been
+     * consumed.
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets {@code rows_before_limit_at_least}, which is only available after all
+     * rows have been consumed.
+     *
+     * @return rows before limit at least
+     */
+    public int getRowsBeforeLimitAtLeast() {
+        return rowsBeforeLimitAtLeast;
+    }
+
+    /**
+     * Gets statistics, which is only available after all rows have been consumed.
+     *
+     * @return statistics, could be null
+     */
+    public ClickHouseResponse.Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Reads remaining rows into memory and builds a {@link ClickHouseResponse}.
+     *
+     * @return non-null response
+     * @throws IOException when failed to read response
+     */
+    public ClickHouseResponse toResponse() throws IOException {
+        List<List<String>> data = new ArrayList<>();
+        try {
+            while (hasNext()) {
+                data.add(next());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        ClickHouseResponse response = new ClickHouseResponse();
+        if (hasMeta) {
+            response.setMeta(new ArrayList<>(meta));
+        }
+        if (hasData) {
+            response.setData(data);
+        }
+        response.setTotals(totals);
+        response.setExtremes(extremes);
+        response.setRows(rows);
+        response.setRows_before_limit_at_least(rowsBeforeLimitAtLeast);
+        response.setStatistics(statistics);
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -12,7 +12,7 @@ public class ClickHouseResponse {
     private Extremes extremes;
     private int rows;
     private int rows_before_limit_at_least;
-
+    private Statistics statistics;
 
     public static class Extremes {
         private List<String> min;
@@ -35,6 +35,36 @@ public class ClickHouseResponse {
         }
     }
 
+    public static class Statistics {
+        private double elapsed;
+        private long rows_read;
+        private long bytes_read;
+
+        public double getElapsed() {
+            return elapsed;
+        }
+
+        public void setElapsed(double elapsed) {
+            this.elapsed = elapsed;
+        }
+
+        public long getRows_read() {
+            return rows_read;
+        }
+
+        public void setRows_read(long rows_read) {
+            this.rows_read = rows_read;
+        }
+
+        public long getBytes_read() {
+            return bytes_read;
+        }
+
+        public void setBytes_read(long bytes_read) {
+            this.bytes_read = bytes_read;
+        }
+    }
+
     public static class Meta {
         private String name;
         private String type;
@@ -104,6 +134,14 @@ public class ClickHouseResponse {
         this.rows_before_limit_at_least = rows_before_limit_at_least;
     }
 
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
     public List<String> getTotals() {
         return totals;
     }
@@ -11,6 +11,12 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 
+/**
+ * @deprecated JSONCompact responses are streamed by
+ *             {@link ClickHouseJsonResponseStream} and this will be removed in
+ *             0.4.0
+ */
+@Deprecated
 public class ClickHouseResponseGsonDeserializer implements JsonDeserializer<ClickHouseResponse> {
 
     @Override
@@ -48,12 +48,12 @@ public class ClickHouseResultSet extends AbstractResultSet {
 
     private List<ClickHouseColumnInfo> columns;
 
-    private int maxRows;
+    protected int maxRows;
 
     // current line
     protected ByteFragment[] values;
     // 1-based
-    private int lastReadColumn;
+    protected int lastReadColumn;
 
     // next line
     protected ByteFragment nextLine;
@@ -108,6 +108,47 @@ public class ClickHouseResultSet extends AbstractResultSet {
         }
         String[] types = toStringArray(typesFragment);
         columns = new ArrayList<>(cols.length);
+        TimeZone tz = getServerTimeZone(statement, timeZone);
+        for (int i = 0; i < cols.length; i++) {
+            columns.add(ClickHouseColumnInfo.parse(types[i], cols[i], tz));
+        }
+    }
+
+    /**
+     * Constructor for result sets not backed by tab-separated stream. Sub-class
+     * is responsible for reading rows, as well as closing underlying stream.
+     *
+     * @param db         database
+     * @param table      table
+     * @param statement  statement result set belongs to
+     * @param timeZone   time zone used for date time values
+     * @param properties connection properties
+     * @param columns    columns in the result set
+     */
+    protected ClickHouseResultSet(String db, String table, ClickHouseStatement statement, TimeZone timeZone,
+        ClickHouseProperties properties, List<ClickHouseColumnInfo> columns)
+    {
+        this.db = db;
+        this.table = table;
+        this.statement = statement;
+        this.properties = properties;
+        this.usesWithTotals = false;
+        this.dateTimeTimeZone = timeZone;
+        this.dateTimeZone = properties.isUseServerTimeZoneForDates()
+            ? timeZone
+            : TimeZone.getDefault();
+        this.bis = null;
+        this.columns = new ArrayList<>(columns);
+    }
+
+    /**
+     * Gets server time zone of the connection statement belongs to.
+     *
+     * @param statement statement, could be null
+     * @param timeZone  time zone to fall back to
+     * @return server time zone, or {@code timeZone} when it's not available
+     */
+    static TimeZone getServerTimeZone(ClickHouseStatement statement, TimeZone timeZone) {
         TimeZone tz = null;
         try {
             if (statement != null && statement.getConnection() instanceof ClickHouseConnection) {
@@ -117,13 +158,7 @@ public class ClickHouseResultSet extends AbstractResultSet {
             // ignore the error
         }
 
-        if (tz == null) {
-            tz = timeZone;
-        }
-        
-        for (int i = 0; i < cols.length; i++) {
-            columns.add(ClickHouseColumnInfo.parse(types[i], cols[i], tz));
-        }
+        return tz != null ? tz : timeZone;
     }
 
     private static String[] toStringArray(ByteFragment headerFragment) {
@@ -268,7 +303,7 @@ public class ClickHouseResultSet extends AbstractResultSet {
         if (lastReadColumn == 0) {
             throw new IllegalStateException("You should get something before check nullability");
         }
-        return getValue(lastReadColumn).isNull();
+        return isNullValue(lastReadColumn);
     }
 
     @Override
@@ -582,7 +617,7 @@ public class ClickHouseResultSet extends AbstractResultSet {
     @Override
     public Object getObject(int columnIndex) throws SQLException {
         try {
-            if (getValue(columnIndex).isNull()) {
+            if (isNullValue(columnIndex)) {
                 return null;
             }
             ClickHouseColumnInfo columnInfo = getColumnInfo(columnIndex);
@@ -645,7 +680,7 @@ public class ClickHouseResultSet extends AbstractResultSet {
             }
         } catch (Exception e) {
             throw new ClickHouseUnknownException(
-                "Parse exception: " + values[columnIndex - 1].toString(),
+                "Parse exception: " + getValue(columnIndex).toString(),
                 e);
         }
     }
@@ -726,11 +761,15 @@ public class ClickHouseResultSet extends AbstractResultSet {
         throw new SQLException("no column " + column + " in columns list " + getColumnNamesString());
     }
 
-    private ByteFragment getValue(int colNum) {
+    protected ByteFragment getValue(int colNum) {
         lastReadColumn = colNum;
         return values[colNum - 1];
     }
 
+    protected boolean isNullValue(int colNum) {
+        return getValue(colNum).isNull();
+    }
+
     private ClickHouseColumnInfo getColumnInfo(int colNum) {
         return columns.get(colNum - 1);
     }
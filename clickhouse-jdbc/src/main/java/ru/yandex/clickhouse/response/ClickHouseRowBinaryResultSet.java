@@ -0,0 +1,438 @@
+package ru.yandex.clickhouse.response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseOption;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+
+import ru.yandex.clickhouse.ClickHouseStatement;
+import ru.yandex.clickhouse.settings.ClickHouseProperties;
+
+/**
+ * Forward-only result set backed by {@code RowBinaryWithNamesAndTypes} stream.
+ * Numbers, strings and date time values are retrieved from decoded binary
+ * values directly, while everything else falls back to the text
+ * representation used by {@link ClickHouseResultSet}, so that getters behave
+ * the same way.
+ */
+public class ClickHouseRowBinaryResultSet extends ClickHouseResultSet {
+    private static final ByteFragment NULL_VALUE = ByteFragment.fromString("\\N");
+    private static final ByteFragment NAN_VALUE = ByteFragment.fromString("nan");
+    private static final ByteFragment INF_VALUE = ByteFragment.fromString("inf");
+    private static final ByteFragment NINF_VALUE = ByteFragment.fromString("-inf");
+
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static ClickHouseRowBinaryProcessor newProcessor(ClickHouseInputStream input, TimeZone serverTimeZone)
+        throws IOException
+    {
+        Map<ClickHouseOption, Serializable> options = new HashMap<>();
+        options.put(ClickHouseClientOption.FORMAT, ClickHouseFormat.RowBinaryWithNamesAndTypes);
+        options.put(ClickHouseClientOption.SERVER_TIME_ZONE, serverTimeZone.getID());
+        options.put(ClickHouseClientOption.USE_SERVER_TIME_ZONE, true);
+        return new ClickHouseRowBinaryProcessor(new ClickHouseConfig(options, null, null, null), input, null, null,
+            null);
+    }
+
+    private static List<ClickHouseColumnInfo> toColumnInfo(List<ClickHouseColumn> columns, TimeZone serverTimeZone) {
+        List<ClickHouseColumnInfo> list = new ArrayList<>(columns.size());
+        for (ClickHouseColumn c : columns) {
+            list.add(ClickHouseColumnInfo.parse(c.getOriginalTypeName(), c.getColumnName(), serverTimeZone));
+        }
+        return list;
+    }
+
+    private static boolean isInteger(ClickHouseDataType type) {
+        switch (type) {
+        case Int8:
+        case UInt8:
+        case Int16:
+        case UInt16:
+        case Int32:
+        case UInt32:
+        case Int64:
+        case UInt64:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isFloat(ClickHouseDataType type) {
+        return type == ClickHouseDataType.Float32 || type == ClickHouseDataType.Float64;
+    }
+
+    private static boolean isDecimal(ClickHouseDataType type) {
+        switch (type) {
+        case Decimal:
+        case Decimal32:
+        case Decimal64:
+        case Decimal128:
+        case Decimal256:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isDateTime(ClickHouseDataType type) {
+        return type == ClickHouseDataType.DateTime || type == ClickHouseDataType.DateTime32
+            || type == ClickHouseDataType.DateTime64;
+    }
+
+    private static boolean isNull(ClickHouseValue value) {
+        return value == null || value.asObject() == null;
+    }
+
+    private static ByteFragment escape(String str) {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        try {
+            ByteFragment.escape(bytes, out);
+        } catch (IOException e) {
+            // never happens
+            throw new UncheckedIOException(e);
+        }
+        return new ByteFragment(out.toByteArray(), 0, out.size());
+    }
+
+    /**
+     * Converts the given value to what would have been returned in
+     * {@code TabSeparated} format.
+     *
+     * @param column column of the value
+     * @param value  value
+     * @return text representation of the value
+     */
+    static ByteFragment toByteFragment(ClickHouseColumn column, ClickHouseValue value) {
+        if (isNull(value)) {
+            return NULL_VALUE;
+        }
+
+        ClickHouseDataType type = column.getDataType();
+        switch (type) {
+        case String:
+        case FixedString:
+        case Enum:
+        case Enum8:
+        case Enum16:
+            return escape(value.asString());
+        case Array:
+        case Map:
+        case Nested:
+        case Tuple:
+            return ByteFragment.fromString(value.toSqlExpression());
+        default:
+            break;
+        }
+
+        if (isFloat(type)) {
+            double d = value.asDouble();
+            if (Double.isNaN(d)) {
+                return NAN_VALUE;
+            } else if (d == Double.POSITIVE_INFINITY) {
+                return INF_VALUE;
+            } else if (d == Double.NEGATIVE_INFINITY) {
+                return NINF_VALUE;
+            }
+        } else if (isDecimal(type)) {
+            return ByteFragment.fromString(value.asBigDecimal().toPlainString());
+        } else if (isDateTime(type)) {
+            return ByteFragment.fromString(toDateTimeString(value.asDateTime(column.getScale()), column.getScale()));
+        }
+
+        return ByteFragment.fromString(value.asString());
+    }
+
+    /**
+     * Formats the given date time like server does, which always has exactly
+     * {@code scale} digits of fraction.
+     *
+     * @param dateTime non-null date time
+     * @param scale    scale between 0 and 9
+     * @return text representation of the date time
+     */
+    static String toDateTimeString(LocalDateTime dateTime, int scale) {
+        String str = dateTime.format(DATETIME_FORMATTER);
+        if (scale > 0) {
+            // zero-padded nanoseconds truncated to the scale
+            str = new StringBuilder(str.length() + scale + 1).append(str).append('.')
+                .append(String.valueOf(1000000000 + dateTime.getNano()), 1, scale + 1).toString();
+        }
+        return str;
+    }
+
+    private final ClickHouseInputStream input;
+    private final ClickHouseRowBinaryProcessor processor;
+    private final Iterator<ClickHouseRecord> records;
+    private final boolean useServerTimeZone;
+
+    private ClickHouseRecord currentRecord;
+    private boolean closed;
+    private boolean afterLast;
+
+    public ClickHouseRowBinaryResultSet(InputStream is, int bufferSize, String db, String table,
+        ClickHouseStatement statement, TimeZone timeZone, ClickHouseProperties properties) throws IOException
+    {
+        this(ClickHouseInputStream.of(is, bufferSize), getServerTimeZone(statement, timeZone), db, table, statement,
+            timeZone, properties);
+    }
+
+    private ClickHouseRowBinaryResultSet(ClickHouseInputStream input, TimeZone serverTimeZone, String db,
+        String table, ClickHouseStatement statement, TimeZone timeZone, ClickHouseProperties properties)
+        throws IOException
+    {
+        this(input, newProcessor(input, serverTimeZone), serverTimeZone, db, table, statement, timeZone, properties);
+    }
+
+    private ClickHouseRowBinaryResultSet(ClickHouseInputStream input, ClickHouseRowBinaryProcessor processor,
+        TimeZone serverTimeZone, String db, String table, ClickHouseStatement statement, TimeZone timeZone,
+        ClickHouseProperties properties)
+    {
+        super(db, table, statement, timeZone, properties, toColumnInfo(processor.getColumns(), serverTimeZone));
+
+        this.input = input;
+        this.processor = processor;
+        this.useServerTimeZone = properties.isUseServerTimeZone();
+        this.records = processor.records().iterator();
+        this.values = new ByteFragment[processor.getColumns().size()];
+    }
+
+    private ClickHouseColumn getBinaryColumn(int colNum) {
+        return processor.getColumns().get(colNum - 1);
+    }
+
+    private ClickHouseValue getBinaryValue(int colNum) {
+        lastReadColumn = colNum;
+        return currentRecord.getValue(colNum - 1);
+    }
+
+    @Override
+    protected boolean hasNext() throws SQLException {
+        if (closed) {
+            return false;
+        }
+
+        try {
+            if ((maxRows == 0 || rowNumber < maxRows) && records.hasNext()) {
+                return true;
+            }
+        } catch (UncheckedIOException e) {
+            throw new SQLException(e.getCause());
+        }
+
+        close();
+        return false;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        if (hasNext()) {
+            try {
+                currentRecord = records.next();
+            } catch (UncheckedIOException e) {
+                throw new SQLException(e.getCause());
+            }
+            Arrays.fill(values, null);
+            rowNumber += 1;
+            return true;
+        }
+        afterLast = true;
+        return false;
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        return afterLast;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            input.close();
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed;
+    }
+
+    @Override
+    protected ByteFragment getValue(int colNum) {
+        int index = colNum - 1;
+        if (values[index] == null) {
+            values[index] = toByteFragment(getBinaryColumn(colNum), currentRecord.getValue(index));
+        }
+        return super.getValue(colNum);
+    }
+
+    @Override
+    protected boolean isNullValue(int colNum) {
+        return isNull(getBinaryValue(colNum));
+    }
+
+    @Override
+    public String getString(int colNum) throws SQLException {
+        ClickHouseDataType type = getBinaryColumn(colNum).getDataType();
+        if (type == ClickHouseDataType.String || type == ClickHouseDataType.FixedString || isInteger(type)) {
+            ClickHouseValue value = getBinaryValue(colNum);
+            return isNull(value) ? null : value.asString();
+        }
+        return super.getString(colNum);
+    }
+
+    @Override
+    public int getInt(int colNum) throws SQLException {
+        return isInteger(getBinaryColumn(colNum).getDataType()) ? getBinaryValue(colNum).asInteger()
+            : super.getInt(colNum);
+    }
+
+    @Override
+    public boolean getBoolean(int colNum) throws SQLException {
+        return isInteger(getBinaryColumn(colNum).getDataType()) ? getBinaryValue(colNum).asLong() == 1L
+            : super.getBoolean(colNum);
+    }
+
+    @Override
+    public long getLong(int colNum) throws SQLException {
+        return isInteger(getBinaryColumn(colNum).getDataType()) ? getBinaryValue(colNum).asLong()
+            : super.getLong(colNum);
+    }
+
+    @Override
+    public short getShort(int colNum) throws SQLException {
+        return isInteger(getBinaryColumn(colNum).getDataType()) ? getBinaryValue(colNum).asShort()
+            : super.getShort(colNum);
+    }
+
+    @Override
+    public byte getByte(int colNum) {
+        return isInteger(getBinaryColumn(colNum).getDataType()) ? getBinaryValue(colNum).asByte()
+            : super.getByte(colNum);
+    }
+
+    @Override
+    public float getFloat(int columnIndex) throws SQLException {
+        ClickHouseDataType type = getBinaryColumn(columnIndex).getDataType();
+        return isInteger(type) || isFloat(type) ? getBinaryValue(columnIndex).asFloat()
+            : super.getFloat(columnIndex);
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        ClickHouseDataType type = getBinaryColumn(columnIndex).getDataType();
+        return isInteger(type) || isFloat(type) ? getBinaryValue(columnIndex).asDouble()
+            : super.getDouble(columnIndex);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        ClickHouseDataType type = getBinaryColumn(columnIndex).getDataType();
+        if (isInteger(type) || isDecimal(type)) {
+            ClickHouseValue value = getBinaryValue(columnIndex);
+            return isNull(value) ? null : value.asBigDecimal();
+        }
+        return super.getBigDecimal(columnIndex);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+        BigDecimal result = getBigDecimal(columnIndex);
+        return result != null ? result.setScale(scale, RoundingMode.HALF_UP) : null;
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        ClickHouseColumn column = getBinaryColumn(columnIndex);
+        // otherwise wall-clock value is read in client time zone, same as text
+        if (useServerTimeZone && isDateTime(column.getDataType())) {
+            ClickHouseValue value = getBinaryValue(columnIndex);
+            return isNull(value) ? null : Timestamp.from(value.asInstant(column.getScale()));
+        }
+        return super.getTimestamp(columnIndex);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        ClickHouseDataType dataType = getBinaryColumn(columnIndex).getDataType();
+        boolean isInteger = isInteger(dataType);
+        Object result = null;
+        if (isInteger && (Integer.class == type || Long.class == type || Short.class == type
+            || BigInteger.class == type)) {
+            ClickHouseValue value = getBinaryValue(columnIndex);
+            if (!isNull(value)) {
+                if (Integer.class == type) {
+                    result = value.asInteger();
+                } else if (Long.class == type) {
+                    result = value.asLong();
+                } else if (Short.class == type) {
+                    result = value.asShort();
+                } else {
+                    result = value.asBigInteger();
+                }
+            }
+        } else if ((isInteger || isFloat(dataType)) && (Double.class == type || Float.class == type)) {
+            ClickHouseValue value = getBinaryValue(columnIndex);
+            if (!isNull(value)) {
+                result = Double.class == type ? (Object) value.asDouble() : (Object) value.asFloat();
+            }
+        } else if ((isInteger || isDecimal(dataType)) && BigDecimal.class == type) {
+            result = getBigDecimal(columnIndex);
+        } else if (isDateTime(dataType) && Timestamp.class == type) {
+            result = getTimestamp(columnIndex);
+        } else {
+            return super.getObject(columnIndex, type);
+        }
+
+        return (T) result;
+    }
+
+    @Override
+    public String toString() {
+        return "ClickHouseRowBinaryResultSet{" +
+            "db='" + getDb() + '\'' +
+            ", table='" + getTable() + '\'' +
+            ", columns=" + processor.getColumns() +
+            ", maxRows=" + maxRows +
+            ", lastReadColumn=" + lastReadColumn +
+            ", rowNumber=" + rowNumber +
+            ", closed=" + closed +
+            '}';
+    }
+}
@@ -41,6 +41,9 @@ public enum ClickHouseConnectionSettings implements DriverPropertyCreator {
      * additional
      */
     USE_OBJECTS_IN_ARRAYS("use_objects_in_arrays", false, "Whether Object[] should be used instead primitive arrays."),
+    USE_BINARY_RESULT_SET("use_binary_result_set", false,
+            "Whether to request RowBinaryWithNamesAndTypes instead of TabSeparatedWithNamesAndTypes for forward-only result sets, "
+                    + "so that values are decoded from binary instead of being parsed from text."),
     USE_SHARED_COOKIE_STORE("useSharedCookieStore", false, "Whether to use shared cookie to store among all http clients of db are not"),
     MAX_COMPRESS_BUFFER_SIZE("maxCompressBufferSize", 1024*1024, ""),
 
@@ -55,6 +55,7 @@ public class ClickHouseProperties {
     private String useTimeZone;
     private boolean useServerTimeZoneForDates;
     private boolean useObjectsInArrays;
+    private boolean useBinaryResultSet;
     // the shared cookie store is scoped to a database
     private boolean useSharedCookieStore;
 
@@ -130,6 +131,7 @@ public class ClickHouseProperties {
         this.useTimeZone = (String)getSetting(info, ClickHouseConnectionSettings.USE_TIME_ZONE);
         this.useServerTimeZoneForDates = (Boolean)getSetting(info, ClickHouseConnectionSettings.USE_SERVER_TIME_ZONE_FOR_DATES);
         this.useObjectsInArrays = (Boolean)getSetting(info, ClickHouseConnectionSettings.USE_OBJECTS_IN_ARRAYS);
+        this.useBinaryResultSet = (Boolean)getSetting(info, ClickHouseConnectionSettings.USE_BINARY_RESULT_SET);
         this.useSharedCookieStore = (Boolean)getSetting(info, ClickHouseConnectionSettings.USE_SHARED_COOKIE_STORE);
         this.clientName = (String)getSetting(info, ClickHouseConnectionSettings.CLIENT_NAME);
 
@@ -201,6 +203,7 @@ public class ClickHouseProperties {
         ret.put(ClickHouseConnectionSettings.USE_TIME_ZONE.getKey(), String.valueOf(useTimeZone));
         ret.put(ClickHouseConnectionSettings.USE_SERVER_TIME_ZONE_FOR_DATES.getKey(), String.valueOf(useServerTimeZoneForDates));
         ret.put(ClickHouseConnectionSettings.USE_OBJECTS_IN_ARRAYS.getKey(), String.valueOf(useObjectsInArrays));
+        ret.put(ClickHouseConnectionSettings.USE_BINARY_RESULT_SET.getKey(), String.valueOf(useBinaryResultSet));
         ret.put(ClickHouseConnectionSettings.USE_SHARED_COOKIE_STORE.getKey(), String.valueOf(useSharedCookieStore));
         ret.put(ClickHouseConnectionSettings.CLIENT_NAME.getKey(), String.valueOf(clientName));
         
@@ -274,6 +277,7 @@ public class ClickHouseProperties {
         setUseTimeZone(properties.useTimeZone);
         setUseServerTimeZoneForDates(properties.useServerTimeZoneForDates);
         setUseObjectsInArrays(properties.useObjectsInArrays);
+        setUseBinaryResultSet(properties.useBinaryResultSet);
         setUseSharedCookieStore(properties.useSharedCookieStore);
         setClientName(properties.clientName);
         setMaxParallelReplicas(properties.maxParallelReplicas);
@@ -689,6 +693,14 @@ public class ClickHouseProperties {
         this.useObjectsInArrays = useObjectsInArrays;
     }
 
+    public boolean isUseBinaryResultSet() {
+        return useBinaryResultSet;
+    }
+
+    public void setUseBinaryResultSet(boolean useBinaryResultSet) {
+        this.useBinaryResultSet = useBinaryResultSet;
+    }
+
     public boolean isUseSharedCookieStore() {
         return useSharedCookieStore;
     }
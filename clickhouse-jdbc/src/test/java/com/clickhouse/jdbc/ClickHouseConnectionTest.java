@@ -71,6 +71,27 @@ public class ClickHouseConnectionTest extends JdbcIntegrationTest {
         Assert.assertNotNull(exp, "Should not have SQLException because the database has been created");
     }
 
+    @Test(groups = "integration")
+    public void testSharedClient() throws SQLException {
+        ClickHouseDataSource ds = newDataSource(new Properties());
+        try (ClickHouseConnection conn2 = ds.getConnection()) {
+            ClickHouseConnection conn1 = ds.getConnection();
+            try (ClickHouseConnection conn = conn1) {
+                Assert.assertEquals(conn2.getServerVersion(), conn.getServerVersion());
+                Assert.assertEquals(conn2.getServerTimeZone(), conn.getServerTimeZone());
+                Assert.assertEquals(conn2.getCurrentUser(), conn.getCurrentUser());
+            }
+
+            // closing one connection should not affect the other
+            Assert.assertTrue(conn1.isClosed());
+            try (Statement stmt = conn2.createStatement(); ResultSet rs = stmt.executeQuery("select 1")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 1);
+            }
+            Assert.assertTrue(conn2.isValid(3));
+        }
+    }
+
     @Test(groups = "integration")
     public void testReadOnly() throws SQLException {
         Properties props = new Properties();
@@ -1,8 +1,10 @@
 package com.clickhouse.jdbc;
 
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.Locale;
 import java.util.Properties;
 
@@ -83,4 +85,44 @@ public class ClickHouseDatabaseMetaDataTest extends JdbcIntegrationTest {
             }
         }
     }
+
+    @Test(groups = "integration")
+    public void testMetaDataCache() throws SQLException {
+        String tableName = "test_metadata_cache";
+        Properties props = new Properties();
+        props.setProperty(JdbcConfig.PROP_METADATA_CACHE_TTL, "60");
+        try (ClickHouseConnection conn = newConnection(props); Statement s = conn.createStatement()) {
+            s.execute("drop table if exists " + tableName + "; "
+                    + "create table " + tableName + "(a String, b Int32) engine=Memory");
+            DatabaseMetaData md = conn.getMetaData();
+            try (ResultSet rs = md.getColumns(conn.getCatalog(), conn.getSchema(), tableName, "b")) {
+                Assert.assertTrue(rs.next(), "Should have one record");
+                Assert.assertEquals(rs.getString("COLUMN_NAME"), "b");
+                Assert.assertEquals(rs.getInt("DATA_TYPE"), Types.INTEGER);
+                Assert.assertFalse(rs.next(), "Should have only one record");
+            }
+            try (ResultSet rs = md.getColumns(conn.getCatalog(), conn.getSchema(), tableName, null)) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getString("COLUMN_NAME"), "a");
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getString("COLUMN_NAME"), "b");
+                Assert.assertFalse(rs.next());
+            }
+
+            // DDL invalidates cached metadata
+            s.execute("alter table " + tableName + " add column c UInt8");
+            try (ResultSet rs = md.getColumns(conn.getCatalog(), conn.getSchema(), tableName, "c")) {
+                Assert.assertTrue(rs.next(), "Should have new column");
+                Assert.assertEquals(rs.getString("COLUMN_NAME"), "c");
+                Assert.assertFalse(rs.next());
+            }
+            s.execute("drop table " + tableName);
+            try (ResultSet rs = md.getTables(conn.getCatalog(), conn.getSchema(), tableName, null)) {
+                Assert.assertFalse(rs.next(), "Should not have dropped table");
+            }
+            try (ResultSet rs = md.getColumns(conn.getCatalog(), conn.getSchema(), tableName, null)) {
+                Assert.assertFalse(rs.next(), "Should not have columns of dropped table");
+            }
+        }
+    }
 }
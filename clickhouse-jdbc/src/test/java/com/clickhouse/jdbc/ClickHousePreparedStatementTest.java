@@ -11,6 +11,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -20,10 +21,12 @@ import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.data.BinaryStreamUtils;
 import com.clickhouse.client.data.ClickHouseBitmap;
@@ -617,6 +620,86 @@ public class ClickHousePreparedStatementTest extends JdbcIntegrationTest {
         }
     }
 
+    @Test(groups = "integration")
+    public void testExecuteAsync() throws Exception {
+        try (ClickHouseConnection conn = newConnection(new Properties());
+                Statement s = conn.createStatement();
+                ClickHousePreparedStatement ps1 = (ClickHousePreparedStatement) conn
+                        .prepareStatement("select ? + 1");
+                ClickHousePreparedStatement ps2 = (ClickHousePreparedStatement) conn
+                        .prepareStatement("insert into test_prepared_async values(?, ?)");
+                ClickHousePreparedStatement ps3 = (ClickHousePreparedStatement) conn.prepareStatement(
+                        "insert into test_prepared_async select id, name from input('id Int32, name String')")) {
+            s.execute("drop table if exists test_prepared_async; "
+                    + "create table test_prepared_async(id Int32, name String)engine=Memory");
+
+            Assert.assertThrows(SQLException.class, () -> ps1.executeQueryAsync());
+            ps1.setInt(1, 1);
+            CompletableFuture<ResultSet> f1 = ps1.executeQueryAsync();
+            // parameters are captured
+            ps1.setInt(1, 2);
+            CompletableFuture<ResultSet> f2 = ps1.executeQueryAsync();
+            try (ResultSet rs1 = f1.get(); ResultSet rs2 = f2.get()) {
+                Assert.assertTrue(rs1.next());
+                Assert.assertEquals(rs1.getInt(1), 2);
+                Assert.assertTrue(rs2.next());
+                Assert.assertEquals(rs2.getInt(1), 3);
+            }
+
+            Assert.assertThrows(SQLException.class, () -> ps2.executeBatchAsync());
+            for (int i = 1; i <= 3; i++) {
+                ps2.setInt(1, i);
+                ps2.setString(2, "s" + i);
+                ps2.addBatch();
+            }
+            Assert.assertEquals(ps2.executeBatchAsync().get(), new int[] { 1, 1, 1 });
+            ps2.setInt(1, 4);
+            ps2.setString(2, "s4");
+            Assert.assertTrue(ps2.executeLargeUpdateAsync().get() >= 0L);
+
+            for (int i = 5; i <= 6; i++) {
+                ps3.setInt(1, i);
+                ps3.setString(2, "s" + i);
+                ps3.addBatch();
+            }
+            Assert.assertEquals(ps3.executeLargeBatchAsync().get(), new long[] { 1L, 1L });
+            try (ResultSet rs = s.executeQuery("select count(1), max(id) from test_prepared_async")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 6);
+                Assert.assertEquals(rs.getInt(2), 6);
+            }
+
+            ps1.setInt(1, 3);
+            ps1.addBatch();
+            try {
+                ps1.executeBatchAsync().get();
+                Assert.fail("Query is not allowed in batch");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof BatchUpdateException);
+            }
+        }
+    }
+
+    @Test(groups = "integration")
+    public void testExecuteQueryAfterAsync() throws Exception {
+        try (ClickHouseConnection conn = newConnection(new Properties());
+                PreparedStatement ps = conn.prepareStatement("select ? + 1")) {
+            ps.setInt(1, 1);
+            try (ResultSet rs = ((ClickHousePreparedStatement) ps).executeQueryAsync().get()) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 2);
+            }
+
+            // the statement should be reusable for sync execution
+            ps.setInt(1, 2);
+            try (ResultSet rs = ps.executeQuery()) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 3);
+                Assert.assertFalse(rs.next());
+            }
+        }
+    }
+
     @Test(groups = "integration")
     public void testBatchQuery() throws SQLException {
         try (ClickHouseConnection conn = newConnection(new Properties());
@@ -976,6 +1059,43 @@ public class ClickHousePreparedStatementTest extends JdbcIntegrationTest {
         }
     }
 
+    @Test(groups = "integration")
+    public void testQueryWithServerSideParameter() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty(JdbcConfig.PROP_SERVER_PARAM, "true");
+        try (ClickHouseConnection conn = newConnection(props);
+                PreparedStatement stmt = conn.prepareStatement("select ?, ?, ? || '!', toTypeName(?)")) {
+            ClickHouseRequest<?> request = stmt.unwrap(ClickHouseStatement.class).getRequest();
+            for (int i = 0; i < 2; i++) {
+                stmt.setInt(1, i);
+                stmt.setString(2, "a'b\\c\td");
+                stmt.setString(3, null);
+                stmt.setLong(4, 5L);
+                ResultSet rs = stmt.executeQuery();
+                // parameters are cleared once the query was sent
+                Assert.assertTrue(request.getQueryParameters().isEmpty());
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), i);
+                Assert.assertEquals(rs.getString(2), "a'b\\c\td");
+                Assert.assertNull(rs.getString(3));
+                Assert.assertEquals(rs.getString(4), "Int64");
+                Assert.assertFalse(rs.next());
+            }
+
+            // fall back to literal when type of any parameter is unknown
+            stmt.setInt(1, 1);
+            stmt.setString(2, "x");
+            stmt.setString(3, "y");
+            stmt.setNull(4, Types.INTEGER);
+            ResultSet rs = stmt.executeQuery();
+            Assert.assertTrue(request.getQueryParameters().isEmpty());
+            Assert.assertTrue(rs.next());
+            Assert.assertEquals(rs.getString(3), "y!");
+            Assert.assertEquals(rs.getString(4), "Nullable(Nothing)");
+            Assert.assertFalse(rs.next());
+        }
+    }
+
     @Test(groups = "integration")
     public void testInsertWithAndSelect() throws Exception {
         try (ClickHouseConnection conn = newConnection(new Properties());
@@ -26,7 +26,9 @@ import java.util.Locale;
 import java.util.Properties;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import com.clickhouse.client.ClickHouseClient;
@@ -235,6 +237,58 @@ public class ClickHouseStatementTest extends JdbcIntegrationTest {
         }
     }
 
+    @Test(groups = "integration")
+    public void testExecuteAsync() throws Exception {
+        try (ClickHouseConnection conn = newConnection(new Properties());
+                ClickHouseStatement stmt = conn.createStatement()) {
+            CompletableFuture<ResultSet> f1 = stmt.executeQueryAsync("select 1");
+            CompletableFuture<ResultSet> f2 = stmt.executeQueryAsync("select 2");
+            try (ResultSet rs1 = f1.get(); ResultSet rs2 = f2.get()) {
+                Assert.assertTrue(rs1.next());
+                Assert.assertEquals(rs1.getInt(1), 1);
+                Assert.assertFalse(rs1.next());
+                Assert.assertTrue(rs2.next());
+                Assert.assertEquals(rs2.getInt(1), 2);
+                Assert.assertFalse(rs2.next());
+            }
+            Assert.assertNull(stmt.getResultSet(), "Async result should not be tracked by the statement");
+
+            Assert.assertTrue(stmt.executeLargeUpdateAsync("drop table if exists test_execute_async; "
+                    + "create table test_execute_async(a Int32)engine=Memory").get() >= 0L);
+            stmt.addBatch("insert into test_execute_async values(1)");
+            stmt.addBatch("insert into test_execute_async values(2)");
+            CompletableFuture<int[]> batch = stmt.executeBatchAsync();
+            Assert.assertThrows(SQLException.class, () -> stmt.executeBatchAsync());
+            Assert.assertEquals(batch.get(), new int[] { 1, 1 });
+            try (ResultSet rs = stmt.executeQueryAsync("select count(1) from test_execute_async").get()) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 2);
+            }
+
+            stmt.addBatch("select 1");
+            try {
+                stmt.executeLargeBatchAsync().get();
+                Assert.fail("Query is not allowed in batch");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof BatchUpdateException);
+            }
+
+            // cancellation and timeout
+            CompletableFuture<ResultSet> f = stmt.executeQueryAsync("select sleep(3)");
+            Assert.assertTrue(f.cancel(true));
+            Assert.assertTrue(f.isCancelled());
+
+            stmt.setQueryTimeout(1);
+            try {
+                stmt.executeQueryAsync("select sleepEachRow(1) from numbers(3)").get();
+                Assert.fail("Query should time out");
+            } catch (ExecutionException e) {
+                // max_execution_time is set as well so server may fail the query first
+                Assert.assertTrue(e.getCause() instanceof SQLException);
+            }
+        }
+    }
+
     @Test(groups = "integration")
     public void testExecute() throws SQLException {
         try (Connection conn = newConnection(new Properties());
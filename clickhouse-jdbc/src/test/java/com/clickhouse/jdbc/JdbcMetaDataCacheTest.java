@@ -0,0 +1,65 @@
+package com.clickhouse.jdbc;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.data.ClickHouseSimpleResponse;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class JdbcMetaDataCacheTest {
+    @Test(groups = "unit")
+    public void testCache() throws SQLException {
+        AtomicInteger counter = new AtomicInteger();
+        JdbcMetaDataCache cache = new JdbcMetaDataCache(10, 60);
+        ClickHouseResponse r1 = cache.get("q", () -> ClickHouseSimpleResponse.of(new ClickHouseConfig(),
+                Collections.singletonList(ClickHouseColumn.of("v", "Int32")),
+                new Object[][] { { counter.incrementAndGet() } }), false);
+        Assert.assertEquals(r1.firstRecord().getValue(0).asInteger(), 1);
+        r1.close();
+        Assert.assertTrue(r1.isClosed());
+
+        ClickHouseResponse r2 = cache.get("q", () -> {
+            throw new IllegalStateException("Should be cached");
+        }, false);
+        Assert.assertFalse(r2.isClosed(), "Should be closed independently");
+        Assert.assertEquals(r2.firstRecord().getValue(0).asInteger(), 1);
+
+        cache.invalidate();
+        Assert.assertThrows(SQLException.class, () -> cache.get("q", () -> {
+            throw new IllegalStateException("Should not be cached");
+        }, false));
+        ClickHouseResponse r3 = cache.get("q", () -> ClickHouseSimpleResponse.of(new ClickHouseConfig(),
+                Collections.singletonList(ClickHouseColumn.of("v", "Int32")),
+                new Object[][] { { counter.incrementAndGet() } }), false);
+        Assert.assertEquals(r3.firstRecord().getValue(0).asInteger(), 2);
+
+        // failed query is cached when error is ignored
+        Assert.assertNull(cache.get("bad", () -> {
+            throw new IllegalStateException("Failed query");
+        }, true));
+        Assert.assertNull(cache.get("bad", () -> {
+            throw new IllegalStateException("Should be cached");
+        }, false));
+    }
+
+    @Test(groups = "unit")
+    public void testLikePattern() {
+        Assert.assertTrue(ClickHouseDatabaseMetaData.toRegex(null).matcher("any").matches());
+        Assert.assertTrue(ClickHouseDatabaseMetaData.toRegex("").matcher("").matches());
+        Assert.assertTrue(ClickHouseDatabaseMetaData.toRegex("%").matcher("a\nb").matches());
+        Assert.assertTrue(ClickHouseDatabaseMetaData.toRegex("t_1").matcher("tx1").matches());
+        Assert.assertFalse(ClickHouseDatabaseMetaData.toRegex("t_1").matcher("t11x").matches());
+        Assert.assertTrue(ClickHouseDatabaseMetaData.toRegex("t\\_1").matcher("t_1").matches());
+        Assert.assertFalse(ClickHouseDatabaseMetaData.toRegex("t\\_1").matcher("tx1").matches());
+        Assert.assertTrue(ClickHouseDatabaseMetaData.toRegex("a.b%").matcher("a.bcd").matches());
+        Assert.assertFalse(ClickHouseDatabaseMetaData.toRegex("a.b%").matcher("axbcd").matches());
+        Assert.assertTrue(ClickHouseDatabaseMetaData.toRegex("%(x)%").matcher("f(x)=1").matches());
+        Assert.assertFalse(ClickHouseDatabaseMetaData.toRegex("Abc").matcher("abc").matches());
+    }
+}
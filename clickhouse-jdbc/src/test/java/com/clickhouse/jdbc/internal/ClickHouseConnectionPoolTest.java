@@ -0,0 +1,147 @@
+package com.clickhouse.jdbc.internal;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import com.clickhouse.client.ClickHouseRequest;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.jdbc.ClickHouseConnection;
+import com.clickhouse.jdbc.JdbcConfig;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClickHouseConnectionPoolTest {
+    private ClickHouseConnectionPool newPool(int size) throws SQLException {
+        Properties props = new Properties();
+        // no query will be issued when server information is available
+        props.setProperty(ClickHouseClientOption.SERVER_TIME_ZONE.getKey(), "UTC");
+        props.setProperty(ClickHouseClientOption.SERVER_VERSION.getKey(), "21.8");
+        props.setProperty(JdbcConfig.PROP_POOL_SIZE, String.valueOf(size));
+        props.setProperty(JdbcConfig.PROP_POOL_WAIT_TIMEOUT, "1");
+        props.setProperty(JdbcConfig.PROP_POOL_VALIDATION_INTERVAL, "0");
+        return new ClickHouseConnectionPool(ClickHouseJdbcUrlParser.parse("jdbc:clickhouse://localhost", props));
+    }
+
+    @Test(groups = "unit")
+    public void testReuseAndReset() throws SQLException {
+        try (ClickHouseConnectionPool pool = newPool(1)) {
+            Assert.assertEquals(pool.getMaxSize(), 1);
+            Assert.assertEquals(pool.getActiveCount(), 0);
+            Assert.assertEquals(pool.getIdleCount(), 0);
+
+            ClickHouseRequest<?> request;
+            ClickHouseConnection conn = pool.getConnection();
+            Assert.assertEquals(pool.getActiveCount(), 1);
+            String database = conn.getSchema();
+            request = conn.unwrap(ClickHouseRequest.class);
+            conn.setSchema("non_default_db");
+            conn.setReadOnly(true);
+            conn.setAutoCommit(false);
+            conn.setTypeMap(Collections.singletonMap("UInt8", Integer.class));
+            conn.setHoldability(ResultSet.CLOSE_CURSORS_AT_COMMIT);
+            conn.setClientInfo(ClickHouseConnection.PROP_APPLICATION_NAME, "pooled");
+            conn.close();
+            Assert.assertTrue(conn.isClosed());
+            Assert.assertFalse(conn.isValid(0));
+            Assert.assertThrows(SQLException.class, () -> conn.createStatement());
+            Assert.assertThrows(IllegalStateException.class, () -> conn.getConfig());
+            conn.close();
+            Assert.assertEquals(pool.getActiveCount(), 0);
+            Assert.assertEquals(pool.getIdleCount(), 1);
+
+            try (ClickHouseConnection c = pool.getConnection()) {
+                Assert.assertFalse(c == conn, "Should be a new handle");
+                Assert.assertTrue(c.unwrap(ClickHouseRequest.class) == request, "Should reuse the connection");
+                Assert.assertFalse(c.isClosed());
+                Assert.assertEquals(c.getSchema(), database);
+                Assert.assertEquals(request.getConfig().getDatabase(), database);
+                Assert.assertFalse(c.isReadOnly());
+                Assert.assertFalse(request.getSettings().containsKey("readonly"));
+                Assert.assertTrue(c.getAutoCommit());
+                Assert.assertTrue(c.getTypeMap().isEmpty());
+                Assert.assertEquals(c.getHoldability(), ResultSet.HOLD_CURSORS_OVER_COMMIT);
+                Assert.assertEquals(c.getTransactionIsolation(), Connection.TRANSACTION_READ_COMMITTED);
+                Assert.assertNotEquals(c.getClientInfo(ClickHouseConnection.PROP_APPLICATION_NAME), "pooled");
+                Assert.assertEquals(pool.getIdleCount(), 0);
+            }
+            Assert.assertEquals(pool.getIdleCount(), 1);
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testAbort() throws SQLException {
+        try (ClickHouseConnectionPool pool = newPool(1)) {
+            ClickHouseConnection conn = pool.getConnection();
+            ClickHouseConnectionImpl impl = ((ClickHouseConnectionPool.PooledConnectionHandler) Proxy
+                    .getInvocationHandler(conn)).conn;
+            List<Runnable> tasks = new ArrayList<>();
+            conn.abort(tasks::add);
+            Assert.assertTrue(conn.isClosed());
+            Assert.assertEquals(pool.getActiveCount(), 0);
+            Assert.assertEquals(pool.getIdleCount(), 0);
+            // left to the executor rather than being closed by the pool again
+            Assert.assertFalse(impl.isClosed());
+            Assert.assertEquals(tasks.size(), 1);
+            tasks.get(0).run();
+            Assert.assertTrue(impl.isClosed());
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testExhaustedPool() throws SQLException {
+        ClickHouseConnectionPool pool = newPool(2);
+        ClickHouseConnection c1 = pool.getConnection();
+        ClickHouseConnection c2 = pool.getConnection();
+        Assert.assertEquals(pool.getActiveCount(), 2);
+        Assert.assertEquals(pool.getWaitCount(), 0L);
+
+        Assert.assertThrows(SQLException.class, () -> pool.getConnection());
+        Assert.assertEquals(pool.getWaitCount(), 1L);
+        Assert.assertTrue(pool.getMaxWaitTime() >= 900L, "Should have waited for about 1 second");
+        Assert.assertEquals(pool.getTotalWaitTime(), pool.getMaxWaitTime());
+
+        // aborted connection will not be returned to the pool
+        c1.abort(Runnable::run);
+        Assert.assertTrue(c1.isClosed());
+        Assert.assertEquals(pool.getActiveCount(), 1);
+        Assert.assertEquals(pool.getIdleCount(), 0);
+
+        ClickHouseConnection c3 = pool.getConnection();
+        Assert.assertEquals(pool.getActiveCount(), 2);
+        c3.close();
+        Assert.assertEquals(pool.getIdleCount(), 1);
+
+        pool.close();
+        Assert.assertTrue(pool.isClosed());
+        Assert.assertEquals(pool.getIdleCount(), 0);
+        Assert.assertThrows(SQLException.class, () -> pool.getConnection());
+
+        // returned after pool is closed
+        c2.close();
+        Assert.assertEquals(pool.getActiveCount(), 0);
+        Assert.assertEquals(pool.getIdleCount(), 0);
+    }
+
+    @Test(groups = "unit")
+    public void testNoLeak() throws SQLException {
+        try (ClickHouseConnectionPool pool = newPool(1)) {
+            ClickHouseConnection conn = pool.getConnection();
+            Statement stmt = conn.createStatement();
+            Assert.assertTrue(stmt.getConnection() == conn, "Should return the proxy");
+            Assert.assertTrue(conn.getMetaData().getConnection() == conn, "Should return the proxy");
+            Assert.assertTrue(conn.unwrap(ClickHouseConnection.class) == conn, "Should return the proxy");
+            Assert.assertThrows(SQLException.class, () -> conn.unwrap(ClickHouseConnectionImpl.class));
+
+            conn.close();
+            Assert.assertTrue(stmt.isClosed(), "Should close open statements on release");
+        }
+    }
+}
@@ -3,12 +3,21 @@ package com.clickhouse.jdbc.internal;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Properties;
 
+import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseCredentials;
 import com.clickhouse.client.ClickHouseNode;
 import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseVersion;
 import com.clickhouse.client.config.ClickHouseDefaults;
+import com.clickhouse.client.data.ClickHouseByteValue;
+import com.clickhouse.client.data.ClickHouseSimpleRecord;
+import com.clickhouse.client.data.ClickHouseStringValue;
+import com.clickhouse.jdbc.JdbcConfig;
 import com.clickhouse.jdbc.internal.ClickHouseJdbcUrlParser.ConnectionInfo;
 
 import org.testng.Assert;
@@ -166,4 +175,46 @@ public class ClickHouseJdbcUrlParserTest {
         Assert.assertEquals(server.getCredentials().get().getUserName(), "let@me:in");
         Assert.assertEquals(server.getCredentials().get().getPassword(), "let@me:in");
     }
+
+    @Test(groups = "unit")
+    public void testSharedState() throws Exception {
+        ConnectionInfo info = ClickHouseJdbcUrlParser.parse("jdbc:clickhouse://localhost", null);
+        Assert.assertTrue(info.getSharedClient() == info.getSharedClient(), "Should share the same client");
+        Assert.assertFalse(info.newClient() == info.getSharedClient(), "Should be a new client");
+
+        ClickHouseNode node = info.getServer();
+        ClickHouseRecord r = ClickHouseSimpleRecord.of(
+                Arrays.asList(ClickHouseColumn.of("u", "String"), ClickHouseColumn.of("tz", "String"),
+                        ClickHouseColumn.of("v", "String"), ClickHouseColumn.of("r", "UInt8")),
+                new ClickHouseValue[] { ClickHouseStringValue.of("me"), ClickHouseStringValue.of(""),
+                        ClickHouseStringValue.of("21.8.1.1"), ClickHouseByteValue.of(2) });
+        Assert.assertNull(info.getServerInfo(node));
+        info.setServerInfo(node, new ServerInfo(r, 60000L));
+        ServerInfo serverInfo = info.getServerInfo(node);
+        Assert.assertNotNull(serverInfo);
+        Assert.assertEquals(serverInfo.user, "me");
+        Assert.assertEquals(serverInfo.timeZoneId, "UTC");
+        Assert.assertEquals(serverInfo.version, ClickHouseVersion.of("21.8.1.1"));
+        Assert.assertEquals(serverInfo.readOnly, 2);
+        info.invalidateServerInfo(node);
+        Assert.assertNull(info.getServerInfo(node));
+
+        info.setServerInfo(node, new ServerInfo(r, -1L));
+        Assert.assertNull(info.getServerInfo(node), "Should have expired");
+
+        Properties props = new Properties();
+        props.setProperty(JdbcConfig.PROP_SERVER_INFO_TTL, "0");
+        info = ClickHouseJdbcUrlParser.parse("jdbc:clickhouse://localhost", props);
+        info.setServerInfo(node, new ServerInfo(r, 60000L));
+        Assert.assertNull(info.getServerInfo(node), "Should not be cached");
+
+        info = ClickHouseJdbcUrlParser.parse("jdbc:clickhouse://localhost", null);
+        info.getSharedClient();
+        info.setServerInfo(node, new ServerInfo(r, 60000L));
+        info.closeSharedClient();
+        info.closeSharedClient();
+        Assert.assertNull(info.getServerInfo(node), "Should have been cleared");
+        Assert.assertThrows(SQLException.class, info::getSharedClient);
+        info.newClient().close();
+    }
 }
@@ -254,6 +254,46 @@ public class ClickHouseSqlParserTest {
                 ClickHouseSqlStatement.KEYWORD_TABLE_COLUMNS_END, 1), "id, name");
     }
 
+    @Test(groups = "unit")
+    public void testScanInsertStatement() throws ParseException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        String[] sqls = new String[] {
+                "insert into table test(a,b) Values (1,2)",
+                "insert into function null('a UInt8') values(1)",
+                "insert into function null('a UInt8') values(1)(2)",
+                "insert into test2(a,b) values('values(',',')",
+                "INSERT INTO table t(a, b, c) values('1', 2, 'ccc') (3,2,1)",
+                "INSERT INTO insert_select_testtable (* EXCEPT(b)) Values (2, 2)",
+                " /* c */ insert into `values` (`format`) -- c\n values (1, [2, 3], 'a\\'b;'), (4, [], '') ; ",
+                "insert into db.t (id, name) format RowBinary",
+                "insert into db.t format CSV\n1,\"a\"\n2,\"b\"\n" };
+        for (String sql : sqls) {
+            ClickHouseSqlStatement s = ClickHouseSqlScanner.scanInsert(sql, config, null);
+            Assert.assertNotNull(s, sql);
+            assertEquals(s, new ClickHouseSqlParser(sql, config, null).sql()[0], sql);
+        }
+
+        // left to the parser
+        for (String sql : new String[] { "select 1", "insert into t select 1", "insert into t values (?, ?)",
+                "insert into t values ({d '2021-01-01'})", "insert into t values (1); select 1",
+                "insert into t values (1) settings a=1", "insert into t values (1", "insert into t values",
+                "insert into t values ('a)", "insert into t(a) with 1 as x select x" }) {
+            Assert.assertNull(ClickHouseSqlScanner.scanInsert(sql, config, null), sql);
+        }
+
+        StringBuilder builder = new StringBuilder("insert into test.large(a, b) values ");
+        int count = 200000;
+        for (int i = 0; i < count; i++) {
+            builder.append(i > 0 ? "," : "").append('(').append(i).append(", 'str(").append(i).append(")')");
+        }
+        String sql = builder.toString();
+        ClickHouseSqlStatement s = checkSingleStatement(parse(sql), sql, StatementType.INSERT, "test", "large");
+        Assert.assertTrue(s.hasValues());
+        assertEquals(s.getStartPosition(ClickHouseSqlStatement.KEYWORD_VALUES), sql.indexOf("values"));
+        assertEquals(s.getContentBetweenKeywords(ClickHouseSqlStatement.KEYWORD_TABLE_COLUMNS_START,
+                ClickHouseSqlStatement.KEYWORD_TABLE_COLUMNS_END, 1), "a, b");
+    }
+
     @Test(groups = "unit")
     public void testKillStatement() {
         String sql;
@@ -0,0 +1,98 @@
+package ru.yandex.clickhouse.response;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClickHouseJsonResponseStreamTest {
+    private static final String JSON = "{\"meta\":[{\"name\":\"one\",\"type\":\"UInt8\"},"
+            + "{\"name\":\"two\",\"type\":\"Tuple(UInt8, String)\"},{\"name\":\"three\",\"type\":\"Nullable(String)\"}],"
+            + "\"data\":[[1,[1,\"hello\"],\"a\"],[\"2\",[2,\"world\"],null]],"
+            + "\"totals\":[3,[3,\"\"],\"t\"],\"extremes\":{\"min\":[1,[1,\"a\"],null],\"max\":[2,[2,\"b\"],\"z\"]},"
+            + "\"rows\":2,\"rows_before_limit_at_least\":5,"
+            + "\"statistics\":{\"elapsed\":0.000123,\"rows_read\":2,\"bytes_read\":34}}";
+
+    private static InputStream newInput(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(groups = "unit")
+    public void testStream() throws IOException {
+        try (ClickHouseJsonResponseStream stream = new ClickHouseJsonResponseStream(newInput(JSON))) {
+            Assert.assertEquals(stream.getMeta().size(), 3);
+            Assert.assertEquals(stream.getMeta().get(1).getName(), "two");
+            Assert.assertEquals(stream.getMeta().get(1).getType(), "Tuple(UInt8, String)");
+            Assert.assertFalse(stream.isFinished());
+            Assert.assertNull(stream.getTotals(), "Totals come after data");
+
+            Assert.assertTrue(stream.hasNext());
+            Assert.assertEquals(stream.next(), Arrays.asList("1", "[1,\"hello\"]", "a"));
+            Assert.assertTrue(stream.hasNext());
+            Assert.assertEquals(stream.next(), Arrays.asList("2", "[2,\"world\"]", null));
+            Assert.assertFalse(stream.hasNext());
+            Assert.assertThrows(NoSuchElementException.class, () -> stream.next());
+
+            Assert.assertTrue(stream.isFinished());
+            Assert.assertEquals(stream.getTotals(), Arrays.asList("3", "[3,\"\"]", "t"));
+            Assert.assertEquals(stream.getExtremes().getMin(), Arrays.asList("1", "[1,\"a\"]", null));
+            Assert.assertEquals(stream.getExtremes().getMax(), Arrays.asList("2", "[2,\"b\"]", "z"));
+            Assert.assertEquals(stream.getRows(), 2);
+            Assert.assertEquals(stream.getRowsBeforeLimitAtLeast(), 5);
+            Assert.assertEquals(stream.getStatistics().getElapsed(), 0.000123);
+            Assert.assertEquals(stream.getStatistics().getRows_read(), 2L);
+            Assert.assertEquals(stream.getStatistics().getBytes_read(), 34L);
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testToResponse() throws IOException {
+        try (ClickHouseJsonResponseStream stream = new ClickHouseJsonResponseStream(newInput(JSON))) {
+            Assert.assertEquals(stream.next().get(0), "1");
+            // only remaining rows
+            ClickHouseResponse response = stream.toResponse();
+            Assert.assertEquals(response.getMeta().size(), 3);
+            Assert.assertEquals(response.getData(),
+                    Collections.singletonList(Arrays.asList("2", "[2,\"world\"]", null)));
+            Assert.assertEquals(response.getTotals().get(2), "t");
+            Assert.assertEquals(response.getRows(), 2);
+            Assert.assertEquals(response.getRows_before_limit_at_least(), 5);
+            Assert.assertEquals(response.getStatistics().getBytes_read(), 34L);
+        }
+
+        // unknown fields are skipped, and map is returned in json
+        try (ClickHouseJsonResponseStream stream = new ClickHouseJsonResponseStream(newInput(
+                "{\"meta\":[{\"name\":\"m\",\"type\":\"Map(String, UInt8)\"}],\"unknown\":{\"a\":[1]},"
+                        + "\"data\":[[{\"a\":1}]],\"rows\":1}"))) {
+            ClickHouseResponse response = stream.toResponse();
+            Assert.assertEquals(response.getData(), Collections.singletonList(Collections.singletonList("{\"a\":1}")));
+            Assert.assertNull(response.getTotals());
+            Assert.assertNull(response.getStatistics());
+        }
+
+        try (ClickHouseJsonResponseStream stream = new ClickHouseJsonResponseStream(newInput("{}"))) {
+            Assert.assertTrue(stream.isFinished());
+            Assert.assertFalse(stream.hasNext());
+            ClickHouseResponse response = stream.toResponse();
+            Assert.assertNull(response.getMeta());
+            Assert.assertNull(response.getData());
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testMalformedResponse() throws IOException {
+        try (ClickHouseJsonResponseStream stream = new ClickHouseJsonResponseStream(
+                newInput("{\"meta\":[],\"data\":[[1],Code: 241. DB::Exception: Memory limit"))) {
+            List<String> row = stream.next();
+            Assert.assertEquals(row, Collections.singletonList("1"));
+            Assert.assertThrows(IOException.class, () -> stream.toResponse());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package ru.yandex.clickhouse.response;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.TimeZone;
+
+import com.clickhouse.client.data.BinaryStreamUtils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import ru.yandex.clickhouse.settings.ClickHouseProperties;
+
+public class ClickHouseRowBinaryResultSetTest {
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final String[] NAMES = new String[] { "i", "u", "n", "f", "d", "s", "dt", "x", "g", "t",
+            "a" };
+    private static final String[] TYPES = new String[] { "Int32", "UInt64", "Nullable(Int32)", "Float64",
+            "Decimal(10, 2)", "String", "DateTime('UTC')", "Float64", "Float32", "DateTime64(3, 'UTC')",
+            "Array(Int32)" };
+
+    private ClickHouseResultSet newTextResultSet() throws IOException {
+        return newTextResultSet(UTC, new ClickHouseProperties());
+    }
+
+    private ClickHouseResultSet newTextResultSet(TimeZone timeZone, ClickHouseProperties properties)
+            throws IOException {
+        String tsv = String.join("\t", NAMES) + "\n" + String.join("\t", TYPES) + "\n"
+                + "1\t18446744073709551615\t\\N\t1.5\t12.30\ta\\tb\\\\c\t2021-01-02 03:04:05\tnan\tinf"
+                + "\t2021-01-02 03:04:05.120\t[1,2,3]\n"
+                + "-2\t0\t3\t-0.25\t-0.01\t\t1970-01-01 00:00:00\t-inf\t0.5\t1970-01-01 00:00:00.000\t[]\n";
+        return new ClickHouseResultSet(new ByteArrayInputStream(tsv.getBytes(StandardCharsets.UTF_8)), 1024, "db",
+                "table", false, null, timeZone, properties);
+    }
+
+    private ClickHouseRowBinaryResultSet newBinaryResultSet() throws IOException {
+        return newBinaryResultSet(UTC, new ClickHouseProperties());
+    }
+
+    private ClickHouseRowBinaryResultSet newBinaryResultSet(TimeZone timeZone, ClickHouseProperties properties)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, NAMES.length);
+        for (String name : NAMES) {
+            BinaryStreamUtils.writeString(out, name);
+        }
+        for (String type : TYPES) {
+            BinaryStreamUtils.writeString(out, type);
+        }
+
+        BinaryStreamUtils.writeInt32(out, 1);
+        BinaryStreamUtils.writeUnsignedInt64(out, new BigInteger("18446744073709551615"));
+        BinaryStreamUtils.writeNull(out);
+        BinaryStreamUtils.writeFloat64(out, 1.5D);
+        BinaryStreamUtils.writeDecimal(out, new BigDecimal("12.30"), 10, 2);
+        BinaryStreamUtils.writeString(out, "a\tb\\c");
+        BinaryStreamUtils.writeDateTime32(out, LocalDateTime.of(2021, 1, 2, 3, 4, 5), UTC);
+        BinaryStreamUtils.writeFloat64(out, Double.NaN);
+        BinaryStreamUtils.writeFloat32(out, Float.POSITIVE_INFINITY);
+        BinaryStreamUtils.writeDateTime64(out, LocalDateTime.of(2021, 1, 2, 3, 4, 5, 120000000), 3, UTC);
+        BinaryStreamUtils.writeVarInt(out, 3);
+        BinaryStreamUtils.writeInt32(out, 1);
+        BinaryStreamUtils.writeInt32(out, 2);
+        BinaryStreamUtils.writeInt32(out, 3);
+
+        BinaryStreamUtils.writeInt32(out, -2);
+        BinaryStreamUtils.writeUnsignedInt64(out, 0L);
+        BinaryStreamUtils.writeNonNull(out);
+        BinaryStreamUtils.writeInt32(out, 3);
+        BinaryStreamUtils.writeFloat64(out, -0.25D);
+        BinaryStreamUtils.writeDecimal(out, new BigDecimal("-0.01"), 10, 2);
+        BinaryStreamUtils.writeString(out, "");
+        BinaryStreamUtils.writeDateTime32(out, LocalDateTime.of(1970, 1, 1, 0, 0, 0), UTC);
+        BinaryStreamUtils.writeFloat64(out, Double.NEGATIVE_INFINITY);
+        BinaryStreamUtils.writeFloat32(out, 0.5F);
+        BinaryStreamUtils.writeDateTime64(out, LocalDateTime.of(1970, 1, 1, 0, 0, 0), 3, UTC);
+        BinaryStreamUtils.writeVarInt(out, 0);
+
+        return new ClickHouseRowBinaryResultSet(new ByteArrayInputStream(out.toByteArray()), 1024, "db", "table",
+                null, timeZone, properties);
+    }
+
+    @Test(groups = "unit")
+    public void testSameAsTextResultSet() throws IOException, SQLException {
+        try (ClickHouseResultSet expected = newTextResultSet(); ClickHouseResultSet actual = newBinaryResultSet()) {
+            Assert.assertEquals(actual.getColumnNames(), expected.getColumnNames());
+            Assert.assertEquals(actual.getMetaData().getColumnCount(), NAMES.length);
+            Assert.assertEquals(actual.getMetaData().getColumnType(2), Types.BIGINT);
+            Assert.assertTrue(actual.isBeforeFirst());
+
+            while (expected.next()) {
+                Assert.assertTrue(actual.next());
+                Assert.assertEquals(actual.getRow(), expected.getRow());
+                for (int i = 1; i <= NAMES.length; i++) {
+                    Assert.assertEquals(actual.getString(i), expected.getString(i), NAMES[i - 1]);
+                    Assert.assertEquals(actual.wasNull(), expected.wasNull(), NAMES[i - 1]);
+                    if (i < NAMES.length) {
+                        Assert.assertEquals(actual.getObject(i), expected.getObject(i), NAMES[i - 1]);
+                    }
+                }
+
+                Assert.assertEquals(actual.getInt("i"), expected.getInt("i"));
+                Assert.assertEquals(actual.getLong("i"), expected.getLong("i"));
+                Assert.assertEquals(actual.getShort("i"), expected.getShort("i"));
+                Assert.assertEquals(actual.getBoolean("i"), expected.getBoolean("i"));
+                Assert.assertEquals(actual.getDouble("i"), expected.getDouble("i"));
+                Assert.assertEquals(actual.getBigDecimal("i"), expected.getBigDecimal("i"));
+                Assert.assertEquals(actual.getInt("n"), expected.getInt("n"));
+                Assert.assertEquals(actual.wasNull(), expected.wasNull());
+                Assert.assertEquals(actual.getObject("n", Integer.class), expected.getObject("n", Integer.class));
+                Assert.assertEquals(actual.getBigInteger("u"), expected.getBigInteger("u"));
+                Assert.assertEquals(actual.getFloat("f"), expected.getFloat("f"));
+                Assert.assertEquals(actual.getBigDecimal("d"), expected.getBigDecimal("d"));
+                Assert.assertEquals(actual.getBigDecimal("d", 1), expected.getBigDecimal("d", 1));
+                Assert.assertEquals(actual.getBytes("s"), expected.getBytes("s"));
+                Assert.assertEquals(actual.getTimestamp("dt"), expected.getTimestamp("dt"));
+                Assert.assertEquals(actual.getDate("dt"), expected.getDate("dt"));
+                Assert.assertEquals(actual.getDouble("x"), expected.getDouble("x"));
+                Assert.assertEquals(actual.getFloat("g"), expected.getFloat("g"));
+                Assert.assertEquals(actual.getTimestamp("t"), expected.getTimestamp("t"));
+                Assert.assertEquals(actual.getArray("a").getArray(), expected.getArray("a").getArray());
+            }
+
+            Assert.assertFalse(actual.next());
+            Assert.assertTrue(actual.isAfterLast());
+            Assert.assertTrue(actual.isClosed());
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testClientTimeZone() throws IOException, SQLException {
+        TimeZone tz = TimeZone.getTimeZone("Asia/Shanghai");
+        ClickHouseProperties properties = new ClickHouseProperties();
+        properties.setUseServerTimeZone(false);
+        properties.setUseTimeZone(tz.getID());
+        try (ClickHouseResultSet expected = newTextResultSet(tz, properties);
+                ClickHouseResultSet actual = newBinaryResultSet(tz, properties)) {
+            Assert.assertTrue(expected.next());
+            Assert.assertTrue(actual.next());
+            Assert.assertEquals(actual.getTimestamp("dt"), expected.getTimestamp("dt"));
+            Assert.assertEquals(actual.getDate("dt"), expected.getDate("dt"));
+            Assert.assertEquals(actual.getTime("dt"), expected.getTime("dt"));
+            Assert.assertEquals(actual.getTimestamp("t"), expected.getTimestamp("t"));
+            Assert.assertEquals(actual.getObject("t", Timestamp.class), expected.getObject("t", Timestamp.class));
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testMaxRows() throws IOException, SQLException {
+        try (ClickHouseResultSet rs = newBinaryResultSet()) {
+            rs.setMaxRows(1);
+            Assert.assertTrue(rs.next());
+            Assert.assertEquals(rs.getInt(1), 1);
+            Assert.assertTrue(rs.isLast());
+            Assert.assertFalse(rs.next());
+            Assert.assertTrue(rs.isClosed());
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testNullOnly() throws IOException, SQLException {
+        // SELECT NULL
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, 1);
+        BinaryStreamUtils.writeString(out, "NULL");
+        BinaryStreamUtils.writeString(out, "Nullable(Nothing)");
+        BinaryStreamUtils.writeNull(out);
+        try (ClickHouseResultSet rs = new ClickHouseRowBinaryResultSet(new ByteArrayInputStream(out.toByteArray()),
+                1024, "db", "table", null, UTC, new ClickHouseProperties())) {
+            Assert.assertTrue(rs.next());
+            Assert.assertNull(rs.getString(1));
+            Assert.assertTrue(rs.wasNull());
+            Assert.assertNull(rs.getObject(1));
+            Assert.assertFalse(rs.next());
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testEmptyResult() throws IOException, SQLException {
+        try (ClickHouseResultSet rs = new ClickHouseRowBinaryResultSet(new ByteArrayInputStream(new byte[0]), 1024,
+                "db", "table", null, UTC, new ClickHouseProperties())) {
+            Assert.assertEquals(rs.getMetaData().getColumnCount(), 0);
+            Assert.assertFalse(rs.next());
+            Assert.assertTrue(rs.isClosed());
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testDateTimeString() {
+        LocalDateTime dt = LocalDateTime.of(2021, 1, 2, 3, 4, 5, 123456789);
+        Assert.assertEquals(ClickHouseRowBinaryResultSet.toDateTimeString(dt, 0), "2021-01-02 03:04:05");
+        Assert.assertEquals(ClickHouseRowBinaryResultSet.toDateTimeString(dt, 3), "2021-01-02 03:04:05.123");
+        Assert.assertEquals(ClickHouseRowBinaryResultSet.toDateTimeString(dt, 9), "2021-01-02 03:04:05.123456789");
+        Assert.assertEquals(ClickHouseRowBinaryResultSet.toDateTimeString(dt.withNano(0), 6),
+                "2021-01-02 03:04:05.000000");
+    }
+}